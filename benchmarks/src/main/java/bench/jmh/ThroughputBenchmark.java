@@ -0,0 +1,207 @@
+package bench.jmh;
+
+import bench.ProgramGenerator;
+import lexical.*;
+import syntax.*;
+import models.*;
+import semantic.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Débit du lexer, du parser, de l'affichage et du parcours de l'AST (arbre d'objets et
+// FlatAst) et de la chaîne complète, mesuré par JMH sur des programmes générés
+// (ProgramGenerator, graine fixe) de 1 Kio à 100 Mio.
+// Les compteurs auxiliaires donnent les tokens/s et les octets/s ; les octets alloués par
+// opération s'obtiennent avec le profileur GC (gc.alloc.rate.norm) :
+//   java -jar benchmarks/target/benchmarks.jar ThroughputBenchmark -p size=1K,1M -prof gc
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class ThroughputBenchmark {
+    @Param({"1K", "100K", "1M", "10M", "100M"})
+    public String size;
+
+    @Param({"42"})
+    public long seed;
+
+    private String text;
+    private String keywords;
+    private int keywordTokens;
+    private TokenBuffer tokens;
+    private ASTNode ast;
+    private FlatAst flat;
+    private long printed;
+
+    // Tokens et octets traités : JMH les rapporte par seconde, comme les opérations
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Processed {
+        public long tokens;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void generate() {
+        text = ProgramGenerator.generate(seed, bench.Benchmark.parseSize(size));
+        tokens = new Lexer(text).tokenizeToBuffer();
+        Parser parser = new Parser(tokens);
+        parser.setEchoErrors(false);
+        ast = parser.parse();
+        // Un programme généré invalide fausserait les mesures du parser
+        if (ast == null || !parser.getErrors().isEmpty()) {
+            throw new IllegalStateException("Programme généré invalide (" + size + ") : " + parser.getErrors());
+        }
+        flat = FlatAst.of(ast);
+        printed = print(ast);
+        keywords = keywordHeavy(text.length());
+        keywordTokens = new Lexer(keywords).tokenizeToBuffer().size();
+    }
+
+    @Benchmark
+    public Object tokenize(Processed processed) {
+        count(processed, text.length());
+        return new Lexer(text).tokenize();
+    }
+
+    @Benchmark
+    public Object tokenizeToBuffer(Processed processed) {
+        count(processed, text.length());
+        return new Lexer(text).tokenizeToBuffer();
+    }
+
+    // Entrée faite surtout de mots-clés et d'identifiants proches (Lexer.keyword)
+    @Benchmark
+    public Object tokenizeKeywords(Processed processed) {
+        processed.tokens += keywordTokens;
+        processed.bytes += keywords.length();
+        return new Lexer(keywords).tokenizeToBuffer();
+    }
+
+    @Benchmark
+    public Object parse(Processed processed) {
+        count(processed, text.length());
+        Parser parser = new Parser(tokens);
+        parser.setEchoErrors(false);
+        return parser.parse();
+    }
+
+    // Octets comptés : les caractères affichés
+    @Benchmark
+    public long print(Processed processed) {
+        count(processed, printed);
+        return print(ast);
+    }
+
+    // Même affichage depuis la forme compacte (AstWriter.write(FlatAst))
+    @Benchmark
+    public long printFlat(Processed processed) {
+        count(processed, printed);
+        return print(flat);
+    }
+
+    // Compactage de l'arbre : avec -prof gc, gc.alloc.rate.norm donne les octets de la
+    // forme compacte (tableau et table des valeurs, copies d'agrandissement comprises)
+    @Benchmark
+    public Object flatten(Processed processed) {
+        count(processed, text.length());
+        return FlatAst.of(ast);
+    }
+
+    // Parcours complet en ordre préfixe, qui lit le type, la valeur et la ligne de chaque nœud
+    @Benchmark
+    public long walkTree(Processed processed) {
+        count(processed, text.length());
+        long sum = 0;
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(ast);
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.pop();
+            sum += node.kind.ordinal() + node.value.length() + node.line();
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                stack.push(node.children.get(i));
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long walkFlat(Processed processed) {
+        count(processed, text.length());
+        long[] sum = {0};
+        flat.walk(flat.root(), (tree, node, depth) ->
+            sum[0] += tree.kind(node).ordinal() + tree.value(node).length() + tree.line(node));
+        return sum[0];
+    }
+
+    @Benchmark
+    public Object pipeline(Processed processed) {
+        count(processed, text.length());
+        Parser parser = new Parser(new Lexer(text).tokenizeToBuffer());
+        parser.setEchoErrors(false);
+        return new SemanticAnalyzer().analyze(parser.parse());
+    }
+
+    // Mots-clés de chaque longueur, et identifiants qui n'en diffèrent que d'un caractère
+    private static String keywordHeavy(int length) {
+        String line = "public static void main String args int double boolean char final private "
+                    + "while if else return class System out print println pritected "
+                    + "publik statics voids mains integer doubles iff elsa retour classe\n";
+        StringBuilder out = new StringBuilder(length + line.length());
+        while (out.length() < length) {
+            out.append(line);
+        }
+        return out.toString();
+    }
+
+    private void count(Processed processed, long bytes) {
+        processed.tokens += tokens.size();
+        processed.bytes += bytes;
+    }
+
+    // Affichage de l'arbre vers une sortie qui ne fait que compter les caractères
+    private static long print(ASTNode ast) {
+        CountingOutput out = new CountingOutput();
+        AstWriter.dump(ast, out, AstWriter.Format.TREE);
+        return out.count;
+    }
+
+    private static long print(FlatAst ast) {
+        CountingOutput out = new CountingOutput();
+        AstWriter.dump(ast, out, AstWriter.Format.TREE);
+        return out.count;
+    }
+
+    private static final class CountingOutput implements Appendable {
+        long count;
+
+        @Override
+        public Appendable append(CharSequence text) {
+            count += text.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) {
+            count += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            count++;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package codegen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static support.Programs.*;
+
+// Longues chaînes d'opérateurs : émises sans récursion proportionnelle à leur longueur,
+// puis chargées et exécutées par la JVM avec l'ordre d'évaluation de javac, comme par
+// l'Interpreter
+class JvmCompilerTest {
+    @Test
+    void emitsLongFlatChains() throws Exception {
+        // Reste sous la limite de 64 Ko de bytecode par méthode
+        int terms = 4_000;
+        String chain = String.join(" + ", Collections.nCopies(terms, "y"));
+        String conditions = String.join(" && ", Collections.nCopies(terms / 4, "y < 2"));
+        String output = run("int y = 1;\n"
+                          + "int x = " + chain + ";\n"
+                          + "System.out.println(x);\n"
+                          + "double d = 0.5 + " + chain + ";\n"
+                          + "System.out.println(d);\n"
+                          + "String s = \"a\" + " + chain + ";\n"
+                          + "System.out.println(s);\n"
+                          + "if (" + conditions + ") {\n"
+                          + "System.out.println(1);\n"
+                          + "}\n");
+
+        String[] lines = output.split("\n");
+        assertEquals(String.valueOf(terms), lines[0]);
+        assertEquals(String.valueOf(terms + 0.5), lines[1]);
+        assertEquals("a" + "1".repeat(terms), lines[2]);
+        assertEquals("1", lines[3]);
+    }
+
+    @Test
+    void keepsJavaSemanticsInMixedChains() throws Exception {
+        // Même programme sur l'Interpreter et sur la JVM : les deux sorties doivent être celles de javac
+        String body = "int a = 7;\n"
+                    + "double d = 2.5;\n"
+                    + "System.out.println(a + a * 3 - a / 2 % 3 + a - 1);\n"
+                    + "System.out.println(a + a + d + a - d * 2 + a / 2);\n"
+                    + "System.out.println(1 + 2 + \"s\" + 1 + 2 + d + (a + a));\n"
+                    + "System.out.println(2147483647 + a + a - 3);\n"
+                    + "if (a > 3 && d < 3 || a == 0) {\n"
+                    + "System.out.println(1);\n"
+                    + "}\n"
+                    + "while (a < 9 && (d > 3 || a == 7)) {\n"
+                    + "a++;\n"
+                    + "}\n"
+                    + "System.out.println(a);\n";
+
+        String expected = "34\n21.5\n3s122.514\n-2147483638\n1\n8\n";
+        assertEquals(expected, interpret(parse(body)), "Interpreter");
+        assertEquals(expected, run(body), "JVM");
+    }
+
+    private static String run(String body) throws Exception {
+        return runOnJvm(parse(body));
+    }
+}
@@ -0,0 +1,149 @@
+package driver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compilation par lot dans un répertoire temporaire : résultats dans l'ordre des chemins
+// triés quel que soit l'ordre de fin des tâches, échecs (lecture impossible, débordement de
+// pile, exception) limités au résultat de leur fichier, et collect() sans doublons entre un
+// répertoire et les fichiers cités explicitement.
+class BatchCompilerTest {
+    private static final String VALID =
+        "public class T {\n    public static void main(String[] args) {\n        int x = 1;\n    }\n}\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void returnsResultsInSortedOrder() throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (char name = 'a'; name <= 'h'; name++) {
+            files.add(write(name + ".java", VALID));
+        }
+        List<Path> sorted = BatchCompiler.collect(List.of(directory));
+        assertEquals(files, sorted);
+
+        // Premiers fichiers triés les plus lents, puis durées tirées au hasard
+        for (long seed = 0; seed < 4; seed++) {
+            Map<Path, Integer> delays = new HashMap<>();
+            Random random = new Random(seed);
+            for (int i = 0; i < files.size(); i++) {
+                delays.put(files.get(i), seed == 0 ? 10 * (files.size() - i) : random.nextInt(40));
+            }
+            Queue<Path> finished = new ConcurrentLinkedQueue<>();
+            BatchCompiler compiler = new BatchCompiler(4, file -> {
+                try {
+                    Thread.sleep(delays.get(file));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                finished.add(file);
+                return BatchCompiler.compileFile(file);
+            });
+
+            List<BatchCompiler.Result> results = compiler.compile(sorted);
+            assertEquals(sorted, files(results));
+            assertEquals(new HashSet<>(sorted), new HashSet<>(finished));
+            if (seed == 0) {
+                assertNotEquals(sorted, new ArrayList<>(finished));
+            }
+            for (BatchCompiler.Result result : results) {
+                assertTrue(result.isOk(), result.file + " : " + result.failure + " " + result.errors);
+            }
+        }
+
+        // Compilation réelle : un gros fichier en tête du lot
+        write("0.java", "public class T {\n    public static void main(String[] args) {\n        int x = 0;\n"
+                      + "        x = x + 1;\n".repeat(50_000) + "    }\n}\n");
+        sorted = BatchCompiler.collect(List.of(directory));
+        List<BatchCompiler.Result> results = new BatchCompiler(4).compile(sorted);
+        assertEquals(sorted, files(results));
+        assertTrue(results.get(0).tokenCount > 50_000 * 6);
+        for (BatchCompiler.Result result : results) {
+            assertTrue(result.isOk(), result.file + " : " + result.failure + " " + result.errors);
+        }
+    }
+
+    @Test
+    void confinesFailuresToTheirOwnResult() throws Exception {
+        Path valid = write("a.java", VALID);
+        Path missing = directory.resolve("b.java");
+        Path folder = Files.createDirectory(directory.resolve("c.java"));
+        Path deep = write("d.java", VALID);
+        Path broken = write("e.java", VALID);
+        Path syntax = write("f.java", "public class T {\n    int x = ;\n}\n");
+        Path last = write("g.java", VALID);
+
+        BatchCompiler compiler = new BatchCompiler(3, file -> {
+            if (file.equals(deep)) {
+                throw new StackOverflowError();
+            }
+            if (file.equals(broken)) {
+                throw new IllegalStateException("panne");
+            }
+            return BatchCompiler.compileFile(file);
+        });
+        List<BatchCompiler.Result> results = compiler.compile(List.of(valid, missing, folder, deep, broken, syntax, last));
+
+        assertEquals(List.of(valid, missing, folder, deep, broken, syntax, last), files(results));
+        assertTrue(results.get(0).isOk());
+        assertTrue(results.get(1).failure.startsWith("lecture impossible: "), results.get(1).failure);
+        assertTrue(results.get(2).failure.startsWith("lecture impossible: "), results.get(2).failure);
+        assertEquals("erreur interne: java.lang.StackOverflowError", results.get(3).failure);
+        assertEquals("erreur interne: java.lang.IllegalStateException: panne", results.get(4).failure);
+        assertNull(results.get(5).failure);
+        assertFalse(results.get(5).errors.isEmpty());
+        assertTrue(results.get(6).isOk());
+        for (int i : new int[] {1, 2, 3, 4}) {
+            assertEquals(List.of(), results.get(i).errors);
+        }
+
+        // Les autres Error arrêtent tout le lot
+        BatchCompiler failing = new BatchCompiler(3, file -> {
+            throw new OutOfMemoryError("test");
+        });
+        assertThrows(OutOfMemoryError.class, () -> failing.compile(List.of(valid, last)));
+    }
+
+    @Test
+    void collectsEachFileOnce() throws Exception {
+        Path sub = Files.createDirectories(directory.resolve("src/sub"));
+        Path a = write("src/a.java", VALID);
+        Path b = write("src/sub/b.java", VALID);
+        write("src/sub/notes.txt", "pas du java");
+        Path outside = write("z.java", VALID);
+
+        List<Path> files = BatchCompiler.collect(List.of(
+            directory.resolve("src"),
+            b,
+            sub.resolve("../sub/b.java"),
+            directory.resolve("src/./a.java"),
+            outside,
+            outside));
+
+        assertEquals(List.of(a, b, outside), files);
+        // Un répertoire cité deux fois, ou contenu dans un autre, ne double rien non plus
+        assertEquals(List.of(a, b), BatchCompiler.collect(List.of(sub, directory.resolve("src"), sub)));
+    }
+
+    private Path write(String name, String text) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, text);
+        return file;
+    }
+
+    private static List<Path> files(List<BatchCompiler.Result> results) {
+        List<Path> files = new ArrayList<>();
+        for (BatchCompiler.Result result : results) {
+            files.add(result.file);
+        }
+        return files;
+    }
+}
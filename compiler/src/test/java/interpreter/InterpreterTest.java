@@ -0,0 +1,94 @@
+package interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static support.Programs.*;
+
+// Longues chaînes d'opérateurs et imbrications profondes : compilées et exécutées sans
+// récursion proportionnelle à leur longueur ou à leur profondeur, avec l'ordre
+// d'évaluation et les conversions de Java
+class InterpreterTest {
+    @Test
+    void runsLongFlatChains() {
+        int terms = 100_000;
+        String chain = String.join(" + ", java.util.Collections.nCopies(terms, "y"));
+        String output = run("int y = 1;\n"
+                          + "int x = " + chain + ";\n"
+                          + "System.out.println(x);\n"
+                          + "double d = 0.5 + " + chain + ";\n"
+                          + "System.out.println(d);\n"
+                          + "String s = \"a\" + " + chain + ";\n"
+                          + "System.out.println(s);\n");
+
+        String[] lines = output.split("\n");
+        assertEquals(String.valueOf(terms), lines[0]);
+        assertEquals(String.valueOf(terms + 0.5), lines[1]);
+        assertEquals("a" + "1".repeat(terms), lines[2]);
+    }
+
+    @Test
+    void runsDeeplyNestedStatements() {
+        int depth = 20_000;
+        StringBuilder body = new StringBuilder("int i = 0;\nint n = 0;\n");
+        for (int level = 0; level < depth; level++) {
+            body.append("while (i < 1) {\n");
+        }
+        body.append("n++;\ni++;\n");
+        body.append("}\n".repeat(depth));
+        for (int level = 0; level < depth; level++) {
+            body.append("if (n == 1) {\n");
+        }
+        body.append("n = 2;\n");
+        for (int level = 0; level < depth; level++) {
+            body.append("} else {\nn = 3;\n}\n");
+        }
+        body.append("System.out.println(n);\n");
+
+        assertEquals("2\n", run(body.toString()));
+    }
+
+    @Test
+    void runsDeeplyNestedExpressions() {
+        int depth = 20_000;
+        String product = "i * (".repeat(depth) + "i" + ")".repeat(depth);
+        String sum = "(".repeat(depth) + "1" + " + d)".repeat(depth);
+        String condition = "(i > 0 && ".repeat(depth) + "i < 2" + ")".repeat(depth);
+        String output = run("int i = 1;\n"
+                          + "double d = 0.5;\n"
+                          + "System.out.println(" + product + ");\n"
+                          + "System.out.println(" + sum + ");\n"
+                          + "if (" + condition + ") {\n"
+                          + "System.out.println(\"s\" + (" + product + "));\n"
+                          + "}\n");
+
+        assertEquals("1\n" + (1 + depth * 0.5) + "\ns1\n", output);
+    }
+
+    @Test
+    void reportsErrorsOnItsOwnStream() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console, true, StandardCharsets.UTF_8));
+        try {
+            Interpreter interpreter = new Interpreter(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+            assertFalse(interpreter.run(parse("int x = 0;\nSystem.out.println(1 / x);\n")));
+            assertFalse(interpreter.run(parse("y = 1;\n")));
+        } finally {
+            System.setOut(stdout);
+        }
+
+        String output = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(output.contains("/ by zero"), output);
+        assertTrue(output.contains("Variable non déclarée: y"), output);
+        assertEquals("", console.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String run(String body) {
+        return interpret(parse(body));
+    }
+}
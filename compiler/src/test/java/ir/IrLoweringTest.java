@@ -0,0 +1,47 @@
+package ir;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static support.Programs.*;
+
+// Longues chaînes d'opérateurs : traduites sans récursion proportionnelle à leur
+// longueur, une instruction par opérateur dans l'ordre d'évaluation de Java
+class IrLoweringTest {
+    @Test
+    void lowersLongFlatChains() {
+        int terms = 100_000;
+        String chain = String.join(" + ", Collections.nCopies(terms, "y"));
+        String conditions = String.join(" && ", Collections.nCopies(terms, "y < 2"));
+        String dump = lower("int y = 1;\n"
+                          + "int x = " + chain + ";\n"
+                          + "String s = \"a\" + " + chain + ";\n"
+                          + "while (" + conditions + ") {\n"
+                          + "y = 2;\n"
+                          + "}\n");
+
+        assertEquals(terms - 1, count(dump, " = add "));
+        assertEquals(terms, count(dump, " = concat "));
+        assertEquals(terms, count(dump, " = lt "));
+        // Opérandes de gauche à droite : chaque add réutilise le résultat du précédent
+        assertTrue(dump.contains("r2 = add r1, r1"), dump.substring(0, 200));
+        assertTrue(dump.contains("r3 = add r2, r1"), dump.substring(0, 200));
+    }
+
+    private static String lower(String body) {
+        IrLowering lowering = new IrLowering();
+        IrProgram ir = lowering.lower(parse(body));
+        assertEquals(List.of(), lowering.getErrors());
+        return ir.dump();
+    }
+
+    private static int count(String text, String pattern) {
+        int count = 0;
+        for (int at = text.indexOf(pattern); at >= 0; at = text.indexOf(pattern, at + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,204 @@
+package lexical;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import models.*;
+import semantic.*;
+import syntax.Parser;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lexer incrémental contre analyse complète : après chaque édition, le flux de tokens
+// (type, valeur, position, ligne, colonne) doit être celui de Lexer.tokenize() sur le
+// texte modifié. Les éditions ouvrent ou ferment des commentaires /* */, coupent ou
+// joignent des chaînes ; les tokens hors de la plage annoncée par TokenChange doivent
+// être les anciens, décalés de la longueur de l'édition et de lineDelta lignes. Une
+// session avec son propre pool n'ajoute rien à SymbolPool.GLOBAL.
+class IncrementalLexerTest {
+    private static final String PROGRAM =
+        "class A {\n"
+      + "    public static void main(String[] args) {\n"
+      + "        String s = \"un\" + \"deux\";\n"
+      + "        int x = 1; // fin\n"
+      + "        /* bloc */ int y = 2;\n"
+      + "        while (x < 3) {\n"
+      + "            x++;\n"
+      + "        }\n"
+      + "        System.out.println(s + \"trois quatre\");\n"
+      + "    }\n"
+      + "}\n";
+
+    private static final String[] FRAGMENTS = {
+        "/*", "*/", "/* c */", "\"", "\"s\"", "\" + \"", "//", "\n", "\\\"", "\\", "*", "/",
+        "int x = 1;\n", "x++;", "{", "}", "(", ")", " ", "12", "3.5", "é", "y"
+    };
+
+    @Test
+    void opensAndClosesBlockComments() {
+        IncrementalLexer lexer = new IncrementalLexer(PROGRAM);
+        int open = PROGRAM.indexOf("int x");
+
+        // /* devant int x : commentaire jusqu'au */ de /* bloc */
+        edit(lexer, open, 0, "/*");
+        assertFalse(values(lexer).contains("1"), values(lexer).toString());
+        assertTrue(values(lexer).contains("2"), values(lexer).toString());
+        // */ supprimé : le commentaire court jusqu'à la fin du texte
+        edit(lexer, lexer.text().indexOf("*/"), 2, "");
+        assertFalse(values(lexer).contains("2"), values(lexer).toString());
+        // puis refermé en fin de texte
+        edit(lexer, lexer.text().length(), 0, "*/ int z;");
+        assertTrue(values(lexer).contains("z"), values(lexer).toString());
+        // /* retiré : int x redevient du code, le commentaire part maintenant de /* bloc
+        edit(lexer, open, 2, "");
+        assertTrue(values(lexer).containsAll(List.of("1", "z")), values(lexer).toString());
+        assertFalse(values(lexer).contains("2"), values(lexer).toString());
+    }
+
+    @Test
+    void splitsAndJoinsStrings() {
+        IncrementalLexer lexer = new IncrementalLexer(PROGRAM);
+
+        // "un" + "deux" devient "undeux"
+        edit(lexer, PROGRAM.indexOf("\" + \""), 5, "");
+        assertTrue(values(lexer).contains("undeux"), values(lexer).toString());
+        // "trois quatre" coupé en "trois" " quatre"
+        int split = lexer.text().indexOf(" quatre");
+        edit(lexer, split, 0, "\" + \"");
+        assertTrue(values(lexer).containsAll(List.of("trois", " quatre")), values(lexer).toString());
+        // Guillemet ouvrant supprimé : les guillemets suivants changent de rôle, et la
+        // dernière chaîne reste ouverte jusqu'à la fin du texte
+        edit(lexer, lexer.text().indexOf("\"trois\""), 1, "");
+        assertTrue(values(lexer).containsAll(List.of("trois", " + ", "quatre")), values(lexer).toString());
+        assertEquals(Token.TokenType.STRING_LITERAL, lexer.type(lexer.size() - 2));
+        // Chaîne ouverte en tête de texte, puis refermée
+        edit(lexer, 0, 0, "\"");
+        edit(lexer, 1, 0, "\"");
+        assertEquals("", lexer.value(0));
+    }
+
+    @Test
+    void keepsSessionIdentifiersOutOfTheGlobalPool() {
+        SymbolPool pool = new SymbolPool();
+        int globalSize = SymbolPool.GLOBAL.size();
+        IncrementalLexer lexer = new IncrementalLexer(PROGRAM, pool);
+
+        // Identifiant tapé lettre par lettre : chaque préfixe passe par le lexer
+        String name = "compteurDeSession";
+        int offset = lexer.text().indexOf("x++;");
+        for (int i = 0; i < name.length(); i++) {
+            edit(lexer, offset + i, 0, name.substring(i, i + 1));
+        }
+        edit(lexer, offset + name.length(), 0, " = 1;\n");
+        for (int i = 0; i < lexer.size(); i++) {
+            lexer.value(i);
+            lexer.get(i).symbol();
+        }
+        assertEquals(globalSize, SymbolPool.GLOBAL.size());
+        assertTrue(pool.size() >= name.length(), "pool : " + pool.size());
+        int symbol = pool.intern(name);
+        assertEquals(name, pool.name(symbol));
+
+        // Tokens du lexer complet, compact ou en flux, rangés dans le même pool
+        TokenBuffer buffer = new Lexer(lexer.text(), pool).tokenizeToBuffer();
+        assertSame(pool, buffer.pool());
+        List<Token> tokens = new Lexer(lexer.text(), pool).tokenize();
+        for (int i = 0; i < lexer.size(); i++) {
+            assertEquals(lexer.symbol(i), buffer.symbol(i));
+            assertEquals(lexer.symbol(i), tokens.get(i).symbol());
+            assertEquals(lexer.value(i), buffer.value(i));
+            assertEquals(lexer.value(i), tokens.get(i).value());
+        }
+
+        // Analyse de la session avec le même pool
+        Parser parser = new Parser(lexer);
+        ASTNode program = parser.parse();
+        assertEquals(List.of(), parser.getErrors());
+        SemanticAnalyzer analyzer = new SemanticAnalyzer(lexer.pool());
+        analyzer.analyze(program);
+        assertEquals(List.of("Variable non déclarée: compteurDeSession à la ligne 7"), analyzer.getErrors());
+        assertEquals(globalSize, SymbolPool.GLOBAL.size());
+    }
+
+    @ParameterizedTest(name = "graine {0}")
+    @ValueSource(longs = {1, 2, 3, 4, 5, 6, 7, 8})
+    void matchesFullTokenizeAfterRandomEdits(long seed) {
+        Random random = new Random(seed);
+        for (int round = 0; round < 40; round++) {
+            IncrementalLexer lexer = new IncrementalLexer(round % 2 == 0 ? PROGRAM : randomText(random));
+            for (int step = 0; step < 30; step++) {
+                String text = lexer.text();
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(6, text.length() - offset) + 1);
+                String inserted = random.nextInt(4) == 0 ? "" : FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                edit(lexer, offset, removed, inserted);
+            }
+        }
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        return text.toString();
+    }
+
+    // Édition puis comparaison avec une analyse complète et avec le flux d'avant l'édition
+    private static void edit(IncrementalLexer lexer, int offset, int removed, String inserted) {
+        List<String> before = tokens(lexer);
+        List<Token> beforeTokens = snapshot(lexer);
+        TokenChange change = lexer.edit(offset, removed, inserted);
+
+        String text = lexer.text();
+        String where = "édition " + offset + "+" + removed + " '" + inserted + "' :\n" + text;
+        List<String> after = tokens(lexer);
+        assertEquals(describe(new Lexer(text, lexer.pool()).tokenize()), after, where);
+
+        // Avant la plage : inchangés ; après : décalés de l'édition
+        int delta = inserted.length() - removed;
+        assertEquals(before.subList(0, change.start), after.subList(0, change.start), where);
+        assertEquals(before.size() - change.oldEnd, after.size() - change.newEnd, where);
+        for (int i = change.oldEnd; i < beforeTokens.size(); i++) {
+            Token old = beforeTokens.get(i);
+            int index = i - change.oldEnd + change.newEnd;
+            assertEquals(old.type, lexer.type(index), where);
+            assertEquals(old.start + delta, lexer.start(index), where);
+            assertEquals(old.end + delta, lexer.end(index), where);
+            assertEquals(old.line + change.lineDelta, lexer.line(index), where);
+            assertEquals(old.column, lexer.column(index), where);
+        }
+    }
+
+    private static List<Token> snapshot(IncrementalLexer lexer) {
+        List<Token> tokens = new ArrayList<>();
+        for (int i = 0; i < lexer.size(); i++) {
+            tokens.add(lexer.get(i));
+        }
+        return tokens;
+    }
+
+    private static List<String> tokens(IncrementalLexer lexer) {
+        return describe(snapshot(lexer));
+    }
+
+    private static List<String> values(IncrementalLexer lexer) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < lexer.size(); i++) {
+            values.add(lexer.value(i));
+        }
+        return values;
+    }
+
+    private static List<String> describe(List<Token> tokens) {
+        List<String> described = new ArrayList<>();
+        for (Token token : tokens) {
+            described.add(token.type + " '" + token.value() + "' " + token.start + "-" + token.end
+                          + " @" + token.line + ":" + token.column);
+        }
+        return described;
+    }
+}
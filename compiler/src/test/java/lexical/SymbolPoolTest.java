@@ -0,0 +1,116 @@
+package lexical;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Internement concurrent : plusieurs threads internent les mêmes noms dans des ordres
+// différents, par intern(String) et par intern(Source, start, end), pendant que la table
+// grandit bien au-delà de sa taille initiale. Chaque nom doit recevoir un seul identifiant,
+// les identifiants rester denses, et les lectures sans verrou (intern d'un nom connu,
+// name, size) ne jamais voir une table à moitié remplie.
+class SymbolPoolTest {
+    private static final int NAMES = 20_000;       // table initiale : 512 noms, donc plusieurs grow()
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+
+    @Test
+    void internsEachNameOnceAcrossThreads() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            SymbolPool pool = new SymbolPool();
+            String[] names = new String[NAMES];
+            StringBuilder text = new StringBuilder();
+            int[] starts = new int[NAMES];
+            for (int i = 0; i < NAMES; i++) {
+                names[i] = "n" + Integer.toString(i * 7919 + round, 36);
+                starts[i] = text.length();
+                text.append(names[i]).append(' ');
+            }
+            Source source = Source.of(text.toString());
+
+            // Identifiant vu par chaque écrivain, et identifiants publiés pour les lecteurs (+ 1, 0 : pas encore)
+            int[][] seen = new int[WRITERS][NAMES];
+            AtomicIntegerArray published = new AtomicIntegerArray(NAMES);
+            CyclicBarrier start = new CyclicBarrier(WRITERS + READERS);
+            CountDownLatch writersDone = new CountDownLatch(WRITERS);
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                tasks.add(() -> {
+                    // Ordres différents, qui se recouvrent : chaque écrivain part d'un autre point
+                    List<Integer> order = new ArrayList<>();
+                    for (int i = 0; i < NAMES; i++) {
+                        order.add((i + writer * NAMES / WRITERS) % NAMES);
+                    }
+                    if (writer % 4 == 3) {
+                        Collections.shuffle(order, new Random(writer));
+                    }
+                    start.await();
+                    try {
+                        for (int i : order) {
+                            int symbol = writer % 2 == 0
+                                ? pool.intern(names[i])
+                                : pool.intern(source, starts[i], starts[i] + names[i].length());
+                            seen[writer][i] = symbol;
+                            published.set(i, symbol + 1);
+                        }
+                    } finally {
+                        writersDone.countDown();
+                    }
+                    return null;
+                });
+            }
+            for (int r = 0; r < READERS; r++) {
+                long seed = r;
+                tasks.add(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    int lastSize = 0;
+                    while (writersDone.getCount() > 0) {
+                        int size = pool.size();
+                        assertTrue(size >= lastSize, "size a diminué");
+                        lastSize = size;
+                        if (size > 0) {
+                            // Tout identifiant compté par size a son nom
+                            assertNotNull(pool.name(random.nextInt(size)));
+                            assertNotNull(pool.name(size - 1));
+                        }
+                        int i = random.nextInt(NAMES);
+                        int symbol = published.get(i) - 1;
+                        if (symbol >= 0) {
+                            assertEquals(symbol, pool.intern(names[i]), names[i]);
+                            assertEquals(names[i], pool.name(symbol));
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+            try {
+                for (Future<Void> future : executor.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(NAMES, pool.size());
+            boolean[] used = new boolean[NAMES];
+            for (int i = 0; i < NAMES; i++) {
+                int symbol = seen[0][i];
+                for (int writer = 1; writer < WRITERS; writer++) {
+                    assertEquals(symbol, seen[writer][i], names[i]);
+                }
+                assertFalse(used[symbol], "identifiant " + symbol + " donné à deux noms");
+                used[symbol] = true;
+                assertEquals(names[i], pool.name(symbol));
+                assertEquals(symbol, pool.intern(names[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package lexical;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Octets UTF-8 (chemin de Main, fichier projeté ou lu d'un bloc) contre String : le même
+// texte doit donner les mêmes tokens (type, valeur, ligne, colonne), y compris quand des
+// espaces, ponctuations ou lettres non ASCII touchent des identifiants.
+class Utf8SourceTest {
+    private static final String[] SAMPLES = {
+        "int x = 1;",                               // espace insécable : ni espace ni lettre
+        "String s = «texte»;",                      // guillemets français
+        "x = a—b;\ny = c€;",                        // tiret cadratin, euro
+        "int café = 3; café++;",                    // lettre accentuée, espace cadratin
+        "double π = 3.14;\nint ١٢ = 2;",            // lettre grecque, chiffres arabes
+        "int 𝒜 = 1; 😀",                             // lettre et symbole hors du BMP
+        "System.out.println(\"été — €\");\n/* « */ x　y",
+    };
+
+    @Test
+    void lexesUtf8BytesLikeTheString() {
+        for (String sample : SAMPLES) {
+            assertEquals(describe(new Lexer(sample).tokenize()), describe(utf8(sample).tokenize()), sample);
+        }
+    }
+
+    @Test
+    void keepsNonAsciiPunctuationOutOfIdentifiers() {
+        List<Token> tokens = utf8("a b«c€d").tokenize();
+
+        List<String> identifiers = new ArrayList<>();
+        for (Token token : tokens) {
+            if (token.type == Token.TokenType.IDENTIFIER) {
+                identifiers.add(token.value());
+            }
+        }
+        assertEquals(List.of("a", "b", "c", "d"), identifiers);
+        assertEquals(8, tokens.size());
+    }
+
+    @Test
+    void rejectsMalformedSequencesOneByteAtATime() {
+        // Continuation isolée, tête tronquée, forme trop longue de '/', substitut encodé
+        byte[] bytes = {'a', (byte) 0x80, 'b', ' ', (byte) 0xE2, (byte) 0x82, ' ',
+                        (byte) 0xC0, (byte) 0xAF, ' ', (byte) 0xED, (byte) 0xA0, (byte) 0x80};
+        Lexer lexer = new Lexer(new Utf8Source(ByteBuffer.wrap(bytes)));
+
+        List<Token.TokenType> types = new ArrayList<>();
+        for (Token token : lexer.tokenize()) {
+            types.add(token.type);
+        }
+        Token.TokenType id = Token.TokenType.IDENTIFIER;
+        Token.TokenType error = Token.TokenType.ERROR;
+        assertEquals(List.of(id, error, id, error, error, error, error, error, error, error,
+                             Token.TokenType.EOF), types);
+    }
+
+    private static Lexer utf8(String text) {
+        return new Lexer(new Utf8Source(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static List<String> describe(List<Token> tokens) {
+        List<String> described = new ArrayList<>();
+        for (Token token : tokens) {
+            described.add(token.type + " '" + token.value() + "' @" + token.line + ":" + token.column);
+        }
+        return described;
+    }
+}
@@ -0,0 +1,111 @@
+package models;
+
+import bench.ProgramGenerator;
+import lexical.*;
+import syntax.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// L'arbre d'objets et sa forme compacte (FlatAst) doivent s'écrire à l'identique,
+// dans les trois formats, y compris les lignes des instructions imbriquées ; le texte
+// JSON et DOT d'un petit programme est comparé caractère par caractère, avec une chaîne
+// contenant " et \ à échapper.
+class AstWriterTest {
+    @ParameterizedTest
+    @EnumSource(AstWriter.Format.class)
+    void flatAstWritesLikeTheTree(AstWriter.Format format) {
+        Parser parser = new Parser(new Lexer(ProgramGenerator.generate(7, 200_000)).tokenizeToBuffer());
+        parser.setEchoErrors(false);
+        ASTNode ast = parser.parse();
+        assertEquals(java.util.List.of(), parser.getErrors());
+
+        StringBuilder tree = new StringBuilder();
+        AstWriter.dump(ast, tree, format);
+        StringBuilder flat = new StringBuilder();
+        AstWriter.dump(FlatAst.of(ast), flat, format);
+
+        assertEquals(tree.toString(), flat.toString());
+    }
+
+    private static final String PROGRAM =
+        "public class T {\n"
+      + "    public static void main(String[] args) {\n"
+      + "        String s = \"a\\\"b\\\\c\";\n"
+      + "        System.out.println(s + 1);\n"
+      + "    }\n"
+      + "}\n";
+
+    @Test
+    void writesExactJson() {
+        assertEquals("{\"type\":\"PROGRAM\",\"children\":["
+                   + "{\"type\":\"CLASS\",\"value\":\"T\",\"line\":1,\"children\":["
+                   + "{\"type\":\"MODIFIER\",\"value\":\"public\",\"line\":1},"
+                   + "{\"type\":\"METHOD\",\"value\":\"main\",\"line\":2,\"children\":["
+                   + "{\"type\":\"RETURN_TYPE\",\"value\":\"void\",\"line\":2},"
+                   + "{\"type\":\"MODIFIER\",\"value\":\"public\",\"line\":2},"
+                   + "{\"type\":\"MODIFIER\",\"value\":\"static\",\"line\":2},"
+                   + "{\"type\":\"DECLARATION\",\"value\":\"String s\",\"line\":3,\"children\":["
+                   + "{\"type\":\"STRING_LITERAL\",\"value\":\"a\\\"b\\\\c\"}]},"
+                   + "{\"type\":\"METHOD_CALL\",\"value\":\"System.out.println\",\"line\":4,\"children\":["
+                   + "{\"type\":\"ARGUMENT\",\"children\":["
+                   + "{\"type\":\"BINARY_OP\",\"value\":\"+\",\"children\":["
+                   + "{\"type\":\"IDENTIFIER\",\"value\":\"s\"},"
+                   + "{\"type\":\"NUMBER\",\"value\":\"1\"}]}]}]}]}]}]}\n",
+                     write(AstWriter.Format.JSON));
+    }
+
+    @Test
+    void writesExactDot() {
+        assertEquals("digraph AST {\n"
+                   + "  node [shape=box];\n"
+                   + "  n0 [label=\"PROGRAM\"];\n"
+                   + "  n1 [label=\"CLASS\\nT\"];\n"
+                   + "  n0 -> n1;\n"
+                   + "  n2 [label=\"MODIFIER\\npublic\"];\n"
+                   + "  n1 -> n2;\n"
+                   + "  n3 [label=\"METHOD\\nmain\"];\n"
+                   + "  n1 -> n3;\n"
+                   + "  n4 [label=\"RETURN_TYPE\\nvoid\"];\n"
+                   + "  n3 -> n4;\n"
+                   + "  n5 [label=\"MODIFIER\\npublic\"];\n"
+                   + "  n3 -> n5;\n"
+                   + "  n6 [label=\"MODIFIER\\nstatic\"];\n"
+                   + "  n3 -> n6;\n"
+                   + "  n7 [label=\"DECLARATION\\nString s\"];\n"
+                   + "  n3 -> n7;\n"
+                   + "  n8 [label=\"STRING_LITERAL\\na\\\"b\\\\c\"];\n"
+                   + "  n7 -> n8;\n"
+                   + "  n9 [label=\"METHOD_CALL\\nSystem.out.println\"];\n"
+                   + "  n3 -> n9;\n"
+                   + "  n10 [label=\"ARGUMENT\"];\n"
+                   + "  n9 -> n10;\n"
+                   + "  n11 [label=\"BINARY_OP\\n+\"];\n"
+                   + "  n10 -> n11;\n"
+                   + "  n12 [label=\"IDENTIFIER\\ns\"];\n"
+                   + "  n11 -> n12;\n"
+                   + "  n13 [label=\"NUMBER\\n1\"];\n"
+                   + "  n11 -> n13;\n"
+                   + "}\n",
+                     write(AstWriter.Format.DOT));
+    }
+
+    // Texte écrit pour PROGRAM, le même depuis l'arbre d'objets et depuis FlatAst
+    private static String write(AstWriter.Format format) {
+        Parser parser = new Parser(new Lexer(PROGRAM).tokenizeToBuffer());
+        parser.setEchoErrors(false);
+        ASTNode ast = parser.parse();
+        assertEquals(java.util.List.of(), parser.getErrors());
+        assertEquals("a\"b\\c", ast.children.get(0).children.get(1).children.get(3).children.get(0).value);
+
+        StringBuilder tree = new StringBuilder();
+        AstWriter.dump(ast, tree, format);
+        StringBuilder flat = new StringBuilder();
+        AstWriter.dump(FlatAst.of(ast), flat, format);
+        assertEquals(tree.toString(), flat.toString());
+        return tree.toString();
+    }
+}
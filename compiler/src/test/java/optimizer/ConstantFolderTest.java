@@ -0,0 +1,185 @@
+package optimizer;
+
+import models.*;
+import interpreter.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static support.Programs.*;
+
+// Simplification contre exécution sans simplification : chaque programme est exécuté par
+// l'Interpreter avant et après ConstantFolder.fold, et par la JVM (JvmCompiler) après ;
+// les trois sorties doivent être celles de javac. Les cas limites du pliage sont visés :
+// débordement int, division par zéro laissée à l'exécution, x+0 en double, ordre des
+// concaténations, IF/WHILE morts directement sous BODY, THEN ou ELSE, et 20 000 niveaux
+// de IF/WHILE imbriqués dont chaque condition relit une variable du corps de main.
+class ConstantFolderTest {
+    @Test
+    void wrapsIntOverflowLikeJava() {
+        ASTNode folded = assertSameOutput("System.out.println(2147483647 + 1);\n"
+                                        + "System.out.println(65536 * 65536);\n"
+                                        + "System.out.println(-2147483647 - 2);\n"
+                                        + "System.out.println(46341 * 46341 / 2);\n",
+                                          "-2147483648\n0\n2147483647\n-1073739507\n");
+
+        assertEquals(0, count(folded, NodeKind.BINARY_OP));
+    }
+
+    @Test
+    void leavesDivisionByZeroToRunTime() {
+        for (String op : new String[] {"/", "%"}) {
+            String body = "int x = 7;\n"
+                        + "System.out.println(x);\n"
+                        + "x = 1 " + op + " 0;\n"
+                        + "System.out.println(x);\n";
+            ASTNode folded = parse(body);
+            new ConstantFolder().fold(folded);
+
+            assertEquals(1, count(folded, NodeKind.BINARY_OP), op);
+            Interpreter interpreter = new Interpreter(new PrintStream(new ByteArrayOutputStream()));
+            assertFalse(interpreter.run(folded), op);
+            assertFalse(interpreter.run(parse(body)), op);
+            assertThrows(InvocationTargetException.class, () -> runOnJvm(folded), op);
+        }
+        // En double, pas d'exception mais un infini : laissé lui aussi à l'exécution
+        ASTNode folded = assertSameOutput("System.out.println(1.0 / 0);\n"
+                                        + "System.out.println(-1 % 0.0);\n",
+                                          "Infinity\nNaN\n");
+        assertEquals(2, count(folded, NodeKind.BINARY_OP));
+    }
+
+    @Test
+    void keepsAdditionOfZeroOnDoubles() {
+        // -0.0 + 0 vaut 0.0 : x+0 n'est une identité que pour un int
+        ASTNode folded = assertSameOutput("double d = -0.0;\n"
+                                        + "int i = 3;\n"
+                                        + "System.out.println(d + 0);\n"
+                                        + "System.out.println(0 + d);\n"
+                                        + "System.out.println(d - 0);\n"
+                                        + "System.out.println(d * 1);\n"
+                                        + "System.out.println(i + 0);\n",
+                                          "0.0\n0.0\n-0.0\n-0.0\n3\n");
+
+        assertEquals(2, count(folded, NodeKind.BINARY_OP));
+    }
+
+    @Test
+    void foldsConcatenationsInEvaluationOrder() {
+        ASTNode folded = assertSameOutput("int a = 1;\n"
+                                        + "System.out.println(1 + 2 + \"s\" + 1 + 2);\n"
+                                        + "System.out.println(\"s\" + (1 + 2));\n"
+                                        + "System.out.println(1.5 + \"\" + 2 * 3);\n"
+                                        + "System.out.println(a + 1 + \"s\" + a + 1);\n"
+                                        + "System.out.println(\"s\" + 1 + 2 + a);\n",
+                                          "3s12\ns3\n1.56\n2s11\ns121\n");
+
+        List<String> literals = new ArrayList<>();
+        for (ASTNode literal : find(folded, NodeKind.STRING_LITERAL)) {
+            literals.add(literal.value);
+        }
+        assertTrue(literals.containsAll(List.of("3s12", "s3", "1.56", "s12")), literals.toString());
+    }
+
+    @Test
+    void removesDeadStatementsDirectlyUnderBodyThenAndElse() {
+        ASTNode folded = assertSameOutput("int x = 0;\n"
+                                        + "while (x < 3)\n"
+                                        + "    if (2 < 1) x = 10; else x++;\n"
+                                        + "System.out.println(x);\n"
+                                        + "while (x < 3)\n"
+                                        + "    while (1 > 2) x = 10;\n"
+                                        + "if (x == 3)\n"
+                                        + "    while (1 > 2) x = 20;\n"
+                                        + "else\n"
+                                        + "    if (1 == 2) x = 30;\n"
+                                        + "if (x != 3)\n"
+                                        + "    x = 40;\n"
+                                        + "else\n"
+                                        + "    while (2 + 2 == 5) x = 50;\n"
+                                        + "System.out.println(x);\n",
+                                          "3\n3\n");
+
+        assertEquals(2, count(folded, NodeKind.WHILE));
+        assertEquals(2, count(folded, NodeKind.IF));
+        // Le porteur d'instruction garde un enfant : un bloc vide à la place de l'instruction morte
+        int emptyHolders = 0;
+        for (NodeKind holder : new NodeKind[] {NodeKind.BODY, NodeKind.THEN, NodeKind.ELSE}) {
+            for (ASTNode node : find(folded, holder)) {
+                assertEquals(1, node.children.size());
+                ASTNode statement = node.children.get(0);
+                if (statement.kind == NodeKind.BLOCK && statement.children.isEmpty()) {
+                    emptyHolders++;
+                }
+            }
+        }
+        assertEquals(4, emptyHolders);
+    }
+
+    @Test
+    void foldsDeeplyNestedStatementsInLinearTime() {
+        int depth = 20_000;
+        StringBuilder body = new StringBuilder("int n = 0;\nint i = 0;\n");
+        for (int level = 0; level < depth; level++) {
+            body.append(level % 2 == 0 ? "while (i < 1) {\n" : "if (n == 0) {\n");
+            body.append("int v").append(level).append(" = ").append(level).append(";\n");
+        }
+        // v + 0 et n * 1 ne se simplifient que si le type int de v et de n est retrouvé
+        body.append("n = v").append(depth - 1).append(" + 0 + n * 1;\ni++;\n");
+        body.append("if (2 < 1) {\nn = 99;\n}\n");
+        body.append("}\n".repeat(depth));
+        body.append("System.out.println(n);\n");
+        String expected = (depth - 1) + "\n";
+
+        assertEquals(expected, interpret(parse(body.toString())), "sans simplification");
+        ASTNode folded = parse(body.toString());
+        int changes = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> new ConstantFolder().fold(folded));
+
+        assertTrue(changes >= 3, "simplifications : " + changes);
+        assertEquals(expected, interpret(folded), "après simplification");
+        // Restent la comparaison de chaque niveau et v + n
+        assertEquals(depth, count(folded, NodeKind.COMPARISON));
+        assertEquals(1, count(folded, NodeKind.BINARY_OP));
+        assertEquals(depth / 2, count(folded, NodeKind.IF));
+        assertEquals(depth / 2, count(folded, NodeKind.WHILE));
+    }
+
+    // Sorties identiques sans simplification, après, et sur la JVM ; renvoie l'arbre simplifié
+    private static ASTNode assertSameOutput(String body, String expected) {
+        assertEquals(expected, interpret(parse(body)), "sans simplification");
+        ASTNode folded = parse(body);
+        assertTrue(new ConstantFolder().fold(folded) > 0);
+        assertEquals(expected, interpret(folded), "après simplification");
+        try {
+            assertEquals(expected, runOnJvm(folded), "JVM après simplification");
+        } catch (Exception e) {
+            fail(e);
+        }
+        return folded;
+    }
+
+    private static int count(ASTNode root, NodeKind kind) {
+        return find(root, kind).size();
+    }
+
+    private static List<ASTNode> find(ASTNode root, NodeKind kind) {
+        List<ASTNode> found = new ArrayList<>();
+        Deque<ASTNode> nodes = new ArrayDeque<>();
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            ASTNode node = nodes.pop();
+            if (node.kind == kind) {
+                found.add(node);
+            }
+            for (ASTNode child : node.children) {
+                nodes.push(child);
+            }
+        }
+        return found;
+    }
+}
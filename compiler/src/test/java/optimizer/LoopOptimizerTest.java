@@ -0,0 +1,293 @@
+package optimizer;
+
+import models.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static support.Programs.*;
+
+// Optimisation contre exécution sans optimisation : chaque programme est exécuté par
+// l'Interpreter avant et après LoopOptimizer.optimize, et par la JVM (JvmCompiler) après ;
+// les trois sorties doivent être celles attendues. Les cas limites visés : modifications
+// imbriquées entre l'initialisation et la boucle, limites de déroulement (tours et nœuds),
+// divisions sorties ou non de la boucle, place de la mise à jour des temporaires #sr.
+class LoopOptimizerTest {
+    // Valeurs de LoopOptimizer.MAX_UNROLL_TRIPS et MAX_UNROLL_NODES
+    private static final int MAX_TRIPS = 8;
+    private static final int MAX_NODES = 256;
+
+    @Test
+    void unrollsLoopWithKnownStart() {
+        ASTNode optimized = assertSameOutput("int s = 0;\n"
+                                           + "int i = 0;\n"
+                                           + "while (i < 3) {\n"
+                                           + "    s = s + i;\n"
+                                           + "    i++;\n"
+                                           + "}\n"
+                                           + "System.out.println(s);\n"
+                                           + "System.out.println(i);\n",
+                                             "3\n3\n");
+
+        assertEquals(0, count(optimized, NodeKind.WHILE));
+    }
+
+    @Test
+    void keepsLoopWhenStartIsWrittenInNestedStatement() {
+        // La dernière modification de i avant la boucle est dans un if, un else ou un while :
+        // la valeur initiale n'est plus connue
+        String[] writes = {
+            "if (c > 0) {\n    i = 5;\n}\n",
+            "if (c < 0) {\n    c = 1;\n} else {\n    i = 2;\n}\n",
+            "if (c > 0) {\n    if (c > 0) {\n        i++;\n    }\n}\n",
+            "while (c < 3) {\n    c++;\n    i = c;\n}\n",
+            "while (c < 3) {\n    c++;\n    if (c == 2) {\n        i = i + 1;\n    }\n}\n",
+        };
+        for (String write : writes) {
+            ASTNode optimized = assertSameOutput("int c = 1;\n"
+                                               + "int i = 0;\n"
+                                               + write
+                                               + "while (i < 4) {\n"
+                                               + "    System.out.println(i);\n"
+                                               + "    i++;\n"
+                                               + "}\n",
+                                                 null);
+
+            assertTrue(count(optimized, NodeKind.WHILE) > 0, write);
+            assertTrue(contains(optimized, NodeKind.COMPARISON, "<", "i", "4"), write);
+        }
+    }
+
+    @Test
+    void unrollsUpToTheTripLimit() {
+        for (int step : new int[] {1, 2, 3}) {
+            int limit = MAX_TRIPS * step;
+            ASTNode atLimit = assertSameOutput(countingLoop(0, limit, step), null);
+            assertEquals(0, count(atLimit, NodeKind.WHILE), "pas " + step);
+
+            // Un tour de plus que la limite
+            ASTNode overLimit = assertSameOutput(countingLoop(0, limit + 1, step), null);
+            assertEquals(1, count(overLimit, NodeKind.WHILE), "pas " + step);
+        }
+        // Décompte : i = 8 ... 1, puis 9 ... 1
+        assertEquals(0, count(assertSameOutput(countingLoop(MAX_TRIPS, 0, -1), null), NodeKind.WHILE));
+        assertEquals(1, count(assertSameOutput(countingLoop(MAX_TRIPS + 1, 0, -1), null), NodeKind.WHILE));
+    }
+
+    @Test
+    void unrollsUpToTheNodeLimit() {
+        for (int trips : new int[] {1, 2, 4, MAX_TRIPS}) {
+            // Corps : BLOCK, i++ et n fois x++, soit n + 2 nœuds
+            int padding = MAX_NODES / trips - 2;
+            String atLimit = paddedLoop(trips, padding);
+            assertEquals(MAX_NODES / trips, bodySize(parse(atLimit)));
+            assertEquals(0, count(assertSameOutput(atLimit, null), NodeKind.WHILE), trips + " tours");
+
+            String overLimit = paddedLoop(trips, padding + 1);
+            assertEquals(MAX_NODES / trips + 1, bodySize(parse(overLimit)));
+            assertEquals(1, count(assertSameOutput(overLimit, null), NodeKind.WHILE), trips + " tours");
+        }
+    }
+
+    @Test
+    void hoistsDivisionOnlyByNonZeroConstant() {
+        ASTNode optimized = assertSameOutput("int a = 17;\n"
+                                           + "int n = 3;\n"
+                                           + "int k = 0;\n"
+                                           + "while (k < n) {\n"
+                                           + "    System.out.println(a / 5 + a % 4 + k);\n"
+                                           + "    k++;\n"
+                                           + "}\n",
+                                             "4\n5\n6\n");
+
+        assertTrue(hasTemporary(optimized, "#inv"));
+        ASTNode body = child(find(optimized, NodeKind.WHILE).get(0), NodeKind.BODY);
+        assertFalse(contains(body, NodeKind.BINARY_OP, "/", "a", "5"));
+        assertFalse(contains(body, NodeKind.BINARY_OP, "%", "a", "4"));
+    }
+
+    @Test
+    void keepsDivisionByZeroInLoopThatNeverRuns() {
+        // Diviseur variable ou nul : l'exception ne doit pas sortir d'une boucle jamais exécutée
+        String[] divisions = {"a / z", "a % z", "a / 0", "a % 0", "(a + 1) / (z * 2)", "-a % (z - z)"};
+        for (String division : divisions) {
+            ASTNode optimized = assertSameOutput("int a = 17;\n"
+                                               + "int z = 0;\n"
+                                               + "int n = 0;\n"
+                                               + "int k = 0;\n"
+                                               + "while (k < n) {\n"
+                                               + "    System.out.println(" + division + ");\n"
+                                               + "    k++;\n"
+                                               + "}\n"
+                                               + "System.out.println(k);\n",
+                                                 "0\n");
+
+            ASTNode body = child(find(optimized, NodeKind.WHILE).get(0), NodeKind.BODY);
+            assertEquals(1, count(body, NodeKind.BINARY_OP, "/") + count(body, NodeKind.BINARY_OP, "%"), division);
+        }
+        // En double, pas d'exception : la division peut sortir de la boucle
+        ASTNode optimized = assertSameOutput("double a = 1.5;\n"
+                                           + "double z = 0.0;\n"
+                                           + "int n = 0;\n"
+                                           + "int k = 0;\n"
+                                           + "while (k < n) {\n"
+                                           + "    System.out.println(a / z);\n"
+                                           + "    k++;\n"
+                                           + "}\n"
+                                           + "System.out.println(k);\n",
+                                             "0\n");
+        assertTrue(hasTemporary(optimized, "#inv"));
+    }
+
+    @Test
+    void updatesStrengthReducedProductRightAfterTheInduction() {
+        // i++ au milieu du corps : les produits qui le précèdent voient l'ancienne valeur
+        ASTNode optimized = assertSameOutput("int n = 4;\n"
+                                           + "int i = 0;\n"
+                                           + "while (i < n) {\n"
+                                           + "    System.out.println(i * 3);\n"
+                                           + "    i++;\n"
+                                           + "    System.out.println(5 * i + i * 3);\n"
+                                           + "}\n",
+                                             "0\n8\n3\n16\n6\n24\n9\n32\n");
+
+        ASTNode body = child(find(optimized, NodeKind.WHILE).get(0), NodeKind.BODY).children.get(0);
+        // Les deux mises à jour (facteurs 3 et 5) suivent directement i++, avant le second affichage
+        assertEquals(5, body.children.size());
+        assertEquals(NodeKind.INCREMENT, body.children.get(1).kind);
+        for (ASTNode update : body.children.subList(2, 4)) {
+            assertEquals(NodeKind.ASSIGNMENT, update.kind);
+            assertTrue(update.value.startsWith("#sr"), update.value);
+        }
+        assertEquals(0, count(body, NodeKind.BINARY_OP, "*"));
+    }
+
+    @Test
+    void keepsProductsWhenInductionIsModifiedTwice() {
+        String[] bodies = {
+            "    System.out.println(i * 3);\n    i++;\n    System.out.println(i * 3);\n    i++;\n",
+            "    i++;\n    System.out.println(i * 3);\n    i = i + 2;\n",
+            "    i++;\n    if (i == 3) {\n        i++;\n    }\n    System.out.println(i * 3);\n",
+            "    i = i + 1;\n    System.out.println(i * 3);\n    while (i < 2) {\n        i++;\n    }\n",
+        };
+        for (String body : bodies) {
+            ASTNode optimized = assertSameOutput("int n = 9;\n"
+                                               + "int i = 0;\n"
+                                               + "while (i < n) {\n"
+                                               + body
+                                               + "}\n"
+                                               + "System.out.println(i);\n",
+                                                 null);
+
+            assertFalse(hasTemporary(optimized, "#sr"), body);
+        }
+    }
+
+    // i = start; while (i < end) (ou > si le pas est négatif) : une boucle de 'step' en 'step'
+    private static String countingLoop(int start, int end, int step) {
+        return "int s = 0;\n"
+             + "int i = " + start + ";\n"
+             + "while (i " + (step > 0 ? "<" : ">") + " " + end + ") {\n"
+             + "    s = s + i;\n"
+             + "    System.out.println(s);\n"
+             + "    i = i " + (step > 0 ? "+ " + step : "- " + -step) + ";\n"
+             + "}\n"
+             + "System.out.println(i);\n";
+    }
+
+    private static String paddedLoop(int trips, int padding) {
+        return "int x = 0;\n"
+             + "int i = 0;\n"
+             + "while (i < " + trips + ") {\n"
+             + "    i++;\n"
+             + "    x++;\n".repeat(padding)
+             + "}\n"
+             + "System.out.println(x);\n";
+    }
+
+    // Sorties identiques sans optimisation, après, et sur la JVM ; renvoie l'arbre optimisé.
+    // Sans sortie attendue, celle du programme non optimisé sert de référence.
+    private static ASTNode assertSameOutput(String body, String expected) {
+        String original = interpret(parse(body));
+        if (expected != null) {
+            assertEquals(expected, original, "sans optimisation");
+        }
+        ASTNode optimized = parse(body);
+        new LoopOptimizer().optimize(optimized);
+        assertEquals(original, interpret(optimized), "après optimisation");
+        try {
+            assertEquals(original, runOnJvm(optimized), "JVM après optimisation");
+        } catch (Exception e) {
+            fail(e);
+        }
+        return optimized;
+    }
+
+    // Taille du corps de la première boucle, comptée comme LoopOptimizer
+    private static int bodySize(ASTNode root) {
+        ASTNode body = child(find(root, NodeKind.WHILE).get(0), NodeKind.BODY).children.get(0);
+        return find(body, null).size();
+    }
+
+    private static boolean hasTemporary(ASTNode root, String prefix) {
+        for (ASTNode node : find(root, NodeKind.DECLARATION)) {
+            if (node.value.startsWith("int " + prefix) || node.value.startsWith("double " + prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Un nœud 'kind' de valeur 'value' dont les enfants ont pour valeurs 'left' et 'right'
+    private static boolean contains(ASTNode root, NodeKind kind, String value, String left, String right) {
+        for (ASTNode node : find(root, kind)) {
+            if (node.value.equals(value) && node.children.size() == 2
+                && node.children.get(0).value.equals(left) && node.children.get(1).value.equals(right)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ASTNode child(ASTNode node, NodeKind kind) {
+        for (ASTNode child : node.children) {
+            if (child.kind == kind) {
+                return child;
+            }
+        }
+        throw new AssertionError(kind + " absent de " + node.kind);
+    }
+
+    private static int count(ASTNode root, NodeKind kind) {
+        return find(root, kind).size();
+    }
+
+    private static int count(ASTNode root, NodeKind kind, String value) {
+        int count = 0;
+        for (ASTNode node : find(root, kind)) {
+            if (node.value.equals(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Nœuds de type 'kind' du sous-arbre (tous si kind est null), racine comprise
+    private static List<ASTNode> find(ASTNode root, NodeKind kind) {
+        List<ASTNode> found = new ArrayList<>();
+        Deque<ASTNode> nodes = new ArrayDeque<>();
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            ASTNode node = nodes.pop();
+            if (kind == null || node.kind == kind) {
+                found.add(node);
+            }
+            for (ASTNode child : node.children) {
+                nodes.push(child);
+            }
+        }
+        return found;
+    }
+}
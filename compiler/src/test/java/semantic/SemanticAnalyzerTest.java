@@ -0,0 +1,290 @@
+package semantic;
+
+import lexical.Lexer;
+import models.*;
+import syntax.Parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static support.Programs.*;
+
+// Résolution des variables vers leur déclaration à travers les blocs, if/else et while,
+// redéclaration d'une locale dans la même méthode (même depuis un bloc imbriqué), erreurs
+// de type dont l'entier affecté à un char, puis passage à l'échelle : des dizaines de
+// milliers de déclarations et de blocs imbriqués.
+// Le corps de main commence à la ligne 3 (voir Programs.program).
+class SemanticAnalyzerTest {
+    @Test
+    void resolvesUsesAcrossBlocksAndSiblingScopes() {
+        ASTNode ast = parse("int x = 1;\n"                                  // 3
+                          + "double y = 2.5;\n"                             // 4
+                          + "{\n"
+                          + "    int z = x + 1;\n"                          // 6
+                          + "    System.out.println(z + y);\n"
+                          + "}\n"
+                          + "{\n"
+                          + "    String z = \"s\";\n"                       // 10
+                          + "    System.out.println(z);\n"
+                          + "}\n"
+                          + "System.out.println(x);\n"
+                          + "if (x > 0) {\n"
+                          + "    String s = \"s\";\n"                       // 15
+                          + "    System.out.println(s);\n"
+                          + "} else {\n"
+                          + "    x = 3;\n"
+                          + "}\n"
+                          + "while (x < 5) {\n"
+                          + "    int w = x;\n"                              // 21
+                          + "    x = w + 1;\n"
+                          + "    x++;\n"
+                          + "}\n"
+                          + "int z = x;\n"                                  // 25
+                          + "System.out.println(z);\n");
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        SemanticModel model = analyzer.analyze(ast);
+
+        assertEquals(List.of(), analyzer.getErrors());
+        // Les blocs frères, refermés, laissent redéclarer z
+        assertEquals(List.of("x:3", "z:6", "y:4", "z:10", "x:3", "x:3", "s:15", "x:3", "x:3", "x:3", "x:3", "w:21",
+                             "x:3", "x:3", "z:25"),
+                     resolutions(ast, model));
+        assertEquals(7, model.declarations().size());
+    }
+
+    @Test
+    void typesExpressions() {
+        ASTNode ast = parse("int i = 1;\n"
+                          + "double d = i * 2.0;\n"
+                          + "System.out.println(i + 1);\n"
+                          + "System.out.println(\"s\" + i);\n"
+                          + "System.out.println(-i);\n"
+                          + "if (i < d && d != 0) {\n"
+                          + "    System.out.println(d / i);\n"
+                          + "}\n");
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        SemanticModel model = analyzer.analyze(ast);
+
+        assertEquals(List.of(), analyzer.getErrors());
+        List<Type> arguments = new ArrayList<>();
+        for (ASTNode argument : find(ast, NodeKind.ARGUMENT)) {
+            arguments.add(model.typeOf(argument));
+        }
+        assertEquals(List.of(Type.INT, Type.STRING, Type.INT, Type.DOUBLE), arguments);
+        ASTNode condition = find(ast, NodeKind.CONDITION).get(0);
+        assertEquals(Type.BOOLEAN, model.typeOf(condition.children.get(0)));
+        ASTNode declaration = find(ast, NodeKind.DECLARATION).get(1);
+        assertEquals(Type.DOUBLE, model.typeOf(declaration.children.get(0)));
+    }
+
+    @Test
+    void reportsRedeclarationInTheSameMethod() {
+        List<String> errors = errors("int x = 1;\n"
+                                   + "double x = 2.0;\n"
+                                   + "{\n"
+                                   + "    int y = 1;\n"
+                                   + "    int x = 3;\n"
+                                   + "    String y = \"s\";\n"
+                                   + "}\n"
+                                   + "int y = 2;\n"
+                                   + "while (x < 2) {\n"
+                                   + "    int y = 3;\n"
+                                   + "    x++;\n"
+                                   + "}\n"
+                                   + "if (x > 0) {\n"
+                                   + "    int z = 1;\n"
+                                   + "} else {\n"
+                                   + "    int z = 2;\n"
+                                   + "}\n"
+                                   + "{\n"
+                                   + "    {\n"
+                                   + "        int z = 3;\n"
+                                   + "        while (z < 4) {\n"
+                                   + "            int x = 4;\n"
+                                   + "        }\n"
+                                   + "    }\n"
+                                   + "}\n");
+
+        // Un bloc imbriqué, then ou le corps d'un while ne masque pas une locale de la méthode
+        assertEquals(List.of("Variable déjà déclarée: x à la ligne 4",
+                             "Variable déjà déclarée: x à la ligne 7",
+                             "Variable déjà déclarée: y à la ligne 8",
+                             "Variable déjà déclarée: y à la ligne 12",
+                             "Variable déjà déclarée: x à la ligne 24"),
+                     errors);
+    }
+
+    @Test
+    void allowsTheSameLocalNameInAnotherMethod() {
+        Parser parser = new Parser(new Lexer("public class T {\n"
+                                           + "    public static void main(String[] args) {\n"
+                                           + "        int x = 1;\n"
+                                           + "        {\n"
+                                           + "            int y = x;\n"
+                                           + "        }\n"
+                                           + "    }\n"
+                                           + "    public static void f() {\n"
+                                           + "        int y = 2;\n"
+                                           + "        {\n"
+                                           + "            int x = y;\n"
+                                           + "            int y = x;\n"
+                                           + "        }\n"
+                                           + "    }\n"
+                                           + "}\n").tokenizeToBuffer());
+        parser.setEchoErrors(false);
+        ASTNode ast = parser.parse();
+        assertEquals(List.of(), parser.getErrors());
+
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(ast);
+        assertEquals(List.of("Variable déjà déclarée: y à la ligne 12"), analyzer.getErrors());
+    }
+
+    @Test
+    void reportsUndeclaredVariablesOutsideTheirBlock() {
+        List<String> errors = errors("{\n"
+                                   + "    int x = 1;\n"
+                                   + "}\n"
+                                   + "x = 2;\n"
+                                   + "if (1 < 2) {\n"
+                                   + "    int y = 1;\n"
+                                   + "}\n"
+                                   + "System.out.println(y);\n");
+
+        assertEquals(List.of("Variable non déclarée: x à la ligne 6",
+                             "Variable non déclarée: y à la ligne 10"),
+                     errors);
+    }
+
+    @Test
+    void reportsTypeMismatches() {
+        List<String> errors = errors("int i = 2.5;\n"
+                                   + "String s = 1;\n"
+                                   + "boolean b;\n"
+                                   + "b = 3;\n"
+                                   + "double d = i;\n"
+                                   + "char c = 65;\n"
+                                   + "b++;\n"
+                                   + "System.out.println(s - 1);\n"
+                                   + "System.out.println(-s);\n"
+                                   + "if (b < 1) {\n"
+                                   + "    b = 1.5;\n"
+                                   + "}\n"
+                                   + "while (i) {\n"
+                                   + "    i++;\n"
+                                   + "}\n");
+
+        assertEquals(List.of("Types incompatibles: DOUBLE affecté à une variable INT à la ligne 3",
+                             "Types incompatibles: INT affecté à une variable STRING à la ligne 4",
+                             "Types incompatibles: INT affecté à une variable BOOLEAN à la ligne 6",
+                             "Incrémentation d'une variable BOOLEAN: b à la ligne 9",
+                             "Opérateur - non applicable à STRING et INT à la ligne 10",
+                             "Opérateur - non applicable à STRING à la ligne 11",
+                             "Comparaison < non applicable à BOOLEAN et INT à la ligne 12",
+                             "Types incompatibles: DOUBLE affecté à une variable BOOLEAN à la ligne 13",
+                             "Condition de type INT au lieu de boolean à la ligne 15"),
+                     errors);
+    }
+
+    @Test
+    void acceptsOnlyCharCodeLiteralsInChar() {
+        List<String> errors = errors("int i = 65;\n"
+                                   + "char a = 65;\n"
+                                   + "char b = 65535;\n"
+                                   + "char c = 65536;\n"
+                                   + "char d = i;\n"
+                                   + "int j = 70000;\n"
+                                   + "char e = j;\n"
+                                   + "a = 0;\n"
+                                   + "a = i;\n"
+                                   + "a = -1;\n"
+                                   + "a = b;\n"
+                                   + "int k = a;\n"
+                                   + "double f = a;\n");
+
+        assertEquals(List.of("Types incompatibles: INT affecté à une variable CHAR à la ligne 6",
+                             "Types incompatibles: INT affecté à une variable CHAR à la ligne 7",
+                             "Types incompatibles: INT affecté à une variable CHAR à la ligne 9",
+                             "Types incompatibles: INT affecté à une variable CHAR à la ligne 11",
+                             "Types incompatibles: INT affecté à une variable CHAR à la ligne 12"),
+                     errors);
+    }
+
+    @Test
+    void scalesWithManyDeclarationsAndDeepNesting() {
+        int count = 50_000;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("int v").append(i).append(" = ").append(i).append(";\n");
+        }
+        // Chaque bloc déclare son propre nom et relit celui du bloc englobant
+        for (int depth = 0; depth < count; depth++) {
+            body.append("{\nint w").append(depth).append(" = ").append(depth == 0 ? "v0" : "w" + (depth - 1))
+                .append(" + v").append(depth).append(";\n");
+        }
+        // Au plus profond, v0 du corps de main ne peut pas être redéclarée
+        body.append("int v0 = 0;\n");
+        body.append("System.out.println(w").append(count - 1).append(");\n");
+        body.append("}\n".repeat(count));
+        body.append("System.out.println(v0 + v").append(count - 1).append(");\n");
+        ASTNode ast = parse(body.toString());
+
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        SemanticModel model = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> analyzer.analyze(ast));
+
+        assertEquals(List.of("Variable déjà déclarée: v0 à la ligne " + (3 * count + 3)), analyzer.getErrors());
+        assertEquals(2 * count, model.declarations().size());
+        List<String> resolved = resolutions(ast, model);
+        assertEquals(List.of("v0:3", "v" + (count - 1) + ":" + (count + 2)),
+                     resolved.subList(resolved.size() - 2, resolved.size()));
+        // println le plus interne : la déclaration du dernier bloc ouvert
+        assertEquals("w" + (count - 1) + ":" + (3 * count + 2), resolved.get(resolved.size() - 3));
+    }
+
+    private static List<String> errors(String body) {
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(parse(body));
+        return analyzer.getErrors();
+    }
+
+    // Utilisations de variables (IDENTIFIER, ASSIGNMENT, INCREMENT) dans l'ordre du source,
+    // chacune avec la ligne de sa déclaration : "nom:ligne"
+    private static List<String> resolutions(ASTNode root, SemanticModel model) {
+        List<String> resolved = new ArrayList<>();
+        for (ASTNode node : preOrder(root)) {
+            if (node.kind == NodeKind.IDENTIFIER || node.kind == NodeKind.ASSIGNMENT
+                || node.kind == NodeKind.INCREMENT) {
+                Declaration declaration = model.declarationOf(node);
+                resolved.add(node.value + ":" + (declaration == null ? "?" : declaration.line));
+            }
+        }
+        return resolved;
+    }
+
+    private static List<ASTNode> find(ASTNode root, NodeKind kind) {
+        List<ASTNode> found = new ArrayList<>();
+        for (ASTNode node : preOrder(root)) {
+            if (node.kind == kind) {
+                found.add(node);
+            }
+        }
+        return found;
+    }
+
+    private static List<ASTNode> preOrder(ASTNode root) {
+        List<ASTNode> nodes = new ArrayList<>();
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.pop();
+            nodes.add(node);
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                stack.push(node.children.get(i));
+            }
+        }
+        return nodes;
+    }
+}
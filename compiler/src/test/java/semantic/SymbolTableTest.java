@@ -0,0 +1,108 @@
+package semantic;
+
+import lexical.SymbolPool;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Portées de SymbolTable : masquage, redéclaration refusée dans une même portée, et
+// journal qui rend les déclarations masquées à la sortie de chaque portée. Un pool
+// propre à chaque test garde les identifiants petits et indépendants des autres tests.
+class SymbolTableTest {
+    @Test
+    void restoresShadowedDeclarationsOnExit() {
+        SymbolTable table = new SymbolTable(new SymbolPool());
+        int x = table.intern("x");
+        int y = table.intern("y");
+
+        table.enterScope();
+        assertTrue(table.declare(x, 0));
+        table.enterScope();
+        assertTrue(table.declare(x, 1));
+        assertTrue(table.declare(y, 2));
+        table.enterScope();
+        assertTrue(table.declare(x, 3));
+        assertEquals(3, table.lookup(x));
+        assertEquals(2, table.lookup(y));
+
+        table.exitScope();
+        assertEquals(1, table.lookup(x));
+        assertEquals(2, table.lookup(y));
+        table.exitScope();
+        assertEquals(0, table.lookup(x));
+        assertEquals(-1, table.lookup(y));
+        table.exitScope();
+        assertEquals(-1, table.lookup(x));
+        assertEquals(0, table.depth());
+    }
+
+    @Test
+    void refusesRedeclarationInTheSameScopeOnly() {
+        SymbolTable table = new SymbolTable(new SymbolPool());
+        int x = table.intern("x");
+
+        table.enterScope();
+        assertTrue(table.declare(x, 0));
+        assertFalse(table.declare(x, 1));
+        assertEquals(0, table.lookup(x));
+
+        // Après une sortie de portée, le nom peut être redéclaré dans une portée sœur
+        table.enterScope();
+        assertTrue(table.declare(x, 2));
+        assertFalse(table.declare(x, 3));
+        table.exitScope();
+        table.enterScope();
+        assertEquals(0, table.lookup(x));
+        assertTrue(table.declare(x, 4));
+        table.exitScope();
+        assertEquals(0, table.lookup(x));
+    }
+
+    @Test
+    void keepsUndeclaredSymbolsUnresolved() {
+        SymbolPool pool = new SymbolPool();
+        SymbolTable table = new SymbolTable(pool);
+        int x = table.intern("x");
+
+        assertEquals(-1, table.lookup(x));
+        assertEquals(-1, table.lookup(pool.intern("jamais")));
+        assertEquals("x", table.name(x));
+        assertEquals(x, table.intern("x"));
+    }
+
+    @Test
+    void scalesWithManyDeclarationsAndDeepNesting() {
+        int count = 100_000;
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            SymbolTable table = new SymbolTable(new SymbolPool());
+            int[] symbols = new int[count];
+            table.enterScope();
+            for (int i = 0; i < count; i++) {
+                symbols[i] = table.intern("v" + i);
+                assertTrue(table.declare(symbols[i], i));
+            }
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, table.lookup(symbols[i]));
+            }
+
+            // Chaque niveau masque v0 et déclare un nom qui lui est propre
+            for (int depth = 0; depth < count; depth++) {
+                table.enterScope();
+                assertTrue(table.declare(symbols[0], count + depth));
+                assertTrue(table.declare(table.intern("w" + depth), depth));
+            }
+            assertEquals(count + 1, table.depth());
+            assertEquals(2 * count - 1, table.lookup(symbols[0]));
+            for (int depth = count - 1; depth >= 0; depth--) {
+                assertEquals(count + depth, table.lookup(symbols[0]));
+                table.exitScope();
+                assertEquals(-1, table.lookup(table.intern("w" + depth)));
+            }
+            assertEquals(0, table.lookup(symbols[0]));
+            assertEquals(count - 1, table.lookup(symbols[count - 1]));
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package support;
+
+import lexical.*;
+import syntax.*;
+import models.*;
+import interpreter.*;
+import codegen.*;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Outillage commun aux tests : un corps de main placé dans une classe T, analysé sans
+// erreur, puis exécuté par l'Interpreter ou chargé et exécuté par la JVM (JvmCompiler).
+// Les sorties sont rendues avec des fins de ligne '\n'.
+public final class Programs {
+    private Programs() {
+    }
+
+    public static String program(String body) {
+        return "public class T {\n    public static void main(String[] args) {\n" + body + "    }\n}\n";
+    }
+
+    public static ASTNode parse(String body) {
+        Parser parser = new Parser(new Lexer(program(body)).tokenizeToBuffer());
+        parser.setEchoErrors(false);
+        ASTNode ast = parser.parse();
+        assertEquals(List.of(), parser.getErrors());
+        return ast;
+    }
+
+    public static String interpret(ASTNode ast) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        assertTrue(interpreter.run(ast), () -> interpreter.getErrors().toString());
+        return text(bytes);
+    }
+
+    // Les exceptions levées par le programme arrivent enveloppées dans une InvocationTargetException
+    public static String runOnJvm(ASTNode ast) throws Exception {
+        JvmCompiler compiler = new JvmCompiler();
+        Map<String, byte[]> classes = compiler.compile(ast, "T");
+        assertEquals(List.of(), compiler.getErrors());
+
+        ClassLoader loader = new ClassLoader(Programs.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+        Method main = loader.loadClass("T").getMethod("main", String[].class);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        try {
+            main.invoke(null, (Object) new String[0]);
+        } finally {
+            System.setOut(out);
+        }
+        return text(bytes);
+    }
+
+    private static String text(ByteArrayOutputStream bytes) {
+        return bytes.toString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+}
@@ -0,0 +1,96 @@
+package syntax;
+
+import lexical.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Vérification de la borne linéaire du parser sur des flux de tokens hostiles :
+// parenthèses ou blocs jamais fermés, en-têtes tronqués, appels sans ')', suites de
+// modificateurs, tokens tirés au hasard... Pour chaque flux, sans plafond d'erreurs,
+// on exige au plus Parser.MAX_STEPS_PER_TOKEN pas par token et une erreur par token,
+// et le budget setFuelForTokens ne doit jamais être épuisé.
+class ParserStressTest {
+    private static final String[] FRAGMENTS = {
+        "(", ")", "{", "}", ";", ",", ".", "=", "+", "-", "*", "/", "%", "<", ">", "==", "!=",
+        "&&", "||", "++", "--", "int", "double", "String", "void", "class", "public", "static",
+        "private", "if", "else", "while", "System", "out", "println", "main", "x", "y", "f",
+        "12", "3.5", "\"s\"", "@", "#"
+    };
+
+    // Motifs répétés jusqu'à la taille voulue (en tokens approximatifs)
+    private static final String[][] PATTERNS = {
+        {"parenthèses ouvertes", "("},
+        {"parenthèses fermantes", ")"},
+        {"moins unaires", "-"},
+        {"blocs ouverts", "{"},
+        {"blocs fermés", "}"},
+        {"points-virgules", ";"},
+        {"virgules", ","},
+        {"modificateurs", "public"},
+        {"types seuls", "int"},
+        {"classes sans nom", "class"},
+        {"en-têtes while", "while ("},
+        {"if sans corps", "if (x) else"},
+        {"appels ouverts", "f("},
+        {"appels à virgules", "f(1,"},
+        {"affectations chaînées", "x ="},
+        {"déclarations tronquées", "int x = ("},
+        {"méthodes sans corps", "public void f("},
+        {"println ouverts", "System.out.println("},
+        {"opérateurs seuls", "+ * /"},
+        {"comparaisons", "x < x < x =="},
+    };
+
+    private static final int[] SIZES = {1_000, 100_000};
+
+    static Stream<Arguments> streams() {
+        List<Arguments> streams = new ArrayList<>();
+        for (int size : SIZES) {
+            for (String[] pattern : PATTERNS) {
+                streams.add(Arguments.of(pattern[0] + " x" + size, repeat(pattern[1], size)));
+            }
+            streams.add(Arguments.of("aléatoire x" + size, random(new Random(1), size)));
+        }
+        return streams.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("streams")
+    void staysWithinLinearBound(String name, String text) {
+        TokenBuffer tokens = new Lexer(text).tokenizeToBuffer();
+        Parser parser = new Parser(tokens);
+        parser.setEchoErrors(false);
+        parser.setMaxErrors(Integer.MAX_VALUE);
+        parser.setFuelForTokens(tokens.size());
+        parser.parse();
+
+        for (Diagnostic diagnostic : parser.getDiagnostics()) {
+            assertNotEquals(Diagnostic.Code.FUEL_EXHAUSTED, diagnostic.code, name);
+            assertNotEquals(Diagnostic.Code.FATAL, diagnostic.code, diagnostic.message());
+        }
+        assertTrue(parser.getSteps() <= (long) Parser.MAX_STEPS_PER_TOKEN * (tokens.size() + 1),
+                   name + " : " + parser.getSteps() + " pas pour " + tokens.size() + " tokens");
+        assertTrue(parser.getDiagnostics().size() <= tokens.size() + 1,
+                   name + " : " + parser.getDiagnostics().size() + " erreurs pour " + tokens.size() + " tokens");
+    }
+
+    private static String repeat(String fragment, int tokenCount) {
+        int perFragment = Math.max(1, new Lexer(fragment).tokenizeToBuffer().size() - 1);
+        return (fragment + " ").repeat(Math.max(1, tokenCount / perFragment));
+    }
+
+    private static String random(Random random, int tokenCount) {
+        StringBuilder text = new StringBuilder(tokenCount * 4);
+        for (int i = 0; i < tokenCount; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]).append(i % 16 == 15 ? '\n' : ' ');
+        }
+        return text.toString();
+    }
+}
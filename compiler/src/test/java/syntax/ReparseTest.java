@@ -0,0 +1,177 @@
+package syntax;
+
+import lexical.*;
+import models.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Réanalyse incrémentale contre analyse complète : après chaque édition aléatoire
+// (IncrementalLexer.edit puis Parser.reparse), l'arbre (nœuds, lignes, plages de tokens)
+// et les messages d'erreur doivent être ceux d'un Parser neuf sur le texte modifié,
+// y compris quand le plafond maxErrors tronque l'analyse. Les sous-arbres hors de la
+// zone modifiée doivent être conservés, et seulement décalés.
+class ReparseTest {
+    private static final String PROGRAM =
+        "class A {\n"
+      + "    public static void main(String[] args) {\n"
+      + "        int x = 1;\n"
+      + "        int y = 2;\n"
+      + "        while (x < 3) {\n"
+      + "            x++;\n"
+      + "        }\n"
+      + "        x = 2;\n"
+      + "    }\n"
+      + "}\n";
+
+    private static final String[] FRAGMENTS = {
+        "int x = 1;\n", "x = x + 2;\n", "while (x < 3) {\n", "}\n", "if (x == 1) x++; else x--;\n",
+        "{ ", " }", "public void f() {\n", "class C {\n", "foo(1, x);\n", "double y = (x * 3", ");",
+        ";", "x++;\n", "/* c */", "\"s\"", "@", "private ", "int ", "else ", "(", ")"
+    };
+
+    private static final int ROUNDS = 60;
+    private static final int EDITS = 25;
+
+    static Stream<Arguments> runs() {
+        List<Arguments> runs = new ArrayList<>();
+        for (int maxErrors : new int[] {Parser.DEFAULT_MAX_ERRORS, 3, 1}) {
+            for (long seed = 1; seed <= 3; seed++) {
+                runs.add(Arguments.of(maxErrors, seed));
+            }
+        }
+        return runs.stream();
+    }
+
+    @Test
+    void keepsStatementsOutsideTheEdit() {
+        IncrementalLexer lexer = new IncrementalLexer(PROGRAM);
+        Parser parser = newParser(lexer, Parser.DEFAULT_MAX_ERRORS);
+        ASTNode ast = parser.parse();
+        ASTNode method = ast.children.get(0).children.get(0);
+        ASTNode declaration = method.children.get(4);
+        ASTNode loop = method.children.get(5);
+        ASTNode assignment = method.children.get(6);
+
+        ASTNode reparsed = parser.reparse(ast, lexer.edit(PROGRAM.indexOf("2;"), 1, "20"));
+
+        assertSame(ast, reparsed);
+        assertSame(method, ast.children.get(0).children.get(0));
+        assertNotSame(declaration, method.children.get(4));
+        assertEquals("20", method.children.get(4).children.get(0).value);
+        assertSame(loop, method.children.get(5));
+        assertSame(assignment, method.children.get(6));
+        assertEquals(dump(newParser(new Lexer(lexer.text()).tokenizeToBuffer(), Parser.DEFAULT_MAX_ERRORS).parse()), dump(ast));
+    }
+
+    @Test
+    void shiftsLinesOfFollowingStatementsWithoutRebuildingThem() {
+        IncrementalLexer lexer = new IncrementalLexer(PROGRAM);
+        Parser parser = newParser(lexer, Parser.DEFAULT_MAX_ERRORS);
+        ASTNode ast = parser.parse();
+        ASTNode method = ast.children.get(0).children.get(0);
+        ASTNode loop = method.children.get(5);
+        ASTNode increment = loop.children.get(1).children.get(0).children.get(0);
+        assertEquals(6, increment.line());
+
+        parser.reparse(ast, lexer.edit(PROGRAM.indexOf("int y"), 0, "int z = 0;\n\n        "));
+
+        assertSame(method, ast.children.get(0).children.get(0));
+        assertSame(loop, method.children.get(6));
+        assertSame(increment, loop.children.get(1).children.get(0).children.get(0));
+        assertEquals(7, loop.line());
+        assertEquals(8, increment.line());
+        assertEquals(dump(newParser(new Lexer(lexer.text()).tokenizeToBuffer(), Parser.DEFAULT_MAX_ERRORS).parse()), dump(ast));
+    }
+
+    @Test
+    void shiftingOneTreeLeavesOtherTreesLines() {
+        IncrementalLexer first = new IncrementalLexer(PROGRAM);
+        Parser firstParser = newParser(first, Parser.DEFAULT_MAX_ERRORS);
+        ASTNode firstAst = firstParser.parse();
+        Parser secondParser = newParser(new IncrementalLexer(PROGRAM), Parser.DEFAULT_MAX_ERRORS);
+        ASTNode secondAst = secondParser.parse();
+        String second = dump(secondAst);
+
+        firstParser.reparse(firstAst, first.edit(0, 0, "\n\n"));
+
+        assertEquals(second, dump(secondAst));
+        assertEquals(dump(newParser(new Lexer(first.text()).tokenizeToBuffer(), Parser.DEFAULT_MAX_ERRORS).parse()), dump(firstAst));
+    }
+
+    @Test
+    void replacesDiagnosticsOfTheReparsedStatement() {
+        IncrementalLexer lexer = new IncrementalLexer(PROGRAM);
+        Parser parser = newParser(lexer, Parser.DEFAULT_MAX_ERRORS);
+        ASTNode ast = parser.parse();
+        int semicolon = PROGRAM.indexOf("x = 2;") + 5;
+
+        ast = parser.reparse(ast, lexer.edit(semicolon, 1, ""));
+        assertEquals(1, parser.getErrors().size());
+        ast = parser.reparse(ast, lexer.edit(semicolon, 0, ";"));
+        assertEquals(List.of(), parser.getErrors());
+        assertEquals(dump(newParser(new Lexer(PROGRAM).tokenizeToBuffer(), Parser.DEFAULT_MAX_ERRORS).parse()), dump(ast));
+    }
+
+    @ParameterizedTest(name = "maxErrors={0} graine={1}")
+    @MethodSource("runs")
+    void matchesFullParse(int maxErrors, long seed) {
+        Random random = new Random(seed);
+        for (int round = 0; round < ROUNDS; round++) {
+            StringBuilder initial = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                initial.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            IncrementalLexer lexer = new IncrementalLexer(initial.toString());
+            Parser parser = newParser(lexer, maxErrors);
+            ASTNode ast = parser.parse();
+            for (int edit = 0; edit < EDITS; edit++) {
+                String text = lexer.text();
+                int offset = random.nextInt(text.length() + 1);
+                int removed = random.nextInt(Math.min(8, text.length() - offset) + 1);
+                String inserted = random.nextInt(3) == 0 ? "" : FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                ast = parser.reparse(ast, lexer.edit(offset, removed, inserted));
+
+                Parser full = newParser(new Lexer(lexer.text()).tokenizeToBuffer(), maxErrors);
+                ASTNode expected = full.parse();
+                String where = "tour " + round + ", édition " + edit + " :\n" + lexer.text();
+                assertEquals(dump(expected), dump(ast), where);
+                assertEquals(full.getErrors(), parser.getErrors(), where);
+            }
+        }
+    }
+
+    private static Parser newParser(TokenSource tokens, int maxErrors) {
+        Parser parser = new Parser(tokens);
+        parser.setEchoErrors(false);
+        parser.setMaxErrors(maxErrors);
+        return parser;
+    }
+
+    private static String dump(ASTNode root) {
+        StringBuilder out = new StringBuilder();
+        Deque<ASTNode> nodes = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        nodes.push(root);
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            ASTNode node = nodes.pop();
+            int depth = depths.pop();
+            out.append("  ".repeat(depth)).append(node.type()).append('[').append(node.value).append("]@")
+               .append(node.line()).append(" t=").append(node.tokenStart).append('+').append(node.tokenCount)
+               .append(" b=").append(node.bodyStart).append('-').append(node.bodyEnd).append('\n');
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                nodes.push(node.children.get(i));
+                depths.push(depth + 1);
+            }
+        }
+        return out.toString();
+    }
+}
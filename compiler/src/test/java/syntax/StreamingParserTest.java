@@ -0,0 +1,139 @@
+package syntax;
+
+import lexical.*;
+import models.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Mode flux contre source indexée : new Parser(new Lexer(...)) lit les tokens dans une
+// fenêtre glissante (TokenStream) libérée au fil de l'analyse, new Parser(TokenBuffer)
+// les relit par index. Sur les mêmes textes, valides ou non, et quel que soit le plafond
+// maxErrors, l'arbre (nœuds, lignes, plages de tokens) et les erreurs doivent être les
+// mêmes ; les anticipations de isLikelyMethod (peekType, peekNextType) sont visées par des
+// signatures coupées en fin de texte ou juste après le type et le nom.
+class StreamingParserTest {
+    private static final String VALID =
+        "class A {\n"
+      + "    int x = 1;\n"
+      + "    int f() {\n"
+      + "        x = 2;\n"
+      + "    }\n"
+      + "    public static void main(String[] args) {\n"
+      + "        int y = x + 2;\n"
+      + "        double z = (y * 3) / 2.5;\n"
+      + "        String s = \"a\" + y;\n"
+      + "        f();\n"
+      + "        g(1, y);\n"
+      + "        while (y < 10) {\n"
+      + "            if (y == 3) y++; else { y = y + 2; }\n"
+      + "        }\n"
+      + "        System.out.println(s + z);\n"
+      + "    }\n"
+      + "    void g(int a, int b) {\n"
+      + "    }\n"
+      + "}\n";
+
+    private static final String[] MALFORMED = {
+        "",
+        "int",
+        "int f",
+        "int f(",
+        "class A { int",
+        "class A { int f",
+        "class A { int f(",
+        "class A { int x =",
+        "class A { int f() { int g",
+        "class A { int f() { x = ; } ",
+        "class A { void ( ) { } }",
+        "class { public static int",
+        "class A {\n    int f( {\n        x = ;\n",
+        "class A { public static void main(String[] args) { f(1, ; int y = 2 } }",
+        "class A { public static void main(String[] args) { while (x < { if ) else ; } }",
+        "public public static class class A { } } } int x = (((1 + ;",
+        "class A { int f() {} int g() {} int h",
+        "@ # class A { int f() { System.out.println(\"s\" } }",
+    };
+
+    private static final String[] FRAGMENTS = {
+        "int ", "double ", "void ", "String ", "f", "x", "(", ")", "{", "}", ";", ",", "=", "+",
+        "class A ", "public ", "static ", "if (x < 1) ", "else ", "while (", "x = 2;", "12", "\"s\"",
+        "System.out.println(", "int f() {", "g(1, x);", "@", "\n"
+    };
+
+    static Stream<Arguments> inputs() {
+        List<String> texts = new ArrayList<>();
+        texts.add(VALID);
+        texts.addAll(Arrays.asList(MALFORMED));
+        // Programme valide coupé à chaque token ou presque
+        for (int end = 0; end < VALID.length(); end += 7) {
+            texts.add(VALID.substring(0, end));
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 60; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(80); j > 0; j--) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            texts.add(text.toString());
+        }
+
+        List<Arguments> inputs = new ArrayList<>();
+        for (int maxErrors : new int[] {Parser.DEFAULT_MAX_ERRORS, 3, 1}) {
+            for (String text : texts) {
+                inputs.add(Arguments.of(maxErrors, text));
+            }
+        }
+        return inputs.stream();
+    }
+
+    @ParameterizedTest(name = "maxErrors {0} : {1}")
+    @MethodSource("inputs")
+    void streamingParseMatchesBufferedParse(int maxErrors, String text) {
+        Parser buffered = newParser(new Parser(new Lexer(text).tokenizeToBuffer()), maxErrors);
+        String expected = dump(buffered.parse());
+        if (text.equals(VALID)) {
+            assertEquals(List.of(), buffered.getErrors());
+        }
+        Parser streaming = newParser(new Parser(new Lexer(text)), maxErrors);
+        String actual = dump(streaming.parse());
+
+        assertEquals(expected, actual, text);
+        assertEquals(buffered.getErrors(), streaming.getErrors(), text);
+    }
+
+    private static Parser newParser(Parser parser, int maxErrors) {
+        parser.setEchoErrors(false);
+        parser.setMaxErrors(maxErrors);
+        return parser;
+    }
+
+    private static String dump(ASTNode root) {
+        if (root == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder();
+        Deque<ASTNode> nodes = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        nodes.push(root);
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            ASTNode node = nodes.pop();
+            int depth = depths.pop();
+            out.append("  ".repeat(depth)).append(node.type()).append('[').append(node.value).append("]@")
+               .append(node.line()).append(" t=").append(node.tokenStart).append('+').append(node.tokenCount)
+               .append(" b=").append(node.bodyStart).append('-').append(node.bodyEnd).append('\n');
+            for (int i = node.children.size() - 1; i >= 0; i--) {
+                nodes.push(node.children.get(i));
+                depths.push(depth + 1);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -1,6 +1,13 @@
 import lexical.*;
 import syntax.*;
 import models.*;
+import driver.*;
+import interpreter.*;
+import codegen.*;
+import ir.*;
+import optimizer.*;
+import semantic.*;
+import metrics.*;
 
 import java.io.IOException;
 import java.nio.file.*;
@@ -8,12 +15,43 @@ import java.util.*;
 
 public class Main {
     public static void main(String[] args)  {
+        // -metrics <arguments> : tableau des mesures par phase en fin d'exécution
+        if (args.length >= 1 && args[0].equals("-metrics")) {
+            args = Arrays.copyOfRange(args, 1, args.length);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> MetricsRegistry.GLOBAL.report(System.out)));
+        }
+
+        // -d <répertoire> <fichier> : génération de fichiers .class exécutables par la JVM
+        if (args.length == 3 && args[0].equals("-d")) {
+            System.exit(compileToClasses(Path.of(args[2]), Path.of(args[1])));
+        }
+
+        // -ir <fichier> : affichage du code intermédiaire à trois adresses
+        if (args.length == 2 && args[0].equals("-ir")) {
+            System.exit(dumpIr(Path.of(args[1])));
+        }
+
+        // -bench [--seed N] [--time S] [taille...] : mesures de débit sur des programmes générés
+        if (args.length >= 1 && args[0].equals("-bench")) {
+            System.exit(bench.Benchmark.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        // Plusieurs fichiers ou un répertoire : compilation par lot en parallèle
+        if (args.length > 1 || (args.length == 1 && Files.isDirectory(Path.of(args[0])))) {
+            System.exit(compileBatch(args));
+        }
+
         // Exemple de code avec boucle while
-       String path = "C:\\Users\\jugurta\\Desktop\\mini-compilateur-java\\tests\\WhileTest.java";
-    String code = "";
+       String path = args.length > 0 ? args[0]
+               : "C:\\Users\\jugurta\\Desktop\\mini-compilateur-java\\tests\\WhileTest.java";
+    // Fichier projeté en mémoire : le Lexer lit directement les octets UTF-8
+    Source source = null;
+    Phase read = Phase.start("lecture", path);
     try {
-        code = Files.readString(Path.of(path));
+        source = Source.map(Path.of(path));
+        read.end(source.length(), 0);
     } catch (IOException e) {
+        read.end(0, 1);
         System.err.println("Erreur lors de la lecture du fichier : " + e.getMessage());
         System.exit(1);
     }
@@ -23,13 +61,15 @@ public class Main {
 
         System.out.println("=== MINI-COMPILATEUR ===\n");
         System.out.println("📄 CODE À ANALYSER:");
-        System.out.println(code);
+        System.out.println(source.text(0, source.length()));
         System.out.println("\n" + "=".repeat(40) + "\n");
 
         // ÉTAPE 1 : Analyse lexicale
         System.out.println("📍 ÉTAPE 1 - ANALYSE LEXICALE");
-        Lexer lexer = new Lexer(code);
+        Phase lex = Phase.start("lexique", path);
+        Lexer lexer = new Lexer(source);
         List<Token> tokens = lexer.tokenize();
+        lex.end(tokens.size(), 0);
 
         System.out.println("Tokens identifiés:");
         for (Token token : tokens) {
@@ -42,14 +82,163 @@ public class Main {
 
         // ÉTAPE 2 : Analyse syntaxique
         System.out.println("📍 ÉTAPE 2 - ANALYSE SYNTAXIQUE");
+        Phase parse = Phase.start("syntaxe", path);
         Parser parser = new Parser(tokens);
+        parser.setFuelForTokens(tokens.size());
         ASTNode ast = parser.parse();
+        int nodeCount = ast != null ? ast.size() : 0;
+        parse.end(nodeCount, parser.getErrors().size());
 
         if (ast != null) {
             System.out.println("Arbre syntaxique (AST):\n");
+            Phase print = Phase.start("affichage", path);
             ast.print(0);
+            print.end(nodeCount, 0);
+        }
+
+        System.out.println("\n" + "=".repeat(40) + "\n");
+
+        // ÉTAPE 3 : Analyse sémantique
+        System.out.println("📍 ÉTAPE 3 - ANALYSE SÉMANTIQUE");
+        boolean valid = false;
+        if (ast != null && parser.getErrors().isEmpty()) {
+            Phase semantic = Phase.start("sémantique", path);
+            SemanticAnalyzer analyzer = new SemanticAnalyzer();
+            SemanticModel model = analyzer.analyze(ast);
+            semantic.end(model.declarations().size(), analyzer.getErrors().size());
+            valid = analyzer.getErrors().isEmpty();
+            if (valid) {
+                System.out.println("✅ " + model.declarations().size() + " variable(s) déclarée(s), types vérifiés");
+            } else {
+                printSemanticErrors(analyzer.getErrors());
+            }
+        } else {
+            System.out.println("Analyse annulée : le programme contient des erreurs de syntaxe.");
+        }
+
+        System.out.println("\n" + "=".repeat(40) + "\n");
+
+        // ÉTAPE 4 : Exécution
+        System.out.println("📍 ÉTAPE 4 - EXÉCUTION");
+        if (valid) {
+            optimize(ast, path);
+            Phase run = Phase.start("exécution", path);
+            Interpreter interpreter = new Interpreter(System.out);
+            interpreter.run(ast);
+            run.end(0, interpreter.getErrors().size());
+        } else {
+            System.out.println("Exécution annulée : le programme contient des erreurs.");
         }
 
         System.out.println("\n✅ Compilation terminée!");
     }
-}
\ No newline at end of file
+
+    private static int compileToClasses(Path file, Path directory) {
+        try {
+            ASTNode ast = analyze(file);
+            if (ast == null) {
+                return 1;
+            }
+            String name = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            Phase generate = Phase.start("bytecode", file.toString());
+            JvmCompiler compiler = new JvmCompiler();
+            Map<String, byte[]> classes = compiler.compile(ast, name);
+            generate.end(classes.size(), compiler.getErrors().size());
+            if (!compiler.getErrors().isEmpty()) {
+                System.out.println("\n=== ERREURS DE GÉNÉRATION ===");
+                for (String error : compiler.getErrors()) {
+                    System.out.println("❌ " + error);
+                }
+                return 1;
+            }
+            JvmCompiler.writeClasses(classes, directory);
+            System.out.println("✅ " + classes.size() + " classe(s) générée(s) dans " + directory);
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Erreur d'entrée/sortie : " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int dumpIr(Path file) {
+        try {
+            ASTNode ast = analyze(file);
+            if (ast == null) {
+                return 1;
+            }
+            Phase lower = Phase.start("ir", file.toString());
+            IrLowering lowering = new IrLowering();
+            IrProgram program = lowering.lower(ast);
+            lower.end(program != null ? program.functions.size() : 0, lowering.getErrors().size());
+            if (program == null) {
+                System.out.println("\n=== ERREURS DE GÉNÉRATION ===");
+                for (String error : lowering.getErrors()) {
+                    System.out.println("❌ " + error);
+                }
+                return 1;
+            }
+            System.out.print(program.dump());
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Erreur d'entrée/sortie : " + e.getMessage());
+            return 1;
+        }
+    }
+
+    // Lecture, analyses syntaxique et sémantique puis optimisation ; null en cas d'erreur
+    private static ASTNode analyze(Path file) throws IOException {
+        String name = file.toString();
+        Phase read = Phase.start("lecture", name);
+        Source source = Source.map(file);
+        read.end(source.length(), 0);
+        Phase lex = Phase.start("lexique", name);
+        TokenBuffer tokens = new Lexer(source).tokenizeToBuffer();
+        lex.end(tokens.size(), 0);
+        Phase parse = Phase.start("syntaxe", name);
+        Parser parser = new Parser(tokens);
+        parser.setFuelForTokens(tokens.size());
+        ASTNode ast = parser.parse();
+        parse.end(ast != null ? ast.size() : 0, parser.getErrors().size());
+        if (ast == null || !parser.getErrors().isEmpty()) {
+            return null;
+        }
+        Phase semantic = Phase.start("sémantique", name);
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        SemanticModel model = analyzer.analyze(ast);
+        semantic.end(model.declarations().size(), analyzer.getErrors().size());
+        if (!analyzer.getErrors().isEmpty()) {
+            printSemanticErrors(analyzer.getErrors());
+            return null;
+        }
+        optimize(ast, name);
+        return ast;
+    }
+
+    private static void optimize(ASTNode ast, String file) {
+        Phase optimize = Phase.start("optimisation", file);
+        int changes = Optimizer.optimize(ast);
+        optimize.end(changes, 0);
+    }
+
+    private static void printSemanticErrors(List<String> errors) {
+        System.out.println("\n=== ERREURS SÉMANTIQUES ===");
+        for (String error : errors) {
+            System.out.println("❌ " + error);
+        }
+    }
+
+    private static int compileBatch(String[] args) {
+        List<Path> roots = new ArrayList<>();
+        for (String arg : args) {
+            roots.add(Path.of(arg));
+        }
+        try {
+            List<Path> files = BatchCompiler.collect(roots);
+            List<BatchCompiler.Result> results = new BatchCompiler().compile(files);
+            return BatchCompiler.report(results, System.out) == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Erreur lors du parcours des fichiers : " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package bench;
+
+import lexical.*;
+import syntax.*;
+import models.*;
+import semantic.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.*;
+
+// Mesures de débit du lexer, du parser, de l'affichage de l'AST et de la chaîne complète
+// sur des programmes générés (ProgramGenerator). Sans dépendance : préchauffage, puis
+// itérations mesurées ; on rapporte le temps par opération, les tokens/s, les Mo/s et
+// les octets alloués par opération (compteur du thread, si la JVM le fournit).
+// Mesure rapide sans dépendance ; les mesures JMH sont dans le module benchmarks.
+//   java -cp <classes> bench.Benchmark [--seed N] [--time S] [taille...]   (tailles : 1K, 10M...)
+public class Benchmark {
+    private static final String[] DEFAULT_SIZES = {"1K", "100K", "1M", "10M", "100M"};
+
+    // Puits des résultats : empêche le JIT d'éliminer le travail mesuré
+    private static volatile Object sink;
+
+    private final long seed;
+    private final double seconds;
+    private final com.sun.management.ThreadMXBean threads;
+
+    public Benchmark(long seed, double seconds) {
+        this.seed = seed;
+        this.seconds = seconds;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.threads = (com.sun.management.ThreadMXBean) bean;
+            this.threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.threads = null;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    public static int run(String[] args) {
+        long seed = 42;
+        double seconds = 2;
+        List<Long> sizes = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--seed") && i + 1 < args.length) {
+                    seed = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--time") && i + 1 < args.length) {
+                    seconds = Double.parseDouble(args[++i]);
+                } else {
+                    sizes.add(parseSize(args[i]));
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Argument invalide : " + e.getMessage());
+            System.err.println("Usage : bench.Benchmark [--seed N] [--time S] [taille...]");
+            return 2;
+        }
+        if (sizes.isEmpty()) {
+            for (String size : DEFAULT_SIZES) {
+                sizes.add(parseSize(size));
+            }
+        }
+
+        Benchmark benchmark = new Benchmark(seed, seconds);
+        System.out.println("Graine " + seed + ", " + seconds + " s par mesure, "
+                + System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        for (long size : sizes) {
+            if (!benchmark.measure(size)) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    // 1K, 100K, 10M, 1G ou un nombre d'octets
+    public static long parseSize(String text) {
+        String upper = text.trim().toUpperCase();
+        long unit = 1;
+        char last = upper.isEmpty() ? ' ' : upper.charAt(upper.length() - 1);
+        if (last == 'K') unit = 1L << 10;
+        else if (last == 'M') unit = 1L << 20;
+        else if (last == 'G') unit = 1L << 30;
+        String digits = unit == 1 ? upper : upper.substring(0, upper.length() - 1);
+        return Long.parseLong(digits) * unit;
+    }
+
+    private boolean measure(long size) {
+        String text = ProgramGenerator.generate(seed, size);
+        TokenBuffer tokens = new Lexer(text).tokenizeToBuffer();
+        Parser check = new Parser(tokens);
+        check.setEchoErrors(false);
+        ASTNode ast = check.parse();
+        // Un programme généré invalide fausserait les mesures du parser
+        if (ast == null || !check.getErrors().isEmpty()) {
+            System.err.println("Programme généré invalide (" + size + " octets) : " + check.getErrors());
+            return false;
+        }
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        analyzer.analyze(ast);
+        if (!analyzer.getErrors().isEmpty()) {
+            System.err.println("Programme généré mal typé (" + size + " octets) : " + analyzer.getErrors().get(0));
+            return false;
+        }
+        int tokenCount = tokens.size();
+        long bytes = text.length();
+        long printed = printedLength(ast);
+
+        System.out.println();
+        System.out.printf("=== %s : %d octets, %d tokens, AST affiché en %d caractères ===%n",
+                          formatSize(size), bytes, tokenCount, printed);
+        System.out.printf("%-24s %8s %12s %12s %10s %14s%n",
+                          "mesure", "ops", "ms/op", "Mtokens/s", "Mo/s", "alloc/op");
+
+        report("Lexer.tokenize", tokenCount, bytes, () -> new Lexer(text).tokenize());
+        report("Lexer.tokenizeToBuffer", tokenCount, bytes, () -> new Lexer(text).tokenizeToBuffer());
+        report("Parser.parse", tokenCount, bytes, () -> {
+            Parser parser = new Parser(tokens);
+            parser.setEchoErrors(false);
+            return parser.parse();
+        });
+        report("ASTNode.print", tokenCount, printed, () -> printedLength(ast));
+        report("lexer+parser+sémantique", tokenCount, bytes, () -> {
+            Parser parser = new Parser(new Lexer(text).tokenizeToBuffer());
+            parser.setEchoErrors(false);
+            ASTNode program = parser.parse();
+            return new SemanticAnalyzer().analyze(program);
+        });
+        return true;
+    }
+
+    // Préchauffage (un tiers du temps), puis au moins trois itérations mesurées
+    private void report(String name, int tokenCount, long bytes, Supplier<Object> operation) {
+        long warmupEnd = System.nanoTime() + (long) (seconds / 3 * 1e9);
+        do {
+            sink = operation.get();
+        } while (System.nanoTime() < warmupEnd);
+
+        long budget = (long) (seconds * 1e9);
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads != null ? threads.getThreadAllocatedBytes(thread) : 0;
+        long start = System.nanoTime();
+        long elapsed;
+        int ops = 0;
+        do {
+            sink = operation.get();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget || ops < 3);
+        long allocated = threads != null ? threads.getThreadAllocatedBytes(thread) - allocatedBefore : -1;
+
+        double perOp = elapsed / 1e9 / ops;
+        System.out.printf("%-24s %8d %12.3f %12.2f %10.1f %14s%n",
+                          name, ops, perOp * 1e3, tokenCount / perOp / 1e6, bytes / perOp / (1 << 20),
+                          allocated < 0 ? "n/d" : formatSize(allocated / ops));
+    }
+
+    // Affichage de l'arbre vers une sortie qui ne fait que compter les caractères
+    private static long printedLength(ASTNode ast) {
+        CountingAppendable out = new CountingAppendable();
+        try {
+            new AstWriter(out, AstWriter.Format.TREE).write(ast);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.count;
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes >= 1L << 30) return String.format("%.1f Gio", bytes / (double) (1L << 30));
+        if (bytes >= 1L << 20) return String.format("%.1f Mio", bytes / (double) (1L << 20));
+        if (bytes >= 1L << 10) return String.format("%.1f Kio", bytes / (double) (1L << 10));
+        return bytes + " o";
+    }
+
+    private static final class CountingAppendable implements Appendable {
+        long count;
+
+        @Override
+        public Appendable append(CharSequence text) {
+            count += text.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) {
+            count += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            count++;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package bench;
+
+import java.util.*;
+
+// Générateur de programmes réalistes et valides pour les mesures de performance :
+// classes de méthodes statiques avec déclarations, boucles while, if/else, appels
+// System.out.println et commentaires. Même graine et même taille : même texte.
+public class ProgramGenerator {
+    private static final String[] NAMES = {
+        "count", "total", "index", "sum", "value", "limit", "step", "offset",
+        "ratio", "delta", "width", "height", "score", "level", "result", "temp"
+    };
+    private static final String[] WORDS = {
+        "debut", "fin", "valeur", "total", "etape", "resultat", "boucle", "erreur"
+    };
+
+    private final Random random;
+    private final StringBuilder out = new StringBuilder();
+    private int indent = 0;
+    private int nameCounter = 0;
+    // Variables visibles (par type), une liste par portée
+    private final Deque<List<String>> ints = new ArrayDeque<>();
+    private final Deque<List<String>> doubles = new ArrayDeque<>();
+    private final Deque<List<String>> strings = new ArrayDeque<>();
+
+    public ProgramGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // Programme d'au moins 'bytes' caractères (ASCII : autant d'octets)
+    public static String generate(long seed, long bytes) {
+        return new ProgramGenerator(seed).program(bytes);
+    }
+
+    public String program(long bytes) {
+        out.setLength(0);
+        int classCount = 0;
+        do {
+            line("// Classe generee " + classCount);
+            line("public class Gen" + classCount + " {");
+            indent++;
+            int methods = 4 + random.nextInt(12);
+            for (int m = 0; m < methods && out.length() < bytes; m++) {
+                method(classCount == 0 && m == 0 ? "main" : "m" + m);
+            }
+            indent--;
+            line("}");
+            line("");
+            classCount++;
+        } while (out.length() < bytes);
+        return out.toString();
+    }
+
+    private void method(String name) {
+        nameCounter = 0;
+        if (random.nextInt(3) == 0) {
+            line("/* " + word() + " : " + word() + " " + word() + " */");
+        }
+        line("public static void " + name + "(String[] args) {");
+        indent++;
+        enter();
+        declareInt();
+        declareInt();
+        declareDouble();
+        if (random.nextBoolean()) {
+            declareString();
+        }
+        int statements = 6 + random.nextInt(20);
+        for (int i = 0; i < statements; i++) {
+            statement(0);
+        }
+        exit();
+        indent--;
+        line("}");
+    }
+
+    private void statement(int depth) {
+        int choice = random.nextInt(100);
+        if (depth < 3 && choice < 14) {
+            loop(depth);
+        } else if (depth < 3 && choice < 26) {
+            conditional(depth);
+        } else if (choice < 40) {
+            line(pick(ints) + " = " + intExpr(0) + ";");
+        } else if (choice < 48) {
+            line(pick(doubles) + " = " + doubleExpr(0) + ";");
+        } else if (choice < 56) {
+            line(pick(ints) + (random.nextBoolean() ? "++;" : "--;"));
+        } else if (choice < 66) {
+            declareInt();
+        } else if (choice < 70) {
+            declareDouble();
+        } else if (choice < 74) {
+            declareString();
+        } else if (choice < 78) {
+            line("// " + word() + " " + word());
+        } else if (choice < 90) {
+            line("System.out.println(\"" + word() + " = \" + " + pick(ints) + ");");
+        } else {
+            line("System.out.println(" + printable() + ");");
+        }
+    }
+
+    private void loop(int depth) {
+        String counter = fresh("i");
+        int limit = 2 + random.nextInt(40);
+        line("int " + counter + " = 0;");
+        ints.peek().add(counter);
+        String condition = counter + " < " + limit;
+        if (random.nextInt(4) == 0) {
+            condition += " && " + pick(ints) + " != " + random.nextInt(100);
+        }
+        line("while (" + condition + ") {");
+        block(depth);
+        indent++;
+        line(counter + "++;");
+        indent--;
+        line("}");
+    }
+
+    private void conditional(int depth) {
+        line("if (" + comparison() + ") {");
+        block(depth);
+        if (random.nextBoolean()) {
+            line("} else {");
+            block(depth);
+        }
+        line("}");
+    }
+
+    private void block(int depth) {
+        indent++;
+        enter();
+        int statements = 1 + random.nextInt(4);
+        for (int i = 0; i < statements; i++) {
+            statement(depth + 1);
+        }
+        exit();
+        indent--;
+    }
+
+    private void declareInt() {
+        String name = fresh(NAMES[random.nextInt(NAMES.length)]);
+        line("int " + name + " = " + intExpr(1) + ";");
+        ints.peek().add(name);
+    }
+
+    private void declareDouble() {
+        String name = fresh(NAMES[random.nextInt(NAMES.length)]);
+        line("double " + name + " = " + doubleExpr(1) + ";");
+        doubles.peek().add(name);
+    }
+
+    private void declareString() {
+        String name = fresh("label");
+        line("String " + name + " = \"" + word() + " \" + " + pick(ints) + ";");
+        strings.peek().add(name);
+    }
+
+    private String intExpr(int depth) {
+        int choice = random.nextInt(10);
+        if (all(ints).isEmpty()) {
+            return String.valueOf(random.nextInt(1000));
+        }
+        if (depth > 2 || choice < 3) {
+            return random.nextBoolean() ? pick(ints) : String.valueOf(random.nextInt(1000));
+        }
+        if (choice < 4) {
+            return "-" + pick(ints);
+        }
+        String operator = "+-*/%".substring(choice % 5, choice % 5 + 1);
+        String right = operator.equals("/") || operator.equals("%")
+                ? String.valueOf(1 + random.nextInt(9))
+                : intExpr(depth + 1);
+        String expression = intExpr(depth + 1) + " " + operator + " " + right;
+        return depth > 0 ? "(" + expression + ")" : expression;
+    }
+
+    private String doubleExpr(int depth) {
+        int choice = random.nextInt(6);
+        if (depth > 1 || choice < 2) {
+            return random.nextBoolean() && !all(doubles).isEmpty()
+                    ? pick(doubles)
+                    : random.nextInt(100) + "." + random.nextInt(100);
+        }
+        String operator = choice < 4 ? " * " : " + ";
+        String expression = doubleExpr(depth + 1) + operator + (random.nextBoolean() ? intExpr(2) : doubleExpr(depth + 1));
+        return depth > 0 ? "(" + expression + ")" : expression;
+    }
+
+    private String comparison() {
+        String[] operators = {"<", "<=", ">", ">=", "==", "!="};
+        String comparison = intExpr(1) + " " + operators[random.nextInt(operators.length)] + " " + intExpr(1);
+        if (random.nextInt(4) == 0) {
+            comparison += (random.nextBoolean() ? " && " : " || ") + pick(ints) + " > " + random.nextInt(50);
+        }
+        return comparison;
+    }
+
+    private String printable() {
+        if (!all(strings).isEmpty() && random.nextBoolean()) {
+            return pick(strings) + " + \" \" + " + pick(doubles);
+        }
+        return "\"" + word() + " \" + " + pick(doubles);
+    }
+
+    // Noms uniques dans la méthode : aucune redéclaration, quelle que soit la portée
+    private String fresh(String base) {
+        return base + (nameCounter++);
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String pick(Deque<List<String>> scopes) {
+        List<String> visible = all(scopes);
+        return visible.get(random.nextInt(visible.size()));
+    }
+
+    private static List<String> all(Deque<List<String>> scopes) {
+        if (scopes.size() == 1) {
+            return scopes.peek();
+        }
+        List<String> visible = new ArrayList<>();
+        for (List<String> scope : scopes) {
+            visible.addAll(scope);
+        }
+        return visible;
+    }
+
+    private void enter() {
+        ints.push(new ArrayList<>());
+        doubles.push(new ArrayList<>());
+        strings.push(new ArrayList<>());
+    }
+
+    private void exit() {
+        ints.pop();
+        doubles.pop();
+        strings.pop();
+    }
+
+    private void line(String text) {
+        for (int i = 0; i < indent; i++) {
+            out.append("    ");
+        }
+        out.append(text).append('\n');
+    }
+}
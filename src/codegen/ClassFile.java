@@ -0,0 +1,88 @@
+package codegen;
+
+import java.io.*;
+
+// Assemblage d'un fichier .class (version 49 : vérification par inférence de types,
+// sans StackMapTable à calculer). Toutes les méthodes sont statiques.
+final class ClassFile {
+    private static final int ACC_PUBLIC = 0x0001, ACC_STATIC = 0x0008, ACC_SUPER = 0x0020;
+
+    final ConstantPool pool = new ConstantPool();
+    final String name;
+    private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private int methodCount = 0;
+
+    ClassFile(String name) {
+        this.name = name;
+        addConstructor();
+    }
+
+    void addStaticMethod(String methodName, String descriptor, Code code) {
+        byte[] bytecode = code.toByteArray();
+        DataOutputStream out = new DataOutputStream(methods);
+        try {
+            out.writeShort(ACC_PUBLIC | ACC_STATIC);
+            out.writeShort(pool.utf8(methodName));
+            out.writeShort(pool.utf8(descriptor));
+            writeCode(out, code, bytecode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        methodCount++;
+    }
+
+    // Constructeur par défaut : super()
+    private void addConstructor() {
+        Code code = new Code();
+        code.useLocals(1);
+        code.local(Code.ALOAD, 0, 1);
+        code.opShort(Code.INVOKESPECIAL, pool.methodRef("java/lang/Object", "<init>", "()V"), -1);
+        code.op(Code.RETURN, 0);
+        DataOutputStream out = new DataOutputStream(methods);
+        try {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(pool.utf8("<init>"));
+            out.writeShort(pool.utf8("()V"));
+            writeCode(out, code, code.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        methodCount++;
+    }
+
+    private void writeCode(DataOutputStream out, Code code, byte[] bytecode) throws IOException {
+        out.writeShort(1);                       // un attribut : Code
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(12 + bytecode.length);
+        out.writeShort(code.maxStack);
+        out.writeShort(code.maxLocals);
+        out.writeInt(bytecode.length);
+        out.write(bytecode);
+        out.writeShort(0);                       // pas de table d'exceptions
+        out.writeShort(0);                       // pas d'attributs
+    }
+
+    byte[] toByteArray() {
+        int thisClass = pool.classRef(name);
+        int superClass = pool.classRef("java/lang/Object");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(49);
+            pool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);                   // interfaces
+            out.writeShort(0);                   // champs
+            out.writeShort(methodCount);
+            methods.writeTo(out);
+            out.writeShort(0);                   // attributs
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,144 @@
+package codegen;
+
+import java.util.*;
+
+// Tampon de bytecode d'une méthode : émission des instructions, étiquettes de saut
+// résolues à la pose, et suivi de la hauteur de pile (max_stack)
+final class Code {
+    static final int ICONST_0 = 3, DCONST_0 = 14, DCONST_1 = 15, BIPUSH = 16, SIPUSH = 17;
+    static final int LDC = 18, LDC_W = 19, LDC2_W = 20;
+    static final int ILOAD = 21, DLOAD = 24, ALOAD = 25, ISTORE = 54, DSTORE = 57, ASTORE = 58;
+    static final int POP = 87, POP2 = 88, DUP = 89, DUP2 = 92;
+    static final int IADD = 96, DADD = 99, ISUB = 100, DSUB = 103, IMUL = 104, DMUL = 107;
+    static final int IDIV = 108, DDIV = 111, IREM = 112, DREM = 115, INEG = 116, DNEG = 119;
+    static final int IINC = 132, I2D = 135, I2C = 146;
+    static final int DCMPL = 151, DCMPG = 152;
+    static final int IFEQ = 153, IFNE = 154, IFLT = 155, IFGE = 156, IFGT = 157, IFLE = 158;
+    static final int IF_ICMPEQ = 159, IF_ICMPNE = 160, IF_ICMPLT = 161, IF_ICMPGE = 162,
+                     IF_ICMPGT = 163, IF_ICMPLE = 164;
+    static final int GOTO = 167, IRETURN = 172, DRETURN = 175, ARETURN = 176, RETURN = 177;
+    static final int GETSTATIC = 178, INVOKEVIRTUAL = 182, INVOKESPECIAL = 183, INVOKESTATIC = 184;
+    static final int NEW = 187, WIDE = 196;
+
+    static final class Label {
+        private int position = -1;
+        private int stack = -1;          // hauteur de pile attendue à l'étiquette
+        private final List<Integer> jumps = new ArrayList<>();  // adresses des sauts à corriger
+    }
+
+    private byte[] bytes = new byte[64];
+    private int length = 0;
+    private int stack = 0;
+    int maxStack = 0;
+    int maxLocals = 0;
+
+    int length() {
+        return length;
+    }
+
+    // Instruction sans opérande ; delta : effet sur la hauteur de pile
+    void op(int opcode, int delta) {
+        u1(opcode);
+        adjust(delta);
+    }
+
+    void opByte(int opcode, int operand, int delta) {
+        u1(opcode);
+        u1(operand);
+        adjust(delta);
+    }
+
+    void opShort(int opcode, int operand, int delta) {
+        u1(opcode);
+        u2(operand);
+        adjust(delta);
+    }
+
+    // Accès à une variable locale (iload, dstore...) avec la forme 'wide' au-delà de 255
+    void local(int opcode, int slot, int delta) {
+        if (slot > 0xFF) {
+            u1(WIDE);
+            opShort(opcode, slot, delta);
+        } else {
+            opByte(opcode, slot, delta);
+        }
+    }
+
+    void iinc(int slot, int increment) {
+        if (slot > 0xFF || increment < Byte.MIN_VALUE || increment > Byte.MAX_VALUE) {
+            u1(WIDE);
+            u1(IINC);
+            u2(slot);
+            u2(increment);
+        } else {
+            u1(IINC);
+            u1(slot);
+            u1(increment);
+        }
+    }
+
+    void useLocals(int count) {
+        maxLocals = Math.max(maxLocals, count);
+    }
+
+    Label label() {
+        return new Label();
+    }
+
+    void jump(int opcode, Label target, int delta) {
+        int at = length;
+        u1(opcode);
+        u2(0);
+        adjust(delta);
+        target.stack = stack;
+        if (target.position >= 0) {
+            patch(at, target.position);
+        } else {
+            target.jumps.add(at);
+        }
+    }
+
+    void mark(Label label) {
+        label.position = length;
+        if (label.stack >= 0) {
+            stack = label.stack;
+        }
+        for (int at : label.jumps) {
+            patch(at, length);
+        }
+        label.jumps.clear();
+    }
+
+    private void patch(int at, int target) {
+        int offset = target - at;
+        if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+            throw new IllegalStateException("Saut trop long (méthode trop grande)");
+        }
+        bytes[at + 1] = (byte) (offset >> 8);
+        bytes[at + 2] = (byte) offset;
+    }
+
+    private void adjust(int delta) {
+        stack += delta;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void u1(int value) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, length * 2);
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    private void u2(int value) {
+        u1(value >> 8);
+        u1(value);
+    }
+
+    byte[] toByteArray() {
+        if (length > 0xFFFF) {
+            throw new IllegalStateException("Méthode trop grande (plus de 65535 octets de bytecode)");
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+}
@@ -0,0 +1,112 @@
+package codegen;
+
+import java.io.*;
+import java.util.*;
+
+// Table des constantes d'un fichier .class ; chaque entrée n'est écrite qu'une fois
+final class ConstantPool {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private int count = 1;
+
+    int utf8(String value) {
+        Integer index = indexes.get("U" + value);
+        if (index != null) {
+            return index;
+        }
+        try {
+            out.writeByte(1);
+            out.writeUTF(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return add("U" + value, 1);
+    }
+
+    int classRef(String internalName) {
+        return entry("C" + internalName, 7, utf8(internalName), -1);
+    }
+
+    int string(String value) {
+        return entry("S" + value, 8, utf8(value), -1);
+    }
+
+    int integer(int value) {
+        Integer index = indexes.get("I" + value);
+        if (index != null) {
+            return index;
+        }
+        write(3);
+        writeInt(value);
+        return add("I" + value, 1);
+    }
+
+    int doubleValue(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        Integer index = indexes.get("D" + bits);
+        if (index != null) {
+            return index;
+        }
+        write(6);
+        writeInt((int) (bits >>> 32));
+        writeInt((int) bits);
+        // Une constante double occupe deux entrées
+        return add("D" + bits, 2);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return entry("F" + owner + "." + name + ":" + descriptor, 9, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    int methodRef(String owner, String name, String descriptor) {
+        return entry("M" + owner + "." + name + ":" + descriptor, 10, classRef(owner), nameAndType(name, descriptor));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        return entry("N" + name + ":" + descriptor, 12, utf8(name), utf8(descriptor));
+    }
+
+    // Entrée faite d'un ou deux index vers d'autres entrées (déjà écrites)
+    private int entry(String key, int tag, int first, int second) {
+        Integer index = indexes.get(key);
+        if (index != null) {
+            return index;
+        }
+        write(tag);
+        writeShort(first);
+        if (second >= 0) {
+            writeShort(second);
+        }
+        return add(key, 1);
+    }
+
+    private int add(String key, int size) {
+        int index = count;
+        count += size;
+        if (count > 0xFFFF) {
+            throw new IllegalStateException("Trop de constantes dans la classe");
+        }
+        indexes.put(key, index);
+        return index;
+    }
+
+    private void write(int value) {
+        bytes.write(value);
+    }
+
+    private void writeShort(int value) {
+        bytes.write(value >>> 8);
+        bytes.write(value);
+    }
+
+    private void writeInt(int value) {
+        writeShort(value >>> 16);
+        writeShort(value & 0xFFFF);
+    }
+
+    void writeTo(DataOutputStream target) throws IOException {
+        target.writeShort(count);
+        bytes.writeTo(target);
+    }
+}
@@ -0,0 +1,872 @@
+package codegen;
+
+import semantic.SymbolTable;
+import semantic.Type;
+import models.*;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+// Génération de fichiers .class exécutables par la JVM à partir de l'AST.
+// Chaque CLASS donne une classe ; ses méthodes deviennent des méthodes statiques sans
+// paramètres (le Parser ne les conserve pas), sauf main(String[]). Les instructions et
+// méthodes hors classe vont dans une classe au nom par défaut. Les variables locales
+// sont typées par leur DECLARATION, les boucles deviennent des sauts conditionnels.
+public class JvmCompiler {
+    private static final String PRINT_STREAM = "java/io/PrintStream";
+    private static final String BUILDER = "java/lang/StringBuilder";
+
+    private final List<String> errors = new ArrayList<>();
+
+    // État de la méthode en cours de compilation
+    private ClassFile classFile;
+    private Map<String, Type> methods;      // méthodes de la classe courante -> type de retour
+    private Code code;
+    private SymbolTable scopes;             // symbole -> index dans locals
+    private final List<Local> locals = new ArrayList<>();
+    private int nextSlot;
+    private int line;
+    private final Map<ASTNode, Type> types = new IdentityHashMap<>();
+    // Instructions restant à compiler, ou suite d'un BLOCK/WHILE/IF (Runnable : portée,
+    // saut, étiquette) : une pile de tâches au lieu d'une récursion par niveau d'imbrication
+    private final Deque<Object> pending = new ArrayDeque<>();
+
+    private final StatementCompiler statements = new StatementCompiler();
+    private final ExpressionCompiler expressions = new ExpressionCompiler();
+
+    private static final class Local {
+        final Type type;
+        final int slot;
+
+        Local(Type type, int slot) {
+            this.type = type;
+            this.slot = slot;
+        }
+    }
+
+    // Nom interne de chaque classe -> contenu du fichier .class ; vide en cas d'erreur
+    public Map<String, byte[]> compile(ASTNode program, String defaultClassName) {
+        errors.clear();
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        List<ASTNode> loose = new ArrayList<>();
+        for (ASTNode child : program.children) {
+            if (child.kind == NodeKind.CLASS) {
+                compileClass(child.value, child.children, classes);
+            } else {
+                loose.add(child);
+            }
+        }
+        if (!loose.isEmpty()) {
+            compileClass(defaultClassName, loose, classes);
+        }
+        if (!errors.isEmpty()) {
+            classes.clear();
+        }
+        return classes;
+    }
+
+    public static void writeClasses(Map<String, byte[]> classes, Path directory) throws IOException {
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            Path file = directory.resolve(entry.getKey() + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, entry.getValue());
+        }
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // members : méthodes et instructions ; les instructions hors méthode forment main
+    private void compileClass(String name, List<ASTNode> members, Map<String, byte[]> classes) {
+        if (classes.containsKey(name)) {
+            errors.add("Classe déjà définie: " + name);
+            return;
+        }
+        classFile = new ClassFile(name);
+        methods = new HashMap<>();
+        List<ASTNode> statementsOutside = new ArrayList<>();
+        boolean hasMain = false;
+        for (ASTNode member : members) {
+            if (member.kind == NodeKind.METHOD) {
+                Type returnType = returnType(member);
+                hasMain |= member.value.equals("main");
+                if (methods.containsKey(member.value)) {
+                    error(member, "Méthode déjà définie: " + member.value);
+                }
+                methods.put(member.value, returnType);
+            } else if (member.kind != NodeKind.MODIFIER) {
+                statementsOutside.add(member);
+            }
+        }
+        if (hasMain && !statementsOutside.isEmpty()) {
+            error(statementsOutside.get(0), "Instruction hors méthode non prise en charge");
+        }
+
+        try {
+            for (ASTNode member : members) {
+                if (member.kind == NodeKind.METHOD) {
+                    compileMethod(member.value, methods.get(member.value), member.children);
+                }
+            }
+            if (!hasMain && !statementsOutside.isEmpty()) {
+                compileMethod("main", null, statementsOutside);
+            }
+            classes.put(name, classFile.toByteArray());
+        } catch (IllegalStateException e) {
+            errors.add(name + ": " + e.getMessage());
+        }
+    }
+
+    // null : void
+    private Type returnType(ASTNode method) {
+        for (ASTNode child : method.children) {
+            if (child.kind == NodeKind.RETURN_TYPE && !child.value.equals("void")) {
+                Type type = Type.fromName(child.value);
+                if (type == null) {
+                    error(method, "Type de retour non pris en charge: " + child.value);
+                }
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private void compileMethod(String name, Type returnType, List<ASTNode> body) {
+        boolean main = name.equals("main") && returnType == null;
+        code = new Code();
+        scopes = new SymbolTable();
+        locals.clear();
+        types.clear();
+        nextSlot = main ? 1 : 0;   // main : args dans la variable 0
+        code.useLocals(nextSlot);
+
+        List<ASTNode> instructions = new ArrayList<>();
+        for (ASTNode statement : body) {
+            if (statement.kind != NodeKind.RETURN_TYPE && statement.kind != NodeKind.MODIFIER) {
+                instructions.add(statement);
+            }
+        }
+        scopes.enterScope();
+        compileStatements(instructions);
+        scopes.exitScope();
+
+        // Sans instruction return dans le langage : valeur par défaut en fin de méthode
+        if (returnType == null) {
+            code.op(Code.RETURN, 0);
+        } else if (returnType == Type.DOUBLE) {
+            code.op(Code.DCONST_0, 2);
+            code.op(Code.DRETURN, -2);
+        } else if (returnType == Type.STRING) {
+            code.op(1 /* aconst_null */, 1);
+            code.op(Code.ARETURN, -1);
+        } else {
+            code.op(Code.ICONST_0, 1);
+            code.op(Code.IRETURN, -1);
+        }
+        String descriptor = main ? "([Ljava/lang/String;)V" : "()" + descriptor(returnType);
+        classFile.addStaticMethod(name, descriptor, code);
+    }
+
+    private void compileStatements(List<ASTNode> nodes) {
+        pushAll(nodes);
+        while (!pending.isEmpty()) {
+            Object task = pending.pop();
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+                continue;
+            }
+            ASTNode node = (ASTNode) task;
+            if (node.line() > 0) {
+                line = node.line();
+            }
+            node.accept(statements);
+        }
+    }
+
+    // Dépilées dans l'ordre de la liste
+    private void pushAll(List<ASTNode> nodes) {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            pending.push(nodes.get(i));
+        }
+    }
+
+    // Suite à exécuter après les tâches empilées ensuite
+    private void later(Runnable task) {
+        pending.push(task);
+    }
+
+    // Instruction seule (corps de while, branche de if) : sa propre portée
+    private void nested(ASTNode node) {
+        later(scopes::exitScope);
+        pending.push(node);
+        later(scopes::enterScope);
+    }
+
+    // Évalue l'expression et laisse sa valeur sur la pile, convertie en 'target' si besoin
+    private void compileExpression(ASTNode node, Type target) {
+        emit(new Value(node, target));
+    }
+
+    // Saute à 'target' si la condition vaut 'jumpIf'
+    private void branch(ASTNode node, boolean jumpIf, Code.Label target) {
+        emit(new Jump(node, jumpIf, target));
+    }
+
+    // Tâches de génération d'une expression : valeur d'un sous-arbre, saut selon une
+    // condition, ou Runnable (instruction à émettre une fois les opérandes empilés).
+    // Dépilées par emit(), comme les instructions par compileStatements : une longue
+    // chaîne a + b + ... ne fait pas de récursion Java.
+    private static final class Value {
+        final ASTNode node;
+        final Type target;
+
+        Value(ASTNode node, Type target) {
+            this.node = node;
+            this.target = target;
+        }
+    }
+
+    private static final class Jump {
+        final ASTNode node;
+        final boolean jumpIf;
+        final Code.Label target;
+
+        Jump(ASTNode node, boolean jumpIf, Code.Label target) {
+            this.node = node;
+            this.jumpIf = jumpIf;
+            this.target = target;
+        }
+    }
+
+    private void emit(Object first) {
+        Deque<Object> tasks = new ArrayDeque<>();
+        List<Object> steps = new ArrayList<>();
+        tasks.push(first);
+        while (!tasks.isEmpty()) {
+            Object task = tasks.pop();
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+                continue;
+            }
+            steps.clear();
+            if (task instanceof Value) {
+                value((Value) task, steps);
+            } else {
+                jump((Jump) task, steps);
+            }
+            // Étapes dépilées dans l'ordre de la liste
+            for (int i = steps.size() - 1; i >= 0; i--) {
+                tasks.push(steps.get(i));
+            }
+        }
+    }
+
+    private void value(Value task, List<Object> steps) {
+        ASTNode node = task.node;
+        Type type = typeOf(node);
+        if (type == Type.BOOLEAN && !isValueNode(node)) {
+            // Condition utilisée comme valeur : 1 ou 0
+            Code.Label isFalse = code.label();
+            steps.add(new Jump(node, false, isFalse));
+            steps.add((Runnable) () -> {
+                Code.Label end = code.label();
+                code.op(Code.ICONST_0 + 1, 1);
+                code.jump(Code.GOTO, end, 0);
+                code.mark(isFalse);
+                code.op(Code.ICONST_0, 1);
+                code.mark(end);
+            });
+        } else if (node.kind == NodeKind.UNARY_OP) {
+            steps.add(new Value(node.children.get(0), type));
+            steps.add((Runnable) () -> code.op(type == Type.DOUBLE ? Code.DNEG : Code.INEG, 0));
+        } else if (node.kind == NodeKind.BINARY_OP && type == Type.STRING) {
+            concat(node, steps);
+        } else if (node.kind == NodeKind.BINARY_OP) {
+            steps.add(new Value(node.children.get(0), type));
+            steps.add(new Value(node.children.get(1), type));
+            steps.add((Runnable) () -> arithmetic(node.value, type == Type.DOUBLE));
+        } else {
+            node.accept(expressions);
+        }
+        if (task.target == Type.DOUBLE && type != Type.DOUBLE && type != null) {
+            steps.add((Runnable) () -> code.op(Code.I2D, 1));
+        }
+    }
+
+    private void arithmetic(String op, boolean isDouble) {
+        int opcode;
+        switch (op) {
+            case "+": opcode = isDouble ? Code.DADD : Code.IADD; break;
+            case "-": opcode = isDouble ? Code.DSUB : Code.ISUB; break;
+            case "*": opcode = isDouble ? Code.DMUL : Code.IMUL; break;
+            case "/": opcode = isDouble ? Code.DDIV : Code.IDIV; break;
+            default: opcode = isDouble ? Code.DREM : Code.IREM;
+        }
+        code.op(opcode, isDouble ? -2 : -1);
+    }
+
+    // a + b + c (dont au moins une chaîne) : un seul StringBuilder pour toute la chaîne
+    private void concat(ASTNode node, List<Object> steps) {
+        List<ASTNode> parts = new ArrayList<>();
+        ASTNode current = node;
+        while (current.kind == NodeKind.BINARY_OP && current.value.equals("+") && typeOf(current) == Type.STRING) {
+            parts.add(current.children.get(1));
+            current = current.children.get(0);
+        }
+        parts.add(current);
+        Collections.reverse(parts);
+
+        steps.add((Runnable) () -> {
+            code.opShort(Code.NEW, classFile.pool.classRef(BUILDER), 1);
+            code.op(Code.DUP, 1);
+            code.opShort(Code.INVOKESPECIAL, classFile.pool.methodRef(BUILDER, "<init>", "()V"), -1);
+        });
+        for (ASTNode part : parts) {
+            Type type = typeOf(part);
+            steps.add(new Value(part, type));
+            String descriptor = "(" + descriptor(type) + ")L" + BUILDER + ";";
+            steps.add((Runnable) () ->
+                code.opShort(Code.INVOKEVIRTUAL, classFile.pool.methodRef(BUILDER, "append", descriptor), -size(type)));
+        }
+        steps.add((Runnable) () ->
+            code.opShort(Code.INVOKEVIRTUAL, classFile.pool.methodRef(BUILDER, "toString", "()Ljava/lang/String;"), 0));
+    }
+
+    // Expressions booléennes lues directement comme valeur (variable)
+    private boolean isValueNode(ASTNode node) {
+        return node.kind == NodeKind.IDENTIFIER;
+    }
+
+    private void jump(Jump task, List<Object> steps) {
+        ASTNode node = task.node;
+        boolean jumpIf = task.jumpIf;
+        Code.Label target = task.target;
+        if (node.kind == NodeKind.BINARY_OP && (node.value.equals("&&") || node.value.equals("||"))) {
+            boolean and = node.value.equals("&&");
+            ASTNode left = node.children.get(0);
+            ASTNode right = node.children.get(1);
+            if (and != jumpIf) {
+                // && faux dès le premier faux, || vrai dès le premier vrai
+                steps.add(new Jump(left, jumpIf, target));
+                steps.add(new Jump(right, jumpIf, target));
+            } else {
+                Code.Label skip = code.label();
+                steps.add(new Jump(left, !jumpIf, skip));
+                steps.add(new Jump(right, jumpIf, target));
+                steps.add((Runnable) () -> code.mark(skip));
+            }
+            return;
+        }
+        if (node.kind == NodeKind.COMPARISON) {
+            ASTNode left = node.children.get(0);
+            ASTNode right = node.children.get(1);
+            Type leftType = typeOf(left);
+            Type rightType = typeOf(right);
+            int condition = comparison(node.value, jumpIf);
+            if (leftType == Type.DOUBLE || rightType == Type.DOUBLE) {
+                steps.add(new Value(left, Type.DOUBLE));
+                steps.add(new Value(right, Type.DOUBLE));
+                // NaN : < et <= sont faux avec dcmpg, > et >= avec dcmpl
+                boolean less = node.value.startsWith("<");
+                steps.add((Runnable) () -> {
+                    code.op(less ? Code.DCMPG : Code.DCMPL, -3);
+                    code.jump(condition, target, -1);
+                });
+            } else {
+                steps.add(new Value(left, leftType));
+                steps.add(new Value(right, rightType));
+                steps.add((Runnable) () -> code.jump(condition + (Code.IF_ICMPEQ - Code.IFEQ), target, -2));
+            }
+            return;
+        }
+        steps.add(new Value(node, Type.BOOLEAN));
+        steps.add((Runnable) () -> code.jump(jumpIf ? Code.IFNE : Code.IFEQ, target, -1));
+    }
+
+    // Instruction ifXX qui saute quand 'op' donne 'jumpIf' (comparaison à zéro)
+    private int comparison(String op, boolean jumpIf) {
+        int opcode;
+        switch (op) {
+            case "==": opcode = Code.IFEQ; break;
+            case "!=": opcode = Code.IFNE; break;
+            case "<": opcode = Code.IFLT; break;
+            case ">=": opcode = Code.IFGE; break;
+            case ">": opcode = Code.IFGT; break;
+            default: opcode = Code.IFLE;
+        }
+        if (!jumpIf) {
+            // Les opcodes vont par paires contraires : ifeq/ifne, iflt/ifge, ifgt/ifle
+            opcode = ((opcode - Code.IFEQ) ^ 1) + Code.IFEQ;
+        }
+        return opcode;
+    }
+
+    // Type statique d'une expression (mémorisé), null en cas d'erreur. Calculé en
+    // post-ordre avec une pile explicite : les opérandes d'abord, de gauche à droite
+    private Type typeOf(ASTNode root) {
+        if (types.containsKey(root)) {
+            return types.get(root);
+        }
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.peek();
+            boolean ready = true;
+            if (hasOperands(node)) {
+                for (int i = node.children.size() - 1; i >= 0; i--) {
+                    if (!types.containsKey(node.children.get(i))) {
+                        stack.push(node.children.get(i));
+                        ready = false;
+                    }
+                }
+            }
+            if (ready) {
+                stack.pop();
+                types.put(node, computeType(node));
+            }
+        }
+        return types.get(root);
+    }
+
+    private static boolean hasOperands(ASTNode node) {
+        switch (node.kind) {
+            case POST_INCREMENT:
+            case POST_DECREMENT:
+            case UNARY_OP:
+            case COMPARISON:
+            case BINARY_OP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Type d'un nœud dont les opérandes sont déjà typés
+    private Type computeType(ASTNode node) {
+        Type type;
+        switch (node.kind) {
+            case NUMBER:
+                type = Type.ofNumber(node.value);
+                break;
+            case STRING_LITERAL:
+                type = Type.STRING;
+                break;
+            case IDENTIFIER:
+                Local local = lookup(node);
+                type = local != null ? local.type : null;
+                break;
+            case POST_INCREMENT:
+            case POST_DECREMENT:
+                type = types.get(node.children.get(0));
+                break;
+            case UNARY_OP:
+                type = Type.ofNegation(types.get(node.children.get(0)));
+                break;
+            case COMPARISON:
+                type = Type.ofComparison(node.value, types.get(node.children.get(0)), types.get(node.children.get(1)));
+                break;
+            case BINARY_OP:
+                type = Type.ofBinary(node.value, types.get(node.children.get(0)), types.get(node.children.get(1)));
+                break;
+            default:
+                type = null;
+        }
+        if (type == null && node.kind != NodeKind.IDENTIFIER) {
+            error(node, "Expression invalide ou types incompatibles: " + describe(node));
+        }
+        return type;
+    }
+
+    private String describe(ASTNode node) {
+        return node.value.isEmpty() ? node.type() : node.type() + " " + node.value;
+    }
+
+    // Variable désignée par le nœud (IDENTIFIER, ASSIGNMENT, INCREMENT, DECREMENT)
+    private Local lookup(ASTNode node) {
+        int found = scopes.lookup(node.symbol());
+        if (found < 0) {
+            errors.add("Variable non déclarée: " + node.value + " à la ligne " + line);
+            return null;
+        }
+        return locals.get(found);
+    }
+
+    private Local declare(ASTNode node, Type type, String name) {
+        if (!scopes.declare(node.symbol(), locals.size())) {
+            error(node, "Variable déjà déclarée: " + name);
+        }
+        Local local = new Local(type, nextSlot);
+        nextSlot += type == Type.DOUBLE ? 2 : 1;
+        code.useLocals(nextSlot);
+        locals.add(local);
+        return local;
+    }
+
+    // Valeur (déjà sur la pile) rangée dans la variable
+    private void store(Local local) {
+        switch (local.type) {
+            case DOUBLE:
+                code.local(Code.DSTORE, local.slot, -2);
+                break;
+            case STRING:
+                code.local(Code.ASTORE, local.slot, -1);
+                break;
+            case CHAR:
+                code.op(Code.I2C, 0);
+                code.local(Code.ISTORE, local.slot, -1);
+                break;
+            default:
+                code.local(Code.ISTORE, local.slot, -1);
+        }
+    }
+
+    private void load(Local local) {
+        switch (local.type) {
+            case DOUBLE: code.local(Code.DLOAD, local.slot, 2); break;
+            case STRING: code.local(Code.ALOAD, local.slot, 1); break;
+            default: code.local(Code.ILOAD, local.slot, 1);
+        }
+    }
+
+    private void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            code.op(Code.ICONST_0 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            code.opByte(Code.BIPUSH, value, 1);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            code.opShort(Code.SIPUSH, value, 1);
+        } else {
+            loadConstant(classFile.pool.integer(value), 1);
+        }
+    }
+
+    private void loadConstant(int index, int size) {
+        if (size == 2) {
+            code.opShort(Code.LDC2_W, index, 2);
+        } else if (index <= 0xFF) {
+            code.opByte(Code.LDC, index, 1);
+        } else {
+            code.opShort(Code.LDC_W, index, 1);
+        }
+    }
+
+    private static String descriptor(Type type) {
+        if (type == null) {
+            return "V";
+        }
+        switch (type) {
+            case INT: return "I";
+            case DOUBLE: return "D";
+            case BOOLEAN: return "Z";
+            case CHAR: return "C";
+            default: return "Ljava/lang/String;";
+        }
+    }
+
+    private static int size(Type type) {
+        return type == null ? 0 : type == Type.DOUBLE ? 2 : 1;
+    }
+
+    private void error(ASTNode node, String message) {
+        errors.add(message + " à la ligne " + (node.line() > 0 ? node.line() : line));
+    }
+
+    private final class StatementCompiler implements Visitor<Void> {
+        @Override
+        public Void visitDefault(ASTNode node) {
+            error(node, "Instruction non prise en charge: " + node.type());
+            return null;
+        }
+
+        @Override
+        public Void visitBlock(ASTNode node) {
+            scopes.enterScope();
+            later(scopes::exitScope);
+            pushAll(node.children);
+            return null;
+        }
+
+        @Override
+        public Void visitDeclaration(ASTNode node) {
+            String[] parts = node.value.split(" ", 2);
+            Type type = Type.fromName(parts[0]);
+            if (type == null) {
+                error(node, "Type non pris en charge: " + parts[0]);
+                return null;
+            }
+            // Sans initialisation : valeur par défaut, la variable est toujours définie
+            if (node.children.isEmpty()) {
+                if (type == Type.DOUBLE) {
+                    code.op(Code.DCONST_0, 2);
+                } else if (type == Type.STRING) {
+                    code.op(1 /* aconst_null */, 1);
+                } else {
+                    code.op(Code.ICONST_0, 1);
+                }
+                store(declare(node, type, parts[1]));
+                return null;
+            }
+            ASTNode value = node.children.get(0);
+            Type valueType = typeOf(value);
+            if (valueType != null && !type.accepts(valueType, value)) {
+                error(node, "Types incompatibles: " + valueType + " affecté à une variable " + type);
+                return null;
+            }
+            compileExpression(value, type);
+            store(declare(node, type, parts[1]));
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(ASTNode node) {
+            Local local = lookup(node);
+            ASTNode value = node.children.get(0);
+            Type valueType = typeOf(value);
+            if (local == null || valueType == null) {
+                return null;
+            }
+            if (!local.type.accepts(valueType, value)) {
+                error(node, "Types incompatibles: " + valueType + " affecté à une variable " + local.type);
+                return null;
+            }
+            compileExpression(value, local.type);
+            store(local);
+            return null;
+        }
+
+        @Override
+        public Void visitIncrement(ASTNode node) {
+            increment(node, 1);
+            return null;
+        }
+
+        @Override
+        public Void visitDecrement(ASTNode node) {
+            increment(node, -1);
+            return null;
+        }
+
+        private void increment(ASTNode node, int delta) {
+            Local local = lookup(node);
+            if (local == null) {
+                return;
+            }
+            switch (local.type) {
+                case INT:
+                    code.iinc(local.slot, delta);
+                    break;
+                case CHAR:
+                    load(local);
+                    pushInt(delta);
+                    code.op(Code.IADD, -1);
+                    store(local);
+                    break;
+                case DOUBLE:
+                    load(local);
+                    code.op(Code.DCONST_1, 2);
+                    code.op(delta > 0 ? Code.DADD : Code.DSUB, -2);
+                    store(local);
+                    break;
+                default:
+                    error(node, "Incrémentation d'une variable " + local.type + ": " + node.value);
+            }
+        }
+
+        @Override
+        public Void visitWhile(ASTNode node) {
+            // début : si condition fausse -> fin ; corps ; retour au début
+            Code.Label start = code.label();
+            Code.Label end = code.label();
+            code.mark(start);
+            ASTNode body = null;
+            for (ASTNode child : node.children) {
+                if (child.kind == NodeKind.CONDITION) {
+                    condition(child, end);
+                } else if (child.kind == NodeKind.BODY) {
+                    body = child.children.get(0);
+                }
+            }
+            later(() -> {
+                code.jump(Code.GOTO, start, 0);
+                code.mark(end);
+            });
+            if (body != null) {
+                nested(body);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitIf(ASTNode node) {
+            Code.Label otherwise = code.label();
+            Code.Label end = code.label();
+            ASTNode thenBranch = null;
+            ASTNode elseBranch = null;
+            for (ASTNode child : node.children) {
+                if (child.kind == NodeKind.CONDITION) {
+                    condition(child, otherwise);
+                } else if (child.kind == NodeKind.THEN) {
+                    thenBranch = child.children.get(0);
+                } else if (child.kind == NodeKind.ELSE) {
+                    elseBranch = child.children.get(0);
+                }
+            }
+            // Empilé à l'envers : then, saut vers la fin, otherwise, else, fin
+            boolean hasElse = elseBranch != null;
+            if (hasElse) {
+                later(() -> code.mark(end));
+                nested(elseBranch);
+            }
+            later(() -> {
+                if (hasElse) {
+                    code.jump(Code.GOTO, end, 0);
+                }
+                code.mark(otherwise);
+            });
+            if (thenBranch != null) {
+                nested(thenBranch);
+            }
+            return null;
+        }
+
+        // Saute à 'ifFalse' quand la condition est fausse
+        private void condition(ASTNode condition, Code.Label ifFalse) {
+            ASTNode expression = condition.children.get(0);
+            Type type = typeOf(expression);
+            if (type != null && type != Type.BOOLEAN) {
+                error(condition, "Condition de type " + type + " au lieu de boolean");
+                return;
+            }
+            if (type != null) {
+                branch(expression, false, ifFalse);
+            }
+        }
+
+        @Override
+        public Void visitMethodCall(ASTNode node) {
+            String name = node.value;
+            int count = node.children.size();
+            if (name.equals("System.out.println") || name.equals("System.out.print")) {
+                boolean newLine = name.equals("System.out.println");
+                if (count > 1 || (count == 0 && !newLine)) {
+                    error(node, name + " attend " + (newLine ? "au plus" : "exactement") + " un argument");
+                    return null;
+                }
+                code.opShort(Code.GETSTATIC, classFile.pool.fieldRef("java/lang/System", "out", "L" + PRINT_STREAM + ";"), 1);
+                String method = newLine ? "println" : "print";
+                if (count == 0) {
+                    code.opShort(Code.INVOKEVIRTUAL, classFile.pool.methodRef(PRINT_STREAM, method, "()V"), -1);
+                    return null;
+                }
+                ASTNode argument = node.children.get(0).children.get(0);
+                Type type = typeOf(argument);
+                if (type == null) {
+                    return null;
+                }
+                compileExpression(argument, type);
+                code.opShort(Code.INVOKEVIRTUAL,
+                        classFile.pool.methodRef(PRINT_STREAM, method, "(" + descriptor(type) + ")V"), -1 - size(type));
+                return null;
+            }
+            // Méthode de la même classe, sans argument (le Parser ne garde pas les paramètres)
+            if (!methods.containsKey(name) || count > 0) {
+                error(node, "Appel de méthode non pris en charge: " + name);
+                return null;
+            }
+            Type returnType = methods.get(name);
+            code.opShort(Code.INVOKESTATIC,
+                    classFile.pool.methodRef(classFile.name, name, "()" + descriptor(returnType)), size(returnType));
+            if (returnType != null) {
+                code.op(returnType == Type.DOUBLE ? Code.POP2 : Code.POP, -size(returnType));
+            }
+            return null;
+        }
+    }
+
+    // Émet le code des feuilles d'une expression dont le type a déjà été vérifié par
+    // typeOf ; les opérateurs sont émis par emit()
+    private final class ExpressionCompiler implements Visitor<Void> {
+        @Override
+        public Void visitDefault(ASTNode node) {
+            error(node, "Expression non prise en charge: " + node.type());
+            return null;
+        }
+
+        @Override
+        public Void visitNumber(ASTNode node) {
+            try {
+                if (typeOf(node) == Type.DOUBLE) {
+                    double value = Double.parseDouble(node.value);
+                    if (value == 0 && 1 / value > 0) {
+                        code.op(Code.DCONST_0, 2);
+                    } else if (value == 1) {
+                        code.op(Code.DCONST_1, 2);
+                    } else {
+                        loadConstant(classFile.pool.doubleValue(value), 2);
+                    }
+                } else {
+                    pushInt(Integer.parseInt(node.value));
+                }
+            } catch (NumberFormatException e) {
+                error(node, "Nombre invalide: " + node.value);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitStringLiteral(ASTNode node) {
+            loadConstant(classFile.pool.string(node.value), 1);
+            return null;
+        }
+
+        @Override
+        public Void visitIdentifier(ASTNode node) {
+            Local local = lookup(node);
+            if (local != null) {
+                load(local);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitPostIncrement(ASTNode node) {
+            postIncrement(node, 1);
+            return null;
+        }
+
+        @Override
+        public Void visitPostDecrement(ASTNode node) {
+            postIncrement(node, -1);
+            return null;
+        }
+
+        // Valeur avant modification laissée sur la pile
+        private void postIncrement(ASTNode node, int delta) {
+            Local local = lookup(node.children.get(0));
+            if (local == null) {
+                return;
+            }
+            load(local);
+            switch (local.type) {
+                case INT:
+                    code.iinc(local.slot, delta);
+                    break;
+                case CHAR:
+                    code.op(Code.DUP, 1);
+                    pushInt(delta);
+                    code.op(Code.IADD, -1);
+                    store(local);
+                    break;
+                case DOUBLE:
+                    code.op(Code.DUP2, 2);
+                    code.op(Code.DCONST_1, 2);
+                    code.op(delta > 0 ? Code.DADD : Code.DSUB, -2);
+                    store(local);
+                    break;
+                default:
+                    error(node, "Incrémentation d'une variable " + local.type);
+            }
+        }
+    }
+}
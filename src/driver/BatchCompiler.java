@@ -0,0 +1,161 @@
+package driver;
+
+import lexical.*;
+import syntax.*;
+import models.*;
+import semantic.*;
+import metrics.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.*;
+
+// Compilation d'un lot de fichiers (ou de répertoires) en parallèle.
+// Les résultats sont toujours rendus dans l'ordre des chemins triés,
+// quel que soit l'ordre dans lequel les tâches se terminent.
+public class BatchCompiler {
+    public static class Result {
+        public final Path file;
+        public final int tokenCount;
+        public final List<String> errors;
+        public final String failure;   // erreur d'entrée/sortie ou fatale, sinon null
+
+        Result(Path file, int tokenCount, List<String> errors, String failure) {
+            this.file = file;
+            this.tokenCount = tokenCount;
+            this.errors = errors;
+            this.failure = failure;
+        }
+
+        public boolean isOk() {
+            return failure == null && errors.isEmpty();
+        }
+    }
+
+    private final int parallelism;
+    // Compilation d'un fichier : compileFile, sauf dans les tests du paquetage
+    private final Function<Path, Result> compiler;
+
+    public BatchCompiler(int parallelism) {
+        this(parallelism, BatchCompiler::compileFile);
+    }
+
+    BatchCompiler(int parallelism, Function<Path, Result> compiler) {
+        this.parallelism = parallelism;
+        this.compiler = compiler;
+    }
+
+    public BatchCompiler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Fichiers .java des répertoires donnés (récursivement) et fichiers cités, triés, sans doublons
+    public static List<Path> collect(List<Path> roots) throws IOException {
+        TreeSet<Path> files = new TreeSet<>();
+        for (Path root : roots) {
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> walk = Files.walk(root)) {
+                    walk.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".java"))
+                        .forEach(p -> files.add(p.normalize()));
+                }
+            } else {
+                files.add(root.normalize());
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    public List<Result> compile(List<Path> files) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Flux parallèle exécuté dans notre pool : collect() conserve l'ordre d'entrée
+            return pool.submit(() -> files.parallelStream()
+                                          .map(this::compileOne)
+                                          .collect(Collectors.toList()))
+                       .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Compilation interrompue", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Échec de la compilation par lot", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Une exception inattendue (ou un débordement de pile) ne concerne que son fichier :
+    // elle devient l'échec de ce résultat au lieu d'interrompre tout le lot. Les autres
+    // Error (OutOfMemoryError...) laissent la JVM dans un état douteux et arrêtent le lot.
+    private Result compileOne(Path file) {
+        try {
+            return compiler.apply(file);
+        } catch (RuntimeException | StackOverflowError e) {
+            return new Result(file, 0, Collections.emptyList(), "erreur interne: " + e);
+        }
+    }
+
+    // Chaque phase est mesurée (metrics.Phase) : les threads du lot alimentent le même registre
+    static Result compileFile(Path file) {
+        String name = file.toString();
+        Source source;
+        Phase read = Phase.start("lecture", name);
+        try {
+            source = Source.read(file);
+            read.end(source.length(), 0);
+        } catch (IOException e) {
+            read.end(0, 1);
+            return new Result(file, 0, Collections.emptyList(), "lecture impossible: " + e.getMessage());
+        }
+        Phase lex = Phase.start("lexique", name);
+        TokenBuffer tokens = new Lexer(source).tokenizeToBuffer();
+        lex.end(tokens.size(), 0);
+        Phase parse = Phase.start("syntaxe", name);
+        Parser parser = new Parser(tokens);
+        parser.setEchoErrors(false);
+        parser.setFuelForTokens(tokens.size());
+        ASTNode ast = parser.parse();
+        // Copie des messages : la vue getErrors() retiendrait le parser et ses tokens
+        List<String> errors = List.copyOf(parser.getErrors());
+        parse.end(ast != null ? ast.size() : 0, errors.size());
+        if (ast == null) {
+            return new Result(file, tokens.size(), errors, "analyse interrompue");
+        }
+        if (!errors.isEmpty()) {
+            return new Result(file, tokens.size(), errors, null);
+        }
+        // Analyse sémantique seulement sur un arbre sans erreur de syntaxe
+        Phase semantic = Phase.start("sémantique", name);
+        SemanticAnalyzer analyzer = new SemanticAnalyzer();
+        SemanticModel model = analyzer.analyze(ast);
+        semantic.end(model.declarations().size(), analyzer.getErrors().size());
+        return new Result(file, tokens.size(), List.copyOf(analyzer.getErrors()), null);
+    }
+
+    // Rapport dans l'ordre des résultats ; renvoie le nombre de fichiers en échec
+    public static int report(List<Result> results, PrintStream out) {
+        int failed = 0;
+        for (Result result : results) {
+            if (result.isOk()) {
+                out.println("✅ " + result.file + " (" + result.tokenCount + " tokens)");
+                continue;
+            }
+            failed++;
+            if (result.failure != null) {
+                out.println("❌ " + result.file + " : " + result.failure);
+            } else {
+                out.println("❌ " + result.file + " : " + result.errors.size() + " erreur(s)");
+            }
+            for (String error : result.errors) {
+                out.println("    " + error);
+            }
+        }
+        out.println("\n" + results.size() + " fichier(s), " + failed + " en échec");
+        return failed;
+    }
+}
@@ -0,0 +1,268 @@
+package interpreter;
+
+import semantic.Type;
+
+import java.io.PrintStream;
+import java.util.*;
+
+// Programme compilé mis à plat : instructions à sauts pour une machine à trois piles
+// (int/char/boolean, double, String), produites à partir de l'arbre Stmt/Expr sans
+// récursion, puis exécutées par une simple boucle. La profondeur d'imbrication du
+// programme (blocs, boucles, parenthèses) ne consomme donc pas de pile Java.
+final class Code {
+    // Chaque instruction occupe trois entiers : code, opérande a, opérande b
+    static final int ICONST = 0, DCONST = 1, SCONST = 2;                  // a : valeur / index de constante
+    static final int ILOAD = 3, DLOAD = 4, SLOAD = 5;                     // a : index dans la Frame
+    static final int ISTORE = 6, CSTORE = 7, DSTORE = 8, SSTORE = 9;
+    static final int IINC = 10, CINC = 11, DINC = 12;                     // a : index, b : incrément
+    static final int IPOSTINC = 13, CPOSTINC = 14, DPOSTINC = 15;         // valeur avant incrément
+    static final int IOP = 16, DOP = 17;                                  // a : Expr.ADD..MOD
+    static final int INEG = 18, DNEG = 19;
+    static final int ICMP = 20, DCMP = 21;                                // a : Expr.EQ..GE
+    static final int ZCMP = 22;                                           // a : 1 pour ==, 0 pour !=
+    static final int I2D = 23, I2S = 24, C2S = 25, Z2S = 26, D2S = 27;
+    static final int CONCAT = 28;                                         // a : nombre de chaînes
+    static final int IPOP = 29, DPOP = 30, SPOP = 31;
+    static final int PRINT_I = 32, PRINT_C = 33, PRINT_Z = 34, PRINT_D = 35, PRINT_S = 36;  // a : 1 pour println
+    static final int NEWLINE = 37;
+    static final int GOTO = 38;                                           // a : adresse
+    static final int IFFALSE = 39;                                        // dépile, saute si faux
+    static final int ANDJ = 40, ORJ = 41;                                 // && / || : saute en gardant la valeur
+
+    // Effet de chaque instruction sur les piles int, double et String (CONCAT à part)
+    private static final int[][] EFFECT = new int[42][];
+
+    static {
+        int[][] effects = {
+            {ICONST, 1, 0, 0}, {DCONST, 0, 1, 0}, {SCONST, 0, 0, 1},
+            {ILOAD, 1, 0, 0}, {DLOAD, 0, 1, 0}, {SLOAD, 0, 0, 1},
+            {ISTORE, -1, 0, 0}, {CSTORE, -1, 0, 0}, {DSTORE, 0, -1, 0}, {SSTORE, 0, 0, -1},
+            {IINC, 0, 0, 0}, {CINC, 0, 0, 0}, {DINC, 0, 0, 0},
+            {IPOSTINC, 1, 0, 0}, {CPOSTINC, 1, 0, 0}, {DPOSTINC, 0, 1, 0},
+            {IOP, -1, 0, 0}, {DOP, 0, -1, 0}, {INEG, 0, 0, 0}, {DNEG, 0, 0, 0},
+            {ICMP, -1, 0, 0}, {DCMP, 1, -2, 0}, {ZCMP, -1, 0, 0},
+            {I2D, -1, 1, 0}, {I2S, -1, 0, 1}, {C2S, -1, 0, 1}, {Z2S, -1, 0, 1}, {D2S, 0, -1, 1},
+            {CONCAT, 0, 0, 0}, {IPOP, -1, 0, 0}, {DPOP, 0, -1, 0}, {SPOP, 0, 0, -1},
+            {PRINT_I, -1, 0, 0}, {PRINT_C, -1, 0, 0}, {PRINT_Z, -1, 0, 0}, {PRINT_D, 0, -1, 0},
+            {PRINT_S, 0, 0, -1}, {NEWLINE, 0, 0, 0},
+            // Les sauts conditionnels comptent la branche qui continue : la valeur gardée
+            // par ANDJ/ORJ est celle que l'opérande droit remet à la même hauteur
+            {GOTO, 0, 0, 0}, {IFFALSE, -1, 0, 0}, {ANDJ, -1, 0, 0}, {ORJ, -1, 0, 0},
+        };
+        for (int[] effect : effects) {
+            EFFECT[effect[0]] = Arrays.copyOfRange(effect, 1, 4);
+        }
+    }
+
+    static final class Label {
+        private int position = -1;
+        private final List<Integer> jumps = new ArrayList<>();  // adresses des sauts à corriger
+    }
+
+    // Étape d'émission : valeur d'une expression, convertie vers 'target'
+    static final class Value {
+        final Expr expression;
+        final Type target;
+
+        Value(Expr expression, Type target) {
+            this.expression = expression;
+            this.target = target;
+        }
+    }
+
+    private int[] code = new int[48];
+    private int length = 0;
+    private final List<Double> doubles = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private int ints = 0, doublesHeight = 0, stringsHeight = 0;
+    private int maxInts = 0, maxDoubles = 0, maxStrings = 0;
+    private double[] doubleConstants;
+    private String[] stringConstants;
+
+    private Code() {
+    }
+
+    // Met à plat le programme. Les étapes (Stmt, Value ou Runnable) sont dépilées dans
+    // l'ordre où chaque nœud les ajoute, comme dans JvmCompiler.emit.
+    static Code of(Stmt program) {
+        Code code = new Code();
+        Deque<Object> tasks = new ArrayDeque<>();
+        List<Object> steps = new ArrayList<>();
+        tasks.push(program);
+        while (!tasks.isEmpty()) {
+            Object task = tasks.pop();
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+                continue;
+            }
+            steps.clear();
+            if (task instanceof Stmt) {
+                ((Stmt) task).emit(code, steps);
+            } else {
+                Value value = (Value) task;
+                value.expression.emit(code, steps);
+                code.convert(value.expression.type, value.target, steps);
+            }
+            for (int i = steps.size() - 1; i >= 0; i--) {
+                tasks.push(steps.get(i));
+            }
+        }
+        code.doubleConstants = new double[code.doubles.size()];
+        for (int i = 0; i < code.doubleConstants.length; i++) {
+            code.doubleConstants[i] = code.doubles.get(i);
+        }
+        code.stringConstants = code.strings.toArray(new String[0]);
+        return code;
+    }
+
+    // Conversions implicites de Java : int/char -> double, tout type -> String
+    private void convert(Type from, Type to, List<Object> steps) {
+        if (from == to || (to == Type.INT && from == Type.CHAR)) {
+            return;
+        }
+        int opcode;
+        if (to == Type.DOUBLE && (from == Type.INT || from == Type.CHAR)) {
+            opcode = I2D;
+        } else if (to == Type.STRING) {
+            switch (from) {
+                case INT: opcode = I2S; break;
+                case CHAR: opcode = C2S; break;
+                case BOOLEAN: opcode = Z2S; break;
+                default: opcode = D2S;
+            }
+        } else {
+            throw new IllegalStateException("Expression " + from + " évaluée comme " + to);
+        }
+        steps.add((Runnable) () -> op(opcode));
+    }
+
+    void op(int opcode) {
+        op(opcode, 0, 0);
+    }
+
+    void op(int opcode, int a) {
+        op(opcode, a, 0);
+    }
+
+    void op(int opcode, int a, int b) {
+        if (length + 3 > code.length) {
+            code = Arrays.copyOf(code, code.length * 2);
+        }
+        code[length++] = opcode;
+        code[length++] = a;
+        code[length++] = b;
+        int[] effect = EFFECT[opcode];
+        ints += effect[0];
+        doublesHeight += effect[1];
+        stringsHeight += opcode == CONCAT ? 1 - a : effect[2];
+        maxInts = Math.max(maxInts, ints);
+        maxDoubles = Math.max(maxDoubles, doublesHeight);
+        maxStrings = Math.max(maxStrings, stringsHeight);
+    }
+
+    int constant(double value) {
+        doubles.add(value);
+        return doubles.size() - 1;
+    }
+
+    int constant(String value) {
+        strings.add(value);
+        return strings.size() - 1;
+    }
+
+    Label label() {
+        return new Label();
+    }
+
+    void jump(int opcode, Label target) {
+        if (target.position < 0) {
+            target.jumps.add(length);
+        }
+        op(opcode, target.position);
+    }
+
+    void mark(Label label) {
+        label.position = length;
+        for (int at : label.jumps) {
+            code[at + 1] = length;
+        }
+        label.jumps.clear();
+    }
+
+    // Boucle d'exécution ; ArithmeticException (division entière par zéro) remonte à l'appelant
+    void execute(Frame frame, PrintStream out) {
+        int[] code = this.code;
+        int[] locals = frame.ints;
+        double[] doubleLocals = frame.doubles;
+        String[] stringLocals = frame.strings;
+        int[] is = new int[maxInts];
+        double[] ds = new double[maxDoubles];
+        String[] ss = new String[maxStrings];
+        int i = 0, d = 0, s = 0;
+        int pc = 0;
+        while (pc < length) {
+            int opcode = code[pc];
+            int a = code[pc + 1];
+            int b = code[pc + 2];
+            pc += 3;
+            switch (opcode) {
+                case ICONST: is[i++] = a; break;
+                case DCONST: ds[d++] = doubleConstants[a]; break;
+                case SCONST: ss[s++] = stringConstants[a]; break;
+                case ILOAD: is[i++] = locals[a]; break;
+                case DLOAD: ds[d++] = doubleLocals[a]; break;
+                case SLOAD: ss[s++] = stringLocals[a]; break;
+                case ISTORE: locals[a] = is[--i]; break;
+                case CSTORE: locals[a] = (char) is[--i]; break;
+                case DSTORE: doubleLocals[a] = ds[--d]; break;
+                case SSTORE: stringLocals[a] = ss[--s]; break;
+                case IINC: locals[a] += b; break;
+                case CINC: locals[a] = (char) (locals[a] + b); break;
+                case DINC: doubleLocals[a] += b; break;
+                case IPOSTINC: is[i++] = locals[a]; locals[a] += b; break;
+                case CPOSTINC: is[i++] = locals[a]; locals[a] = (char) (locals[a] + b); break;
+                case DPOSTINC: ds[d++] = doubleLocals[a]; doubleLocals[a] += b; break;
+                case IOP: i--; is[i - 1] = Expr.apply(a, is[i - 1], is[i]); break;
+                case DOP: d--; ds[d - 1] = Expr.apply(a, ds[d - 1], ds[d]); break;
+                case INEG: is[i - 1] = -is[i - 1]; break;
+                case DNEG: ds[d - 1] = -ds[d - 1]; break;
+                case ICMP: i--; is[i - 1] = Expr.compare(a, is[i - 1], is[i]) ? 1 : 0; break;
+                case DCMP: d -= 2; is[i++] = Expr.compare(a, ds[d], ds[d + 1]) ? 1 : 0; break;
+                case ZCMP: i--; is[i - 1] = ((is[i - 1] != 0) == (is[i] != 0)) == (a != 0) ? 1 : 0; break;
+                case I2D: ds[d++] = is[--i]; break;
+                case I2S: ss[s++] = String.valueOf(is[--i]); break;
+                case C2S: ss[s++] = String.valueOf((char) is[--i]); break;
+                case Z2S: ss[s++] = String.valueOf(is[--i] != 0); break;
+                case D2S: ss[s++] = String.valueOf(ds[--d]); break;
+                case CONCAT: {
+                    if (a == 2) {
+                        s--;
+                        ss[s - 1] = ss[s - 1] + ss[s];
+                    } else {
+                        StringBuilder text = new StringBuilder();
+                        for (int k = s - a; k < s; k++) {
+                            text.append(ss[k]);
+                        }
+                        s -= a;
+                        ss[s++] = text.toString();
+                    }
+                    break;
+                }
+                case IPOP: i--; break;
+                case DPOP: d--; break;
+                case SPOP: s--; break;
+                case PRINT_I: if (a != 0) out.println(is[--i]); else out.print(is[--i]); break;
+                case PRINT_C: if (a != 0) out.println((char) is[--i]); else out.print((char) is[--i]); break;
+                case PRINT_Z: if (a != 0) out.println(is[--i] != 0); else out.print(is[--i] != 0); break;
+                case PRINT_D: if (a != 0) out.println(ds[--d]); else out.print(ds[--d]); break;
+                case PRINT_S: if (a != 0) out.println(ss[--s]); else out.print(ss[--s]); break;
+                case NEWLINE: out.println(); break;
+                case GOTO: pc = a; break;
+                case IFFALSE: if (is[--i] == 0) pc = a; break;
+                case ANDJ: if (is[i - 1] == 0) pc = a; else i--; break;
+                case ORJ: if (is[i - 1] != 0) pc = a; else i--; break;
+                default: throw new IllegalStateException("Instruction inconnue: " + opcode);
+            }
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package interpreter;
+
+import semantic.Type;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Expression compilée, typée statiquement. emit laisse sa valeur sur la pile de Code
+// qui correspond à son type, sans boxing : int pour INT/CHAR/BOOLEAN, double pour DOUBLE,
+// String pour STRING. Les opérandes sont ajoutés à 'steps' avec le type attendu
+// (Code.Value), les conversions implicites sont ajoutées par Code.of.
+abstract class Expr {
+    final Type type;
+
+    Expr(Type type) {
+        this.type = type;
+    }
+
+    abstract void emit(Code code, List<Object> steps);
+
+    // Opérateurs binaires, résolus à la compilation
+    static final int ADD = 0, SUB = 1, MUL = 2, DIV = 3, MOD = 4;
+    static final int EQ = 5, NE = 6, LT = 7, GT = 8, LE = 9, GE = 10;
+
+    static int operator(String op) {
+        switch (op) {
+            case "+": return ADD;
+            case "-": return SUB;
+            case "*": return MUL;
+            case "/": return DIV;
+            case "%": return MOD;
+            case "==": return EQ;
+            case "!=": return NE;
+            case "<": return LT;
+            case ">": return GT;
+            case "<=": return LE;
+            case ">=": return GE;
+            default: return -1;
+        }
+    }
+
+    static final class IntConstant extends Expr {
+        private final int value;
+
+        IntConstant(int value) {
+            super(Type.INT);
+            this.value = value;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.ICONST, value);
+        }
+    }
+
+    static final class DoubleConstant extends Expr {
+        private final double value;
+
+        DoubleConstant(double value) {
+            super(Type.DOUBLE);
+            this.value = value;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.DCONST, code.constant(value));
+        }
+    }
+
+    static final class StringConstant extends Expr {
+        private final String value;
+
+        StringConstant(String value) {
+            super(Type.STRING);
+            this.value = value;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.SCONST, code.constant(value));
+        }
+    }
+
+    // Variable int, char ou boolean (boolean : 0 ou 1)
+    static final class IntLocal extends Expr {
+        private final int slot;
+
+        IntLocal(Type type, int slot) {
+            super(type);
+            this.slot = slot;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.ILOAD, slot);
+        }
+    }
+
+    static final class DoubleLocal extends Expr {
+        private final int slot;
+
+        DoubleLocal(int slot) {
+            super(Type.DOUBLE);
+            this.slot = slot;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.DLOAD, slot);
+        }
+    }
+
+    static final class StringLocal extends Expr {
+        private final int slot;
+
+        StringLocal(int slot) {
+            super(Type.STRING);
+            this.slot = slot;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.SLOAD, slot);
+        }
+    }
+
+    // i++ / i-- dans une expression : valeur avant modification
+    static final class IntPostIncrement extends Expr {
+        private final int slot;
+        private final int delta;
+
+        IntPostIncrement(Type type, int slot, int delta) {
+            super(type);
+            this.slot = slot;
+            this.delta = delta;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(type == Type.CHAR ? Code.CPOSTINC : Code.IPOSTINC, slot, delta);
+        }
+    }
+
+    static final class DoublePostIncrement extends Expr {
+        private final int slot;
+        private final int delta;
+
+        DoublePostIncrement(int slot, int delta) {
+            super(Type.DOUBLE);
+            this.slot = slot;
+            this.delta = delta;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.DPOSTINC, slot, delta);
+        }
+    }
+
+    // Exception levée explicitement : une fois le code compilé par le JIT, celle de la JVM
+    // peut être une instance préallouée, sans message
+    static int apply(int op, int a, int b) {
+        if (b == 0 && (op == DIV || op == MOD)) {
+            throw new ArithmeticException("/ by zero");
+        }
+        switch (op) {
+            case ADD: return a + b;
+            case SUB: return a - b;
+            case MUL: return a * b;
+            case DIV: return a / b;
+            default: return a % b;
+        }
+    }
+
+    static double apply(int op, double a, double b) {
+        switch (op) {
+            case ADD: return a + b;
+            case SUB: return a - b;
+            case MUL: return a * b;
+            case DIV: return a / b;
+            default: return a % b;
+        }
+    }
+
+    static boolean compare(int op, int a, int b) {
+        switch (op) {
+            case EQ: return a == b;
+            case NE: return a != b;
+            case LT: return a < b;
+            case GT: return a > b;
+            case LE: return a <= b;
+            default: return a >= b;
+        }
+    }
+
+    static boolean compare(int op, double a, double b) {
+        switch (op) {
+            case EQ: return a == b;
+            case NE: return a != b;
+            case LT: return a < b;
+            case GT: return a > b;
+            case LE: return a <= b;
+            default: return a >= b;
+        }
+    }
+
+    // Opération arithmétique ; a op b op c ... (arbre penché à gauche, comme l'écrit le
+    // parser) devient une chaîne émise opérande par opérande : une longue chaîne ne
+    // produit pas une tâche par niveau, et l'ordre d'évaluation reste celui de l'arbre
+    static Expr arithmetic(int op, Expr left, Expr right) {
+        if (left.type == Type.DOUBLE || right.type == Type.DOUBLE) {
+            if (left instanceof DoubleChain) {
+                return ((DoubleChain) left).append(op, right);
+            }
+            if (left instanceof DoubleArithmetic) {
+                DoubleArithmetic pair = (DoubleArithmetic) left;
+                return new DoubleChain(pair.left).append(pair.op, pair.right).append(op, right);
+            }
+            return new DoubleArithmetic(op, left, right);
+        }
+        if (left instanceof IntChain) {
+            return ((IntChain) left).append(op, right);
+        }
+        if (left instanceof IntArithmetic) {
+            IntArithmetic pair = (IntArithmetic) left;
+            return new IntChain(pair.left).append(pair.op, pair.right).append(op, right);
+        }
+        return new IntArithmetic(op, left, right);
+    }
+
+    // Concaténation, en chaîne de la même façon
+    static Expr concat(Expr left, Expr right) {
+        if (left instanceof ConcatChain) {
+            return ((ConcatChain) left).append(right);
+        }
+        if (left instanceof Concat) {
+            Concat pair = (Concat) left;
+            return new ConcatChain(pair.left).append(pair.right).append(right);
+        }
+        return new Concat(left, right);
+    }
+
+    static final class IntChain extends Expr {
+        private final Expr first;
+        private int[] ops = new int[2];
+        private Expr[] operands = new Expr[2];
+        private int count = 0;
+
+        IntChain(Expr first) {
+            super(Type.INT);
+            this.first = first;
+        }
+
+        IntChain append(int op, Expr operand) {
+            if (count == ops.length) {
+                ops = Arrays.copyOf(ops, count * 2);
+                operands = Arrays.copyOf(operands, count * 2);
+            }
+            ops[count] = op;
+            operands[count++] = operand;
+            return this;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(first, Type.INT));
+            for (int i = 0; i < count; i++) {
+                int op = ops[i];
+                steps.add(new Code.Value(operands[i], Type.INT));
+                steps.add((Runnable) () -> code.op(Code.IOP, op));
+            }
+        }
+    }
+
+    static final class DoubleChain extends Expr {
+        private final Expr first;
+        private int[] ops = new int[2];
+        private Expr[] operands = new Expr[2];
+        private int count = 0;
+
+        DoubleChain(Expr first) {
+            super(Type.DOUBLE);
+            this.first = first;
+        }
+
+        DoubleChain append(int op, Expr operand) {
+            if (count == ops.length) {
+                ops = Arrays.copyOf(ops, count * 2);
+                operands = Arrays.copyOf(operands, count * 2);
+            }
+            ops[count] = op;
+            operands[count++] = operand;
+            return this;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(first, Type.DOUBLE));
+            for (int i = 0; i < count; i++) {
+                int op = ops[i];
+                steps.add(new Code.Value(operands[i], Type.DOUBLE));
+                steps.add((Runnable) () -> code.op(Code.DOP, op));
+            }
+        }
+    }
+
+    static final class IntArithmetic extends Expr {
+        private final int op;
+        private final Expr left;
+        private final Expr right;
+
+        IntArithmetic(int op, Expr left, Expr right) {
+            super(Type.INT);
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(left, Type.INT));
+            steps.add(new Code.Value(right, Type.INT));
+            steps.add((Runnable) () -> code.op(Code.IOP, op));
+        }
+    }
+
+    static final class DoubleArithmetic extends Expr {
+        private final int op;
+        private final Expr left;
+        private final Expr right;
+
+        DoubleArithmetic(int op, Expr left, Expr right) {
+            super(Type.DOUBLE);
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(left, Type.DOUBLE));
+            steps.add(new Code.Value(right, Type.DOUBLE));
+            steps.add((Runnable) () -> code.op(Code.DOP, op));
+        }
+    }
+
+    static final class Concat extends Expr {
+        private final Expr left;
+        private final Expr right;
+
+        Concat(Expr left, Expr right) {
+            super(Type.STRING);
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(left, Type.STRING));
+            steps.add(new Code.Value(right, Type.STRING));
+            steps.add((Runnable) () -> code.op(Code.CONCAT, 2));
+        }
+    }
+
+    static final class ConcatChain extends Expr {
+        private Expr[] parts = new Expr[4];
+        private int count = 0;
+
+        ConcatChain(Expr first) {
+            super(Type.STRING);
+            parts[count++] = first;
+        }
+
+        ConcatChain append(Expr part) {
+            if (count == parts.length) {
+                parts = Arrays.copyOf(parts, count * 2);
+            }
+            parts[count++] = part;
+            return this;
+        }
+
+        // Toutes les parties sur la pile, puis une seule concaténation
+        @Override
+        void emit(Code code, List<Object> steps) {
+            for (int i = 0; i < count; i++) {
+                steps.add(new Code.Value(parts[i], Type.STRING));
+            }
+            int parts = count;
+            steps.add((Runnable) () -> code.op(Code.CONCAT, parts));
+        }
+    }
+
+    static final class IntNegate extends Expr {
+        private final Expr operand;
+
+        IntNegate(Expr operand) {
+            super(Type.INT);
+            this.operand = operand;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(operand, Type.INT));
+            steps.add((Runnable) () -> code.op(Code.INEG));
+        }
+    }
+
+    static final class DoubleNegate extends Expr {
+        private final Expr operand;
+
+        DoubleNegate(Expr operand) {
+            super(Type.DOUBLE);
+            this.operand = operand;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(operand, Type.DOUBLE));
+            steps.add((Runnable) () -> code.op(Code.DNEG));
+        }
+    }
+
+    // Comparaison d'entiers (int, char)
+    static final class IntCompare extends Expr {
+        private final int op;
+        private final Expr left;
+        private final Expr right;
+
+        IntCompare(int op, Expr left, Expr right) {
+            super(Type.BOOLEAN);
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(left, Type.INT));
+            steps.add(new Code.Value(right, Type.INT));
+            steps.add((Runnable) () -> code.op(Code.ICMP, op));
+        }
+    }
+
+    static final class DoubleCompare extends Expr {
+        private final int op;
+        private final Expr left;
+        private final Expr right;
+
+        DoubleCompare(int op, Expr left, Expr right) {
+            super(Type.BOOLEAN);
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(left, Type.DOUBLE));
+            steps.add(new Code.Value(right, Type.DOUBLE));
+            steps.add((Runnable) () -> code.op(Code.DCMP, op));
+        }
+    }
+
+    // == et != entre booléens
+    static final class BooleanCompare extends Expr {
+        private final boolean equal;
+        private final Expr left;
+        private final Expr right;
+
+        BooleanCompare(boolean equal, Expr left, Expr right) {
+            super(Type.BOOLEAN);
+            this.equal = equal;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(left, Type.BOOLEAN));
+            steps.add(new Code.Value(right, Type.BOOLEAN));
+            steps.add((Runnable) () -> code.op(Code.ZCMP, equal ? 1 : 0));
+        }
+    }
+
+    // && et || : le second opérande n'est évalué que si nécessaire
+    static final class Logical extends Expr {
+        private final boolean and;
+        private final Expr left;
+        private final Expr right;
+
+        Logical(boolean and, Expr left, Expr right) {
+            super(Type.BOOLEAN);
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            Code.Label end = code.label();
+            steps.add(new Code.Value(left, Type.BOOLEAN));
+            steps.add((Runnable) () -> code.jump(and ? Code.ANDJ : Code.ORJ, end));
+            steps.add(new Code.Value(right, Type.BOOLEAN));
+            steps.add((Runnable) () -> code.mark(end));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package interpreter;
+
+// Variables locales d'une exécution, rangées par type dans des tableaux primitifs.
+// int, char et boolean partagent 'ints' ; chaque variable y a un index fixé à la compilation.
+final class Frame {
+    final int[] ints;
+    final double[] doubles;
+    final String[] strings;
+
+    Frame(int intCount, int doubleCount, int stringCount) {
+        ints = new int[intCount];
+        doubles = new double[doubleCount];
+        strings = new String[stringCount];
+    }
+}
@@ -0,0 +1,549 @@
+package interpreter;
+
+import models.*;
+import semantic.SymbolTable;
+import semantic.Type;
+import java.io.PrintStream;
+import java.util.*;
+
+// Exécution directe d'un programme. L'AST est d'abord compilé en un arbre d'instructions
+// (Stmt, Expr) où chaque variable est déjà résolue en index dans les tableaux primitifs
+// d'une Frame, puis mis à plat en instructions à sauts (Code) : à l'exécution, ni
+// recherche par nom, ni boxing, ni récursion proportionnelle à l'imbrication.
+public class Interpreter {
+    private final PrintStream out;
+    private final List<String> errors = new ArrayList<>();
+    // Portées de compilation (symbole -> index dans variables), inutiles une fois le code compilé
+    private SymbolTable scopes = new SymbolTable();
+    private final List<Variable> variables = new ArrayList<>();
+    private int intCount;
+    private int doubleCount;
+    private int stringCount;
+    // Ligne de la dernière instruction compilée, pour situer les erreurs d'expression
+    private int line;
+
+    private final StatementCompiler statements = new StatementCompiler();
+    private final ExpressionCompiler expressions = new ExpressionCompiler();
+
+    private static final class Variable {
+        final Type type;
+        final int slot;
+
+        Variable(Type type, int slot) {
+            this.type = type;
+            this.slot = slot;
+        }
+    }
+
+    public Interpreter(PrintStream out) {
+        this.out = out;
+    }
+
+    // Compile puis exécute le programme ; false en cas d'erreur (voir getErrors())
+    public boolean run(ASTNode program) {
+        Stmt compiled = compile(program);
+        if (!errors.isEmpty()) {
+            printErrors();
+            return false;
+        }
+        try {
+            Code.of(compiled).execute(new Frame(intCount, doubleCount, stringCount), out);
+            return true;
+        } catch (ArithmeticException e) {
+            errors.add("Erreur d'exécution: " + e.getMessage());
+            printErrors();
+            return false;
+        }
+    }
+
+    // Corps de la méthode main (au niveau du programme ou dans une classe),
+    // ou à défaut les instructions du programme hors classes et méthodes
+    private Stmt compile(ASTNode program) {
+        errors.clear();
+        scopes = new SymbolTable();
+        variables.clear();
+        intCount = doubleCount = stringCount = 0;
+        line = 0;
+
+        ASTNode main = findMain(program);
+        List<ASTNode> body = new ArrayList<>();
+        for (ASTNode child : (main != null ? main : program).children) {
+            switch (child.kind) {
+                case CLASS:
+                case METHOD:
+                case MODIFIER:
+                case RETURN_TYPE:
+                    break;
+                default:
+                    body.add(child);
+            }
+        }
+        return compileBlock(body);
+    }
+
+    private ASTNode findMain(ASTNode program) {
+        for (ASTNode child : program.children) {
+            if (child.kind == NodeKind.METHOD && child.value.equals("main")) {
+                return child;
+            }
+            if (child.kind == NodeKind.CLASS) {
+                for (ASTNode member : child.children) {
+                    if (member.kind == NodeKind.METHOD && member.value.equals("main")) {
+                        return member;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // Liste d'instructions en cours de compilation, avec sa propre portée : bloc, corps
+    // de while ou branche de if. Les listes imbriquées sont empilées au lieu d'être
+    // compilées récursivement : la profondeur des blocs n'est limitée que par la mémoire.
+    private static final class Pending {
+        final ASTNode owner;          // BLOCK, WHILE ou IF ; null pour la liste principale
+        List<ASTNode> nodes;
+        int next;
+        final List<Stmt> compiled = new ArrayList<>();
+        Expr condition;               // WHILE, IF
+        ASTNode elseNode;             // IF : branche else à compiler après then, sinon null
+        Stmt thenBranch;              // IF : branches une fois compilées
+        Stmt elseBranch;
+
+        Pending(ASTNode owner, List<ASTNode> nodes) {
+            this.owner = owner;
+            this.nodes = nodes;
+        }
+
+        // Corps de while ou branche de if : l'unique instruction, ou un bloc vide
+        Stmt single() {
+            return compiled.isEmpty() ? new Stmt.Block(new Stmt[0]) : compiled.get(0);
+        }
+    }
+
+    private Stmt compileBlock(List<ASTNode> nodes) {
+        Deque<Pending> stack = new ArrayDeque<>();
+        scopes.enterScope();
+        stack.push(new Pending(null, nodes));
+        while (true) {
+            Pending top = stack.peek();
+            if (top.next < top.nodes.size()) {
+                ASTNode node = top.nodes.get(top.next++);
+                if (node.line() > 0) {
+                    line = node.line();
+                }
+                Pending nested = open(node, top);
+                if (nested != null) {
+                    scopes.enterScope();
+                    stack.push(nested);
+                }
+                continue;
+            }
+            scopes.exitScope();
+            if (top.owner != null && top.owner.kind == NodeKind.IF) {
+                if (top.thenBranch != null) {
+                    top.elseBranch = top.single();
+                } else {
+                    top.thenBranch = top.single();
+                    if (top.elseNode != null) {
+                        // Même entrée de pile pour la branche else, dans une nouvelle portée
+                        top.nodes = Collections.singletonList(top.elseNode);
+                        top.next = 0;
+                        top.compiled.clear();
+                        scopes.enterScope();
+                        continue;
+                    }
+                }
+            }
+            stack.pop();
+            Stmt statement = close(top);
+            Pending parent = stack.peek();
+            if (parent == null) {
+                return statement;
+            }
+            if (top.owner.kind == NodeKind.BLOCK && (parent.owner == null || parent.owner.kind == NodeKind.BLOCK)) {
+                // Bloc dans une liste d'instructions : la portée n'existe qu'à la compilation,
+                // ses instructions rejoignent directement celles du parent
+                parent.compiled.addAll(top.compiled);
+            } else {
+                parent.compiled.add(statement);
+            }
+        }
+    }
+
+    // Compile l'instruction dans 'top', ou renvoie la liste imbriquée à compiler d'abord
+    private Pending open(ASTNode node, Pending top) {
+        switch (node.kind) {
+            case BLOCK:
+                return new Pending(node, node.children);
+            case WHILE: {
+                Pending body = new Pending(node, Collections.emptyList());
+                for (ASTNode child : node.children) {
+                    if (child.kind == NodeKind.CONDITION) {
+                        body.condition = compileCondition(child);
+                    } else if (child.kind == NodeKind.BODY) {
+                        body.nodes = Collections.singletonList(child.children.get(0));
+                    }
+                }
+                return body;
+            }
+            case IF: {
+                Pending branch = new Pending(node, Collections.emptyList());
+                for (ASTNode child : node.children) {
+                    if (child.kind == NodeKind.CONDITION) {
+                        branch.condition = compileCondition(child);
+                    } else if (child.kind == NodeKind.THEN) {
+                        branch.nodes = Collections.singletonList(child.children.get(0));
+                    } else if (child.kind == NodeKind.ELSE) {
+                        branch.elseNode = child.children.get(0);
+                    }
+                }
+                return branch;
+            }
+            default: {
+                Stmt statement = node.accept(statements);
+                if (statement != null) {
+                    top.compiled.add(statement);
+                }
+                return null;
+            }
+        }
+    }
+
+    // Instruction d'une liste terminée (pour IF, toutes ses branches le sont)
+    private static Stmt close(Pending done) {
+        if (done.owner == null || done.owner.kind == NodeKind.BLOCK) {
+            return new Stmt.Block(done.compiled.toArray(new Stmt[0]));
+        }
+        if (done.owner.kind == NodeKind.WHILE) {
+            return new Stmt.While(done.condition, done.single());
+        }
+        return new Stmt.If(done.condition, done.thenBranch, done.elseBranch);
+    }
+
+    // Post-ordre avec une pile explicite, comme ConstantFolder.fold : les opérandes sont
+    // compilés avant leur opérateur, sans récursion, même sur une longue chaîne a + b + ...
+    private Expr compileExpression(ASTNode root) {
+        ASTNode[] nodes = new ASTNode[32];
+        int[] nextChild = new int[32];
+        Expr[] operands = new Expr[32];
+        int operandCount = 0;
+        int top = 0;
+        nodes[0] = root;
+
+        while (top >= 0) {
+            ASTNode node = nodes[top];
+            int index = nextChild[top];
+            if (isOperator(node) && index < node.children.size()) {
+                nextChild[top] = index + 1;
+                if (++top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    nextChild = Arrays.copyOf(nextChild, top * 2);
+                }
+                nodes[top] = node.children.get(index);
+                nextChild[top] = 0;
+                continue;
+            }
+
+            Expr compiled;
+            if (isOperator(node)) {
+                operandCount -= node.children.size();
+                Expr left = operands[operandCount];
+                compiled = node.kind == NodeKind.UNARY_OP ? negate(left)
+                         : node.kind == NodeKind.BINARY_OP ? binary(node.value, left, operands[operandCount + 1])
+                         : compare(node.value, left, operands[operandCount + 1]);
+            } else {
+                compiled = node.accept(expressions);
+            }
+            if (operandCount == operands.length) {
+                operands = Arrays.copyOf(operands, operandCount * 2);
+            }
+            operands[operandCount++] = compiled;
+            top--;
+        }
+        return operands[0];
+    }
+
+    // Opérateurs dont les opérandes sont empilés par compileExpression
+    private static boolean isOperator(ASTNode node) {
+        switch (node.kind) {
+            case UNARY_OP:
+                return node.children.size() == 1;
+            case BINARY_OP:
+            case COMPARISON:
+                return node.children.size() == 2;
+            default:
+                return false;
+        }
+    }
+
+    private Expr negate(Expr operand) {
+        if (operand.type == Type.DOUBLE) {
+            return new Expr.DoubleNegate(operand);
+        }
+        if (operand.type.isNumeric()) {
+            return new Expr.IntNegate(operand);
+        }
+        error("Opérateur - non applicable à " + operand.type);
+        return new Expr.IntConstant(0);
+    }
+
+    private Expr binary(String op, Expr left, Expr right) {
+        if (op.equals("&&") || op.equals("||")) {
+            if (left.type == Type.BOOLEAN && right.type == Type.BOOLEAN) {
+                return new Expr.Logical(op.equals("&&"), left, right);
+            }
+        } else if (op.equals("+") && (left.type == Type.STRING || right.type == Type.STRING)) {
+            return Expr.concat(left, right);
+        } else if (left.type.isNumeric() && right.type.isNumeric()) {
+            return Expr.arithmetic(Expr.operator(op), left, right);
+        }
+        error("Opérateur " + op + " non applicable à " + left.type + " et " + right.type);
+        return new Expr.IntConstant(0);
+    }
+
+    private Expr compare(String operator, Expr left, Expr right) {
+        int op = Expr.operator(operator);
+        if (left.type.isNumeric() && right.type.isNumeric()) {
+            if (left.type == Type.DOUBLE || right.type == Type.DOUBLE) {
+                return new Expr.DoubleCompare(op, left, right);
+            }
+            return new Expr.IntCompare(op, left, right);
+        }
+        if (left.type == Type.BOOLEAN && right.type == Type.BOOLEAN && (op == Expr.EQ || op == Expr.NE)) {
+            return new Expr.BooleanCompare(op == Expr.EQ, left, right);
+        }
+        error("Comparaison " + operator + " non applicable à " + left.type + " et " + right.type);
+        return new Expr.IntCompare(Expr.EQ, new Expr.IntConstant(0), new Expr.IntConstant(0));
+    }
+
+    private Expr compileCondition(ASTNode condition) {
+        Expr expression = compileExpression(condition.children.get(0));
+        if (expression.type != Type.BOOLEAN) {
+            error("Condition de type " + expression.type + " au lieu de boolean");
+            return new Expr.IntCompare(Expr.EQ, new Expr.IntConstant(0), new Expr.IntConstant(0));
+        }
+        return expression;
+    }
+
+    // Variable désignée par le nœud (IDENTIFIER, ASSIGNMENT, INCREMENT, DECREMENT)
+    private Variable lookup(ASTNode node) {
+        int found = scopes.lookup(node.symbol());
+        if (found < 0) {
+            error("Variable non déclarée: " + node.value);
+            return null;
+        }
+        return variables.get(found);
+    }
+
+    private Variable declare(Type type, ASTNode node, String name) {
+        if (!scopes.declare(node.symbol(), variables.size())) {
+            error("Variable déjà déclarée: " + name);
+        }
+        int slot;
+        switch (type) {
+            case DOUBLE: slot = doubleCount++; break;
+            case STRING: slot = stringCount++; break;
+            default: slot = intCount++;
+        }
+        Variable variable = new Variable(type, slot);
+        variables.add(variable);
+        return variable;
+    }
+
+    // Affectation avec les conversions implicites de Java (int -> double, char -> int)
+    private Stmt store(Variable variable, Expr value) {
+        switch (variable.type) {
+            case INT:
+                if (value.type == Type.INT || value.type == Type.CHAR) {
+                    return new Stmt.StoreInt(variable.slot, value);
+                }
+                break;
+            case CHAR:
+                if (value.type == Type.INT || value.type == Type.CHAR) {
+                    return new Stmt.StoreChar(variable.slot, value);
+                }
+                break;
+            case DOUBLE:
+                if (value.type.isNumeric()) {
+                    return new Stmt.StoreDouble(variable.slot, value);
+                }
+                break;
+            case BOOLEAN:
+                if (value.type == Type.BOOLEAN) {
+                    return new Stmt.StoreBoolean(variable.slot, value);
+                }
+                break;
+            default:
+                if (value.type == Type.STRING) {
+                    return new Stmt.StoreString(variable.slot, value);
+                }
+        }
+        error("Types incompatibles: " + value.type + " affecté à une variable " + variable.type);
+        return null;
+    }
+
+    private Expr defaultValue(Type type) {
+        switch (type) {
+            case DOUBLE: return new Expr.DoubleConstant(0);
+            case STRING: return new Expr.StringConstant(null);
+            case BOOLEAN: return new Expr.IntCompare(Expr.NE, new Expr.IntConstant(0), new Expr.IntConstant(0));
+            default: return new Expr.IntConstant(0);
+        }
+    }
+
+    private void error(String message) {
+        errors.add(message + " à la ligne " + line);
+    }
+
+    private void printErrors() {
+        out.println("\n=== ERREURS D'EXÉCUTION ===");
+        for (String error : errors) {
+            out.println("❌ " + error);
+        }
+        out.println("===========================\n");
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // Instructions simples ; BLOCK, WHILE et IF sont dépilés par compileBlock
+    private final class StatementCompiler implements Visitor<Stmt> {
+        @Override
+        public Stmt visitDefault(ASTNode node) {
+            error("Instruction non prise en charge: " + node.type());
+            return null;
+        }
+
+        @Override
+        public Stmt visitDeclaration(ASTNode node) {
+            // value : "type nom"
+            String[] parts = node.value.split(" ", 2);
+            Type type = Type.fromName(parts[0]);
+            if (type == null) {
+                error("Type non pris en charge: " + parts[0]);
+                return null;
+            }
+            // L'initialisation est compilée avant la déclaration : 'int x = x;' est refusé
+            Expr value = node.children.isEmpty() ? defaultValue(type) : compileExpression(node.children.get(0));
+            return store(declare(type, node, parts[1]), value);
+        }
+
+        @Override
+        public Stmt visitAssignment(ASTNode node) {
+            Variable variable = lookup(node);
+            Expr value = compileExpression(node.children.get(0));
+            return variable != null ? store(variable, value) : null;
+        }
+
+        @Override
+        public Stmt visitIncrement(ASTNode node) {
+            return increment(node, 1);
+        }
+
+        @Override
+        public Stmt visitDecrement(ASTNode node) {
+            return increment(node, -1);
+        }
+
+        private Stmt increment(ASTNode node, int delta) {
+            Variable variable = lookup(node);
+            if (variable == null) {
+                return null;
+            }
+            switch (variable.type) {
+                case INT: return new Stmt.IncrementInt(variable.slot, delta, false);
+                case CHAR: return new Stmt.IncrementInt(variable.slot, delta, true);
+                case DOUBLE: return new Stmt.IncrementDouble(variable.slot, delta);
+                default:
+                    error("Incrémentation d'une variable " + variable.type + ": " + node.value);
+                    return null;
+            }
+        }
+
+        @Override
+        public Stmt visitMethodCall(ASTNode node) {
+            boolean newLine = node.value.equals("System.out.println");
+            if (!newLine && !node.value.equals("System.out.print")) {
+                error("Appel de méthode non pris en charge: " + node.value);
+                return null;
+            }
+            int count = node.children.size();
+            if (count > 1 || (count == 0 && !newLine)) {
+                error(node.value + " attend " + (newLine ? "au plus" : "exactement") + " un argument");
+                return null;
+            }
+            Expr argument = count == 0 ? null : compileExpression(node.children.get(0).children.get(0));
+            return new Stmt.Print(argument, newLine);
+        }
+    }
+
+    // Feuilles des expressions ; les opérateurs sont combinés par compileExpression
+    private final class ExpressionCompiler implements Visitor<Expr> {
+        @Override
+        public Expr visitDefault(ASTNode node) {
+            error("Expression non prise en charge: " + node.type());
+            return new Expr.IntConstant(0);
+        }
+
+        @Override
+        public Expr visitNumber(ASTNode node) {
+            try {
+                if (node.value.indexOf('.') >= 0) {
+                    return new Expr.DoubleConstant(Double.parseDouble(node.value));
+                }
+                return new Expr.IntConstant(Integer.parseInt(node.value));
+            } catch (NumberFormatException e) {
+                error("Nombre invalide: " + node.value);
+                return new Expr.IntConstant(0);
+            }
+        }
+
+        @Override
+        public Expr visitStringLiteral(ASTNode node) {
+            return new Expr.StringConstant(node.value);
+        }
+
+        @Override
+        public Expr visitIdentifier(ASTNode node) {
+            Variable variable = lookup(node);
+            if (variable == null) {
+                return new Expr.IntConstant(0);
+            }
+            switch (variable.type) {
+                case DOUBLE: return new Expr.DoubleLocal(variable.slot);
+                case STRING: return new Expr.StringLocal(variable.slot);
+                default: return new Expr.IntLocal(variable.type, variable.slot);
+            }
+        }
+
+        @Override
+        public Expr visitPostIncrement(ASTNode node) {
+            return postIncrement(node, 1);
+        }
+
+        @Override
+        public Expr visitPostDecrement(ASTNode node) {
+            return postIncrement(node, -1);
+        }
+
+        private Expr postIncrement(ASTNode node, int delta) {
+            ASTNode target = node.children.get(0);
+            Variable variable = lookup(target);
+            if (variable == null) {
+                return new Expr.IntConstant(0);
+            }
+            switch (variable.type) {
+                case INT:
+                case CHAR:
+                    return new Expr.IntPostIncrement(variable.type, variable.slot, delta);
+                case DOUBLE:
+                    return new Expr.DoublePostIncrement(variable.slot, delta);
+                default:
+                    error("Incrémentation d'une variable " + variable.type + ": " + target.value);
+                    return new Expr.IntConstant(0);
+            }
+        }
+    }
+}
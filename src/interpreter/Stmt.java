@@ -0,0 +1,215 @@
+package interpreter;
+
+import semantic.Type;
+
+import java.util.List;
+
+// Instruction compilée : les variables sont déjà résolues en index de Frame.
+// emit ajoute à 'steps' ce qu'il faut émettre dans l'ordre : sous-instructions (Stmt),
+// valeurs (Code.Value) et instructions de Code (Runnable), dépilées par Code.of.
+abstract class Stmt {
+    abstract void emit(Code code, List<Object> steps);
+
+    static final class Block extends Stmt {
+        private final Stmt[] statements;
+
+        Block(Stmt[] statements) {
+            this.statements = statements;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.addAll(List.of(statements));
+        }
+    }
+
+    static final class While extends Stmt {
+        private final Expr condition;
+        private final Stmt body;
+
+        While(Expr condition, Stmt body) {
+            this.condition = condition;
+            this.body = body;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            Code.Label start = code.label();
+            Code.Label end = code.label();
+            steps.add((Runnable) () -> code.mark(start));
+            steps.add(new Code.Value(condition, Type.BOOLEAN));
+            steps.add((Runnable) () -> code.jump(Code.IFFALSE, end));
+            steps.add(body);
+            steps.add((Runnable) () -> {
+                code.jump(Code.GOTO, start);
+                code.mark(end);
+            });
+        }
+    }
+
+    static final class If extends Stmt {
+        private final Expr condition;
+        private final Stmt thenBranch;
+        private final Stmt elseBranch;  // null si absent
+
+        If(Expr condition, Stmt thenBranch, Stmt elseBranch) {
+            this.condition = condition;
+            this.thenBranch = thenBranch;
+            this.elseBranch = elseBranch;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            Code.Label otherwise = code.label();
+            steps.add(new Code.Value(condition, Type.BOOLEAN));
+            steps.add((Runnable) () -> code.jump(Code.IFFALSE, otherwise));
+            steps.add(thenBranch);
+            if (elseBranch == null) {
+                steps.add((Runnable) () -> code.mark(otherwise));
+                return;
+            }
+            Code.Label end = code.label();
+            steps.add((Runnable) () -> {
+                code.jump(Code.GOTO, end);
+                code.mark(otherwise);
+            });
+            steps.add(elseBranch);
+            steps.add((Runnable) () -> code.mark(end));
+        }
+    }
+
+    // Affectation d'une valeur convertie vers le type de la variable
+    static class Store extends Stmt {
+        private final int opcode;
+        private final Type target;
+        private final int slot;
+        private final Expr value;
+
+        Store(int opcode, Type target, int slot, Expr value) {
+            this.opcode = opcode;
+            this.target = target;
+            this.slot = slot;
+            this.value = value;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(value, target));
+            steps.add((Runnable) () -> code.op(opcode, slot));
+        }
+    }
+
+    static final class StoreInt extends Store {
+        StoreInt(int slot, Expr value) {
+            super(Code.ISTORE, Type.INT, slot, value);
+        }
+    }
+
+    static final class StoreChar extends Store {
+        StoreChar(int slot, Expr value) {
+            super(Code.CSTORE, Type.INT, slot, value);
+        }
+    }
+
+    // boolean : 0 ou 1 dans 'ints'
+    static final class StoreBoolean extends Store {
+        StoreBoolean(int slot, Expr value) {
+            super(Code.ISTORE, Type.BOOLEAN, slot, value);
+        }
+    }
+
+    static final class StoreDouble extends Store {
+        StoreDouble(int slot, Expr value) {
+            super(Code.DSTORE, Type.DOUBLE, slot, value);
+        }
+    }
+
+    static final class StoreString extends Store {
+        StoreString(int slot, Expr value) {
+            super(Code.SSTORE, Type.STRING, slot, value);
+        }
+    }
+
+    // i++ / i-- en tant qu'instruction
+    static final class IncrementInt extends Stmt {
+        private final int slot;
+        private final int delta;
+        private final boolean isChar;
+
+        IncrementInt(int slot, int delta, boolean isChar) {
+            this.slot = slot;
+            this.delta = delta;
+            this.isChar = isChar;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(isChar ? Code.CINC : Code.IINC, slot, delta);
+        }
+    }
+
+    static final class IncrementDouble extends Stmt {
+        private final int slot;
+        private final int delta;
+
+        IncrementDouble(int slot, int delta) {
+            this.slot = slot;
+            this.delta = delta;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            code.op(Code.DINC, slot, delta);
+        }
+    }
+
+    // Expression évaluée pour ses effets (i++ en argument ignoré, etc.)
+    static final class Evaluate extends Stmt {
+        private final Expr expression;
+
+        Evaluate(Expr expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            steps.add(new Code.Value(expression, expression.type));
+            switch (expression.type) {
+                case DOUBLE: steps.add((Runnable) () -> code.op(Code.DPOP)); break;
+                case STRING: steps.add((Runnable) () -> code.op(Code.SPOP)); break;
+                default: steps.add((Runnable) () -> code.op(Code.IPOP));
+            }
+        }
+    }
+
+    // System.out.print / println : la surcharge de PrintStream est choisie selon le type
+    static final class Print extends Stmt {
+        private final Expr argument;   // null : println() sans argument
+        private final boolean newLine;
+
+        Print(Expr argument, boolean newLine) {
+            this.argument = argument;
+            this.newLine = newLine;
+        }
+
+        @Override
+        void emit(Code code, List<Object> steps) {
+            if (argument == null) {
+                if (newLine) {
+                    code.op(Code.NEWLINE);
+                }
+                return;
+            }
+            int opcode;
+            switch (argument.type) {
+                case INT: opcode = Code.PRINT_I; break;
+                case CHAR: opcode = Code.PRINT_C; break;
+                case DOUBLE: opcode = Code.PRINT_D; break;
+                case BOOLEAN: opcode = Code.PRINT_Z; break;
+                default: opcode = Code.PRINT_S;
+            }
+            steps.add(new Code.Value(argument, argument.type));
+            steps.add((Runnable) () -> code.op(opcode, newLine ? 1 : 0));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package ir;
+
+import semantic.Type;
+import java.util.*;
+
+// Fonction en code à trois adresses. Les instructions sont rangées dans des tableaux
+// parallèles (op, dst, a, b) ; les registres virtuels sont des entiers typés, les
+// étiquettes des entiers posés par des instructions LABEL.
+public final class IrFunction {
+    public final String name;
+    public final Type returnType;   // null : void
+
+    private int[] ops = new int[64];
+    private int[] dsts = new int[64];
+    private int[] as = new int[64];
+    private int[] bs = new int[64];
+    private int count = 0;
+
+    private byte[] registerTypes = new byte[32];
+    private int registerCount = 0;
+    private int labelCount = 0;
+
+    // Constantes non entières, référencées par index
+    private final List<Double> doubles = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private static final Type[] TYPES = Type.values();
+
+    public IrFunction(String name, Type returnType) {
+        this.name = name;
+        this.returnType = returnType;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int op(int index) {
+        return ops[index];
+    }
+
+    public int dst(int index) {
+        return dsts[index];
+    }
+
+    public int a(int index) {
+        return as[index];
+    }
+
+    public int b(int index) {
+        return bs[index];
+    }
+
+    public int registerCount() {
+        return registerCount;
+    }
+
+    public Type registerType(int register) {
+        return TYPES[registerTypes[register]];
+    }
+
+    public int labelCount() {
+        return labelCount;
+    }
+
+    public double doubleConstant(int index) {
+        return doubles.get(index);
+    }
+
+    public String stringConstant(int index) {
+        return strings.get(index);
+    }
+
+    public int newRegister(Type type) {
+        if (registerCount == registerTypes.length) {
+            registerTypes = Arrays.copyOf(registerTypes, registerCount * 2);
+        }
+        registerTypes[registerCount] = (byte) type.ordinal();
+        return registerCount++;
+    }
+
+    public int newLabel() {
+        return labelCount++;
+    }
+
+    public void emit(int op, int dst, int a, int b) {
+        if (count == ops.length) {
+            int capacity = count * 2;
+            ops = Arrays.copyOf(ops, capacity);
+            dsts = Arrays.copyOf(dsts, capacity);
+            as = Arrays.copyOf(as, capacity);
+            bs = Arrays.copyOf(bs, capacity);
+        }
+        ops[count] = op;
+        dsts[count] = dst;
+        as[count] = a;
+        bs[count] = b;
+        count++;
+    }
+
+    public void label(int label) {
+        emit(Op.LABEL, -1, label, -1);
+    }
+
+    public int constInt(int value) {
+        int register = newRegister(Type.INT);
+        emit(Op.CONST_INT, register, value, -1);
+        return register;
+    }
+
+    public int constDouble(double value) {
+        int register = newRegister(Type.DOUBLE);
+        doubles.add(value);
+        emit(Op.CONST_DOUBLE, register, doubles.size() - 1, -1);
+        return register;
+    }
+
+    public int constString(String value) {
+        int register = newRegister(Type.STRING);
+        strings.add(value);
+        emit(Op.CONST_STRING, register, strings.size() - 1, -1);
+        return register;
+    }
+
+    // Position de chaque étiquette dans la liste d'instructions
+    public int[] labelPositions() {
+        int[] positions = new int[labelCount];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < count; i++) {
+            if (ops[i] == Op.LABEL) {
+                positions[as[i]] = i;
+            }
+        }
+        return positions;
+    }
+
+    public void dump(StringBuilder out) {
+        out.append("function ").append(name).append(" : ")
+           .append(returnType == null ? "void" : returnType.name().toLowerCase())
+           .append(" (").append(registerCount).append(" registres)\n");
+        for (int i = 0; i < count; i++) {
+            int op = ops[i];
+            if (op == Op.LABEL) {
+                out.append("L").append(as[i]).append(":\n");
+                continue;
+            }
+            out.append("    ");
+            if (dsts[i] >= 0) {
+                out.append('r').append(dsts[i]).append(" = ");
+            }
+            out.append(Op.name(op));
+            switch (op) {
+                case Op.JUMP:
+                    out.append(" L").append(as[i]);
+                    break;
+                case Op.JUMP_IF:
+                case Op.JUMP_IF_NOT:
+                    out.append(" r").append(as[i]).append(", L").append(bs[i]);
+                    break;
+                case Op.CONST_INT:
+                    out.append(' ').append(as[i]);
+                    break;
+                case Op.CONST_DOUBLE:
+                    out.append(' ').append(doubles.get(as[i]));
+                    break;
+                case Op.CONST_STRING:
+                    String text = strings.get(as[i]);
+                    if (text == null) {
+                        out.append(" null");
+                    } else {
+                        out.append(" \"").append(text.replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+                    }
+                    break;
+                case Op.CALL:
+                    out.append(" #").append(as[i]);
+                    break;
+                default:
+                    if (as[i] >= 0) {
+                        out.append(" r").append(as[i]);
+                    }
+                    if (bs[i] >= 0) {
+                        out.append(", r").append(bs[i]);
+                    }
+            }
+            if (dsts[i] >= 0) {
+                out.append("    ; ").append(registerType(dsts[i]).name().toLowerCase());
+            }
+            out.append('\n');
+        }
+    }
+}
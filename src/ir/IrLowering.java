@@ -0,0 +1,793 @@
+package ir;
+
+import semantic.SymbolTable;
+import semantic.Type;
+import models.*;
+import java.util.*;
+
+// Traduction de l'AST en code à trois adresses. Chaque méthode devient une IrFunction
+// nommée "Classe.méthode" ; les instructions hors classe forment la fonction main.
+// Chaque variable locale occupe un registre virtuel, chaque résultat intermédiaire un
+// registre temporaire ; WHILE et IF deviennent des étiquettes et des sauts explicites.
+public class IrLowering {
+    private final List<String> errors = new ArrayList<>();
+
+    // État de la fonction en cours de traduction
+    private IrProgram program;
+    private IrFunction function;
+    private Map<String, Integer> methods;   // méthodes de la classe courante -> index de fonction
+    private SymbolTable scopes;             // symbole -> registre de la variable
+    private int line;
+    private final Map<ASTNode, Type> types = new IdentityHashMap<>();
+    // Instructions restant à traduire, ou suite d'un BLOCK/WHILE/IF (Runnable : portée,
+    // saut, étiquette) : une pile de tâches au lieu d'une récursion par niveau d'imbrication
+    private final Deque<Object> pending = new ArrayDeque<>();
+    // Registres des sous-expressions déjà traduites, consommés par leur opérateur
+    private int[] results = new int[16];
+    private int resultCount;
+
+    private final StatementLowering statements = new StatementLowering();
+    private final ExpressionLowering expressions = new ExpressionLowering();
+
+    // null en cas d'erreur (voir getErrors)
+    public IrProgram lower(ASTNode root) {
+        errors.clear();
+        program = new IrProgram();
+        List<ASTNode> loose = new ArrayList<>();
+        List<String> classes = new ArrayList<>();
+        List<List<ASTNode>> members = new ArrayList<>();
+        for (ASTNode child : root.children) {
+            if (child.kind == NodeKind.CLASS) {
+                classes.add(child.value);
+                members.add(child.children);
+            } else {
+                loose.add(child);
+            }
+        }
+        if (!loose.isEmpty()) {
+            classes.add("");
+            members.add(loose);
+        }
+
+        // Toutes les fonctions sont déclarées avant la traduction, pour les appels en avant
+        List<Map<String, Integer>> classMethods = new ArrayList<>();
+        for (int i = 0; i < classes.size(); i++) {
+            classMethods.add(declareFunctions(classes.get(i), members.get(i)));
+        }
+        for (int i = 0; i < classes.size(); i++) {
+            methods = classMethods.get(i);
+            for (ASTNode member : members.get(i)) {
+                if (member.kind == NodeKind.METHOD) {
+                    lowerFunction(program.functions.get(methods.get(member.value)), member.children);
+                }
+            }
+            if (!methods.containsKey("main")) {
+                List<ASTNode> statementsOutside = new ArrayList<>();
+                for (ASTNode member : members.get(i)) {
+                    if (member.kind != NodeKind.METHOD && member.kind != NodeKind.MODIFIER) {
+                        statementsOutside.add(member);
+                    }
+                }
+                if (!statementsOutside.isEmpty()) {
+                    IrFunction main = new IrFunction(qualified(classes.get(i), "main"), null);
+                    program.functions.add(main);
+                    lowerFunction(main, statementsOutside);
+                }
+            }
+        }
+        return errors.isEmpty() ? program : null;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    private Map<String, Integer> declareFunctions(String className, List<ASTNode> members) {
+        Map<String, Integer> declared = new HashMap<>();
+        ASTNode firstStatement = null;
+        for (ASTNode member : members) {
+            if (member.kind == NodeKind.METHOD) {
+                if (declared.containsKey(member.value)) {
+                    error(member, "Méthode déjà définie: " + member.value);
+                    continue;
+                }
+                declared.put(member.value, program.functions.size());
+                program.functions.add(new IrFunction(qualified(className, member.value), returnType(member)));
+            } else if (member.kind != NodeKind.MODIFIER && firstStatement == null) {
+                firstStatement = member;
+            }
+        }
+        if (declared.containsKey("main") && firstStatement != null) {
+            error(firstStatement, "Instruction hors méthode non prise en charge");
+        }
+        return declared;
+    }
+
+    private static String qualified(String className, String name) {
+        return className.isEmpty() ? name : className + "." + name;
+    }
+
+    // null : void
+    private Type returnType(ASTNode method) {
+        for (ASTNode child : method.children) {
+            if (child.kind == NodeKind.RETURN_TYPE && !child.value.equals("void")) {
+                Type type = Type.fromName(child.value);
+                if (type == null) {
+                    error(method, "Type de retour non pris en charge: " + child.value);
+                }
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private void lowerFunction(IrFunction target, List<ASTNode> body) {
+        function = target;
+        scopes = new SymbolTable();
+        types.clear();
+
+        List<ASTNode> instructions = new ArrayList<>();
+        for (ASTNode statement : body) {
+            if (statement.kind != NodeKind.RETURN_TYPE && statement.kind != NodeKind.MODIFIER) {
+                instructions.add(statement);
+            }
+        }
+        scopes.enterScope();
+        lowerStatements(instructions);
+        scopes.exitScope();
+
+        // Sans instruction return dans le langage : valeur par défaut en fin de fonction
+        Type returnType = function.returnType;
+        if (returnType == null) {
+            function.emit(Op.RETURN, -1, -1, -1);
+        } else {
+            function.emit(Op.RETURN, -1, defaultValue(returnType), -1);
+        }
+    }
+
+    private int defaultValue(Type type) {
+        switch (type) {
+            case DOUBLE:
+                return function.constDouble(0);
+            case STRING:
+                return function.constString(null);
+            default: {
+                int register = function.newRegister(type);
+                function.emit(Op.CONST_INT, register, 0, -1);
+                return register;
+            }
+        }
+    }
+
+    private void lowerStatements(List<ASTNode> nodes) {
+        pushAll(nodes);
+        while (!pending.isEmpty()) {
+            Object task = pending.pop();
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+                continue;
+            }
+            ASTNode node = (ASTNode) task;
+            if (node.line() > 0) {
+                line = node.line();
+            }
+            node.accept(statements);
+        }
+    }
+
+    // Dépilées dans l'ordre de la liste
+    private void pushAll(List<ASTNode> nodes) {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            pending.push(nodes.get(i));
+        }
+    }
+
+    // Suite à exécuter après les tâches empilées ensuite
+    private void later(Runnable task) {
+        pending.push(task);
+    }
+
+    // Instruction seule (corps de while, branche de if) : sa propre portée
+    private void nested(ASTNode node) {
+        later(scopes::exitScope);
+        pending.push(node);
+        later(scopes::enterScope);
+    }
+
+    // Registre contenant la valeur de l'expression, convertie en 'target' si besoin ; -1 en cas d'erreur
+    private int lowerExpression(ASTNode node, Type target) {
+        lower(new Value(node, target));
+        return popResult();
+    }
+
+    // Saute à 'target' si la condition vaut 'jumpIf'
+    private void branch(ASTNode node, boolean jumpIf, int target) {
+        lower(new Jump(node, jumpIf, target));
+    }
+
+    // Tâches de traduction d'une expression : valeur d'un sous-arbre (son registre est
+    // empilé dans results), saut selon une condition, ou Runnable (opérateur appliqué aux
+    // registres de ses opérandes). Dépilées par lower(), comme les instructions par
+    // lowerStatements : une longue chaîne a + b + ... ne fait pas de récursion Java.
+    private static final class Value {
+        final ASTNode node;
+        final Type target;
+
+        Value(ASTNode node, Type target) {
+            this.node = node;
+            this.target = target;
+        }
+    }
+
+    private static final class Jump {
+        final ASTNode node;
+        final boolean jumpIf;
+        final int target;
+
+        Jump(ASTNode node, boolean jumpIf, int target) {
+            this.node = node;
+            this.jumpIf = jumpIf;
+            this.target = target;
+        }
+    }
+
+    private void lower(Object first) {
+        Deque<Object> tasks = new ArrayDeque<>();
+        List<Object> steps = new ArrayList<>();
+        tasks.push(first);
+        while (!tasks.isEmpty()) {
+            Object task = tasks.pop();
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+                continue;
+            }
+            steps.clear();
+            if (task instanceof Value) {
+                value((Value) task, steps);
+            } else {
+                jump((Jump) task, steps);
+            }
+            // Étapes dépilées dans l'ordre de la liste
+            for (int i = steps.size() - 1; i >= 0; i--) {
+                tasks.push(steps.get(i));
+            }
+        }
+    }
+
+    private void pushResult(int register) {
+        if (resultCount == results.length) {
+            results = Arrays.copyOf(results, resultCount * 2);
+        }
+        results[resultCount++] = register;
+    }
+
+    private int popResult() {
+        return results[--resultCount];
+    }
+
+    private void value(Value task, List<Object> steps) {
+        ASTNode node = task.node;
+        Type type = typeOf(node);
+        if (type == null) {
+            pushResult(-1);
+            return;
+        }
+        if (type == Type.BOOLEAN && node.kind == NodeKind.BINARY_OP) {
+            // && et || utilisés comme valeur : 1 ou 0 selon les sauts
+            int register = function.newRegister(Type.BOOLEAN);
+            int isFalse = function.newLabel();
+            int end = function.newLabel();
+            steps.add(new Jump(node, false, isFalse));
+            steps.add((Runnable) () -> {
+                function.emit(Op.CONST_INT, register, 1, -1);
+                function.emit(Op.JUMP, -1, end, -1);
+                function.label(isFalse);
+                function.emit(Op.CONST_INT, register, 0, -1);
+                function.label(end);
+                pushResult(register);
+            });
+        } else if (node.kind == NodeKind.UNARY_OP) {
+            steps.add(new Value(node.children.get(0), type));
+            steps.add((Runnable) () -> {
+                int operand = popResult();
+                int result = function.newRegister(type);
+                function.emit(type == Type.DOUBLE ? Op.DNEG : Op.NEG, result, operand, -1);
+                pushResult(result);
+            });
+        } else if (node.kind == NodeKind.COMPARISON) {
+            ASTNode left = node.children.get(0);
+            ASTNode right = node.children.get(1);
+            boolean isDouble = typeOf(left) == Type.DOUBLE || typeOf(right) == Type.DOUBLE;
+            Type operandType = isDouble ? Type.DOUBLE : null;
+            steps.add(new Value(left, operandType));
+            steps.add(new Value(right, operandType));
+            steps.add((Runnable) () -> comparison(node.value, isDouble));
+        } else if (node.kind == NodeKind.BINARY_OP && type == Type.STRING) {
+            concat(node, steps);
+        } else if (node.kind == NodeKind.BINARY_OP) {
+            steps.add(new Value(node.children.get(0), type));
+            steps.add(new Value(node.children.get(1), type));
+            steps.add((Runnable) () -> arithmetic(node.value, type));
+        } else {
+            pushResult(node.accept(expressions));
+        }
+        if (task.target == Type.DOUBLE && type != Type.DOUBLE) {
+            steps.add((Runnable) () -> {
+                int register = popResult();
+                if (register >= 0) {
+                    int converted = function.newRegister(Type.DOUBLE);
+                    function.emit(Op.I2D, converted, register, -1);
+                    register = converted;
+                }
+                pushResult(register);
+            });
+        }
+    }
+
+    private void comparison(String operator, boolean isDouble) {
+        int b = popResult();
+        int a = popResult();
+        int op;
+        switch (operator) {
+            case "==": op = Op.EQ; break;
+            case "!=": op = Op.NE; break;
+            case "<": op = Op.LT; break;
+            case "<=": op = Op.LE; break;
+            case ">": op = Op.GT; break;
+            default: op = Op.GE;
+        }
+        int result = function.newRegister(Type.BOOLEAN);
+        function.emit(isDouble ? op + (Op.DEQ - Op.EQ) : op, result, a, b);
+        pushResult(result);
+    }
+
+    private void arithmetic(String operator, Type type) {
+        int b = popResult();
+        int a = popResult();
+        int op;
+        switch (operator) {
+            case "+": op = Op.ADD; break;
+            case "-": op = Op.SUB; break;
+            case "*": op = Op.MUL; break;
+            case "/": op = Op.DIV; break;
+            default: op = Op.REM;
+        }
+        int result = function.newRegister(type);
+        function.emit(type == Type.DOUBLE ? op + (Op.DADD - Op.ADD) : op, result, a, b);
+        pushResult(result);
+    }
+
+    // a + b + c (dont au moins une chaîne) : une instruction concat par opérande
+    private void concat(ASTNode node, List<Object> steps) {
+        List<ASTNode> parts = new ArrayList<>();
+        ASTNode current = node;
+        while (current.kind == NodeKind.BINARY_OP && current.value.equals("+") && typeOf(current) == Type.STRING) {
+            parts.add(current.children.get(1));
+            current = current.children.get(0);
+        }
+        parts.add(current);
+        Collections.reverse(parts);
+
+        steps.add(new Value(parts.get(0), typeOf(parts.get(0))));
+        for (int i = 1; i < parts.size(); i++) {
+            steps.add(new Value(parts.get(i), typeOf(parts.get(i))));
+            steps.add((Runnable) () -> {
+                int part = popResult();
+                int result = popResult();
+                int joined = function.newRegister(Type.STRING);
+                function.emit(Op.CONCAT, joined, result, part);
+                pushResult(joined);
+            });
+        }
+    }
+
+    private void jump(Jump task, List<Object> steps) {
+        ASTNode node = task.node;
+        boolean jumpIf = task.jumpIf;
+        int target = task.target;
+        if (node.kind == NodeKind.BINARY_OP && (node.value.equals("&&") || node.value.equals("||"))) {
+            boolean and = node.value.equals("&&");
+            ASTNode left = node.children.get(0);
+            ASTNode right = node.children.get(1);
+            if (and != jumpIf) {
+                // && faux dès le premier faux, || vrai dès le premier vrai
+                steps.add(new Jump(left, jumpIf, target));
+                steps.add(new Jump(right, jumpIf, target));
+            } else {
+                int skip = function.newLabel();
+                steps.add(new Jump(left, !jumpIf, skip));
+                steps.add(new Jump(right, jumpIf, target));
+                steps.add((Runnable) () -> function.label(skip));
+            }
+            return;
+        }
+        steps.add(new Value(node, Type.BOOLEAN));
+        steps.add((Runnable) () -> {
+            int register = popResult();
+            if (register >= 0) {
+                function.emit(jumpIf ? Op.JUMP_IF : Op.JUMP_IF_NOT, -1, register, target);
+            }
+        });
+    }
+
+    // Type statique d'une expression (mémorisé), null en cas d'erreur. Calculé en
+    // post-ordre avec une pile explicite : les opérandes d'abord, de gauche à droite
+    private Type typeOf(ASTNode root) {
+        if (types.containsKey(root)) {
+            return types.get(root);
+        }
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.peek();
+            boolean ready = true;
+            if (hasOperands(node)) {
+                for (int i = node.children.size() - 1; i >= 0; i--) {
+                    if (!types.containsKey(node.children.get(i))) {
+                        stack.push(node.children.get(i));
+                        ready = false;
+                    }
+                }
+            }
+            if (ready) {
+                stack.pop();
+                types.put(node, computeType(node));
+            }
+        }
+        return types.get(root);
+    }
+
+    private static boolean hasOperands(ASTNode node) {
+        switch (node.kind) {
+            case POST_INCREMENT:
+            case POST_DECREMENT:
+            case UNARY_OP:
+            case COMPARISON:
+            case BINARY_OP:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Type d'un nœud dont les opérandes sont déjà typés
+    private Type computeType(ASTNode node) {
+        Type type;
+        switch (node.kind) {
+            case NUMBER:
+                type = Type.ofNumber(node.value);
+                break;
+            case STRING_LITERAL:
+                type = Type.STRING;
+                break;
+            case IDENTIFIER: {
+                int register = lookup(node);
+                type = register >= 0 ? function.registerType(register) : null;
+                break;
+            }
+            case POST_INCREMENT:
+            case POST_DECREMENT:
+                type = types.get(node.children.get(0));
+                break;
+            case UNARY_OP:
+                type = Type.ofNegation(types.get(node.children.get(0)));
+                break;
+            case COMPARISON:
+                type = Type.ofComparison(node.value, types.get(node.children.get(0)), types.get(node.children.get(1)));
+                break;
+            case BINARY_OP:
+                type = Type.ofBinary(node.value, types.get(node.children.get(0)), types.get(node.children.get(1)));
+                break;
+            default:
+                type = null;
+        }
+        if (type == null && node.kind != NodeKind.IDENTIFIER) {
+            error(node, "Expression invalide ou types incompatibles: " + describe(node));
+        }
+        return type;
+    }
+
+    private String describe(ASTNode node) {
+        return node.value.isEmpty() ? node.type() : node.type() + " " + node.value;
+    }
+
+    // Registre de la variable désignée par le nœud (IDENTIFIER, ASSIGNMENT, INCREMENT, DECREMENT)
+    private int lookup(ASTNode node) {
+        int register = scopes.lookup(node.symbol());
+        if (register < 0) {
+            errors.add("Variable non déclarée: " + node.value + " à la ligne " + line);
+        }
+        return register;
+    }
+
+    private int declare(ASTNode node, Type type, String name) {
+        int register = function.newRegister(type);
+        if (!scopes.declare(node.symbol(), register)) {
+            error(node, "Variable déjà déclarée: " + name);
+        }
+        return register;
+    }
+
+    // Copie de 'value' dans la variable, avec troncature en char si besoin
+    private void store(int variable, int value) {
+        Type type = function.registerType(variable);
+        if (type == Type.CHAR && function.registerType(value) != Type.CHAR) {
+            function.emit(Op.I2C, variable, value, -1);
+        } else {
+            function.emit(Op.MOVE, variable, value, -1);
+        }
+    }
+
+    // variable += delta ; la variable est de type numérique
+    private void increment(int variable, int delta) {
+        Type type = function.registerType(variable);
+        if (type == Type.DOUBLE) {
+            int one = function.constDouble(1);
+            function.emit(delta > 0 ? Op.DADD : Op.DSUB, variable, variable, one);
+            return;
+        }
+        int step = function.constInt(delta);
+        if (type == Type.CHAR) {
+            int sum = function.newRegister(Type.INT);
+            function.emit(Op.ADD, sum, variable, step);
+            function.emit(Op.I2C, variable, sum, -1);
+        } else {
+            function.emit(Op.ADD, variable, variable, step);
+        }
+    }
+
+    private void error(ASTNode node, String message) {
+        errors.add(message + " à la ligne " + (node.line() > 0 ? node.line() : line));
+    }
+
+    private final class StatementLowering implements Visitor<Void> {
+        @Override
+        public Void visitDefault(ASTNode node) {
+            error(node, "Instruction non prise en charge: " + node.type());
+            return null;
+        }
+
+        @Override
+        public Void visitBlock(ASTNode node) {
+            scopes.enterScope();
+            later(scopes::exitScope);
+            pushAll(node.children);
+            return null;
+        }
+
+        @Override
+        public Void visitDeclaration(ASTNode node) {
+            String[] parts = node.value.split(" ", 2);
+            Type type = Type.fromName(parts[0]);
+            if (type == null) {
+                error(node, "Type non pris en charge: " + parts[0]);
+                return null;
+            }
+            // Sans initialisation : valeur par défaut, la variable est toujours définie
+            if (node.children.isEmpty()) {
+                store(declare(node, type, parts[1]), defaultValue(type));
+                return null;
+            }
+            ASTNode value = node.children.get(0);
+            Type valueType = typeOf(value);
+            if (valueType != null && !type.accepts(valueType, value)) {
+                error(node, "Types incompatibles: " + valueType + " affecté à une variable " + type);
+                return null;
+            }
+            int register = lowerExpression(value, type);
+            if (register >= 0) {
+                store(declare(node, type, parts[1]), register);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitAssignment(ASTNode node) {
+            int variable = lookup(node);
+            ASTNode value = node.children.get(0);
+            Type valueType = typeOf(value);
+            if (variable < 0 || valueType == null) {
+                return null;
+            }
+            Type type = function.registerType(variable);
+            if (!type.accepts(valueType, value)) {
+                error(node, "Types incompatibles: " + valueType + " affecté à une variable " + type);
+                return null;
+            }
+            int register = lowerExpression(value, type);
+            if (register >= 0) {
+                store(variable, register);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitIncrement(ASTNode node) {
+            increment(node, 1);
+            return null;
+        }
+
+        @Override
+        public Void visitDecrement(ASTNode node) {
+            increment(node, -1);
+            return null;
+        }
+
+        private void increment(ASTNode node, int delta) {
+            int variable = lookup(node);
+            if (variable < 0) {
+                return;
+            }
+            Type type = function.registerType(variable);
+            if (!type.isNumeric()) {
+                error(node, "Incrémentation d'une variable " + type + ": " + node.value);
+                return;
+            }
+            IrLowering.this.increment(variable, delta);
+        }
+
+        @Override
+        public Void visitWhile(ASTNode node) {
+            // début : si condition fausse -> fin ; corps ; retour au début
+            int start = function.newLabel();
+            int end = function.newLabel();
+            function.label(start);
+            ASTNode body = null;
+            for (ASTNode child : node.children) {
+                if (child.kind == NodeKind.CONDITION) {
+                    condition(child, end);
+                } else if (child.kind == NodeKind.BODY) {
+                    body = child.children.get(0);
+                }
+            }
+            later(() -> {
+                function.emit(Op.JUMP, -1, start, -1);
+                function.label(end);
+            });
+            if (body != null) {
+                nested(body);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitIf(ASTNode node) {
+            int otherwise = function.newLabel();
+            int[] end = {-1};   // créée après la branche then, comme ses propres étiquettes
+            ASTNode thenBranch = null;
+            ASTNode elseBranch = null;
+            for (ASTNode child : node.children) {
+                if (child.kind == NodeKind.CONDITION) {
+                    condition(child, otherwise);
+                } else if (child.kind == NodeKind.THEN) {
+                    thenBranch = child.children.get(0);
+                } else if (child.kind == NodeKind.ELSE) {
+                    elseBranch = child.children.get(0);
+                }
+            }
+            // Empilé à l'envers : then, saut vers la fin, otherwise, else, fin
+            boolean hasElse = elseBranch != null;
+            if (hasElse) {
+                later(() -> function.label(end[0]));
+                nested(elseBranch);
+            }
+            later(() -> {
+                if (hasElse) {
+                    end[0] = function.newLabel();
+                    function.emit(Op.JUMP, -1, end[0], -1);
+                }
+                function.label(otherwise);
+            });
+            if (thenBranch != null) {
+                nested(thenBranch);
+            }
+            return null;
+        }
+
+        // Saute à 'ifFalse' quand la condition est fausse
+        private void condition(ASTNode condition, int ifFalse) {
+            ASTNode expression = condition.children.get(0);
+            Type type = typeOf(expression);
+            if (type != null && type != Type.BOOLEAN) {
+                error(condition, "Condition de type " + type + " au lieu de boolean");
+                return;
+            }
+            if (type != null) {
+                branch(expression, false, ifFalse);
+            }
+        }
+
+        @Override
+        public Void visitMethodCall(ASTNode node) {
+            String name = node.value;
+            int count = node.children.size();
+            if (name.equals("System.out.println") || name.equals("System.out.print")) {
+                boolean newLine = name.equals("System.out.println");
+                if (count > 1 || (count == 0 && !newLine)) {
+                    error(node, name + " attend " + (newLine ? "au plus" : "exactement") + " un argument");
+                    return null;
+                }
+                if (count == 0) {
+                    function.emit(Op.PRINTLN, -1, -1, -1);
+                    return null;
+                }
+                ASTNode argument = node.children.get(0).children.get(0);
+                int register = lowerExpression(argument, typeOf(argument));
+                if (register >= 0) {
+                    function.emit(newLine ? Op.PRINTLN : Op.PRINT, -1, register, -1);
+                }
+                return null;
+            }
+            // Méthode de la même classe, sans argument (le Parser ne garde pas les paramètres)
+            Integer index = methods.get(name);
+            if (index == null || count > 0) {
+                error(node, "Appel de méthode non pris en charge: " + name);
+                return null;
+            }
+            Type returnType = program.functions.get(index).returnType;
+            int result = returnType == null ? -1 : function.newRegister(returnType);
+            function.emit(Op.CALL, result, index, -1);
+            return null;
+        }
+    }
+
+    // Registre du résultat d'une feuille d'expression dont le type a déjà été vérifié par
+    // typeOf ; les opérateurs sont traduits par lower()
+    private final class ExpressionLowering implements Visitor<Integer> {
+        @Override
+        public Integer visitDefault(ASTNode node) {
+            error(node, "Expression non prise en charge: " + node.type());
+            return -1;
+        }
+
+        @Override
+        public Integer visitNumber(ASTNode node) {
+            try {
+                if (typeOf(node) == Type.DOUBLE) {
+                    return function.constDouble(Double.parseDouble(node.value));
+                }
+                return function.constInt(Integer.parseInt(node.value));
+            } catch (NumberFormatException e) {
+                error(node, "Nombre invalide: " + node.value);
+                return -1;
+            }
+        }
+
+        @Override
+        public Integer visitStringLiteral(ASTNode node) {
+            return function.constString(node.value);
+        }
+
+        @Override
+        public Integer visitIdentifier(ASTNode node) {
+            return lookup(node);
+        }
+
+        @Override
+        public Integer visitPostIncrement(ASTNode node) {
+            return postIncrement(node, 1);
+        }
+
+        @Override
+        public Integer visitPostDecrement(ASTNode node) {
+            return postIncrement(node, -1);
+        }
+
+        // Copie de la valeur avant modification
+        private int postIncrement(ASTNode node, int delta) {
+            int variable = lookup(node.children.get(0));
+            if (variable < 0) {
+                return -1;
+            }
+            Type type = function.registerType(variable);
+            if (!type.isNumeric()) {
+                error(node, "Incrémentation d'une variable " + type);
+                return -1;
+            }
+            int previous = function.newRegister(type);
+            function.emit(Op.MOVE, previous, variable, -1);
+            increment(variable, delta);
+            return previous;
+        }
+    }
+}
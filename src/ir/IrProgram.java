@@ -0,0 +1,29 @@
+package ir;
+
+import java.util.*;
+
+// Ensemble des fonctions d'un programme ; CALL référence une fonction par son index
+public final class IrProgram {
+    public final List<IrFunction> functions = new ArrayList<>();
+
+    public int indexOf(String name) {
+        for (int i = 0; i < functions.size(); i++) {
+            if (functions.get(i).name.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String dump() {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < functions.size(); i++) {
+            if (i > 0) {
+                out.append('\n');
+            }
+            out.append('#').append(i).append(' ');
+            functions.get(i).dump(out);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package ir;
+
+// Codes des instructions de l'IR. Forme générale : dst = op a, b
+// (a et b sont des registres, sauf indication contraire).
+public final class Op {
+    public static final int LABEL = 0;          // a : numéro d'étiquette (début de bloc)
+    public static final int JUMP = 1;           // a : étiquette
+    public static final int JUMP_IF = 2;        // si a alors aller à b (étiquette)
+    public static final int JUMP_IF_NOT = 3;    // si non a alors aller à b (étiquette)
+    public static final int CONST_INT = 4;      // dst = a (valeur immédiate)
+    public static final int CONST_DOUBLE = 5;   // dst = doubles[a]
+    public static final int CONST_STRING = 6;   // dst = strings[a]
+    public static final int MOVE = 7;           // dst = a
+    public static final int ADD = 8;
+    public static final int SUB = 9;
+    public static final int MUL = 10;
+    public static final int DIV = 11;
+    public static final int REM = 12;
+    public static final int NEG = 13;           // dst = -a
+    public static final int DADD = 14;
+    public static final int DSUB = 15;
+    public static final int DMUL = 16;
+    public static final int DDIV = 17;
+    public static final int DREM = 18;
+    public static final int DNEG = 19;
+    public static final int I2D = 20;
+    public static final int I2C = 21;
+    public static final int EQ = 22;            // comparaisons d'entiers (et de booléens)
+    public static final int NE = 23;
+    public static final int LT = 24;
+    public static final int LE = 25;
+    public static final int GT = 26;
+    public static final int GE = 27;
+    public static final int DEQ = 28;
+    public static final int DNE = 29;
+    public static final int DLT = 30;
+    public static final int DLE = 31;
+    public static final int DGT = 32;
+    public static final int DGE = 33;
+    public static final int CONCAT = 34;        // dst = texte(a) + texte(b), selon le type des registres
+    public static final int PRINT = 35;         // a : registre
+    public static final int PRINTLN = 36;       // a : registre, ou -1 pour println()
+    public static final int CALL = 37;          // dst = fonction a (-1 si void)
+    public static final int RETURN = 38;        // a : registre, ou -1
+
+    static final String[] NAMES = {
+        "label", "jump", "jump_if", "jump_if_not", "const", "const", "const", "move",
+        "add", "sub", "mul", "div", "rem", "neg",
+        "dadd", "dsub", "dmul", "ddiv", "drem", "dneg", "i2d", "i2c",
+        "eq", "ne", "lt", "le", "gt", "ge", "deq", "dne", "dlt", "dle", "dgt", "dge",
+        "concat", "print", "println", "call", "return"
+    };
+
+    private Op() {
+    }
+
+    public static String name(int op) {
+        return NAMES[op];
+    }
+
+    public static boolean isJump(int op) {
+        return op == JUMP || op == JUMP_IF || op == JUMP_IF_NOT;
+    }
+}
@@ -0,0 +1,105 @@
+package lexical;
+
+import java.util.*;
+
+// Table d'enregistrements d'int (une ligne = 'width' colonnes) avec un trou à la
+// position d'édition : insérer ou supprimer au trou ne déplace rien.
+// Après le trou, les colonnes "relatives" sont stockées moins un décalage cumulé ;
+// shift() décale ainsi toute la fin de table en temps constant.
+final class GapTable {
+    private final int width;
+    private final boolean[] relative;
+    private final int[] offsets;
+    private int[] data;
+    private int gapStart = 0;   // en enregistrements
+    private int gapEnd;
+
+    GapTable(int width, boolean[] relative, int capacity) {
+        this.width = width;
+        this.relative = relative;
+        this.offsets = new int[width];
+        this.data = new int[capacity * width];
+        this.gapEnd = capacity;
+    }
+
+    int size() {
+        return data.length / width - (gapEnd - gapStart);
+    }
+
+    int get(int index, int column) {
+        if (index < gapStart) {
+            return data[index * width + column];
+        }
+        int value = data[(index + gapEnd - gapStart) * width + column];
+        return relative[column] ? value + offsets[column] : value;
+    }
+
+    // Premier index dont la colonne (croissante) vaut au moins value
+    int search(int column, int value) {
+        int low = 0, high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(mid, column) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Supprime [from, to[ et laisse le trou en from
+    void delete(int from, int to) {
+        moveGap(from);
+        gapEnd += to - from;
+    }
+
+    // Décale la colonne de tous les enregistrements situés après le trou
+    void shift(int column, int delta) {
+        offsets[column] += delta;
+    }
+
+    // Insère un enregistrement (valeurs absolues) au trou
+    void insert(int... values) {
+        if (gapStart == gapEnd) {
+            grow();
+        }
+        System.arraycopy(values, 0, data, gapStart * width, width);
+        gapStart++;
+    }
+
+    private void moveGap(int index) {
+        while (gapStart > index) {
+            // Enregistrement juste avant le trou : passe derrière, en relatif
+            gapStart--;
+            gapEnd--;
+            copy(gapStart, gapEnd, true);
+        }
+        while (gapStart < index) {
+            // Enregistrement juste après le trou : passe devant, en absolu
+            copy(gapEnd, gapStart, false);
+            gapStart++;
+            gapEnd++;
+        }
+    }
+
+    private void copy(int from, int to, boolean toRelative) {
+        for (int c = 0; c < width; c++) {
+            int value = data[from * width + c];
+            if (relative[c]) {
+                value += toRelative ? -offsets[c] : offsets[c];
+            }
+            data[to * width + c] = value;
+        }
+    }
+
+    private void grow() {
+        int capacity = data.length / width;
+        int newCapacity = Math.max(16, capacity * 2);
+        int tail = capacity - gapEnd;
+        int[] grown = Arrays.copyOf(data, newCapacity * width);
+        System.arraycopy(data, gapEnd * width, grown, (newCapacity - tail) * width, tail * width);
+        data = grown;
+        gapEnd = newCapacity - tail;
+    }
+}
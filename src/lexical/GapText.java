@@ -0,0 +1,81 @@
+package lexical;
+
+import java.util.*;
+
+// Texte modifiable avec un trou à la position d'édition : des éditions proches
+// les unes des autres ne recopient que les caractères situés entre elles.
+final class GapText implements CharSequence {
+    private char[] chars;
+    private int gapStart;
+    private int gapEnd;
+
+    GapText(String text) {
+        chars = Arrays.copyOf(text.toCharArray(), Math.max(16, text.length() * 2));
+        gapStart = text.length();
+        gapEnd = chars.length;
+    }
+
+    @Override
+    public int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public char charAt(int index) {
+        return index < gapStart ? chars[index] : chars[index + gapEnd - gapStart];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        int gap = gapEnd - gapStart;
+        if (end <= gapStart) {
+            return new String(chars, start, end - start);
+        }
+        if (start >= gapStart) {
+            return new String(chars, start + gap, end - start);
+        }
+        return new StringBuilder(end - start)
+                .append(chars, start, gapStart - start)
+                .append(chars, gapEnd, end - gapStart)
+                .toString();
+    }
+
+    void replace(int offset, int removedLength, String inserted) {
+        moveGap(offset);
+        gapEnd += removedLength;
+        if (gapEnd - gapStart < inserted.length()) {
+            grow(inserted.length());
+        }
+        inserted.getChars(0, inserted.length(), chars, gapStart);
+        gapStart += inserted.length();
+    }
+
+    private void moveGap(int offset) {
+        if (offset < gapStart) {
+            int count = gapStart - offset;
+            System.arraycopy(chars, offset, chars, gapEnd - count, count);
+            gapStart = offset;
+            gapEnd -= count;
+        } else if (offset > gapStart) {
+            int count = offset - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, count);
+            gapStart = offset;
+            gapEnd += count;
+        }
+    }
+
+    private void grow(int needed) {
+        int tail = chars.length - gapEnd;
+        int capacity = Math.max(chars.length * 2, length() + needed + 16);
+        char[] grown = new char[capacity];
+        System.arraycopy(chars, 0, grown, 0, gapStart);
+        System.arraycopy(chars, gapEnd, grown, capacity - tail, tail);
+        chars = grown;
+        gapEnd = capacity - tail;
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+}
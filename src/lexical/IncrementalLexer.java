@@ -0,0 +1,190 @@
+package lexical;
+
+// Flux de tokens d'un texte en cours d'édition (intégration éditeur).
+// L'état du lexer est enregistré à chaque début de ligne ; une édition relance
+// l'analyse au début de sa ligne et s'arrête dès qu'un début de ligne situé après
+// la zone modifiée retrouve son ancien état : les tokens suivants sont réutilisés.
+public class IncrementalLexer implements TokenSource {
+    // Colonnes de la table des tokens
+    private static final int TYPE = 0, START = 1, LENGTH = 2, LINE = 3, COLUMN = 4;
+    // Colonnes de la table des lignes (numéro de ligne = index + 1)
+    private static final int OFFSET = 0, STATE = 1;
+
+    private static final Token.TokenType[] TYPES = Token.TokenType.values();
+
+    private final GapText text;
+    private final Source source;
+    // Pool propre à la session d'édition en général : abandonné avec elle, au lieu de garder
+    // dans SymbolPool.GLOBAL chaque identifiant partiel tapé
+    private final SymbolPool pool;
+    private final GapTable tokens = new GapTable(5, new boolean[] {false, true, false, true, false}, 256);
+    private final GapTable lines = new GapTable(2, new boolean[] {true, false}, 64);
+
+    public IncrementalLexer(String text) {
+        this(text, SymbolPool.GLOBAL);
+    }
+
+    public IncrementalLexer(String text, SymbolPool pool) {
+        this.text = new GapText(text);
+        this.source = Source.of(this.text);
+        this.pool = pool;
+        lines.insert(0, Lexer.NORMAL);
+        Lexer lexer = new Lexer(source, pool);
+        lexer.setLineListener((offset, state) -> {
+            lines.insert(offset, state);
+            return false;
+        });
+        Token.TokenType type;
+        do {
+            type = lexer.scan();
+            addToken(lexer, type);
+        } while (type != Token.TokenType.EOF);
+    }
+
+    // Remplace removedLength caractères à partir de offset par inserted
+    public TokenChange edit(int offset, int removedLength, String inserted) {
+        if (offset < 0 || removedLength < 0 || offset + removedLength > text.length()) {
+            throw new IndexOutOfBoundsException("Édition hors du texte: " + offset + "+" + removedLength);
+        }
+        int delta = inserted.length() - removedLength;
+        int editEnd = offset + inserted.length();
+
+        // 1. Ligne de reprise : celle de l'édition, ou plus haut si elle commence dans une chaîne
+        int restartLine = lines.search(OFFSET, offset + 1) - 1;
+        while (restartLine > 0 && lines.get(restartLine, STATE) == Lexer.IN_STRING) {
+            restartLine--;
+        }
+        int restart = lines.get(restartLine, OFFSET);
+        int firstToken = tokens.search(START, restart);
+
+        text.replace(offset, removedLength, inserted);
+
+        // 2. Nouvelle analyse jusqu'au premier début de ligne resynchronisé (tables encore anciennes)
+        GapTable newTokens = new GapTable(5, new boolean[5], 16);
+        GapTable newLines = new GapTable(2, new boolean[2], 4);
+        int[] resyncLine = {-1};
+        Lexer lexer = new Lexer(source, pool, restart, restartLine + 1, lines.get(restartLine, STATE));
+        lexer.setLineListener((lineOffset, state) -> {
+            if (lineOffset > editEnd && state != Lexer.IN_STRING) {
+                int oldLine = lines.search(OFFSET, lineOffset - delta);
+                if (oldLine < lines.size()
+                        && lines.get(oldLine, OFFSET) == lineOffset - delta
+                        && lines.get(oldLine, STATE) == state) {
+                    resyncLine[0] = oldLine;
+                    return true;
+                }
+            }
+            newLines.insert(lineOffset, state);
+            return false;
+        });
+        Token.TokenType type;
+        do {
+            type = lexer.scan();
+            if (type == null) {
+                break;
+            }
+            newTokens.insert(type.ordinal(), lexer.tokenStart(), lexer.tokenEnd() - lexer.tokenStart(),
+                             lexer.tokenLine(), lexer.tokenColumn());
+        } while (type != Token.TokenType.EOF);
+
+        // 3. Remplacement des tokens et des lignes endommagés
+        int oldEndLine, oldEndToken;
+        if (resyncLine[0] >= 0) {
+            oldEndLine = resyncLine[0];
+            oldEndToken = tokens.search(START, lines.get(oldEndLine, OFFSET));
+        } else {
+            oldEndLine = lines.size();
+            oldEndToken = tokens.size();
+        }
+        int lineDelta = newLines.size() - (oldEndLine - restartLine - 1);
+
+        tokens.delete(firstToken, oldEndToken);
+        tokens.shift(START, delta);
+        tokens.shift(LINE, lineDelta);
+        for (int i = 0; i < newTokens.size(); i++) {
+            tokens.insert(newTokens.get(i, TYPE), newTokens.get(i, START), newTokens.get(i, LENGTH),
+                          newTokens.get(i, LINE), newTokens.get(i, COLUMN));
+        }
+
+        lines.delete(restartLine + 1, oldEndLine);
+        lines.shift(OFFSET, delta);
+        for (int i = 0; i < newLines.size(); i++) {
+            lines.insert(newLines.get(i, OFFSET), newLines.get(i, STATE));
+        }
+
+        return new TokenChange(firstToken, oldEndToken, firstToken + newTokens.size(), lineDelta);
+    }
+
+    private void addToken(Lexer lexer, Token.TokenType type) {
+        tokens.insert(type.ordinal(), lexer.tokenStart(), lexer.tokenEnd() - lexer.tokenStart(),
+                      lexer.tokenLine(), lexer.tokenColumn());
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    public int lineCount() {
+        return lines.size();
+    }
+
+    public String text() {
+        return text.toString();
+    }
+
+    // Pool des symboles de la session, à passer au SemanticAnalyzer de l'arbre analysé
+    public SymbolPool pool() {
+        return pool;
+    }
+
+    // Au-delà de la fin, l'index est ramené sur le dernier token (EOF)
+    private int clamp(int index) {
+        return index < tokens.size() ? index : tokens.size() - 1;
+    }
+
+    @Override
+    public Token.TokenType type(int index) {
+        return TYPES[tokens.get(clamp(index), TYPE)];
+    }
+
+    public int start(int index) {
+        return tokens.get(clamp(index), START);
+    }
+
+    public int end(int index) {
+        index = clamp(index);
+        return tokens.get(index, START) + tokens.get(index, LENGTH);
+    }
+
+    @Override
+    public int line(int index) {
+        return tokens.get(clamp(index), LINE);
+    }
+
+    public int column(int index) {
+        return tokens.get(clamp(index), COLUMN);
+    }
+
+    @Override
+    public String value(int index) {
+        return Lexer.valueOf(source, type(index), start(index), end(index), pool);
+    }
+
+    @Override
+    public int symbol(int index) {
+        if (type(index) != Token.TokenType.IDENTIFIER) {
+            return -1;
+        }
+        return pool.intern(source, start(index), end(index));
+    }
+
+    // Le texte change à chaque édition : la valeur du Token est extraite tout de suite
+    @Override
+    public Token get(int index) {
+        Token token = new Token(type(index), value(index), line(index), column(index));
+        token.start = start(index);
+        token.end = end(index);
+        token.pool = pool;
+        return token;
+    }
+}
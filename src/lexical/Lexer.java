@@ -2,297 +2,577 @@ package lexical;
 
 import java.util.*;
 
-public class Lexer {
-    private String input;
+public class Lexer implements Iterator<Token> {
+    // Classes de caractères
+    private static final byte OTHER = 0;
+    private static final byte SPACE = 1;
+    private static final byte NEWLINE = 2;
+    private static final byte DIGIT = 3;
+    private static final byte LETTER = 4;   // lettres et '_'
+    private static final byte QUOTE = 5;
+    private static final byte SLASH = 6;
+
+    private static final byte[] ASCII_CLASSES = new byte[128];
+    static {
+        for (char c = 0; c < 128; c++) {
+            if (c == '\n') {
+                ASCII_CLASSES[c] = NEWLINE;
+            } else if (Character.isWhitespace(c)) {
+                ASCII_CLASSES[c] = SPACE;
+            } else if (c >= '0' && c <= '9') {
+                ASCII_CLASSES[c] = DIGIT;
+            } else if (Character.isLetter(c) || c == '_') {
+                ASCII_CLASSES[c] = LETTER;
+            } else if (c == '"') {
+                ASCII_CLASSES[c] = QUOTE;
+            } else if (c == '/') {
+                ASCII_CLASSES[c] = SLASH;
+            }
+        }
+    }
+
+    // Texte invariable des mots-clés, opérateurs et délimiteurs, indexé par ordinal
+    private static final String[] FIXED_VALUES = new String[Token.TokenType.values().length];
+    static {
+        String[][] fixed = {
+            {"WHILE", "while"}, {"IF", "if"}, {"ELSE", "else"}, {"INT", "int"},
+            {"STRING", "String"}, {"CLASS", "class"}, {"PUBLIC", "public"},
+            {"STATIC", "static"}, {"RETURN", "return"}, {"VOID", "void"},
+            {"ARGS", "args"}, {"MAIN", "main"}, {"BOOLEAN", "boolean"},
+            {"CHAR", "char"}, {"SYSTEM", "System"}, {"OUT", "out"}, {"PRINT", "print"},
+            {"PRINTLN", "println"}, {"DOUBLE", "double"}, {"TOUATI", "touati"},
+            {"JUGURTA", "jugurta"}, {"FINAL", "final"}, {"PRIVATE", "private"},
+            {"PROTECTED", "pritected"},
+            {"EQUAL", "="}, {"EQUAL_EQUAL", "=="}, {"LESS", "<"}, {"GREATER", ">"},
+            {"LESS_EQUAL", "<="}, {"GREATER_EQUAL", ">="}, {"NOT_EQUAL", "!="},
+            {"PLUS", "+"}, {"MINUS", "-"}, {"MULTIPLY", "*"}, {"DIVIDE", "/"},
+            {"MODULO", "%"}, {"PLUS_PLUS", "++"}, {"MINUS_MINUS", "--"},
+            {"AND_AND", "&&"}, {"OR_OR", "||"},
+            {"LPAREN", "("}, {"RPAREN", ")"}, {"LBRACE", "{"}, {"RBRACE", "}"},
+            {"SEMICOLON", ";"}, {"COMMA", ","}, {"DOT", "."},
+            {"LBRACKET", "["}, {"RBRACKET", "]"}, {"EOF", ""}
+        };
+        for (String[] entry : fixed) {
+            FIXED_VALUES[Token.TokenType.valueOf(entry[0]).ordinal()] = entry[1];
+        }
+    }
+
+    // État du lexer au début d'une ligne
+    static final int NORMAL = 0;
+    static final int IN_COMMENT = 1;   // à l'intérieur d'un commentaire /* */
+    static final int IN_STRING = 2;    // à l'intérieur d'une chaîne sur plusieurs lignes
+
+    // Prévenu à chaque début de ligne ; renvoyer true interrompt l'analyse (scan() rend null)
+    interface LineListener {
+        boolean lineStart(int offset, int state);
+    }
+
+    private Source input;
+    private final int length;
+    // Pool des identifiants : SymbolPool.GLOBAL pour une compilation par lot, un pool propre
+    // à une session d'édition pour ne pas y garder chaque identifiant tapé
+    private final SymbolPool pool;
     private int position = 0;
     private int line = 1;
     private int column = 1;
-    private List<Token> tokens = new ArrayList<>();
+    private boolean eofDelivered = false;
+    private boolean inComment = false;
+    private LineListener lineListener;
 
-    private static final Map<String, Token.TokenType> KEYWORDS = new HashMap<>();
-    static {
-        KEYWORDS.put("while", Token.TokenType.WHILE);
-        KEYWORDS.put("if", Token.TokenType.IF);
-        KEYWORDS.put("else", Token.TokenType.ELSE);
-        KEYWORDS.put("int", Token.TokenType.INT);
-        KEYWORDS.put("String", Token.TokenType.STRING);
-        KEYWORDS.put("class", Token.TokenType.CLASS);
-        KEYWORDS.put("public", Token.TokenType.PUBLIC);
-        KEYWORDS.put("static", Token.TokenType.STATIC);
-        KEYWORDS.put("return", Token.TokenType.RETURN);
-        KEYWORDS.put("void", Token.TokenType.VOID);
-        KEYWORDS.put("args", Token.TokenType.ARGS);
-        KEYWORDS.put("main", Token.TokenType.MAIN);
-        KEYWORDS.put("boolean", Token.TokenType.BOOLEAN);
-        KEYWORDS.put("char", Token.TokenType.CHAR);
-        KEYWORDS.put("System", Token.TokenType.SYSTEM);
-        KEYWORDS.put("out", Token.TokenType.OUT);
-        KEYWORDS.put("print", Token.TokenType.PRINT);
-        KEYWORDS.put("println", Token.TokenType.PRINTLN);
-        KEYWORDS.put("double", Token.TokenType.DOUBLE);
-        KEYWORDS.put("touati", Token.TokenType.TOUATI);
-        KEYWORDS.put("jugurta", Token.TokenType.JUGURTA);
-        KEYWORDS.put("final", Token.TokenType.FINAL);
-        KEYWORDS.put("private", Token.TokenType.PRIVATE);
-        KEYWORDS.put("pritected", Token.TokenType.PROTECTED);
-        KEYWORDS.put("int", Token.TokenType.INT);
+    // Dernier token reconnu par scan()
+    private int tokenStart;
+    private int tokenLine;
+    private int tokenColumn;
+    private int tokenSymbol = -1;   // identifiant dans SymbolPool, pour un IDENTIFIER
 
+    public Lexer(String input) {
+        this(Source.of(input));
+    }
 
+    public Lexer(Source input) {
+        this(input, SymbolPool.GLOBAL);
     }
 
-    public Lexer(String input) {
+    public Lexer(String input, SymbolPool pool) {
+        this(Source.of(input), pool);
+    }
+
+    public Lexer(Source input, SymbolPool pool) {
         this.input = input;
+        this.length = input.length();
+        this.pool = pool;
+    }
+
+    // Reprise de l'analyse au début d'une ligne, dans l'état enregistré pour cette ligne
+    Lexer(Source input, SymbolPool pool, int position, int line, int state) {
+        this(input, pool);
+        this.position = position;
+        this.line = line;
+        this.inComment = state == IN_COMMENT;
+    }
+
+    void setLineListener(LineListener lineListener) {
+        this.lineListener = lineListener;
+    }
+
+    private boolean lineStart(int state) {
+        return lineListener != null && lineListener.lineStart(position, state);
     }
 
     public List<Token> tokenize() {
-        while (position < input.length()) {
-            char current = input.charAt(position);
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = nextToken();
+            tokens.add(token);
+        } while (token.type != Token.TokenType.EOF);
+        return tokens;
+    }
 
-            // Ignorer espaces et tabulations
-            if (Character.isWhitespace(current)) {
-                if (current == '\n') {
-                    line++;
-                    column = 1;
-                } else {
-                    column++;
-                }
-                position++;
-                continue;
-            }
+    // Mode compact : tokens rangés dans des tableaux parallèles, sans objet Token
+    public TokenBuffer tokenizeToBuffer() {
+        TokenBuffer buffer = new TokenBuffer(input, pool);
+        Token.TokenType type;
+        do {
+            type = scan();
+            buffer.add(type, tokenStart, position - tokenStart, tokenLine, tokenColumn,
+                       type == Token.TokenType.IDENTIFIER ? tokenSymbol : -1);
+        } while (type != Token.TokenType.EOF);
+        return buffer;
+    }
 
-            // Commentaires
-            if (current == '/' && peek() == '/') {
-                skipLineComment();
-                continue;
-            }
+    // Accès au dernier token reconnu par scan()
+    int tokenStart() {
+        return tokenStart;
+    }
 
-            if (current == '/' && peek() == '*') {
-                skipBlockComment();
-                continue;
-            }
+    int tokenEnd() {
+        return position;
+    }
 
-            // Nombres
-            if (Character.isDigit(current)) {
-                readNumber();
-                continue;
-            }
+    int tokenLine() {
+        return tokenLine;
+    }
 
-            // Identifiants et mots-clés
-            if (Character.isLetter(current) || current == '_') {
-                readIdentifier();
-                continue;
-            }
+    int tokenColumn() {
+        return tokenColumn;
+    }
 
-            // Chaînes de caractères
-            if (current == '"') {
-                readString();
-                continue;
+    int tokenSymbol() {
+        return tokenSymbol;
+    }
+
+    // Mode flux : produit un seul token à la fois, EOF indéfiniment en fin d'entrée
+    public Token nextToken() {
+        Token.TokenType type = scan();
+        Token token = new Token(type, input, tokenStart, position, tokenLine, tokenColumn);
+        token.pool = pool;
+        if (type == Token.TokenType.IDENTIFIER) {
+            token.symbol = tokenSymbol;
+        }
+        return token;
+    }
+
+    // Valeur d'un token à partir de sa plage dans la source ; mots-clés, opérateurs
+    // et identifiants (par le pool) partagent une seule instance de leur texte
+    static String valueOf(Source source, Token.TokenType type, int start, int end, SymbolPool pool) {
+        String fixed = FIXED_VALUES[type.ordinal()];
+        if (fixed != null) {
+            return fixed;
+        }
+        if (type == Token.TokenType.STRING_LITERAL) {
+            return stringValue(source, start, end);
+        }
+        if (type == Token.TokenType.IDENTIFIER) {
+            return pool.name(pool.intern(source, start, end));
+        }
+        return source.text(start, end);
+    }
+
+    // Reconnaît le token suivant : sa plage est [tokenStart, position[
+    Token.TokenType scan() {
+        if (inComment) {
+            inComment = false;
+            if (continueBlockComment()) {
+                return null;
+            }
+        }
+        while (position < length) {
+            tokenStart = position;
+            tokenLine = line;
+            tokenColumn = column;
+
+            // Une seule consultation de la table par caractère ASCII
+            switch (classAt(position)) {
+                // Ignorer espaces et tabulations
+                case NEWLINE:
+                    line++;
+                    column = 1;
+                    position++;
+                    if (lineStart(NORMAL)) {
+                        return null;
+                    }
+                    continue;
+                case SPACE:
+                    advance();
+                    continue;
+
+                // Nombres
+                case DIGIT:
+                    return readNumber();
+
+                // Identifiants et mots-clés
+                case LETTER:
+                    return readIdentifier();
+
+                // Chaînes de caractères
+                case QUOTE:
+                    return readString();
+
+                // Commentaires, sinon opérateur '/'
+                case SLASH:
+                    if (peek() == '/') {
+                        skipLineComment();
+                        continue;
+                    }
+                    if (peek() == '*') {
+                        if (skipBlockComment()) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    break;
+
+                default:
+                    break;
             }
 
             // Opérateurs et délimiteurs
-            if (!readOperator()) {
-                tokens.add(new Token(Token.TokenType.ERROR, String.valueOf(current), line, column));
-                position++;
-                column++;
+            Token.TokenType operator = readOperator();
+            if (operator != null) {
+                return operator;
             }
+            advance();
+            return Token.TokenType.ERROR;
         }
 
-        tokens.add(new Token(Token.TokenType.EOF, "", line, column));
-        return tokens;
+        tokenStart = position;
+        tokenLine = line;
+        tokenColumn = column;
+        eofDelivered = true;
+        return Token.TokenType.EOF;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !eofDelivered;
+    }
+
+    @Override
+    public Token next() {
+        if (eofDelivered) {
+            throw new NoSuchElementException("Fin du flux de tokens");
+        }
+        return nextToken();
     }
 
     private char peek() {
-        if (position + 1 < input.length()) {
+        if (position + 1 < length) {
             return input.charAt(position + 1);
         }
         return '\0';
     }
 
     private char peekAhead(int offset) {
-        if (position + offset < input.length()) {
+        if (position + offset < length) {
             return input.charAt(position + offset);
         }
         return '\0';
     }
 
     private void skipLineComment() {
-        while (position < input.length() && input.charAt(position) != '\n') {
+        while (position < length && input.charAt(position) != '\n') {
             position++;
         }
     }
 
-    private void skipBlockComment() {
+    // Renvoie true si le LineListener a interrompu l'analyse
+    private boolean skipBlockComment() {
         position += 2;
-        while (position + 1 < input.length()) {
-            if (input.charAt(position) == '*' && input.charAt(position + 1) == '/') {
+        return continueBlockComment();
+    }
+
+    // Un commentaire non fermé s'étend jusqu'à la fin de l'entrée
+    private boolean continueBlockComment() {
+        while (position < length) {
+            if (input.charAt(position) == '*' && peek() == '/') {
                 position += 2;
-                return;
+                return false;
             }
             if (input.charAt(position) == '\n') {
                 line++;
                 column = 1;
+                position++;
+                if (lineStart(IN_COMMENT)) {
+                    return true;
+                }
+                continue;
             }
             position++;
         }
+        return false;
     }
 
-    private void readNumber() {
-        StringBuilder sb = new StringBuilder();
-        int startLine = line, startColumn = column;
-
-        while (position < input.length() && Character.isDigit(input.charAt(position))) {
-            sb.append(input.charAt(position));
+    private Token.TokenType readNumber() {
+        skipDigits();
+        // Partie décimale : '.' suivi d'au moins un chiffre (sinon le '.' reste un DOT)
+        if (position + 1 < length && input.charAt(position) == '.'
+                && classAt(position + 1) == DIGIT) {
             position++;
             column++;
+            skipDigits();
         }
+        return Token.TokenType.NUMBER;
+    }
 
-        tokens.add(new Token(Token.TokenType.NUMBER, sb.toString(), startLine, startColumn));
+    private void skipDigits() {
+        while (position < length && classAt(position) == DIGIT) {
+            advance();
+        }
     }
 
-    private void readIdentifier() {
-        StringBuilder sb = new StringBuilder();
-        int startLine = line, startColumn = column;
-        while (position < input.length() &&
-               (Character.isLetterOrDigit(input.charAt(position)) || input.charAt(position) == '_')) {
-            sb.append(input.charAt(position));
-            position++;
+    private Token.TokenType readIdentifier() {
+        int start = position;
+        while (position < length) {
+            char c = input.charAt(position);
+            if (c < 128) {
+                if (!isIdentifierPart(ASCII_CLASSES[c])) {
+                    break;
+                }
+                position++;
+            } else {
+                int codePoint = input.codePointAt(position);
+                if (!isIdentifierPart(classOf(codePoint))) {
+                    break;
+                }
+                position += input.width(codePoint);
+            }
             column++;
         }
 
-        String word = sb.toString();
-        Token.TokenType type = KEYWORDS.getOrDefault(word, Token.TokenType.IDENTIFIER);
-        tokens.add(new Token(type, word, startLine, startColumn));
+        Token.TokenType type = keyword(start, position - start);
+        if (type == Token.TokenType.IDENTIFIER) {
+            tokenSymbol = pool.intern(input, start, position);
+        }
+        return type;
+    }
+
+    // Mots-clés reconnus directement dans la source (longueur puis premier caractère),
+    // sans extraire le mot dans une String
+    private Token.TokenType keyword(int start, int wordLength) {
+        char first = input.charAt(start);
+        switch (wordLength) {
+            case 2:
+                if (first == 'i' && matches(start, "if")) return Token.TokenType.IF;
+                break;
+            case 3:
+                if (first == 'i' && matches(start, "int")) return Token.TokenType.INT;
+                if (first == 'o' && matches(start, "out")) return Token.TokenType.OUT;
+                break;
+            case 4:
+                if (first == 'e' && matches(start, "else")) return Token.TokenType.ELSE;
+                if (first == 'v' && matches(start, "void")) return Token.TokenType.VOID;
+                if (first == 'a' && matches(start, "args")) return Token.TokenType.ARGS;
+                if (first == 'm' && matches(start, "main")) return Token.TokenType.MAIN;
+                if (first == 'c' && matches(start, "char")) return Token.TokenType.CHAR;
+                break;
+            case 5:
+                if (first == 'w' && matches(start, "while")) return Token.TokenType.WHILE;
+                if (first == 'c' && matches(start, "class")) return Token.TokenType.CLASS;
+                if (first == 'p' && matches(start, "print")) return Token.TokenType.PRINT;
+                if (first == 'f' && matches(start, "final")) return Token.TokenType.FINAL;
+                break;
+            case 6:
+                if (first == 'S' && matches(start, "String")) return Token.TokenType.STRING;
+                if (first == 'S' && matches(start, "System")) return Token.TokenType.SYSTEM;
+                if (first == 'p' && matches(start, "public")) return Token.TokenType.PUBLIC;
+                if (first == 's' && matches(start, "static")) return Token.TokenType.STATIC;
+                if (first == 'r' && matches(start, "return")) return Token.TokenType.RETURN;
+                if (first == 'd' && matches(start, "double")) return Token.TokenType.DOUBLE;
+                if (first == 't' && matches(start, "touati")) return Token.TokenType.TOUATI;
+                break;
+            case 7:
+                if (first == 'b' && matches(start, "boolean")) return Token.TokenType.BOOLEAN;
+                if (first == 'p' && matches(start, "println")) return Token.TokenType.PRINTLN;
+                if (first == 'p' && matches(start, "private")) return Token.TokenType.PRIVATE;
+                if (first == 'j' && matches(start, "jugurta")) return Token.TokenType.JUGURTA;
+                break;
+            case 9:
+                if (first == 'p' && matches(start, "pritected")) return Token.TokenType.PROTECTED;
+                break;
+            default:
+                break;
+        }
+        return Token.TokenType.IDENTIFIER;
+    }
+
+    // Compare la source à partir de start avec un mot-clé de même longueur
+    private boolean matches(int start, String word) {
+        for (int i = 1; i < word.length(); i++) {
+            if (input.charAt(start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private void readString() {
-        StringBuilder sb = new StringBuilder();
-        int startLine = line, startColumn = column;
+    private static boolean isIdentifierPart(byte charClass) {
+        return charClass == LETTER || charClass == DIGIT;
+    }
+
+    // Classe du caractère qui commence en 'at' : table pour l'ASCII, sinon point de code
+    // décodé par la source, pour qu'une String et des octets UTF-8 soient classés pareil
+    private byte classAt(int at) {
+        char c = input.charAt(at);
+        return c < 128 ? ASCII_CLASSES[c] : classOf(input.codePointAt(at));
+    }
+
+    // Passe le caractère courant : une unité en ASCII, toute la séquence au-delà
+    private void advance() {
+        char c = input.charAt(position);
+        position += c < 128 ? 1 : input.width(input.codePointAt(position));
+        column++;
+    }
+
+    // Classe d'un point de code : table pour l'ASCII, API Unicode au-delà
+    private static byte classOf(int codePoint) {
+        if (codePoint < 0) {
+            return OTHER;
+        }
+        if (codePoint < 128) {
+            return ASCII_CLASSES[codePoint];
+        }
+        if (Character.isLetter(codePoint)) {
+            return LETTER;
+        }
+        if (Character.isDigit(codePoint)) {
+            return DIGIT;
+        }
+        if (Character.isWhitespace(codePoint)) {
+            return SPACE;
+        }
+        return OTHER;
+    }
+
+    private Token.TokenType readString() {
         position++; // Sauter le '"'
         column++;
 
-        while (position < input.length() && input.charAt(position) != '"') {
+        while (position < length && input.charAt(position) != '"') {
             if (input.charAt(position) == '\\') {
                 position++;
                 column++;
-                if (position < input.length()) {
-                    sb.append(input.charAt(position));
+            }
+            if (position < length) {
+                if (input.charAt(position) == '\n') {
+                    line++;
+                    column = 1;
+                    position++;
+                    lineStart(IN_STRING);
+                } else {
+                    advance();
                 }
-            } else {
-                sb.append(input.charAt(position));
             }
-            position++;
-            column++;
         }
 
-        if (position < input.length()) {
+        if (position < length) {
             position++; // Sauter le '"' de fermeture
             column++;
         }
+        return Token.TokenType.STRING_LITERAL;
+    }
+
+    // Contenu d'une chaîne dont le lexème (guillemets compris) occupe [start, end[
+    static String stringValue(Source source, int start, int end) {
+        StringBuilder sb = null;
+        int position = start + 1;
+        int segmentStart = position;
+
+        while (position < end && source.charAt(position) != '"') {
+            if (source.charAt(position) == '\\') {
+                // L'antislash est retiré, le caractère qui suit est gardé tel quel
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(source.text(segmentStart, position));
+                position++;
+                segmentStart = position;
+            }
+            if (position < end) {
+                position++;
+            }
+        }
 
-        tokens.add(new Token(Token.TokenType.STRING_LITERAL, sb.toString(), startLine, startColumn));
+        if (sb == null) {
+            return source.text(segmentStart, position);
+        }
+        return sb.append(source.text(segmentStart, position)).toString();
     }
 
-    private boolean readOperator() {
-        int startColumn = column;
+    private Token.TokenType readOperator() {
         char current = input.charAt(position);
 
         // Opérateurs doubles
+        Token.TokenType doubleType = null;
         if (current == '=' && peek() == '=') {
-            tokens.add(new Token(Token.TokenType.EQUAL_EQUAL, "==", line, startColumn));
-            position += 2;
-            column += 2;
-            return true;
-        }
-        if (current == '!' && peek() == '=') {
-            tokens.add(new Token(Token.TokenType.NOT_EQUAL, "!=", line, startColumn));
-            position += 2;
-            column += 2;
-            return true;
-        }
-        if (current == '<' && peek() == '=') {
-            tokens.add(new Token(Token.TokenType.LESS_EQUAL, "<=", line, startColumn));
-            position += 2;
-            column += 2;
-            return true;
-        }
-        if (current == '>' && peek() == '=') {
-            tokens.add(new Token(Token.TokenType.GREATER_EQUAL, ">=", line, startColumn));
-            position += 2;
-            column += 2;
-            return true;
+            doubleType = Token.TokenType.EQUAL_EQUAL;
+        } else if (current == '!' && peek() == '=') {
+            doubleType = Token.TokenType.NOT_EQUAL;
+        } else if (current == '<' && peek() == '=') {
+            doubleType = Token.TokenType.LESS_EQUAL;
+        } else if (current == '>' && peek() == '=') {
+            doubleType = Token.TokenType.GREATER_EQUAL;
+        } else if (current == '+' && peek() == '+') {
+            doubleType = Token.TokenType.PLUS_PLUS;
+        } else if (current == '-' && peek() == '-') {
+            doubleType = Token.TokenType.MINUS_MINUS;
+        } else if (current == '&' && peek() == '&') {
+            doubleType = Token.TokenType.AND_AND;
+        } else if (current == '|' && peek() == '|') {
+            doubleType = Token.TokenType.OR_OR;
         }
-        if (current == '+' && peek() == '+') {
-            tokens.add(new Token(Token.TokenType.PLUS_PLUS, "++", line, startColumn));
+        if (doubleType != null) {
             position += 2;
             column += 2;
-            return true;
-        }
-        if (current == '-' && peek() == '-') {
-            tokens.add(new Token(Token.TokenType.MINUS_MINUS, "--", line, startColumn));
-            position += 2;
-            column += 2;
-            return true;
+            return doubleType;
         }
 
         // Opérateurs simples
+        Token.TokenType type;
         switch (current) {
-            case '=':
-                tokens.add(new Token(Token.TokenType.EQUAL, "=", line, startColumn));
-                break;
-            case '<':
-                tokens.add(new Token(Token.TokenType.LESS, "<", line, startColumn));
-                break;
-            case '>':
-                tokens.add(new Token(Token.TokenType.GREATER, ">", line, startColumn));
-                break;
-            case '+':
-                tokens.add(new Token(Token.TokenType.PLUS, "+", line, startColumn));
-                break;
-            case '-':
-                tokens.add(new Token(Token.TokenType.MINUS, "-", line, startColumn));
-                break;
-            case '*':
-                tokens.add(new Token(Token.TokenType.MULTIPLY, "*", line, startColumn));
-                break;
-            case '/':
-                tokens.add(new Token(Token.TokenType.DIVIDE, "/", line, startColumn));
-                break;
-            case '%':
-            tokens.add(new Token(Token.TokenType.MODULO, "%", line, startColumn));
-                break;
-            case '(':
-                tokens.add(new Token(Token.TokenType.LPAREN, "(", line, startColumn));
-                break;
-            case ')':
-                tokens.add(new Token(Token.TokenType.RPAREN, ")", line, startColumn));
-                break;
-            case '{':
-                tokens.add(new Token(Token.TokenType.LBRACE, "{", line, startColumn));
-                break;
-            case '}':
-                tokens.add(new Token(Token.TokenType.RBRACE, "}", line, startColumn));
-                break;
-            case ';':
-                tokens.add(new Token(Token.TokenType.SEMICOLON, ";", line, startColumn));
-                break;
-            case ',':
-                tokens.add(new Token(Token.TokenType.COMMA, ",", line, startColumn));
-                break;
-            case '[': 
-                tokens.add(new Token(Token.TokenType.LBRACKET, "[", line, startColumn));
-                 break;
-            case ']':   
-                 tokens.add(new Token(Token.TokenType.RBRACKET, "]", line, startColumn));
-                  break;
-            case '.': 
-                tokens.add(new Token(Token.TokenType.DOT, ".", line, startColumn));
-                 break;
+            case '=': type = Token.TokenType.EQUAL; break;
+            case '<': type = Token.TokenType.LESS; break;
+            case '>': type = Token.TokenType.GREATER; break;
+            case '+': type = Token.TokenType.PLUS; break;
+            case '-': type = Token.TokenType.MINUS; break;
+            case '*': type = Token.TokenType.MULTIPLY; break;
+            case '/': type = Token.TokenType.DIVIDE; break;
+            case '%': type = Token.TokenType.MODULO; break;
+            case '(': type = Token.TokenType.LPAREN; break;
+            case ')': type = Token.TokenType.RPAREN; break;
+            case '{': type = Token.TokenType.LBRACE; break;
+            case '}': type = Token.TokenType.RBRACE; break;
+            case ';': type = Token.TokenType.SEMICOLON; break;
+            case ',': type = Token.TokenType.COMMA; break;
+            case '[': type = Token.TokenType.LBRACKET; break;
+            case ']': type = Token.TokenType.RBRACKET; break;
+            case '.': type = Token.TokenType.DOT; break;
             default:
-                return false;
+                return null;
         }
 
         position++;
         column++;
-        return true;
+        return type;
     }
-}
\ No newline at end of file
+}
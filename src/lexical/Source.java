@@ -0,0 +1,55 @@
+package lexical;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+// Texte source lu par le Lexer, indexé par unité de code :
+// caractère pour une String, octet pour un fichier UTF-8 projeté en mémoire.
+// charAt() suffit pour l'ASCII ; au-delà, le Lexer classe le point de code entier.
+public interface Source {
+    // Unité renvoyée par charAt() pour tout octet non ASCII d'une source UTF-8
+    char NON_ASCII = '\uFFFF';
+    // Point de code rendu pour une séquence invalide (une seule unité)
+    int INVALID = -1;
+    // En dessous, read() copie le fichier sur le tas plutôt que de le projeter
+    int MAP_THRESHOLD = 1 << 20;
+
+    int length();
+
+    char charAt(int index);
+
+    // Point de code qui commence à index (paire de substitution ou séquence UTF-8 complète)
+    int codePointAt(int index);
+
+    // Nombre d'unités occupées par un point de code rendu par codePointAt
+    int width(int codePoint);
+
+    // Texte décodé de la plage [start, end[
+    String text(int start, int end);
+
+    static Source of(CharSequence text) {
+        return new StringSource(text);
+    }
+
+    // Petits fichiers lus d'un bloc (une projection n'est libérée qu'au GC, ce qui pèse
+    // sur un lot de milliers de sources), gros fichiers projetés ; mêmes octets UTF-8
+    static Source read(Path path) throws IOException {
+        if (Files.size(path) < MAP_THRESHOLD) {
+            return new Utf8Source(ByteBuffer.wrap(Files.readAllBytes(path)));
+        }
+        return map(path);
+    }
+
+    // Projette le fichier en lecture seule, sans le copier ni le décoder sur le tas
+    static Source map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Fichier trop volumineux pour être projeté: " + path);
+            }
+            return new Utf8Source(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package lexical;
+
+final class StringSource implements Source {
+    private final CharSequence text;
+
+    StringSource(CharSequence text) {
+        this.text = text;
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(index);
+    }
+
+    @Override
+    public int codePointAt(int index) {
+        return Character.codePointAt(text, index);
+    }
+
+    @Override
+    public int width(int codePoint) {
+        return Character.charCount(codePoint);
+    }
+
+    @Override
+    public String text(int start, int end) {
+        return text.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,147 @@
+package lexical;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Pool des identifiants, partagé par le Lexer, le Parser et les passes suivantes :
+// chaque nom distinct reçoit un identifiant entier dense et une String canonique.
+// Deux noms sont égaux si et seulement si leurs identifiants le sont.
+// La lecture est sans verrou (table à adressage ouvert publiée par un champ volatile,
+// cases lues et écrites de façon atomique) ; seule l'insertion d'un nouveau nom est
+// synchronisée. Un pool ne fait que grandir : GLOBAL, le pool par défaut d'une compilation
+// par lot, garde les noms de tous les fichiers lus ; une session d'édition passe le sien au
+// Lexer, à l'IncrementalLexer et au SemanticAnalyzer, et l'abandonne avec elle.
+public final class SymbolPool {
+    public static final SymbolPool GLOBAL = new SymbolPool();
+
+    // Cases : identifiant + 1 (0 : libre) ; noms et hachages indexés par identifiant
+    private static final class Table {
+        final AtomicIntegerArray slots;
+        final String[] names;
+        final int[] hashes;
+
+        Table(int slotCount, int capacity) {
+            slots = new AtomicIntegerArray(slotCount);
+            names = new String[capacity];
+            hashes = new int[capacity];
+        }
+    }
+
+    private volatile Table table = new Table(1024, 512);
+    private volatile int size = 0;
+
+    // Identifiant du nom, ajouté au pool à la première rencontre
+    public int intern(String name) {
+        int hash = mix(name.hashCode());
+        Table current = table;
+        int mask = current.slots.length() - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = current.slots.get(slot);
+            if (entry == 0) {
+                return insert(name, hash);
+            }
+            int symbol = entry - 1;
+            if (current.hashes[symbol] == hash && current.names[symbol].equals(name)) {
+                return symbol;
+            }
+        }
+    }
+
+    // Identifiant du texte source [start, end[, sans créer de String s'il est déjà connu
+    public int intern(Source source, int start, int end) {
+        // Même hachage que String.hashCode ; texte non ASCII : décodage par la source
+        int raw = 0;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c >= 128) {
+                return intern(source.text(start, end));
+            }
+            raw = 31 * raw + c;
+        }
+        int hash = mix(raw);
+        Table current = table;
+        int mask = current.slots.length() - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = current.slots.get(slot);
+            if (entry == 0) {
+                return insert(source.text(start, end), hash);
+            }
+            int symbol = entry - 1;
+            if (current.hashes[symbol] == hash && matches(current.names[symbol], source, start, end)) {
+                return symbol;
+            }
+        }
+    }
+
+    private static boolean matches(String name, Source source, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Nom canonique de l'identifiant
+    public String name(int symbol) {
+        return table.names[symbol];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Chemin lent : la table a pu changer depuis la recherche sans verrou, on recommence
+    private synchronized int insert(String name, int hash) {
+        Table current = table;
+        int mask = current.slots.length() - 1;
+        int slot = hash & mask;
+        for (int entry; (entry = current.slots.get(slot)) != 0; slot = (slot + 1) & mask) {
+            int symbol = entry - 1;
+            if (current.hashes[symbol] == hash && current.names[symbol].equals(name)) {
+                return symbol;
+            }
+        }
+        int symbol = size;
+        if (symbol == current.names.length) {
+            current = grow(current);
+            mask = current.slots.length() - 1;
+            slot = hash & mask;
+            while (current.slots.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        // Nom et hachage écrits avant la case : un lecteur qui voit la case voit le nom
+        current.names[symbol] = name;
+        current.hashes[symbol] = hash;
+        current.slots.set(slot, symbol + 1);
+        size = symbol + 1;
+        return symbol;
+    }
+
+    // Nouvelle table deux fois plus grande (remplissage maximal 1/2), publiée une fois remplie
+    private Table grow(Table old) {
+        int capacity = old.names.length * 2;
+        Table grown = new Table(capacity * 2, capacity);
+        System.arraycopy(old.names, 0, grown.names, 0, size);
+        System.arraycopy(old.hashes, 0, grown.hashes, 0, size);
+        int mask = grown.slots.length() - 1;
+        for (int symbol = 0; symbol < size; symbol++) {
+            int slot = grown.hashes[symbol] & mask;
+            while (grown.slots.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown.slots.set(slot, symbol + 1);
+        }
+        table = grown;
+        return grown;
+    }
+
+    // Dispersion des bits de poids fort vers les bits utilisés par le masque
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -10,7 +10,7 @@ public class Token {
         // Opérateurs
         EQUAL, EQUAL_EQUAL, LESS, GREATER, LESS_EQUAL, GREATER_EQUAL, NOT_EQUAL,
         PLUS, MINUS, MULTIPLY, DIVIDE, MODULO,
-        PLUS_PLUS, MINUS_MINUS,
+        PLUS_PLUS, MINUS_MINUS, AND_AND, OR_OR,
         // Délimiteurs
         LPAREN, RPAREN, LBRACE, RBRACE, SEMICOLON, COMMA,DOT,RBRACKET,LBRACKET,
         // Autres
@@ -19,9 +19,17 @@ public class Token {
     }
 
     public TokenType type;
-    public String value;
     public int line;
     public int column;
+    // Plage du lexème dans la source partagée [start, end[ (-1 si construit à partir d'une valeur)
+    public int start = -1;
+    public int end = -1;
+    // Identifiant dans SymbolPool (IDENTIFIER seulement), calculé à la première demande
+    int symbol = -1;
+    // Pool de symbol, celui du lexer qui a produit le token
+    SymbolPool pool = SymbolPool.GLOBAL;
+    private Source source;
+    private String value;
 
     public Token(TokenType type, String value, int line, int column) {
         this.type = type;
@@ -30,8 +38,32 @@ public class Token {
         this.column = column;
     }
 
+    // Token adossé à la source : la valeur n'est extraite qu'à la première demande
+    public Token(TokenType type, Source source, int start, int end, int line, int column) {
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.line = line;
+        this.column = column;
+    }
+
+    public String value() {
+        if (value == null) {
+            value = symbol >= 0 ? pool.name(symbol) : Lexer.valueOf(source, type, start, end, pool);
+        }
+        return value;
+    }
+
+    public int symbol() {
+        if (symbol < 0 && type == TokenType.IDENTIFIER) {
+            symbol = pool.intern(value());
+        }
+        return symbol;
+    }
+
     @Override
     public String toString() {
-        return String.format("[%s: '%s' @%d:%d]", type, value, line, column);
+        return String.format("[%s: '%s' @%d:%d]", type, value(), line, column);
     }
 }
\ No newline at end of file
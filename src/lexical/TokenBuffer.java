@@ -0,0 +1,137 @@
+package lexical;
+
+import java.util.*;
+
+// Stockage compact des tokens : un tableau d'int par champ (type, début, longueur,
+// ligne, colonne, symbole des identifiants), découpé en blocs de taille fixe pour ne jamais recopier.
+// La valeur d'un token n'est extraite de la source que lorsqu'on la demande.
+public class TokenBuffer implements TokenSource {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final Token.TokenType[] TYPES = Token.TokenType.values();
+
+    private final Source source;
+    private final SymbolPool pool;
+    private int[][] types = new int[4][];
+    private int[][] starts = new int[4][];
+    private int[][] lengths = new int[4][];
+    private int[][] lines = new int[4][];
+    private int[][] columns = new int[4][];
+    private int[][] symbols = new int[4][];
+    private int size = 0;
+
+    public TokenBuffer(Source source) {
+        this(source, SymbolPool.GLOBAL);
+    }
+
+    public TokenBuffer(Source source, SymbolPool pool) {
+        this.source = source;
+        this.pool = pool;
+    }
+
+    // Pool des symboles rangés dans le tampon
+    public SymbolPool pool() {
+        return pool;
+    }
+
+    public void add(Token.TokenType type, int start, int length, int line, int column) {
+        add(type, start, length, line, column, -1);
+    }
+
+    // symbol : identifiant dans SymbolPool pour un IDENTIFIER, -1 sinon
+    public void add(Token.TokenType type, int start, int length, int line, int column, int symbol) {
+        int chunk = size >>> CHUNK_BITS;
+        int slot = size & CHUNK_MASK;
+        if (slot == 0) {
+            allocateChunk(chunk);
+        }
+        types[chunk][slot] = type.ordinal();
+        starts[chunk][slot] = start;
+        lengths[chunk][slot] = length;
+        lines[chunk][slot] = line;
+        columns[chunk][slot] = column;
+        symbols[chunk][slot] = symbol;
+        size++;
+    }
+
+    private void allocateChunk(int chunk) {
+        if (chunk == types.length) {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+        }
+        types[chunk] = new int[CHUNK_SIZE];
+        starts[chunk] = new int[CHUNK_SIZE];
+        lengths[chunk] = new int[CHUNK_SIZE];
+        lines[chunk] = new int[CHUNK_SIZE];
+        columns[chunk] = new int[CHUNK_SIZE];
+        symbols[chunk] = new int[CHUNK_SIZE];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Au-delà de la fin, l'index est ramené sur le dernier token (EOF)
+    private int clamp(int index) {
+        return index < size ? index : size - 1;
+    }
+
+    @Override
+    public Token.TokenType type(int index) {
+        index = clamp(index);
+        return TYPES[types[index >>> CHUNK_BITS][index & CHUNK_MASK]];
+    }
+
+    public int start(int index) {
+        index = clamp(index);
+        return starts[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    public int length(int index) {
+        index = clamp(index);
+        return lengths[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int line(int index) {
+        index = clamp(index);
+        return lines[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    public int column(int index) {
+        index = clamp(index);
+        return columns[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int symbol(int index) {
+        index = clamp(index);
+        return symbols[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    @Override
+    public String value(int index) {
+        int symbol = symbol(index);
+        if (symbol >= 0) {
+            return pool.name(symbol);
+        }
+        int start = start(index);
+        return Lexer.valueOf(source, type(index), start, start + length(index), pool);
+    }
+
+    // Matérialise un Token ; à réserver aux usages ponctuels
+    @Override
+    public Token get(int index) {
+        int start = start(index);
+        Token token = new Token(type(index), source, start, start + length(index), line(index), column(index));
+        token.symbol = symbol(index);
+        token.pool = pool;
+        return token;
+    }
+}
@@ -0,0 +1,23 @@
+package lexical;
+
+// Résultat d'une édition : les tokens [start, oldEnd[ de l'ancien flux
+// ont été remplacés par les tokens [start, newEnd[ du nouveau, et les
+// lignes qui suivent la zone modifiée sont décalées de lineDelta.
+public class TokenChange {
+    public final int start;
+    public final int oldEnd;
+    public final int newEnd;
+    public final int lineDelta;
+
+    public TokenChange(int start, int oldEnd, int newEnd, int lineDelta) {
+        this.start = start;
+        this.oldEnd = oldEnd;
+        this.newEnd = newEnd;
+        this.lineDelta = lineDelta;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[tokens %d..%d -> %d..%d]", start, oldEnd, start, newEnd);
+    }
+}
@@ -0,0 +1,35 @@
+package lexical;
+
+import java.util.*;
+
+// Accès indexé aux tokens consommés par le Parser.
+// Un index au-delà de la fin renvoie toujours le token EOF.
+public interface TokenSource {
+    Token get(int index);
+
+    // Accès champ par champ, que les sources compactes servent sans créer de Token
+    default Token.TokenType type(int index) {
+        return get(index).type;
+    }
+
+    default String value(int index) {
+        return get(index).value();
+    }
+
+    default int line(int index) {
+        return get(index).line;
+    }
+
+    // Identifiant dans SymbolPool d'un IDENTIFIER, -1 pour les autres tokens
+    default int symbol(int index) {
+        return get(index).symbol();
+    }
+
+    // Indique que les tokens d'index < index ne seront plus relus
+    default void release(int index) {
+    }
+
+    static TokenSource of(List<Token> tokens) {
+        return index -> index < tokens.size() ? tokens.get(index) : tokens.get(tokens.size() - 1);
+    }
+}
@@ -0,0 +1,57 @@
+package lexical;
+
+// Fenêtre glissante de tokens alimentée à la demande par le Lexer :
+// seuls les tokens entre le dernier release() et la lecture la plus lointaine sont gardés.
+public class TokenStream implements TokenSource {
+    private final Lexer lexer;
+    private Token[] buffer = new Token[8];
+    private int head = 0;   // case du buffer contenant le token d'index 'base'
+    private int base = 0;   // index absolu du plus ancien token conservé
+    private int count = 0;
+    private Token eof;
+
+    public TokenStream(Lexer lexer) {
+        this.lexer = lexer;
+    }
+
+    @Override
+    public Token get(int index) {
+        if (index < base) {
+            throw new IllegalStateException("Token " + index + " déjà libéré (fenêtre à partir de " + base + ")");
+        }
+        while (index >= base + count) {
+            if (eof != null) {
+                return eof;
+            }
+            Token token = lexer.nextToken();
+            if (token.type == Token.TokenType.EOF) {
+                eof = token;
+            }
+            push(token);
+        }
+        return buffer[(head + index - base) & (buffer.length - 1)];
+    }
+
+    @Override
+    public void release(int index) {
+        while (base < index && count > 0) {
+            buffer[head] = null;
+            head = (head + 1) & (buffer.length - 1);
+            base++;
+            count--;
+        }
+    }
+
+    private void push(Token token) {
+        if (count == buffer.length) {
+            Token[] grown = new Token[buffer.length * 2];
+            for (int i = 0; i < count; i++) {
+                grown[i] = buffer[(head + i) & (buffer.length - 1)];
+            }
+            buffer = grown;
+            head = 0;
+        }
+        buffer[(head + count) & (buffer.length - 1)] = token;
+        count++;
+    }
+}
@@ -0,0 +1,91 @@
+package lexical;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Source UTF-8 lue octet par octet dans un tampon (typiquement un MappedByteBuffer).
+// Les octets ASCII sont rendus tels quels ; les autres valent Source.NON_ASCII, et
+// codePointAt décode la séquence qui commence à un octet de tête pour que le Lexer
+// classe le caractère comme sur une String. Les positions sont comptées en octets.
+final class Utf8Source implements Source {
+    private final ByteBuffer bytes;
+
+    Utf8Source(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public int length() {
+        return bytes.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        byte b = bytes.get(index);
+        return b >= 0 ? (char) b : NON_ASCII;
+    }
+
+    // Séquence de 2 à 4 octets bien formée (ni trop longue, ni substitut, ni au-delà de
+    // U+10FFFF) ; INVALID sinon, y compris sur un octet de continuation
+    @Override
+    public int codePointAt(int index) {
+        int lead = bytes.get(index) & 0xFF;
+        if (lead < 0x80) {
+            return lead;
+        }
+        int count;
+        int codePoint;
+        int min;
+        if (lead >= 0xC2 && lead <= 0xDF) {
+            count = 1;
+            codePoint = lead & 0x1F;
+            min = 0x80;
+        } else if (lead >= 0xE0 && lead <= 0xEF) {
+            count = 2;
+            codePoint = lead & 0x0F;
+            min = 0x800;
+        } else if (lead >= 0xF0 && lead <= 0xF4) {
+            count = 3;
+            codePoint = lead & 0x07;
+            min = 0x10000;
+        } else {
+            return INVALID;
+        }
+        if (index + count >= bytes.limit()) {
+            return INVALID;
+        }
+        for (int i = 1; i <= count; i++) {
+            int next = bytes.get(index + i) & 0xFF;
+            if ((next & 0xC0) != 0x80) {
+                return INVALID;
+            }
+            codePoint = (codePoint << 6) | (next & 0x3F);
+        }
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            return INVALID;
+        }
+        return codePoint;
+    }
+
+    @Override
+    public int width(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        return codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+    }
+
+    @Override
+    public String text(int start, int end) {
+        byte[] range = new byte[end - start];
+        bytes.get(start, range);
+        for (byte b : range) {
+            if (b < 0) {
+                return new String(range, StandardCharsets.UTF_8);
+            }
+        }
+        // Plage purement ASCII : simple copie, aucun décodage
+        return new String(range, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,50 @@
+package metrics;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Registre en mémoire des mesures par phase, partagé par tout le processus.
+// Les phases sont rendues dans l'ordre de leur première exécution.
+public final class MetricsRegistry {
+    public static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final ConcurrentHashMap<String, PhaseStats> phases = new ConcurrentHashMap<>();
+    private final AtomicInteger order = new AtomicInteger();
+
+    public PhaseStats phase(String name) {
+        PhaseStats stats = phases.get(name);
+        if (stats != null) {
+            return stats;
+        }
+        return phases.computeIfAbsent(name, n -> new PhaseStats(n, order.getAndIncrement()));
+    }
+
+    public List<PhaseStats> snapshot() {
+        List<PhaseStats> list = new ArrayList<>(phases.values());
+        list.sort(Comparator.comparingInt(stats -> stats.order));
+        return list;
+    }
+
+    public void reset() {
+        phases.clear();
+    }
+
+    public void report(PrintStream out) {
+        out.println("\n=== MÉTRIQUES ===");
+        out.printf("%-12s %6s %12s %12s %12s %8s %12s%n",
+                   "phase", "fois", "total ms", "max ms", "éléments", "erreurs", "alloué");
+        for (PhaseStats stats : snapshot()) {
+            out.printf("%-12s %6d %12.3f %12.3f %12d %8d %12s%n",
+                       stats.name, stats.count(), stats.totalNanos() / 1e6, stats.maxNanos() / 1e6,
+                       stats.items(), stats.errors(), formatBytes(stats.allocatedBytes()));
+        }
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1L << 20) return String.format("%.1f Mio", bytes / (double) (1L << 20));
+        if (bytes >= 1L << 10) return String.format("%.1f Kio", bytes / (double) (1L << 10));
+        return bytes + " o";
+    }
+}
@@ -0,0 +1,75 @@
+package metrics;
+
+import jdk.jfr.EventType;
+
+import java.lang.management.ManagementFactory;
+
+// Mesure d'une exécution de phase : durée, éléments produits, erreurs et octets alloués
+// par le thread courant. Le résultat va au registre et, si un enregistrement JFR est
+// actif, dans un PhaseEvent.
+//   Phase phase = Phase.start("lex", fichier);
+//   ...
+//   phase.end(tokens.size(), 0);
+public final class Phase {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+    // Type d'événement résolu une fois : isEnabled() suit l'état des enregistrements JFR
+    private static final EventType EVENT_TYPE = EventType.getEventType(PhaseEvent.class);
+
+    private final String name;
+    private final String file;
+    private final PhaseEvent event;
+    private final long startNanos;
+    private final long startAllocated;
+
+    private Phase(String name, String file) {
+        this.name = name;
+        this.file = file;
+        // Pas d'événement alloué quand aucun enregistrement ne le demande
+        this.event = EVENT_TYPE.isEnabled() ? new PhaseEvent() : null;
+        if (this.event != null) {
+            this.event.begin();
+        }
+        this.startAllocated = allocated();
+        this.startNanos = System.nanoTime();
+    }
+
+    public static Phase start(String name, String file) {
+        return new Phase(name, file);
+    }
+
+    public static Phase start(String name) {
+        return new Phase(name, null);
+    }
+
+    public void end(long items, int errors) {
+        long elapsed = System.nanoTime() - startNanos;
+        long allocated = THREADS != null ? allocated() - startAllocated : -1;
+        MetricsRegistry.GLOBAL.phase(name).record(elapsed, items, errors, allocated);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.file = file;
+                event.items = items;
+                event.errors = errors;
+                event.allocated = allocated;
+                event.commit();
+            }
+        }
+    }
+
+    private static long allocated() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package metrics;
+
+import jdk.jfr.*;
+
+// Événement JDK Flight Recorder émis à la fin de chaque phase de compilation ;
+// la durée est celle de l'événement (begin/end)
+@Name("minicompilateur.Phase")
+@Label("Phase de compilation")
+@Category("Mini-compilateur")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    @Label("Phase")
+    public String phase;
+
+    @Label("Fichier")
+    public String file;
+
+    @Label("Éléments produits")
+    @Description("Octets lus, tokens, nœuds, déclarations ou transformations selon la phase")
+    public long items;
+
+    @Label("Erreurs")
+    public int errors;
+
+    @Label("Octets alloués")
+    @DataAmount
+    public long allocated;
+}
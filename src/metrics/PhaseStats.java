@@ -0,0 +1,56 @@
+package metrics;
+
+import java.util.concurrent.atomic.*;
+
+// Cumul des exécutions d'une phase ; mis à jour sans verrou par plusieurs threads
+public final class PhaseStats {
+    public final String name;
+    final int order;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LongAdder items = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+
+    PhaseStats(String name, int order) {
+        this.name = name;
+        this.order = order;
+    }
+
+    void record(long elapsed, long items, int errors, long allocated) {
+        count.increment();
+        nanos.add(elapsed);
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+        this.items.add(items);
+        this.errors.add(errors);
+        if (allocated > 0) {
+            this.allocated.add(allocated);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return nanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public long items() {
+        return items.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    // 0 si la JVM ne mesure pas les allocations par thread
+    public long allocatedBytes() {
+        return allocated.sum();
+    }
+}
@@ -1,51 +1,140 @@
 package models;
 
+import lexical.SymbolPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 public class ASTNode {
-    public String type;
+    public NodeKind kind;
     public String value;
-    public int line;
+    // Ligne absolue (0 : aucune) ; relative pour une StatementNode rattachée (voir line())
+    int line;
     public List<ASTNode> children = new ArrayList<>();
+    // Plage de tokens d'une instruction, relative à l'instruction englobante (-1 : aucune)
+    public int tokenStart = -1;
+    public int tokenCount = 0;
+    // Liste d'instructions d'un conteneur (PROGRAM, CLASS, METHOD, BLOCK), relative à tokenStart
+    public int bodyStart = 0;
+    public int bodyEnd = 0;
+    // Identifiant du nom dans SymbolPool (IDENTIFIER, ASSIGNMENT, INCREMENT, DECREMENT,
+    // DECLARATION) ; -1 pour les nœuds synthétisés, comparés alors par leur texte
+    public int symbol = -1;
 
+    public ASTNode(NodeKind kind) {
+        this(kind, "", 0);
+    }
+    public ASTNode(NodeKind kind, String value, int line) {
+        this.kind = kind;
+        this.value = (value != null) ? value : ""; // Ajout : valeur jamais null
+        this.line = line;
+    }
     public ASTNode(String type) {
-        this.type = type;
-        this.value = ""; // Ajout : jamais null
-        this.line = 0;
+        this(NodeKind.valueOf(type));
     }
     public ASTNode(String type, String value, int line) {
-        this.type = type;
-        this.value = (value != null) ? value : ""; // Ajout : valeur jamais null
+        this(NodeKind.valueOf(type), value, line);
+    }
+
+    // Nom du type, toujours celui de kind
+    public String type() {
+        return kind.name();
+    }
+
+    public int line() {
+        return line;
+    }
+
+    public void setLine(int line) {
         this.line = line;
     }
 
-    public ASTNode addChild(ASTNode child) {
-        if (child != null) {
-            children.add(child);
+    public void shiftLine(int delta) {
+        if (line > 0) {
+            line += delta;
         }
-        return this;
     }
 
-    public void print(int depth) {
-        StringBuilder indent = new StringBuilder();
-        for (int i = 0; i < depth; i++) {
-            indent.append("  ");
+    // Nombre de nœuds du sous-arbre (parcours itératif)
+    public int size() {
+        int count = 0;
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.pop();
+            count++;
+            for (ASTNode child : node.children) {
+                stack.push(child);
+            }
         }
+        return count;
+    }
 
-        System.out.print(indent + "├─ " + type);
+    // Identifiant du nom porté par le nœud (pour DECLARATION, la partie après le type) ;
+    // un nœud synthétisé est interné dans SymbolPool.GLOBAL à la première demande : les passes
+    // qui en créent (optimisations) s'appliquent aux arbres d'une compilation par lot
+    public int symbol() {
+        if (symbol < 0) {
+            String name = kind == NodeKind.DECLARATION ? value.substring(value.indexOf(' ') + 1) : value;
+            symbol = SymbolPool.GLOBAL.intern(name);
+        }
+        return symbol;
+    }
 
-        // Correction ici : sécurité sur la valeur null
-        if (value != null && !value.isEmpty()) {
-            System.out.print(" [" + value + "]");
+    // Même nom de variable : comparaison d'entiers quand les deux nœuds sont internés
+    public boolean sameName(ASTNode other) {
+        if (symbol >= 0 && other.symbol >= 0) {
+            return symbol == other.symbol;
         }
+        return value.equals(other.value);
+    }
 
-        if (line > 0) {
-            System.out.print(" (@" + line + ")");
+    public ASTNode addChild(ASTNode child) {
+        if (child != null) {
+            children.add(child);
+        }
+        return this;
+    }
+
+    // Double dispatch : un seul switch sur l'enum, puis la méthode dédiée du visiteur
+    public <R> R accept(Visitor<R> visitor) {
+        switch (kind) {
+            case PROGRAM: return visitor.visitProgram(this);
+            case CLASS: return visitor.visitClass(this);
+            case METHOD: return visitor.visitMethod(this);
+            case MODIFIER: return visitor.visitModifier(this);
+            case RETURN_TYPE: return visitor.visitReturnType(this);
+            case BLOCK: return visitor.visitBlock(this);
+            case DECLARATION: return visitor.visitDeclaration(this);
+            case ASSIGNMENT: return visitor.visitAssignment(this);
+            case INCREMENT: return visitor.visitIncrement(this);
+            case DECREMENT: return visitor.visitDecrement(this);
+            case POST_INCREMENT: return visitor.visitPostIncrement(this);
+            case POST_DECREMENT: return visitor.visitPostDecrement(this);
+            case IF: return visitor.visitIf(this);
+            case THEN: return visitor.visitThen(this);
+            case ELSE: return visitor.visitElse(this);
+            case WHILE: return visitor.visitWhile(this);
+            case CONDITION: return visitor.visitCondition(this);
+            case BODY: return visitor.visitBody(this);
+            case COMPARISON: return visitor.visitComparison(this);
+            case BINARY_OP: return visitor.visitBinaryOp(this);
+            case UNARY_OP: return visitor.visitUnaryOp(this);
+            case NUMBER: return visitor.visitNumber(this);
+            case IDENTIFIER: return visitor.visitIdentifier(this);
+            case STRING_LITERAL: return visitor.visitStringLiteral(this);
+            case METHOD_CALL: return visitor.visitMethodCall(this);
+            case ARGUMENT: return visitor.visitArgument(this);
+            default: return visitor.visitError(this);
         }
-        System.out.println();
+    }
 
-        for (ASTNode child : children) {
-            child.print(depth + 1);
+    public void print(int depth) {
+        try {
+            new AstWriter(System.out, AstWriter.Format.TREE).write(this, depth);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package models;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+// Écriture d'un AST vers n'importe quel Appendable (Writer, PrintStream, StringBuilder...).
+// Parcours itératif avec une pile explicite : pas de récursion, même sur un arbre très profond.
+// Le texte est accumulé dans un seul tampon, vidé par gros morceaux.
+// Accepte aussi un FlatAst, parcouru par FlatAst.walk : même texte que l'arbre d'objets.
+public class AstWriter {
+    public enum Format {
+        TREE,   // format de ASTNode.print
+        JSON,   // JSON compact, une seule ligne
+        DOT     // graphe Graphviz
+    }
+
+    private static final int FLUSH_SIZE = 8192;
+
+    private final Appendable out;
+    private final Format format;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_SIZE + 256);
+    private int nextId = 0;
+
+    public AstWriter(Appendable out, Format format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    public void write(ASTNode root) throws IOException {
+        write(root, 0);
+    }
+
+    // depth : profondeur de départ (indentation du format TREE)
+    public void write(ASTNode root, int depth) throws IOException {
+        nextId = 0;
+        if (format == Format.DOT) {
+            buffer.append("digraph AST {\n  node [shape=box];\n");
+        }
+
+        ASTNode[] nodes = new ASTNode[32];
+        int[] nextChild = new int[32];
+        int[] ids = new int[32];
+        int top = 0;
+        nodes[0] = root;
+        ids[0] = enter(root.type(), root.value, root.line(), !root.children.isEmpty(), depth, -1);
+
+        while (top >= 0) {
+            ASTNode node = nodes[top];
+            int index = nextChild[top];
+            if (index == node.children.size()) {
+                exit(!node.children.isEmpty());
+                top--;
+                continue;
+            }
+            nextChild[top] = index + 1;
+            ASTNode child = node.children.get(index);
+            if (format == Format.JSON && index > 0) {
+                buffer.append(',');
+            }
+            if (++top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                nextChild = Arrays.copyOf(nextChild, top * 2);
+                ids = Arrays.copyOf(ids, top * 2);
+            }
+            nodes[top] = child;
+            nextChild[top] = 0;
+            ids[top] = enter(child.type(), child.value, child.line(), !child.children.isEmpty(), depth + top, ids[top - 1]);
+            if (buffer.length() >= FLUSH_SIZE) {
+                drain();
+            }
+        }
+        finish();
+    }
+
+    // Même sortie pour la forme compacte : les nœuds y sont déjà en ordre préfixe, et
+    // un nœud précédé d'une sortie est le frère suivant d'un nœud déjà écrit
+    public void write(FlatAst ast) throws IOException {
+        nextId = 0;
+        if (format == Format.DOT) {
+            buffer.append("digraph AST {\n  node [shape=box];\n");
+        }
+        FlatAst.Visitor visitor = new FlatAst.Visitor() {
+            private int[] ids = new int[32];
+            private boolean afterExit = false;
+
+            @Override
+            public void enter(FlatAst flat, int node, int depth) {
+                if (format == Format.JSON && afterExit) {
+                    buffer.append(',');
+                }
+                afterExit = false;
+                if (depth == ids.length) {
+                    ids = Arrays.copyOf(ids, depth * 2);
+                }
+                ids[depth] = AstWriter.this.enter(flat.type(node), flat.value(node), flat.line(node),
+                                                  flat.firstChild(node) != FlatAst.NONE, depth,
+                                                  depth > 0 ? ids[depth - 1] : -1);
+                if (buffer.length() >= FLUSH_SIZE) {
+                    try {
+                        drain();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+
+            @Override
+            public void exit(FlatAst flat, int node, int depth) {
+                AstWriter.this.exit(flat.firstChild(node) != FlatAst.NONE);
+                afterExit = true;
+            }
+        };
+        try {
+            ast.walk(ast.root(), visitor);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finish();
+    }
+
+    private void finish() throws IOException {
+        if (format == Format.DOT) {
+            buffer.append("}\n");
+        } else if (format == Format.JSON) {
+            buffer.append('\n');
+        }
+        drain();
+    }
+
+    // Écrit le début d'un nœud ; retourne son identifiant (utilisé par DOT)
+    private int enter(String type, String value, int line, boolean hasChildren, int depth, int parentId) {
+        int id = nextId++;
+        switch (format) {
+            case TREE:
+                for (int i = 0; i < depth; i++) {
+                    buffer.append("  ");
+                }
+                buffer.append("├─ ").append(type);
+                if (value != null && !value.isEmpty()) {
+                    buffer.append(" [").append(value).append(']');
+                }
+                if (line > 0) {
+                    buffer.append(" (@").append(line).append(')');
+                }
+                buffer.append('\n');
+                break;
+            case JSON:
+                buffer.append("{\"type\":\"").append(type).append('"');
+                if (value != null && !value.isEmpty()) {
+                    buffer.append(",\"value\":");
+                    quote(value);
+                }
+                if (line > 0) {
+                    buffer.append(",\"line\":").append(line);
+                }
+                if (hasChildren) {
+                    buffer.append(",\"children\":[");
+                }
+                break;
+            case DOT:
+                buffer.append("  n").append(id).append(" [label=");
+                String label = type;
+                if (value != null && !value.isEmpty()) {
+                    label += "\n" + value;
+                }
+                quote(label);
+                buffer.append("];\n");
+                if (parentId >= 0) {
+                    buffer.append("  n").append(parentId).append(" -> n").append(id).append(";\n");
+                }
+                break;
+        }
+        return id;
+    }
+
+    private void exit(boolean hasChildren) {
+        if (format == Format.JSON) {
+            if (hasChildren) {
+                buffer.append(']');
+            }
+            buffer.append('}');
+        }
+    }
+
+    // Chaîne entre guillemets, échappée (valable en JSON comme en DOT)
+    private void quote(String text) {
+        buffer.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': buffer.append("\\\""); break;
+                case '\\': buffer.append("\\\\"); break;
+                case '\n': buffer.append("\\n"); break;
+                case '\r': buffer.append("\\r"); break;
+                case '\t': buffer.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+
+    private void drain() throws IOException {
+        out.append(buffer);
+        buffer.setLength(0);
+    }
+
+    // Raccourci pour les sorties qui ne lèvent pas d'IOException (PrintStream, StringBuilder)
+    public static void dump(ASTNode root, Appendable out, Format format) {
+        try {
+            new AstWriter(out, format).write(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void dump(FlatAst ast, Appendable out, Format format) {
+        try {
+            new AstWriter(out, format).write(ast);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package models;
+
+import java.util.*;
+
+// Représentation compacte d'un AST : tous les nœuds dans un seul tableau d'int
+// (type, premier fils, frère suivant, token, ligne, valeur), rangés en ordre préfixe.
+// Le type est l'ordinal de NodeKind ; les valeurs sont des index dans une table sans doublon.
+// Le nœud 0 est la racine ; NONE marque l'absence de fils, de frère ou de token.
+public class FlatAst {
+    public static final int NONE = -1;
+
+    private static final int KIND = 0, FIRST_CHILD = 1, NEXT_SIBLING = 2, TOKEN = 3, LINE = 4, VALUE = 5;
+    private static final int STRIDE = 6;
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private int[] arena;
+    private int size = 0;
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> valueIds = new HashMap<>();
+
+    // Parcours en profondeur : appelé à l'entrée et à la sortie de chaque nœud
+    public interface Visitor {
+        void enter(FlatAst ast, int node, int depth);
+
+        default void exit(FlatAst ast, int node, int depth) {
+        }
+    }
+
+    private FlatAst(int capacity) {
+        arena = new int[Math.max(1, capacity) * STRIDE];
+    }
+
+    // Compacte un arbre produit par le Parser ; l'arbre d'objets peut ensuite être libéré.
+    // Le token d'un nœud est l'index absolu du premier token de l'instruction, ou NONE.
+    public static FlatAst of(ASTNode root) {
+        FlatAst ast = new FlatAst(1024);
+        // Pile explicite : pas de récursion Java, même sur un arbre très profond
+        Deque<Frame> stack = new ArrayDeque<>();
+        int rootToken = root.tokenStart >= 0 ? root.tokenStart : NONE;
+        stack.push(new Frame(root, ast.add(root, rootToken), Math.max(0, root.tokenStart)));
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.nextChild == frame.node.children.size()) {
+                stack.pop();
+                continue;
+            }
+            ASTNode child = frame.node.children.get(frame.nextChild++);
+            int token = child.tokenStart >= 0 ? frame.base + child.tokenStart : NONE;
+            int id = ast.add(child, token);
+            if (frame.lastChild == NONE) {
+                ast.arena[frame.id * STRIDE + FIRST_CHILD] = id;
+            } else {
+                ast.arena[frame.lastChild * STRIDE + NEXT_SIBLING] = id;
+            }
+            frame.lastChild = id;
+            stack.push(new Frame(child, id, token != NONE ? token : frame.base));
+        }
+        return ast;
+    }
+
+    private static final class Frame {
+        final ASTNode node;
+        final int id;
+        final int base;     // token de l'instruction englobante
+        int nextChild = 0;
+        int lastChild = NONE;
+
+        Frame(ASTNode node, int id, int base) {
+            this.node = node;
+            this.id = id;
+            this.base = base;
+        }
+    }
+
+    private int add(ASTNode node, int token) {
+        if (size * STRIDE == arena.length) {
+            arena = Arrays.copyOf(arena, arena.length * 2);
+        }
+        int id = size++;
+        int at = id * STRIDE;
+        arena[at + KIND] = node.kind.ordinal();
+        arena[at + FIRST_CHILD] = NONE;
+        arena[at + NEXT_SIBLING] = NONE;
+        arena[at + TOKEN] = token;
+        arena[at + LINE] = node.line();
+        arena[at + VALUE] = intern(node.value);
+        return id;
+    }
+
+    private int intern(String text) {
+        Integer id = valueIds.get(text);
+        if (id == null) {
+            id = values.size();
+            values.add(text);
+            valueIds.put(text, id);
+        }
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int root() {
+        return 0;
+    }
+
+    public NodeKind kind(int node) {
+        return KINDS[arena[node * STRIDE + KIND]];
+    }
+
+    public String type(int node) {
+        return kind(node).name();
+    }
+
+    public String value(int node) {
+        return values.get(arena[node * STRIDE + VALUE]);
+    }
+
+    public int line(int node) {
+        return arena[node * STRIDE + LINE];
+    }
+
+    public int token(int node) {
+        return arena[node * STRIDE + TOKEN];
+    }
+
+    public int firstChild(int node) {
+        return arena[node * STRIDE + FIRST_CHILD];
+    }
+
+    public int nextSibling(int node) {
+        return arena[node * STRIDE + NEXT_SIBLING];
+    }
+
+    public int childCount(int node) {
+        int count = 0;
+        for (int child = firstChild(node); child != NONE; child = nextSibling(child)) {
+            count++;
+        }
+        return count;
+    }
+
+    // Parcours itératif en ordre préfixe, à partir de node
+    public void walk(int node, Visitor visitor) {
+        int[] stack = new int[16];
+        int depth = 0;
+        stack[0] = node;
+        visitor.enter(this, node, 0);
+        while (depth >= 0) {
+            int current = stack[depth];
+            // Descendre vers le premier fils, sinon passer au frère (en remontant au besoin)
+            int child = firstChild(current);
+            if (child != NONE) {
+                if (++depth == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[depth] = child;
+                visitor.enter(this, child, depth);
+                continue;
+            }
+            while (depth >= 0) {
+                visitor.exit(this, stack[depth], depth);
+                int sibling = depth > 0 ? nextSibling(stack[depth]) : NONE;
+                if (sibling != NONE) {
+                    stack[depth] = sibling;
+                    visitor.enter(this, sibling, depth);
+                    break;
+                }
+                depth--;
+            }
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    // Curseur de navigation : garde le chemin depuis la racine pour pouvoir remonter
+    public class Cursor {
+        private int[] path = new int[16];
+        private int depth = 0;
+
+        private Cursor() {
+            path[0] = 0;
+        }
+
+        public int node() {
+            return path[depth];
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        public boolean firstChild() {
+            int child = FlatAst.this.firstChild(path[depth]);
+            if (child == NONE) {
+                return false;
+            }
+            if (++depth == path.length) {
+                path = Arrays.copyOf(path, path.length * 2);
+            }
+            path[depth] = child;
+            return true;
+        }
+
+        public boolean nextSibling() {
+            if (depth == 0) {
+                return false;
+            }
+            int sibling = FlatAst.this.nextSibling(path[depth]);
+            if (sibling == NONE) {
+                return false;
+            }
+            path[depth] = sibling;
+            return true;
+        }
+
+        public boolean parent() {
+            if (depth == 0) {
+                return false;
+            }
+            depth--;
+            return true;
+        }
+
+        public NodeKind kind() {
+            return FlatAst.this.kind(node());
+        }
+
+        public String type() {
+            return FlatAst.this.type(node());
+        }
+
+        public String value() {
+            return FlatAst.this.value(node());
+        }
+
+        public int line() {
+            return FlatAst.this.line(node());
+        }
+    }
+}
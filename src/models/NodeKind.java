@@ -0,0 +1,37 @@
+package models;
+
+// Toutes les sortes de nœuds produites par le Parser
+public enum NodeKind {
+    PROGRAM,
+    CLASS,
+    METHOD,
+    MODIFIER,
+    RETURN_TYPE,
+    BLOCK,
+    DECLARATION,
+    ASSIGNMENT,
+    INCREMENT,
+    DECREMENT,
+    POST_INCREMENT,
+    POST_DECREMENT,
+    IF,
+    THEN,
+    ELSE,
+    WHILE,
+    CONDITION,
+    BODY,
+    COMPARISON,
+    BINARY_OP,
+    UNARY_OP,
+    NUMBER,
+    IDENTIFIER,
+    STRING_LITERAL,
+    METHOD_CALL,
+    ARGUMENT,
+    ERROR;
+
+    // Conteneurs d'une liste d'instructions (voir ASTNode.bodyStart)
+    public boolean isContainer() {
+        return this == PROGRAM || this == CLASS || this == METHOD || this == BLOCK;
+    }
+}
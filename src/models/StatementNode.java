@@ -0,0 +1,83 @@
+package models;
+
+import java.util.*;
+
+// Instruction (ou en-tête de déclaration : MODIFIER, RETURN_TYPE) produite par le parser.
+// Sa ligne peut être rattachée à celle de l'instruction englobante, comme son tokenStart :
+// une réanalyse décale alors une instruction sans renuméroter son sous-arbre. Les autres
+// nœuds (expressions) n'ont pas ces champs.
+public class StatementNode extends ASTNode {
+    // Version des lignes d'un arbre : incrémentée à chaque décalage, elle invalide les
+    // lignes absolues mémorisées de cet arbre seulement
+    public static final class LineVersion {
+        private int value;
+    }
+
+    private final LineVersion version;
+    private ASTNode lineParent;
+    private int cachedLine;
+    private int cachedVersion = -1;
+
+    public StatementNode(NodeKind kind, LineVersion version) {
+        this(kind, "", 0, version);
+    }
+
+    public StatementNode(NodeKind kind, String value, int line, LineVersion version) {
+        super(kind, value, line);
+        this.version = version;
+    }
+
+    // Ligne absolue, calculée en remontant les rattachements jusqu'à une ligne connue ;
+    // mémorisée jusqu'au prochain décalage, d'où un coût constant pour un parcours descendant
+    @Override
+    public int line() {
+        if (lineParent == null) {
+            return line;
+        }
+        int current = version.value;
+        if (cachedVersion != current) {
+            Deque<StatementNode> pending = new ArrayDeque<>();
+            ASTNode node = this;
+            while (node instanceof StatementNode) {
+                StatementNode statement = (StatementNode) node;
+                if (statement.lineParent == null || statement.cachedVersion == current) {
+                    break;
+                }
+                pending.push(statement);
+                node = statement.lineParent;
+            }
+            int base = node instanceof StatementNode && ((StatementNode) node).lineParent != null
+                     ? ((StatementNode) node).cachedLine : node.line;
+            while (!pending.isEmpty()) {
+                StatementNode statement = pending.pop();
+                base += statement.line;
+                statement.cachedLine = base;
+                statement.cachedVersion = current;
+            }
+        }
+        return cachedLine;
+    }
+
+    @Override
+    public void setLine(int line) {
+        this.line = line;
+        this.lineParent = null;
+    }
+
+    // La ligne de ce nœud suivra désormais celle de 'parent' (sans changer de valeur)
+    public void attachLine(ASTNode parent) {
+        if (lineParent == null && line > 0 && parent.line() > 0) {
+            line -= parent.line();
+            lineParent = parent;
+        }
+    }
+
+    // Décale la ligne de ce nœud et de tout ce qui lui est rattaché
+    @Override
+    public void shiftLine(int delta) {
+        if (delta != 0 && (lineParent != null || line > 0)) {
+            line += delta;
+            version.value++;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package models;
+
+// Visiteur de l'AST : une méthode par sorte de nœud, appelée par ASTNode.accept.
+// Par défaut chaque méthode délègue à visitDefault, qui visite les enfants.
+public interface Visitor<R> {
+
+    default R visitDefault(ASTNode node) {
+        for (ASTNode child : node.children) {
+            child.accept(this);
+        }
+        return null;
+    }
+
+    default R visitProgram(ASTNode node) { return visitDefault(node); }
+
+    default R visitClass(ASTNode node) { return visitDefault(node); }
+
+    default R visitMethod(ASTNode node) { return visitDefault(node); }
+
+    default R visitModifier(ASTNode node) { return visitDefault(node); }
+
+    default R visitReturnType(ASTNode node) { return visitDefault(node); }
+
+    default R visitBlock(ASTNode node) { return visitDefault(node); }
+
+    default R visitDeclaration(ASTNode node) { return visitDefault(node); }
+
+    default R visitAssignment(ASTNode node) { return visitDefault(node); }
+
+    default R visitIncrement(ASTNode node) { return visitDefault(node); }
+
+    default R visitDecrement(ASTNode node) { return visitDefault(node); }
+
+    default R visitPostIncrement(ASTNode node) { return visitDefault(node); }
+
+    default R visitPostDecrement(ASTNode node) { return visitDefault(node); }
+
+    default R visitIf(ASTNode node) { return visitDefault(node); }
+
+    default R visitThen(ASTNode node) { return visitDefault(node); }
+
+    default R visitElse(ASTNode node) { return visitDefault(node); }
+
+    default R visitWhile(ASTNode node) { return visitDefault(node); }
+
+    default R visitCondition(ASTNode node) { return visitDefault(node); }
+
+    default R visitBody(ASTNode node) { return visitDefault(node); }
+
+    default R visitComparison(ASTNode node) { return visitDefault(node); }
+
+    default R visitBinaryOp(ASTNode node) { return visitDefault(node); }
+
+    default R visitUnaryOp(ASTNode node) { return visitDefault(node); }
+
+    default R visitNumber(ASTNode node) { return visitDefault(node); }
+
+    default R visitIdentifier(ASTNode node) { return visitDefault(node); }
+
+    default R visitStringLiteral(ASTNode node) { return visitDefault(node); }
+
+    default R visitMethodCall(ASTNode node) { return visitDefault(node); }
+
+    default R visitArgument(ASTNode node) { return visitDefault(node); }
+
+    default R visitError(ASTNode node) { return visitDefault(node); }
+}
@@ -0,0 +1,387 @@
+package optimizer;
+
+import semantic.SymbolTable;
+import semantic.Type;
+import models.*;
+import java.util.*;
+
+// Simplification de l'AST avant l'exécution ou la génération de code :
+//  - calcul des sous-arbres constants (2*50+1 -> 101, "a" + 1 -> "a1", -(3) -> -3) ;
+//  - identités sans effet sur la valeur ni le type (x*1, x/1, x-0, et x+0 pour un int),
+//    puis affectations x = x ;
+//  - && et || dont un côté est constant ;
+//  - IF et WHILE dont la condition est constante (branche morte supprimée).
+// L'arbre est modifié sur place, par un parcours itératif en post-ordre : à appliquer
+// après l'analyse, sur un arbre qui ne sera plus réanalysé (plages de tokens non tenues).
+public class ConstantFolder {
+    private static final Type[] TYPES = Type.values();
+
+    // Type statique des expressions déjà simplifiées (null : inconnu)
+    private final Map<ASTNode, Type> types = new IdentityHashMap<>();
+    // Valeur des conditions connues à la compilation
+    private final Map<ASTNode, Boolean> constants = new IdentityHashMap<>();
+    // Types déclarés des variables visibles (symbole -> ordinal du type), comme pour l'analyse :
+    // une seule table, en temps constant quelle que soit la profondeur
+    private SymbolTable scopes;
+    private int changes;
+
+    // Renvoie le nombre de simplifications effectuées
+    public int fold(ASTNode root) {
+        types.clear();
+        constants.clear();
+        scopes = new SymbolTable();
+        changes = 0;
+
+        ASTNode[] nodes = new ASTNode[32];
+        int[] nextChild = new int[32];
+        int top = 0;
+        nodes[0] = root;
+        enter(root);
+
+        while (top >= 0) {
+            ASTNode node = nodes[top];
+            int index = nextChild[top];
+            if (index < node.children.size()) {
+                nextChild[top] = index + 1;
+                if (++top == nodes.length) {
+                    nodes = Arrays.copyOf(nodes, top * 2);
+                    nextChild = Arrays.copyOf(nextChild, top * 2);
+                }
+                nodes[top] = node.children.get(index);
+                nextChild[top] = 0;
+                enter(nodes[top]);
+                continue;
+            }
+
+            // Tous les enfants sont simplifiés : au tour du nœud, remplacé dans son parent
+            exit(node);
+            ASTNode replacement = simplify(node);
+            top--;
+            if (top >= 0 && replacement != node) {
+                changes++;
+                ASTNode parent = nodes[top];
+                int position = nextChild[top] - 1;
+                if (replacement != null) {
+                    parent.children.set(position, replacement);
+                } else if (isStatementHolder(parent.kind)) {
+                    parent.children.set(position, new ASTNode(NodeKind.BLOCK, "", node.line()));
+                } else {
+                    parent.children.remove(position);
+                    nextChild[top] = position;
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static boolean isStatementHolder(NodeKind kind) {
+        return kind == NodeKind.BODY || kind == NodeKind.THEN || kind == NodeKind.ELSE;
+    }
+
+    private static boolean opensScope(NodeKind kind) {
+        switch (kind) {
+            case PROGRAM:
+            case CLASS:
+            case METHOD:
+            case BLOCK:
+            case THEN:
+            case ELSE:
+            case BODY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void enter(ASTNode node) {
+        if (opensScope(node.kind)) {
+            scopes.enterScope();
+        }
+    }
+
+    private void exit(ASTNode node) {
+        if (opensScope(node.kind)) {
+            scopes.exitScope();
+        }
+    }
+
+    private Type lookup(ASTNode node) {
+        int type = scopes.lookup(node.symbol());
+        return type >= 0 ? TYPES[type] : null;
+    }
+
+    // Nœud qui remplace 'node' (lui-même si rien ne change), null pour le supprimer
+    private ASTNode simplify(ASTNode node) {
+        switch (node.kind) {
+            case NUMBER:
+                types.put(node, Type.ofNumber(node.value));
+                return node;
+            case STRING_LITERAL:
+                types.put(node, Type.STRING);
+                return node;
+            case IDENTIFIER:
+                types.put(node, lookup(node));
+                return node;
+            case POST_INCREMENT:
+            case POST_DECREMENT:
+                types.put(node, types.get(node.children.get(0)));
+                return node;
+            case DECLARATION: {
+                Type type = Type.ofDeclaration(node.value);
+                if (type != null && scopes.depth() > 0) {
+                    scopes.declare(node.symbol(), type.ordinal());
+                }
+                return node;
+            }
+            case ASSIGNMENT: {
+                // x = x (reste fréquent de x = x*1 + 0) : instruction sans effet
+                ASTNode value = node.children.get(0);
+                return value.kind == NodeKind.IDENTIFIER && value.sameName(node) ? null : node;
+            }
+            case UNARY_OP:
+                return simplifyNegation(node);
+            case BINARY_OP:
+                if (node.value.equals("&&") || node.value.equals("||")) {
+                    return simplifyLogical(node);
+                }
+                return simplifyArithmetic(node);
+            case COMPARISON:
+                simplifyComparison(node);
+                return node;
+            case IF:
+                return simplifyIf(node);
+            case WHILE:
+                return constants.get(condition(node)) == Boolean.FALSE ? null : node;
+            default:
+                return node;
+        }
+    }
+
+    private ASTNode simplifyNegation(ASTNode node) {
+        ASTNode operand = node.children.get(0);
+        Type type = types.get(operand);
+        if (operand.kind == NodeKind.NUMBER) {
+            if (type == Type.DOUBLE) {
+                return number(-Double.parseDouble(operand.value), node);
+            }
+            Integer value = intValue(operand);
+            if (value != null) {
+                return number(-value, node);
+            }
+        }
+        // -(-x) : seulement pour int et double (-(-c) est un int, pas un char)
+        if (operand.kind == NodeKind.UNARY_OP && isNumber(types.get(operand.children.get(0)))) {
+            return operand.children.get(0);
+        }
+        types.put(node, Type.ofNegation(type));
+        return node;
+    }
+
+    private ASTNode simplifyArithmetic(ASTNode node) {
+        ASTNode left = node.children.get(0);
+        ASTNode right = node.children.get(1);
+        Type leftType = types.get(left);
+        Type rightType = types.get(right);
+        String op = node.value;
+
+        if (left.kind == NodeKind.NUMBER && right.kind == NodeKind.NUMBER) {
+            ASTNode folded = compute(op, left, right, node);
+            if (folded != null) {
+                return folded;
+            }
+        }
+        if (op.equals("+") && (leftType == Type.STRING || rightType == Type.STRING)) {
+            String leftText = text(left);
+            String rightText = text(right);
+            if (leftText != null && rightText != null) {
+                ASTNode folded = new ASTNode(NodeKind.STRING_LITERAL, leftText + rightText, line(node));
+                types.put(folded, Type.STRING);
+                return folded;
+            }
+        }
+
+        // Identités exactes : x+0 change -0.0 en 0.0 pour un double, d'où la restriction à int
+        Integer leftValue = intValue(left);
+        Integer rightValue = intValue(right);
+        if (rightValue != null && isNumber(leftType)) {
+            if ((rightValue == 1 && (op.equals("*") || op.equals("/")))
+                    || (rightValue == 0 && op.equals("-"))
+                    || (rightValue == 0 && op.equals("+") && leftType == Type.INT)) {
+                return left;
+            }
+        }
+        if (leftValue != null && isNumber(rightType)) {
+            if ((leftValue == 1 && op.equals("*")) || (leftValue == 0 && op.equals("+") && rightType == Type.INT)) {
+                return right;
+            }
+        }
+
+        types.put(node, Type.ofBinary(op, leftType, rightType));
+        return node;
+    }
+
+    // Opération entre deux littéraux numériques ; null si le résultat n'est pas représentable
+    // (division entière par zéro laissée à l'exécution, infini ou NaN en double)
+    private ASTNode compute(String op, ASTNode left, ASTNode right, ASTNode node) {
+        if (types.get(left) == Type.INT && types.get(right) == Type.INT) {
+            Integer a = intValue(left);
+            Integer b = intValue(right);
+            if (a == null || b == null) {
+                return null;
+            }
+            switch (op) {
+                case "+": return number(a + b, node);
+                case "-": return number(a - b, node);
+                case "*": return number(a * b, node);
+                case "/": return b == 0 ? null : number(a / b, node);
+                case "%": return b == 0 ? null : number(a % b, node);
+                default: return null;
+            }
+        }
+        double a = Double.parseDouble(left.value);
+        double b = Double.parseDouble(right.value);
+        double result;
+        switch (op) {
+            case "+": result = a + b; break;
+            case "-": result = a - b; break;
+            case "*": result = a * b; break;
+            case "/": result = a / b; break;
+            case "%": result = a % b; break;
+            default: return null;
+        }
+        return Double.isFinite(result) ? number(result, node) : null;
+    }
+
+    private void simplifyComparison(ASTNode node) {
+        ASTNode left = node.children.get(0);
+        ASTNode right = node.children.get(1);
+        types.put(node, Type.BOOLEAN);
+        if (left.kind != NodeKind.NUMBER || right.kind != NodeKind.NUMBER) {
+            return;
+        }
+        int order;
+        if (types.get(left) == Type.INT && types.get(right) == Type.INT) {
+            Integer a = intValue(left);
+            Integer b = intValue(right);
+            if (a == null || b == null) {
+                return;
+            }
+            order = Integer.compare(a, b);
+        } else {
+            double a = Double.parseDouble(left.value);
+            double b = Double.parseDouble(right.value);
+            // Comparaison au sens de Java (et non Double.compare, qui distingue -0.0 et 0.0)
+            order = a < b ? -1 : a > b ? 1 : 0;
+        }
+        boolean value;
+        switch (node.value) {
+            case "==": value = order == 0; break;
+            case "!=": value = order != 0; break;
+            case "<": value = order < 0; break;
+            case "<=": value = order <= 0; break;
+            case ">": value = order > 0; break;
+            default: value = order >= 0;
+        }
+        constants.put(node, value);
+    }
+
+    // Un côté constant : soit le résultat est connu (côté droit jamais évalué),
+    // soit l'opération se réduit à l'autre côté
+    private ASTNode simplifyLogical(ASTNode node) {
+        ASTNode left = node.children.get(0);
+        ASTNode right = node.children.get(1);
+        Boolean leftValue = constants.get(left);
+        Boolean rightValue = constants.get(right);
+        boolean and = node.value.equals("&&");
+        types.put(node, Type.BOOLEAN);
+        if (leftValue != null) {
+            if (leftValue == and) {
+                return right;       // true && x, false || x
+            }
+            constants.put(node, leftValue);
+            return node;
+        }
+        if (rightValue != null && rightValue == and) {
+            return left;            // x && true, x || false
+        }
+        return node;
+    }
+
+    private ASTNode simplifyIf(ASTNode node) {
+        Boolean value = constants.get(condition(node));
+        if (value == null) {
+            return node;
+        }
+        NodeKind kept = value ? NodeKind.THEN : NodeKind.ELSE;
+        for (ASTNode child : node.children) {
+            if (child.kind == kept && !child.children.isEmpty()) {
+                return scoped(child.children.get(0));
+            }
+        }
+        return null;
+    }
+
+    private static ASTNode condition(ASTNode node) {
+        for (ASTNode child : node.children) {
+            if (child.kind == NodeKind.CONDITION && !child.children.isEmpty()) {
+                return child.children.get(0);
+            }
+        }
+        return null;
+    }
+
+    // La branche gardée conserve sa portée : une instruction seule est mise dans un bloc
+    private static ASTNode scoped(ASTNode statement) {
+        if (statement.kind == NodeKind.BLOCK) {
+            return statement;
+        }
+        return new ASTNode(NodeKind.BLOCK, "", statement.line()).addChild(statement);
+    }
+
+    private ASTNode number(int value, ASTNode replaced) {
+        ASTNode node = new ASTNode(NodeKind.NUMBER, Integer.toString(value), line(replaced));
+        types.put(node, Type.INT);
+        return node;
+    }
+
+    private ASTNode number(double value, ASTNode replaced) {
+        ASTNode node = new ASTNode(NodeKind.NUMBER, Double.toString(value), line(replaced));
+        types.put(node, Type.DOUBLE);
+        return node;
+    }
+
+    private static int line(ASTNode node) {
+        return node.line() > 0 || node.children.isEmpty() ? node.line() : node.children.get(0).line();
+    }
+
+    private static boolean isNumber(Type type) {
+        return type == Type.INT || type == Type.DOUBLE;
+    }
+
+    // Valeur d'un littéral entier, null sinon (ou hors des bornes d'un int)
+    private Integer intValue(ASTNode node) {
+        if (node.kind != NodeKind.NUMBER || types.get(node) != Type.INT) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(node.value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Texte d'un littéral dans une concaténation, comme String.valueOf ; null si non constant
+    private String text(ASTNode node) {
+        if (node.kind == NodeKind.STRING_LITERAL) {
+            return node.value;
+        }
+        if (node.kind != NodeKind.NUMBER) {
+            return null;
+        }
+        if (types.get(node) == Type.DOUBLE) {
+            return Double.toString(Double.parseDouble(node.value));
+        }
+        Integer value = intValue(node);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,722 @@
+package optimizer;
+
+import semantic.SymbolTable;
+import semantic.Type;
+import models.*;
+import java.util.*;
+
+// Optimisation des boucles WHILE, des plus internes aux plus externes :
+//  - déroulement complet des boucles à nombre de tours constant et petit
+//    (int i = 0; ... while (i < 5) { ...; i++; }) : plus de test ni de saut ;
+//  - sortie des expressions invariantes (opérandes non modifiés dans la boucle) vers
+//    des variables temporaires calculées une fois, avant la boucle la plus externe
+//    pour laquelle l'expression reste invariante ;
+//  - réduction de force : pour une variable d'induction i (une seule modification
+//    i++, i--, i = i ± c, à chaque tour), i * k devient une variable augmentée de c * k.
+// Les temporaires portent des noms commençant par '#', impossibles dans le source ;
+// la boucle et ses temporaires sont regroupés dans un BLOCK, qui en borne la portée.
+// Comme ConstantFolder, modifie l'arbre sur place après l'analyse.
+// Coût linéaire quelle que soit l'imbrication : les modifications de variables sont
+// relevées une fois, en pré-ordre, par collect() ; celles d'une boucle sont celles de sa
+// plage de positions. Une boucle déjà traitée n'est plus reparcourue par celles qui la
+// contiennent : ce qui y était invariant pour elles en a déjà été sorti.
+public class LoopOptimizer {
+    private static final int MAX_UNROLL_TRIPS = 8;
+    private static final int MAX_UNROLL_NODES = 256;   // taille du corps × nombre de tours
+    private static final Type[] TYPES = Type.values();
+
+    private int temporaries;
+    private int changes;
+    // Type de chaque utilisation de variable située dans une boucle (IDENTIFIER, ASSIGNMENT,
+    // INCREMENT, DECREMENT), résolu pendant le parcours : seuls les noms utilisés ont un type
+    private final Map<ASTNode, Type> types = new IdentityHashMap<>();
+    // Modifications et déclarations de chaque nom, par position en pré-ordre dans l'arbre initial
+    private final Map<String, Definitions> writes = new HashMap<>();
+    private final Map<String, Definitions> declarations = new HashMap<>();
+    // Boucles déjà traitées : leur contenu n'est plus parcouru par les boucles englobantes
+    private final Set<ASTNode> sealed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Boucle trouvée par le parcours, avec sa position parmi les enfants de son parent
+    private static final class Loop {
+        final ASTNode node;
+        final ASTNode parent;
+        final int index;
+        final int start;              // plage [start, end) des positions en pré-ordre de son sous-arbre
+        int end;
+        // Boucles englobantes : up[k] est l'ancêtre de rang 2^k (up[0] la boucle qui la contient)
+        final Loop[] up;
+        // Déclarations de temporaires sorties des boucles internes jusque devant celle-ci
+        final List<ASTNode> hoisted = new ArrayList<>();
+
+        Loop(ASTNode node, ASTNode parent, int index, int start, Loop outer, int depth) {
+            this.node = node;
+            this.parent = parent;
+            this.index = index;
+            this.start = start;
+            up = new Loop[32 - Integer.numberOfLeadingZeros(depth)];
+            for (int k = 0; k < up.length; k++) {
+                up[k] = k == 0 ? outer : up[k - 1].up[k - 1];
+            }
+        }
+
+        // Les remplacements se font sur place : la position ne change pas, sauf si une
+        // transformation a inséré des instructions avant la boucle
+        int position() {
+            List<ASTNode> siblings = parent.children;
+            return index < siblings.size() && siblings.get(index) == node ? index : siblings.indexOf(node);
+        }
+
+        void replaceWith(ASTNode replacement) {
+            parent.children.set(position(), replacement);
+        }
+    }
+
+    // Nœuds qui modifient (ou déclarent) un même nom, dans l'ordre du pré-ordre, avec leur parent
+    private static final class Definitions {
+        int[] positions = new int[2];
+        ASTNode[] nodes = new ASTNode[2];
+        ASTNode[] parents = new ASTNode[2];
+        int size;
+
+        void add(int position, ASTNode node, ASTNode parent) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+                parents = Arrays.copyOf(parents, size * 2);
+            }
+            positions[size] = position;
+            nodes[size] = node;
+            parents[size++] = parent;
+        }
+
+        // Nombre de positions avant 'position'
+        int before(int position) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (positions[middle] < position) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        int count(int from, int to) {
+            return before(to) - before(from);
+        }
+    }
+
+    // Modifications des variables dans une boucle (condition et corps) : sa plage de positions.
+    // Les copies d'un déroulement n'y figurent pas, ce qui ne change ni « aucune » ni
+    // « une seule » modification ; une boucle interne déroulée en zéro tour y garde les
+    // siennes, ce qui est seulement prudent.
+    private final class Writes {
+        final int from;
+        final int to;
+
+        Writes(Loop loop) {
+            from = loop.start;
+            to = loop.end;
+        }
+
+        int count(String name) {
+            Definitions found = writes.get(name);
+            return found == null ? 0 : found.count(from, to);
+        }
+
+        boolean declares(String name) {
+            Definitions found = declarations.get(name);
+            return found != null && found.count(from, to) > 0;
+        }
+
+        boolean isInvariant(String name) {
+            return count(name) == 0 && !declares(name);
+        }
+    }
+
+    // Renvoie le nombre de transformations effectuées
+    public int optimize(ASTNode root) {
+        temporaries = 0;
+        changes = 0;
+        types.clear();
+        List<Loop> loops = collect(root);
+        // Ordre inverse du pré-ordre : une boucle interne est traitée avant celle qui la contient
+        for (int i = loops.size() - 1; i >= 0; i--) {
+            optimize(loops.get(i));
+        }
+        types.clear();
+        writes.clear();
+        declarations.clear();
+        sealed.clear();
+        return changes;
+    }
+
+    // Parcours itératif en pré-ordre. Les variables visibles sont dans une seule SymbolTable
+    // (symbole -> ordinal du type), comme pour l'analyse : aucune copie des portées par boucle.
+    // Chaque nœud reçoit sa position ; les modifications et déclarations sont relevées par nom.
+    private List<Loop> collect(ASTNode root) {
+        List<Loop> loops = new ArrayList<>();
+        Deque<Loop> open = new ArrayDeque<>();
+        SymbolTable scopes = new SymbolTable();
+        ASTNode[] nodes = new ASTNode[32];
+        int[] nextChild = new int[32];
+        int top = 0;
+        int position = 0;
+        nodes[0] = root;
+        scopes.enterScope();
+
+        while (top >= 0) {
+            ASTNode node = nodes[top];
+            int index = nextChild[top];
+            if (index == node.children.size()) {
+                if (opensScope(node.kind)) {
+                    scopes.exitScope();
+                }
+                if (node.kind == NodeKind.WHILE) {
+                    open.pop().end = position + 1;
+                }
+                top--;
+                continue;
+            }
+            nextChild[top] = index + 1;
+            ASTNode child = node.children.get(index);
+            position++;
+            String written = written(child);
+            if (written != null) {
+                writes.computeIfAbsent(written, k -> new Definitions()).add(position, child, node);
+            }
+            if (child.kind == NodeKind.WHILE) {
+                Loop loop = new Loop(child, node, index, position, open.peek(), open.size());
+                loops.add(loop);
+                open.push(loop);
+            } else if (child.kind == NodeKind.DECLARATION) {
+                declarations.computeIfAbsent(declaredName(child), k -> new Definitions()).add(position, child, node);
+                String[] parts = child.value.split(" ", 2);
+                Type type = Type.fromName(parts[0]);
+                if (parts.length == 2 && type != null) {
+                    scopes.declare(child.symbol(), type.ordinal());
+                }
+            }
+            if (!open.isEmpty() && usesName(child.kind)) {
+                int type = scopes.lookup(child.symbol());
+                if (type >= 0) {
+                    types.put(child, TYPES[type]);
+                }
+            }
+            if (opensScope(child.kind)) {
+                scopes.enterScope();
+            }
+            if (++top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                nextChild = Arrays.copyOf(nextChild, top * 2);
+            }
+            nodes[top] = child;
+            nextChild[top] = 0;
+        }
+        return loops;
+    }
+
+    private static boolean opensScope(NodeKind kind) {
+        switch (kind) {
+            case CLASS:
+            case METHOD:
+            case BLOCK:
+            case THEN:
+            case ELSE:
+            case BODY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean usesName(NodeKind kind) {
+        return kind == NodeKind.IDENTIFIER || kind == NodeKind.ASSIGNMENT
+            || kind == NodeKind.INCREMENT || kind == NodeKind.DECREMENT;
+    }
+
+    private void optimize(Loop loop) {
+        ASTNode condition = child(loop.node, NodeKind.CONDITION);
+        ASTNode body = child(loop.node, NodeKind.BODY);
+        List<ASTNode> before = loop.hoisted;
+        if (condition != null && body != null && !condition.children.isEmpty() && !body.children.isEmpty()) {
+            Writes writes = new Writes(loop);
+            sealed.add(loop.node);
+            if (unroll(loop, condition.children.get(0), body.children.get(0), writes)) {
+                return;
+            }
+            hoist(loop, condition, body, writes);
+            reduceStrength(loop, condition, body.children.get(0), writes, before);
+        }
+        if (!before.isEmpty()) {
+            ASTNode block = new ASTNode(NodeKind.BLOCK, "", loop.node.line());
+            block.children.addAll(before);
+            block.addChild(loop.node);
+            loop.replaceWith(block);
+        }
+    }
+
+    private static ASTNode child(ASTNode node, NodeKind kind) {
+        for (ASTNode child : node.children) {
+            if (child.kind == kind) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    // Variable modifiée par le nœud (hors déclaration), null sinon
+    private static String written(ASTNode node) {
+        switch (node.kind) {
+            case ASSIGNMENT:
+            case INCREMENT:
+            case DECREMENT:
+                return node.value;
+            case POST_INCREMENT:
+            case POST_DECREMENT:
+                return node.children.get(0).value;
+            default:
+                return null;
+        }
+    }
+
+    // Type de la variable modifiée, tel que résolu par collect()
+    private Type writtenType(ASTNode node) {
+        boolean post = node.kind == NodeKind.POST_INCREMENT || node.kind == NodeKind.POST_DECREMENT;
+        return types.get(post ? node.children.get(0) : node);
+    }
+
+    private static String declaredName(ASTNode declaration) {
+        String[] parts = declaration.value.split(" ", 2);
+        return parts.length == 2 ? parts[1] : parts[0];
+    }
+
+    // ---- Déroulement ----
+
+    // while (i < N) avec i entier, de valeur connue avant la boucle, modifié une seule
+    // fois par tour : la boucle est remplacée par N copies de son corps
+    private boolean unroll(Loop loop, ASTNode condition, ASTNode body, Writes writes) {
+        if (condition.kind != NodeKind.COMPARISON || isStatementHolder(loop.parent.kind)) {
+            return false;
+        }
+        ASTNode left = condition.children.get(0);
+        ASTNode right = condition.children.get(1);
+        String op = condition.value;
+        if (left.kind == NodeKind.NUMBER && right.kind == NodeKind.IDENTIFIER) {
+            ASTNode swap = left;
+            left = right;
+            right = swap;
+            op = mirror(op);
+        }
+        Integer limit = intValue(right);
+        if (left.kind != NodeKind.IDENTIFIER || limit == null) {
+            return false;
+        }
+        String name = left.value;
+        Integer step = null;
+        if (isInduction(name, types.get(left), writes) && body.kind == NodeKind.BLOCK) {
+            for (ASTNode statement : body.children) {
+                if (name.equals(written(statement))) {
+                    step = step(statement);
+                    break;
+                }
+            }
+        }
+        Integer start = step != null ? valueBefore(loop, name) : null;
+        if (start == null) {
+            return false;
+        }
+
+        int trips = 0;
+        int value = start;
+        while (compare(op, value, limit)) {
+            if (++trips > MAX_UNROLL_TRIPS) {
+                return false;
+            }
+            value += step;
+        }
+        if (trips > 0 && size(body, MAX_UNROLL_NODES / trips) > MAX_UNROLL_NODES / trips) {
+            return false;
+        }
+        ASTNode unrolled = new ASTNode(NodeKind.BLOCK, "", loop.node.line());
+        unrolled.children.addAll(loop.hoisted);
+        for (int i = 0; i < trips; i++) {
+            unrolled.addChild(scoped(copy(body)));
+        }
+        loop.replaceWith(unrolled);
+        changes++;
+        return true;
+    }
+
+    private static String mirror(String op) {
+        switch (op) {
+            case "<": return ">";
+            case "<=": return ">=";
+            case ">": return "<";
+            case ">=": return "<=";
+            default: return op;
+        }
+    }
+
+    private static boolean compare(String op, int a, int b) {
+        switch (op) {
+            case "==": return a == b;
+            case "!=": return a != b;
+            case "<": return a < b;
+            case "<=": return a <= b;
+            case ">": return a > b;
+            default: return a >= b;
+        }
+    }
+
+    // Variable d'induction entière : une seule modification dans la boucle, qui doit être
+    // une instruction directe du corps (donc exécutée à chaque tour) pour donner un pas
+    private static boolean isInduction(String name, Type type, Writes writes) {
+        return type == Type.INT && writes.count(name) == 1 && !writes.declares(name);
+    }
+
+    private static Integer step(ASTNode statement) {
+        switch (statement.kind) {
+            case INCREMENT:
+                return 1;
+            case DECREMENT:
+                return -1;
+            case ASSIGNMENT: {
+                // i = i + c, i = c + i, i = i - c
+                ASTNode value = statement.children.get(0);
+                if (value.kind != NodeKind.BINARY_OP) {
+                    return null;
+                }
+                ASTNode left = value.children.get(0);
+                ASTNode right = value.children.get(1);
+                boolean plus = value.value.equals("+");
+                if (isVariable(left, statement.value) && (plus || value.value.equals("-"))) {
+                    Integer c = intValue(right);
+                    return c == null ? null : plus ? c : -c;
+                }
+                if (plus && isVariable(right, statement.value)) {
+                    return intValue(left);
+                }
+                return null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    // Valeur littérale de la variable juste avant la boucle : la dernière modification ou
+    // déclaration de i qui précède la boucle doit être une instruction sœur int i = K ou
+    // i = K ; si elle est imbriquée dans une autre instruction, ou hors de la liste, null
+    private Integer valueBefore(Loop loop, String name) {
+        int position = -1;
+        ASTNode statement = null;
+        ASTNode parent = null;
+        for (Definitions found : new Definitions[] {writes.get(name), declarations.get(name)}) {
+            int last = found == null ? -1 : found.before(loop.start) - 1;
+            if (last >= 0 && found.positions[last] > position) {
+                position = found.positions[last];
+                statement = found.nodes[last];
+                parent = found.parents[last];
+            }
+        }
+        if (statement == null || parent != loop.parent) {
+            return null;
+        }
+        boolean declares = statement.kind == NodeKind.DECLARATION;
+        if (!declares && statement.kind != NodeKind.ASSIGNMENT) {
+            return null;
+        }
+        return statement.children.isEmpty() ? (declares ? Integer.valueOf(0) : null)
+                                            : intValue(statement.children.get(0));
+    }
+
+    // ---- Expressions invariantes ----
+
+    // Chaque expression invariante maximale (au moins un opérateur) est remplacée par
+    // une temporaire déclarée avant la boucle, ou avant la boucle englobante la plus
+    // externe où elle reste invariante : elle n'est pas reprise à chaque niveau
+    private void hoist(Loop loop, ASTNode condition, ASTNode body, Writes writes) {
+        Map<ASTNode, Type> invariant = new IdentityHashMap<>();
+        for (ASTNode root : new ASTNode[] {condition, body}) {
+            List<ASTNode> nodes = new ArrayList<>();
+            List<ASTNode> parents = new ArrayList<>();
+            postOrder(root, nodes, parents);
+            for (ASTNode node : nodes) {
+                Type type = invariantType(node, types, writes, invariant);
+                if (type != null) {
+                    invariant.put(node, type);
+                }
+            }
+            for (int i = 0; i < nodes.size(); i++) {
+                ASTNode node = nodes.get(i);
+                ASTNode parent = parents.get(i);
+                if (invariant.containsKey(node) && isOperator(node.kind) && !invariant.containsKey(parent)) {
+                    String name = "#inv" + temporaries++;
+                    Type type = invariant.get(node);
+                    replace(parent, node, new ASTNode(NodeKind.IDENTIFIER, name, node.line()));
+                    outermost(loop, node).hoisted.add(
+                        new ASTNode(NodeKind.DECLARATION, type.sourceName() + " " + name, node.line()).addChild(node));
+                    changes++;
+                }
+            }
+        }
+    }
+
+    // Boucle la plus externe, parmi 'loop' et celles qui la contiennent, qui ne modifie ni ne
+    // déclare aucune variable de l'expression (invariante pour 'loop') ; recherche par sauts
+    // de 2^k ancêtres, la propriété étant vraie sur toute la chaîne jusqu'à cette boucle
+    private Loop outermost(Loop loop, ASTNode expression) {
+        Set<String> names = new HashSet<>();
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(expression);
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.pop();
+            if (node.kind == NodeKind.IDENTIFIER) {
+                names.add(node.value);
+            }
+            for (ASTNode child : node.children) {
+                stack.push(child);
+            }
+        }
+        Loop target = loop;
+        for (int k = loop.up.length - 1; k >= 0; k--) {
+            Loop ancestor = k < target.up.length ? target.up[k] : null;
+            if (ancestor != null && isInvariant(ancestor, names)) {
+                target = ancestor;
+            }
+        }
+        return target;
+    }
+
+    private boolean isInvariant(Loop loop, Set<String> names) {
+        Writes writes = new Writes(loop);
+        for (String name : names) {
+            if (!writes.isInvariant(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOperator(NodeKind kind) {
+        return kind == NodeKind.BINARY_OP || kind == NodeKind.COMPARISON || kind == NodeKind.UNARY_OP;
+    }
+
+    // Type d'une expression sans effet, invariante et qui ne peut pas échouer ; null sinon.
+    // Les enfants ont déjà été examinés (post-ordre).
+    private static Type invariantType(ASTNode node, Map<ASTNode, Type> types, Writes writes,
+                                      Map<ASTNode, Type> invariant) {
+        switch (node.kind) {
+            case NUMBER:
+                return Type.ofNumber(node.value);
+            case STRING_LITERAL:
+                return Type.STRING;
+            case IDENTIFIER:
+                return writes.isInvariant(node.value) ? types.get(node) : null;
+            case UNARY_OP:
+                return Type.ofNegation(invariant.get(node.children.get(0)));
+            case COMPARISON:
+                return Type.ofComparison(node.value, invariant.get(node.children.get(0)),
+                                         invariant.get(node.children.get(1)));
+            case BINARY_OP: {
+                Type type = Type.ofBinary(node.value, invariant.get(node.children.get(0)),
+                                          invariant.get(node.children.get(1)));
+                // Division entière : sortie de la boucle seulement si le diviseur est une constante non nulle
+                if (type == Type.INT && (node.value.equals("/") || node.value.equals("%"))) {
+                    Integer divisor = intValue(node.children.get(1));
+                    return divisor != null && divisor != 0 ? Type.INT : null;
+                }
+                return type;
+            }
+            default:
+                return null;
+        }
+    }
+
+    // ---- Réduction de force ----
+
+    private void reduceStrength(Loop loop, ASTNode condition, ASTNode body, Writes writes, List<ASTNode> before) {
+        if (body.kind != NodeKind.BLOCK) {
+            return;
+        }
+        // Produits i * k (k entier littéral) de la condition et du corps, par variable puis
+        // par facteur, relevés en un seul parcours
+        Map<String, Map<Integer, List<ASTNode[]>>> productsByName = new HashMap<>();
+        for (ASTNode root : new ASTNode[] {condition, body}) {
+            List<ASTNode> nodes = new ArrayList<>();
+            List<ASTNode> parents = new ArrayList<>();
+            postOrder(root, nodes, parents);
+            for (int i = 0; i < nodes.size(); i++) {
+                ASTNode node = nodes.get(i);
+                if (node.kind != NodeKind.BINARY_OP || !node.value.equals("*")) {
+                    continue;
+                }
+                for (ASTNode operand : node.children) {
+                    Integer factor = operand.kind == NodeKind.IDENTIFIER ? factor(node, operand.value) : null;
+                    if (factor != null) {
+                        productsByName.computeIfAbsent(operand.value, k -> new LinkedHashMap<>())
+                                      .computeIfAbsent(factor, k -> new ArrayList<>())
+                                      .add(new ASTNode[] {node, parents.get(i)});
+                        break;
+                    }
+                }
+            }
+        }
+        for (int s = 0; s < body.children.size(); s++) {
+            ASTNode increment = body.children.get(s);
+            String name = written(increment);
+            Integer step = name != null && isInduction(name, writtenType(increment), writes) ? step(increment) : null;
+            Map<Integer, List<ASTNode[]>> products = step != null ? productsByName.get(name) : null;
+            if (products == null) {
+                continue;
+            }
+            int updates = 0;
+            for (Map.Entry<Integer, List<ASTNode[]>> entry : products.entrySet()) {
+                int factor = entry.getKey();
+                String temporary = "#sr" + temporaries++;
+                int line = increment.line();
+                // int #sr = i * k; avant la boucle, #sr = #sr + pas * k; après chaque i++
+                ASTNode counter = new ASTNode(NodeKind.IDENTIFIER, name, line);
+                types.put(counter, Type.INT);
+                ASTNode initial = new ASTNode(NodeKind.BINARY_OP, "*", line)
+                        .addChild(counter)
+                        .addChild(new ASTNode(NodeKind.NUMBER, Integer.toString(factor), line));
+                before.add(new ASTNode(NodeKind.DECLARATION, "int " + temporary, line).addChild(initial));
+                ASTNode sum = new ASTNode(NodeKind.BINARY_OP, "+", line)
+                        .addChild(new ASTNode(NodeKind.IDENTIFIER, temporary, line))
+                        .addChild(new ASTNode(NodeKind.NUMBER, Integer.toString(step * factor), line));
+                body.children.add(s + 1 + updates++, new ASTNode(NodeKind.ASSIGNMENT, temporary, line).addChild(sum));
+                for (ASTNode[] product : entry.getValue()) {
+                    replace(product[1], product[0], new ASTNode(NodeKind.IDENTIFIER, temporary, product[0].line()));
+                }
+                changes++;
+            }
+            s += updates;
+        }
+    }
+
+    // k si le nœud est i * k ou k * i (k entier littéral), null sinon
+    private static Integer factor(ASTNode node, String name) {
+        if (node.kind != NodeKind.BINARY_OP || !node.value.equals("*")) {
+            return null;
+        }
+        ASTNode left = node.children.get(0);
+        ASTNode right = node.children.get(1);
+        if (isVariable(left, name)) {
+            return intValue(right);
+        }
+        return isVariable(right, name) ? intValue(left) : null;
+    }
+
+    // ---- Outils ----
+
+    private static boolean isVariable(ASTNode node, String name) {
+        return node.kind == NodeKind.IDENTIFIER && node.value.equals(name);
+    }
+
+    private static Integer intValue(ASTNode node) {
+        if (node.kind != NodeKind.NUMBER || node.value.indexOf('.') >= 0) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(node.value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isStatementHolder(NodeKind kind) {
+        return kind == NodeKind.BODY || kind == NodeKind.THEN || kind == NodeKind.ELSE;
+    }
+
+    private static ASTNode scoped(ASTNode statement) {
+        if (statement.kind == NodeKind.BLOCK) {
+            return statement;
+        }
+        return new ASTNode(NodeKind.BLOCK, "", statement.line()).addChild(statement);
+    }
+
+    private static void replace(ASTNode parent, ASTNode old, ASTNode replacement) {
+        List<ASTNode> children = parent.children;
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) == old) {
+                children.set(i, replacement);
+                return;
+            }
+        }
+    }
+
+    // Nœuds en post-ordre, chacun avec son parent (null pour la racine), sans entrer dans
+    // les boucles déjà traitées
+    private void postOrder(ASTNode root, List<ASTNode> nodes, List<ASTNode> parents) {
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        Deque<ASTNode> parentStack = new ArrayDeque<>();
+        List<ASTNode> reversed = new ArrayList<>();
+        List<ASTNode> reversedParents = new ArrayList<>();
+        stack.push(root);
+        parentStack.push(root);
+        boolean first = true;
+        while (!stack.isEmpty()) {
+            ASTNode node = stack.pop();
+            ASTNode parent = parentStack.pop();
+            reversed.add(node);
+            reversedParents.add(first ? null : parent);
+            first = false;
+            for (ASTNode child : node.children) {
+                if (!sealed.contains(child)) {
+                    stack.push(child);
+                    parentStack.push(node);
+                }
+            }
+        }
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            nodes.add(reversed.get(i));
+            parents.add(reversedParents.get(i));
+        }
+    }
+
+    // Nombre de nœuds du sous-arbre, compté au plus jusqu'à limit + 1
+    private static int size(ASTNode root, int limit) {
+        int size = 0;
+        Deque<ASTNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty() && size <= limit) {
+            ASTNode node = stack.pop();
+            size++;
+            for (ASTNode child : node.children) {
+                stack.push(child);
+            }
+        }
+        return size;
+    }
+
+    // Copie profonde (itérative) d'un sous-arbre ; les copies gardent le type résolu de l'original
+    private ASTNode copy(ASTNode root) {
+        ASTNode rootCopy = new ASTNode(root.kind, root.value, root.line());
+        rootCopy.symbol = root.symbol;
+        copyType(root, rootCopy);
+        Deque<ASTNode[]> stack = new ArrayDeque<>();
+        stack.push(new ASTNode[] {root, rootCopy});
+        while (!stack.isEmpty()) {
+            ASTNode[] pair = stack.pop();
+            for (ASTNode child : pair[0].children) {
+                ASTNode childCopy = new ASTNode(child.kind, child.value, child.line());
+                childCopy.symbol = child.symbol;
+                copyType(child, childCopy);
+                pair[1].addChild(childCopy);
+                stack.push(new ASTNode[] {child, childCopy});
+            }
+        }
+        return rootCopy;
+    }
+
+    private void copyType(ASTNode original, ASTNode copy) {
+        Type type = types.get(original);
+        if (type != null) {
+            types.put(copy, type);
+        }
+    }
+}
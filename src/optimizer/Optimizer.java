@@ -0,0 +1,16 @@
+package optimizer;
+
+import models.ASTNode;
+
+// Enchaînement des passes d'optimisation de l'AST, avant exécution ou génération de code
+public final class Optimizer {
+    private Optimizer() {
+    }
+
+    // Renvoie le nombre total de transformations
+    public static int optimize(ASTNode program) {
+        int changes = new ConstantFolder().fold(program);
+        changes += new LoopOptimizer().optimize(program);
+        return changes;
+    }
+}
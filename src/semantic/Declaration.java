@@ -0,0 +1,27 @@
+package semantic;
+
+import models.ASTNode;
+
+// Variable déclarée : type et nom séparés une fois pour toutes (DECLARATION.value = "int i")
+public final class Declaration {
+    public final int id;
+    public final int symbol;
+    public final String name;
+    public final Type type;
+    public final ASTNode node;
+    public final int line;
+
+    Declaration(int id, int symbol, String name, Type type, ASTNode node, int line) {
+        this.id = id;
+        this.symbol = symbol;
+        this.name = name;
+        this.type = type;
+        this.node = node;
+        this.line = line;
+    }
+
+    @Override
+    public String toString() {
+        return type.sourceName() + " " + name + " (ligne " + line + ")";
+    }
+}
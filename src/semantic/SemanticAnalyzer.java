@@ -0,0 +1,314 @@
+package semantic;
+
+import lexical.SymbolPool;
+import models.*;
+import java.util.*;
+
+// Analyse sémantique : résolution de chaque utilisation de variable vers sa déclaration
+// (portées imbriquées de SymbolTable) et vérification des types. Un seul parcours
+// itératif : en pré-ordre on ouvre les portées, en post-ordre on type chaque nœud à
+// partir de ses enfants. Linéaire en la taille de l'arbre, sans récursion.
+public class SemanticAnalyzer {
+    private final List<String> errors = new ArrayList<>();
+    // Pool des symboles de l'arbre : celui du lexer qui a produit ses tokens
+    private final SymbolPool pool;
+    private SymbolTable symbols;
+    // Profondeur de portée de chaque déclaration (par id), et celle du corps de la méthode
+    // (ou de la classe, du programme) en cours : comme en Java, une locale ne peut pas
+    // masquer une autre locale de la même méthode, même depuis un bloc imbriqué
+    private int[] declarationDepths = new int[64];
+    private int ownerDepth;
+    private SemanticModel model;
+    // Méthodes de la classe (ou du programme) en cours -> type de retour (null : void)
+    private final Deque<Map<String, Type>> methods = new ArrayDeque<>();
+    private int line;
+
+    public SemanticAnalyzer() {
+        this(SymbolPool.GLOBAL);
+    }
+
+    public SemanticAnalyzer(SymbolPool pool) {
+        this.pool = pool;
+    }
+
+    public SemanticModel analyze(ASTNode program) {
+        errors.clear();
+        methods.clear();
+        symbols = new SymbolTable(pool);
+        ownerDepth = 0;
+        model = new SemanticModel();
+        line = 0;
+
+        ASTNode[] nodes = new ASTNode[32];
+        int[] nextChild = new int[32];
+        int top = 0;
+        nodes[0] = program;
+        enter(program);
+
+        while (top >= 0) {
+            ASTNode node = nodes[top];
+            int index = nextChild[top];
+            if (index == node.children.size()) {
+                exit(node);
+                top--;
+                continue;
+            }
+            nextChild[top] = index + 1;
+            if (++top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                nextChild = Arrays.copyOf(nextChild, top * 2);
+            }
+            nodes[top] = node.children.get(index);
+            nextChild[top] = 0;
+            enter(nodes[top]);
+        }
+        return model;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    private static boolean opensScope(NodeKind kind) {
+        switch (kind) {
+            case PROGRAM:
+            case CLASS:
+            case METHOD:
+            case BLOCK:
+            case THEN:
+            case ELSE:
+            case BODY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void enter(ASTNode node) {
+        if (node.line() > 0) {
+            line = node.line();
+        }
+        if (opensScope(node.kind)) {
+            symbols.enterScope();
+        }
+        if (node.kind == NodeKind.PROGRAM || node.kind == NodeKind.CLASS || node.kind == NodeKind.METHOD) {
+            ownerDepth = symbols.depth();
+        }
+        if (node.kind == NodeKind.PROGRAM || node.kind == NodeKind.CLASS) {
+            methods.push(declareMethods(node));
+        }
+    }
+
+    private Map<String, Type> declareMethods(ASTNode container) {
+        Map<String, Type> declared = new HashMap<>();
+        for (ASTNode member : container.children) {
+            if (member.kind != NodeKind.METHOD) {
+                continue;
+            }
+            if (declared.containsKey(member.value)) {
+                error(member, "Méthode déjà définie: " + member.value);
+            }
+            declared.put(member.value, returnType(member));
+        }
+        return declared;
+    }
+
+    // null : void
+    private Type returnType(ASTNode method) {
+        for (ASTNode child : method.children) {
+            if (child.kind == NodeKind.RETURN_TYPE && !child.value.equals("void")) {
+                Type type = Type.fromName(child.value);
+                if (type == null) {
+                    error(method, "Type de retour non pris en charge: " + child.value);
+                }
+                return type;
+            }
+        }
+        return null;
+    }
+
+    // Enfants déjà analysés : type du nœud, résolution et vérifications
+    private void exit(ASTNode node) {
+        if (opensScope(node.kind)) {
+            symbols.exitScope();
+        }
+        // Retour au corps de la classe (ou du programme), dont la portée est de nouveau la plus interne
+        if (node.kind == NodeKind.CLASS || node.kind == NodeKind.METHOD) {
+            ownerDepth = symbols.depth();
+        }
+        switch (node.kind) {
+            case PROGRAM:
+            case CLASS:
+                methods.pop();
+                break;
+            case NUMBER:
+                number(node);
+                break;
+            case STRING_LITERAL:
+                model.types.put(node, Type.STRING);
+                break;
+            case IDENTIFIER: {
+                Declaration declaration = resolve(node, node.value);
+                model.types.put(node, declaration != null ? declaration.type : null);
+                break;
+            }
+            case POST_INCREMENT:
+            case POST_DECREMENT: {
+                Type type = model.types.get(node.children.get(0));
+                if (type != null && !type.isNumeric()) {
+                    error(node, "Incrémentation d'une variable " + type);
+                    type = null;
+                }
+                model.types.put(node, type);
+                break;
+            }
+            case UNARY_OP: {
+                Type operand = typeOf(node, 0);
+                Type type = Type.ofNegation(operand);
+                if (type == null && operand != null) {
+                    error(node, "Opérateur - non applicable à " + operand);
+                }
+                model.types.put(node, type);
+                break;
+            }
+            case BINARY_OP:
+            case COMPARISON: {
+                Type left = typeOf(node, 0);
+                Type right = typeOf(node, 1);
+                Type type = node.kind == NodeKind.COMPARISON ? Type.ofComparison(node.value, left, right)
+                                                             : Type.ofBinary(node.value, left, right);
+                if (type == null && left != null && right != null) {
+                    String what = node.kind == NodeKind.COMPARISON ? "Comparaison " : "Opérateur ";
+                    error(node, what + node.value + " non applicable à " + left + " et " + right);
+                }
+                model.types.put(node, type);
+                break;
+            }
+            case DECLARATION:
+                declaration(node);
+                break;
+            case ASSIGNMENT: {
+                Declaration declaration = resolve(node, node.value);
+                Type value = typeOf(node, 0);
+                if (declaration != null && value != null && !declaration.type.accepts(value, node.children.get(0))) {
+                    error(node, "Types incompatibles: " + value + " affecté à une variable " + declaration.type);
+                }
+                break;
+            }
+            case INCREMENT:
+            case DECREMENT: {
+                Declaration declaration = resolve(node, node.value);
+                if (declaration != null && !declaration.type.isNumeric()) {
+                    error(node, "Incrémentation d'une variable " + declaration.type + ": " + node.value);
+                }
+                break;
+            }
+            case CONDITION: {
+                Type type = typeOf(node, 0);
+                if (type != null && type != Type.BOOLEAN) {
+                    error(node, "Condition de type " + type + " au lieu de boolean");
+                }
+                break;
+            }
+            case ARGUMENT:
+                model.types.put(node, typeOf(node, 0));
+                break;
+            case METHOD_CALL:
+                methodCall(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Type typeOf(ASTNode node, int child) {
+        return node.children.size() > child ? model.types.get(node.children.get(child)) : null;
+    }
+
+    private void number(ASTNode node) {
+        Type type = Type.ofNumber(node.value);
+        try {
+            if (type == Type.INT) {
+                Integer.parseInt(node.value);
+            } else {
+                Double.parseDouble(node.value);
+            }
+        } catch (NumberFormatException e) {
+            error(node, "Nombre invalide: " + node.value);
+            type = null;
+        }
+        model.types.put(node, type);
+    }
+
+    private void declaration(ASTNode node) {
+        // value : "type nom"
+        String[] parts = node.value.split(" ", 2);
+        Type type = Type.fromName(parts[0]);
+        if (type == null || parts.length < 2) {
+            error(node, "Type non pris en charge: " + parts[0]);
+            return;
+        }
+        Type value = typeOf(node, 0);
+        if (value != null && !type.accepts(value, node.children.get(0))) {
+            error(node, "Types incompatibles: " + value + " affecté à une variable " + type);
+        }
+        // Déclarée après son initialisation : int x = x; désigne un x englobant
+        int symbol = symbolOf(node, parts[1]);
+        Declaration declaration = new Declaration(model.declarations.size(), symbol, symbols.name(symbol), type, node,
+                                                  node.line() > 0 ? node.line() : line);
+        int visible = symbols.lookup(symbol);
+        if (visible >= 0 && declarationDepths[visible] >= ownerDepth) {
+            error(node, "Variable déjà déclarée: " + parts[1]);
+            return;
+        }
+        symbols.declare(symbol, declaration.id);
+        if (declaration.id == declarationDepths.length) {
+            declarationDepths = Arrays.copyOf(declarationDepths, declaration.id * 2);
+        }
+        declarationDepths[declaration.id] = symbols.depth();
+        model.declarations.add(declaration);
+        model.resolutions.put(node, declaration);
+    }
+
+    private Declaration resolve(ASTNode node, String name) {
+        int found = symbols.lookup(symbolOf(node, name));
+        if (found < 0) {
+            error(node, "Variable non déclarée: " + name);
+            return null;
+        }
+        Declaration declaration = model.declarations.get(found);
+        model.resolutions.put(node, declaration);
+        return declaration;
+    }
+
+    // Symbole posé par le parser ; les nœuds synthétisés passent par le pool
+    private int symbolOf(ASTNode node, String name) {
+        return node.symbol >= 0 ? node.symbol : symbols.intern(name);
+    }
+
+    private void methodCall(ASTNode node) {
+        String name = node.value;
+        int count = node.children.size();
+        if (name.equals("System.out.println") || name.equals("System.out.print")) {
+            boolean newLine = name.equals("System.out.println");
+            if (count > 1 || (count == 0 && !newLine)) {
+                error(node, name + " attend " + (newLine ? "au plus" : "exactement") + " un argument");
+            }
+            return;
+        }
+        Map<String, Type> visible = methods.peek();
+        if (visible == null || !visible.containsKey(name)) {
+            error(node, "Méthode non déclarée: " + name);
+            return;
+        }
+        model.types.put(node, visible.get(name));
+    }
+
+    private void error(ASTNode node, String message) {
+        errors.add(message + " à la ligne " + (node.line() > 0 ? node.line() : line));
+    }
+}
@@ -0,0 +1,26 @@
+package semantic;
+
+import models.ASTNode;
+import java.util.*;
+
+// Résultat de l'analyse sémantique : déclaration de chaque utilisation de variable
+// et type de chaque expression
+public final class SemanticModel {
+    final List<Declaration> declarations = new ArrayList<>();
+    final Map<ASTNode, Declaration> resolutions = new IdentityHashMap<>();
+    final Map<ASTNode, Type> types = new IdentityHashMap<>();
+
+    // Pour IDENTIFIER, ASSIGNMENT, INCREMENT, DECREMENT et DECLARATION ; null si non résolu
+    public Declaration declarationOf(ASTNode node) {
+        return resolutions.get(node);
+    }
+
+    // null pour une instruction, ou une expression invalide
+    public Type typeOf(ASTNode expression) {
+        return types.get(expression);
+    }
+
+    public List<Declaration> declarations() {
+        return Collections.unmodifiableList(declarations);
+    }
+}
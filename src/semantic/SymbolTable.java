@@ -0,0 +1,145 @@
+package semantic;
+
+import lexical.SymbolPool;
+
+import java.util.Arrays;
+
+// Table des symboles à portées imbriquées, en temps constant quelle que soit la profondeur.
+// Les symboles sont les identifiants de SymbolPool (remplis par le lexer) ; la déclaration
+// visible d'un symbole est rangée dans une table à adressage ouvert propre à l'analyse,
+// dimensionnée par les seuls noms rencontrés et non par la taille du pool partagé.
+// Une déclaration masque la précédente et l'inscrit dans un journal : à la sortie de la
+// portée, le journal est dépilé jusqu'à sa marque et les masquées reviennent.
+public final class SymbolTable {
+    private final SymbolPool pool;
+
+    // Cases : symbole + 1 (0 : libre), déclaration visible (-1 : aucune) et profondeur de
+    // sa portée. Un symbole sorti de portée garde sa case, avec la déclaration -1.
+    private int[] keys = new int[64];
+    private int[] visible = new int[64];
+    private int[] visibleDepth = new int[64];
+    private int used = 0;
+
+    // Journal des déclarations masquées, dépilé à la sortie de chaque portée
+    private int[] logSymbol = new int[32];
+    private int[] logDeclaration = new int[32];
+    private int[] logDepth = new int[32];
+    private int logSize = 0;
+    private int[] scopeMarks = new int[16];
+    private int depth = 0;
+
+    public SymbolTable() {
+        this(SymbolPool.GLOBAL);
+    }
+
+    public SymbolTable(SymbolPool pool) {
+        this.pool = pool;
+    }
+
+    // Identifiant du nom dans le pool, créé à la première rencontre
+    public int intern(String name) {
+        return pool.intern(name);
+    }
+
+    public String name(int symbol) {
+        return pool.name(symbol);
+    }
+
+    public int symbolCount() {
+        return pool.size();
+    }
+
+    // Case du symbole, ou case libre où l'insérer
+    private int slot(int symbol) {
+        int mask = keys.length - 1;
+        int hash = symbol * 0x9E3779B9;
+        for (int slot = (hash ^ (hash >>> 16)) & mask; ; slot = (slot + 1) & mask) {
+            int key = keys[slot];
+            if (key == 0 || key == symbol + 1) {
+                return slot;
+            }
+        }
+    }
+
+    // Case du symbole, créée (sans déclaration visible) s'il n'en a pas encore
+    private int insert(int symbol) {
+        int slot = slot(symbol);
+        if (keys[slot] != 0) {
+            return slot;
+        }
+        if (2 * (used + 1) > keys.length) {
+            grow();
+            slot = slot(symbol);
+        }
+        keys[slot] = symbol + 1;
+        visible[slot] = -1;
+        used++;
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldVisible = visible;
+        int[] oldDepth = visibleDepth;
+        keys = new int[oldKeys.length * 2];
+        visible = new int[keys.length];
+        visibleDepth = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i] - 1);
+                keys[slot] = oldKeys[i];
+                visible[slot] = oldVisible[i];
+                visibleDepth[slot] = oldDepth[i];
+            }
+        }
+    }
+
+    public void enterScope() {
+        if (depth == scopeMarks.length) {
+            scopeMarks = Arrays.copyOf(scopeMarks, depth * 2);
+        }
+        scopeMarks[depth++] = logSize;
+    }
+
+    public void exitScope() {
+        int mark = scopeMarks[--depth];
+        while (logSize > mark) {
+            logSize--;
+            int slot = slot(logSymbol[logSize]);
+            visible[slot] = logDeclaration[logSize];
+            visibleDepth[slot] = logDepth[logSize];
+        }
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    // Rend 'declaration' visible pour 'symbol' dans la portée courante ;
+    // false si le symbole y est déjà déclaré (la déclaration existante reste visible)
+    public boolean declare(int symbol, int declaration) {
+        int slot = insert(symbol);
+        if (visible[slot] >= 0 && visibleDepth[slot] == depth) {
+            return false;
+        }
+        if (logSize == logSymbol.length) {
+            int capacity = logSize * 2;
+            logSymbol = Arrays.copyOf(logSymbol, capacity);
+            logDeclaration = Arrays.copyOf(logDeclaration, capacity);
+            logDepth = Arrays.copyOf(logDepth, capacity);
+        }
+        logSymbol[logSize] = symbol;
+        logDeclaration[logSize] = visible[slot];
+        logDepth[logSize] = visibleDepth[slot];
+        logSize++;
+        visible[slot] = declaration;
+        visibleDepth[slot] = depth;
+        return true;
+    }
+
+    // Déclaration visible du symbole, -1 si aucune
+    public int lookup(int symbol) {
+        int slot = slot(symbol);
+        return keys[slot] != 0 ? visible[slot] : -1;
+    }
+}
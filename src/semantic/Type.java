@@ -0,0 +1,119 @@
+package semantic;
+
+import models.ASTNode;
+import models.NodeKind;
+
+// Types statiques des variables et des expressions
+public enum Type {
+    INT, DOUBLE, BOOLEAN, CHAR, STRING;
+
+    private static final Type[] VALUES = values();
+
+    public boolean isNumeric() {
+        return this == INT || this == DOUBLE || this == CHAR;
+    }
+
+    // Nom du type dans le source, inverse de fromName
+    public String sourceName() {
+        return this == STRING ? "String" : name().toLowerCase();
+    }
+
+    // Type déclaré ("int x" -> INT), null si le type n'est pas pris en charge
+    public static Type fromName(String name) {
+        switch (name) {
+            case "int": return INT;
+            case "double": return DOUBLE;
+            case "boolean": return BOOLEAN;
+            case "char": return CHAR;
+            case "String": return STRING;
+            default: return null;
+        }
+    }
+
+    // Type d'une déclaration ("int x" -> INT) lu sans découper le texte ; null si le type
+    // n'est pas pris en charge ou si le nom manque
+    public static Type ofDeclaration(String declaration) {
+        int space = declaration.indexOf(' ');
+        for (Type type : VALUES) {
+            String name = type.sourceName();
+            if (space == name.length() && declaration.startsWith(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    // Règles de typage des expressions, partagées par l'analyse sémantique, les
+    // générateurs et les optimiseurs ; null : opération invalide (ou opérande inconnu)
+
+    // Littéral NUMBER : double s'il contient un point
+    public static Type ofNumber(String text) {
+        return text.indexOf('.') >= 0 ? DOUBLE : INT;
+    }
+
+    // Moins unaire : double reste double, int et char donnent int
+    public static Type ofNegation(Type operand) {
+        return operand == DOUBLE ? DOUBLE : operand != null && operand.isNumeric() ? INT : null;
+    }
+
+    // Comparaison : deux nombres, ou deux booléens pour == et !=
+    public static Type ofComparison(String op, Type left, Type right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        boolean numeric = left.isNumeric() && right.isNumeric();
+        boolean booleans = left == BOOLEAN && right == BOOLEAN && (op.equals("==") || op.equals("!="));
+        return numeric || booleans ? BOOLEAN : null;
+    }
+
+    // Opérateur binaire : && et || sur des booléens, + avec une chaîne, sinon arithmétique
+    public static Type ofBinary(String op, Type left, Type right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        if (op.equals("&&") || op.equals("||")) {
+            return left == BOOLEAN && right == BOOLEAN ? BOOLEAN : null;
+        }
+        if (op.equals("+") && (left == STRING || right == STRING)) {
+            return STRING;
+        }
+        if (left.isNumeric() && right.isNumeric()) {
+            return left == DOUBLE || right == DOUBLE ? DOUBLE : INT;
+        }
+        return null;
+    }
+
+    // Affectation d'une valeur de type 'value' à une variable de ce type
+    public boolean accepts(Type value) {
+        switch (this) {
+            case INT:
+                return value == INT || value == CHAR;
+            case DOUBLE:
+                return value.isNumeric();
+            default:
+                return value == this;
+        }
+    }
+
+    // Affectation de l'expression 'value', de type 'type' : comme en Java, un int ne va dans
+    // un char que sous forme de littéral compris entre 0 et 65535 (char c = 65;)
+    public boolean accepts(Type type, ASTNode value) {
+        if (this == CHAR && type == INT) {
+            return value.kind == NodeKind.NUMBER && isCharCode(value.value);
+        }
+        return accepts(type);
+    }
+
+    private static boolean isCharCode(String literal) {
+        if (literal.isEmpty() || literal.length() > 5) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return Integer.parseInt(literal) <= Character.MAX_VALUE;
+    }
+}
@@ -0,0 +1,85 @@
+package syntax;
+
+// Erreur d'analyse structurée : un code, le token en cause, l'instruction qui l'a produite
+// et les arguments du message. Le texte n'est construit qu'à l'affichage (message()),
+// jamais à la détection ; {l} y désigne la ligne, pour qu'une réanalyse puisse la décaler.
+public final class Diagnostic {
+    public enum Code {
+        UNKNOWN_STATEMENT("Instruction non reconnue: {0} à la ligne {l}"),
+        INVALID_EXPRESSION("Expression invalide: {0} à la ligne {l}"),
+        EXPECTED_IDENTIFIER("Expected identifier but found '{0}' at line {l}"),
+        UNEXPECTED_TOKEN("{0} mais trouvé '{1}' à la ligne {l}"),
+        MISSING_SEMICOLON_CALL("Expected ';' after method call at line {l}"),
+        MISSING_SEMICOLON_DECLARATION("Expected ';' after declaration at line {l} but found '{0}'"),
+        MISSING_SEMICOLON_ASSIGNMENT("Expected ';' after assignment at line {l}"),
+        MISSING_SEMICOLON_INCREMENT("Expected ';' after increment at line {l}"),
+        MISSING_SEMICOLON_DECREMENT("Expected ';' after decrement at line {l}"),
+        INVALID_ASSIGNMENT("Assignement invalide: {0} at line {l}"),
+        TOO_MANY_ERRORS("Trop d'erreurs ({0}) : analyse arrêtée à la ligne {l}"),
+        FUEL_EXHAUSTED("Budget d'analyse épuisé ({0} pas) : analyse arrêtée à la ligne {l}"),
+        FATAL("Erreur fatale: {0}");
+
+        public final String template;
+
+        Code(String template) {
+            this.template = template;
+        }
+    }
+
+    public final Code code;
+    public final int tokenIndex;       // index du token en cause dans la source de tokens
+    public final int statementStart;   // premier token de l'instruction la plus interne en cours
+    public final boolean closing;      // émise après les sous-instructions ('}' final, else vide)
+    public final int line;
+    private final Object[] args;
+
+    Diagnostic(Code code, int tokenIndex, int statementStart, boolean closing, int line, Object... args) {
+        this.code = code;
+        this.tokenIndex = tokenIndex;
+        this.statementStart = statementStart;
+        this.closing = closing;
+        this.line = line;
+        this.args = args;
+    }
+
+    // Même erreur après une édition qui décale de 'delta' tokens et 'lineDelta' lignes
+    // tout ce qui commence à 'from' ou après (le token en cause est toujours dans ce cas)
+    Diagnostic shifted(int from, int delta, int lineDelta) {
+        int start = statementStart >= from ? statementStart + delta : statementStart;
+        return new Diagnostic(code, tokenIndex + delta, start, closing, line + lineDelta, args);
+    }
+
+    public Object arg(int index) {
+        return args[index];
+    }
+
+    public int argCount() {
+        return args.length;
+    }
+
+    // Remplace {n} par le n-ième argument et {l} par la ligne
+    public String message() {
+        String template = code.template;
+        StringBuilder text = new StringBuilder(template.length() + 16);
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '{' && i + 2 < template.length() && template.charAt(i + 2) == '}') {
+                char index = template.charAt(i + 1);
+                if (index == 'l') {
+                    text.append(line);
+                } else {
+                    text.append(args[index - '0']);
+                }
+                i += 2;
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return message();
+    }
+}
@@ -0,0 +1,21 @@
+package syntax;
+
+import java.io.PrintStream;
+import java.util.List;
+
+// Destination des erreurs d'une analyse, appelée une fois en fin de parse()/reparse()
+// quand il y en a ; c'est elle qui décide de formater (ou non) les messages
+public interface DiagnosticSink {
+    void report(List<Diagnostic> diagnostics);
+
+    // Affichage habituel du compilateur, sur le flux donné
+    static DiagnosticSink print(PrintStream out) {
+        return diagnostics -> {
+            out.println("\n=== ERREURS DÉTECTÉES ===");
+            for (Diagnostic diagnostic : diagnostics) {
+                out.println("❌ " + diagnostic.message());
+            }
+            out.println("========================\n");
+        };
+    }
+}
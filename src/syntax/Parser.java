@@ -5,67 +5,517 @@ import models.*;
 import java.util.*;
 
 public class Parser {
-    private List<Token> tokens;
+    // Résultat d'ouverture d'une instruction composée : ses sous-instructions restent à lire
+    private static final ASTNode PENDING = new ASTNode(NodeKind.ERROR);
+    // Priorité des opérateurs, indexée par ordinal de TokenType (0 : pas un opérateur binaire)
+    private static final int OR = 1, AND = 2, COMPARISON = 3, ADDITIVE = 4, MULTIPLICATIVE = 5, UNARY = 6;
+    private static final int[] PRECEDENCE = new int[Token.TokenType.values().length];
+    static {
+        PRECEDENCE[Token.TokenType.OR_OR.ordinal()] = OR;
+        PRECEDENCE[Token.TokenType.AND_AND.ordinal()] = AND;
+        for (Token.TokenType type : new Token.TokenType[] {
+                Token.TokenType.EQUAL_EQUAL, Token.TokenType.NOT_EQUAL, Token.TokenType.LESS,
+                Token.TokenType.GREATER, Token.TokenType.LESS_EQUAL, Token.TokenType.GREATER_EQUAL}) {
+            PRECEDENCE[type.ordinal()] = COMPARISON;
+        }
+        PRECEDENCE[Token.TokenType.PLUS.ordinal()] = ADDITIVE;
+        PRECEDENCE[Token.TokenType.MINUS.ordinal()] = ADDITIVE;
+        PRECEDENCE[Token.TokenType.MULTIPLY.ordinal()] = MULTIPLICATIVE;
+        PRECEDENCE[Token.TokenType.DIVIDE.ordinal()] = MULTIPLICATIVE;
+        PRECEDENCE[Token.TokenType.MODULO.ordinal()] = MULTIPLICATIVE;
+    }
+    // État d'un groupe de parseExpression vis-à-vis des opérateurs de condition
+    private static final int NO_CONDITION = 0, COMPARISON_FREE = 1, COMPARISON_USED = 2;
+
+    private TokenSource tokens;
     private int position = 0;
-    private List<String> errors = new ArrayList<>();
+    // Piles de parseExpression, réutilisées d'une expression à l'autre
+    private ASTNode[] operands = new ASTNode[16];
+    private ASTNode[] operators = new ASTNode[16];
+    private int[] precedences = new int[16];
+    private int operandCount = 0;
+    private int operatorCount = 0;
+    private int[] groups = new int[8];
+    private int[] groupStates = new int[8];
+    // Erreurs structurées, formatées seulement à l'affichage (voir Diagnostic)
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    private DiagnosticSink sink = DiagnosticSink.print(System.out);
+    // Au-delà de maxErrors erreurs dans une analyse, le reste de l'entrée est ignoré :
+    // currentType() rend EOF et toutes les boucles se terminent d'elles-mêmes
+    private int maxErrors = DEFAULT_MAX_ERRORS;
+    private int errorBase = 0;
+    private boolean stopped = false;
+    // Travail borné : chaque pas (token consommé, instruction ouverte, token attendu,
+    // erreur) coûte une unité de carburant ; budget épuisé : arrêt comme pour maxErrors.
+    // Toute boucle du parser consomme un token ou ferme une construction ouverte par un
+    // token déjà consommé, d'où au plus MAX_STEPS_PER_TOKEN pas par token (voir ParserStressTest).
+    private long fuel = Long.MAX_VALUE;
+    private long steps = 0;
+    // Une seule erreur par position : pas de cascade sur un même token
+    private int lastErrorPosition = -1;
+    // Début de l'instruction la plus interne en cours : chaque erreur y est rattachée,
+    // ce qui permet à reparse de remplacer les erreurs des instructions réanalysées
+    private int statementStart = 0;
+    private boolean closing = false;
+    // Version des lignes de l'arbre en cours : un nouvel arbre par parse(), reparse la garde
+    private StatementNode.LineVersion lineVersion = new StatementNode.LineVersion();
+
+    public static final int DEFAULT_MAX_ERRORS = 100;
+    public static final int MAX_STEPS_PER_TOKEN = 16;
 
     public Parser(List<Token> tokens) {
+        this(TokenSource.of(tokens));
+    }
+
+    // Mode flux : les tokens sont lus au fil de l'analyse, sans liste complète en mémoire
+    public Parser(Lexer lexer) {
+        this(new TokenStream(lexer));
+    }
+
+    // Accepte aussi un TokenBuffer, lu par index sans créer d'objets Token
+    public Parser(TokenSource tokens) {
         this.tokens = tokens;
     }
 
     public ASTNode parse() {
+        diagnostics.clear();
+        position = 0;
+        lineVersion = new StatementNode.LineVersion();
+        start();
         try {
             ASTNode program = parseProgram();
-            if (!errors.isEmpty()) {
+            if (!diagnostics.isEmpty()) {
                 printErrors();
             }
             return program;
         } catch (Exception e) {
-            errors.add("Erreur fatale: " + e.getMessage());
+            fatal(e);
             printErrors();
             return null;
         }
     }
 
-    private ASTNode parseProgram() {
-        ASTNode root = new ASTNode("PROGRAM");
-        while (!isAtEnd() && current().type != Token.TokenType.EOF) {
+    // Réanalyse après une édition du flux (voir IncrementalLexer.edit) : seule la liste
+    // d'instructions la plus profonde qui contient la zone modifiée est réanalysée, à partir
+    // de la première instruction touchée et jusqu'à retomber sur le début d'une ancienne
+    // instruction. Les autres sous-arbres sont conservés tels quels ; l'arbre est mis à
+    // jour en place, de même que les erreurs. Nécessite une source indexée (pas de
+    // TokenStream) et le Parser qui a produit 'previous'.
+    // maxErrors porte sur tout le fichier : si l'ancienne analyse s'est arrêtée ou si la
+    // nouvelle atteint le plafond, l'arbre d'une analyse complète serait tronqué ailleurs,
+    // et c'est elle qui est refaite (un nouvel arbre est alors retourné).
+    public ASTNode reparse(ASTNode previous, TokenChange change) {
+        if (stopped) {
+            return parse();
+        }
+        start();
+        try {
+            List<ASTNode> path = new ArrayList<>();
+            List<Integer> starts = new ArrayList<>();
+            path.add(previous);
+            starts.add(0);
+            findEnclosing(previous, 0, change, path, starts);
+
+            boolean reparsed = false;
+            for (int level = path.size() - 1; level >= 0 && !reparsed && !stopped; level--) {
+                ASTNode node = path.get(level);
+                if (node.kind.isContainer() && reparseBody(node, starts.get(level), change)) {
+                    int delta = change.newEnd - change.oldEnd;
+                    for (int i = level - 1; i >= 0; i--) {
+                        grow(path.get(i), path.get(i + 1), delta, change.lineDelta);
+                    }
+                    reparsed = true;
+                }
+            }
+            if (!reparsed || diagnostics.size() > maxErrors) {
+                return parse();
+            }
+            if (!diagnostics.isEmpty()) {
+                printErrors();
+            }
+            return previous;
+        } catch (Exception e) {
+            fatal(e);
+            printErrors();
+            return null;
+        }
+    }
+
+    // Descend vers les instructions dont les tokens contiennent entièrement la zone modifiée
+    private void findEnclosing(ASTNode node, int nodeStart, TokenChange change,
+                               List<ASTNode> path, List<Integer> starts) {
+        ASTNode child;
+        while ((child = enclosingChild(node, nodeStart, change)) != null) {
+            node = child;
+            nodeStart += child.tokenStart;
+            path.add(node);
+            starts.add(nodeStart);
+        }
+    }
+
+    private ASTNode enclosingChild(ASTNode node, int nodeStart, TokenChange change) {
+        for (ASTNode child : node.children) {
+            if (child.tokenStart < 0) {
+                // Nœud intermédiaire (BODY, THEN, ELSE) : ses instructions sont relatives à node
+                if (isStatementHolder(child)) {
+                    ASTNode inner = enclosingChild(child, nodeStart, change);
+                    if (inner != null) {
+                        return inner;
+                    }
+                }
+                continue;
+            }
+            int childStart = nodeStart + child.tokenStart;
+            if (childStart <= change.start && change.oldEnd < childStart + child.tokenCount) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    // Nœuds sans plage de tokens qui portent une instruction ; les expressions n'en contiennent pas
+    private boolean isStatementHolder(ASTNode node) {
+        return node.kind == NodeKind.BODY || node.kind == NodeKind.THEN || node.kind == NodeKind.ELSE;
+    }
+
+    // Réanalyse la liste d'instructions d'un conteneur ; false si la fin de la liste
+    // ne retombe pas au même endroit (il faut alors remonter d'un niveau)
+    private boolean reparseBody(ASTNode container, int containerStart, TokenChange change) {
+        int bodyStart = containerStart + container.bodyStart;
+        int bodyEnd = containerStart + container.bodyEnd;
+        // Le corps de PROGRAM va jusqu'à EOF, qui peut lui-même avoir été remplacé
+        boolean program = container.kind == NodeKind.PROGRAM;
+        // Un en-tête incomplet (token attendu absent, non consommé) dépend du premier token
+        // de son corps : une modification qui le touche est réanalysée au niveau du parent
+        if (!program && (change.start <= bodyStart || change.oldEnd > bodyEnd)) {
+            return false;
+        }
+        int delta = change.newEnd - change.oldEnd;
+
+        // Première instruction dont les tokens lus (y compris celui qui la suit) sont touchés
+        List<ASTNode> children = container.children;
+        int first = 0;
+        int restart = bodyStart;
+        while (first < children.size()) {
+            ASTNode child = children.get(first);
+            if (child.tokenStart >= 0) {
+                int childEnd = containerStart + child.tokenStart + child.tokenCount;
+                if (childEnd >= change.start) {
+                    break;
+                }
+                restart = childEnd;
+            }
+            first++;
+        }
+
+        int savedErrors = diagnostics.size();
+        // Une seule erreur par token : la dernière erreur émise avant la zone compte aussi.
+        // Le plafond compte les erreurs émises avant la zone, comme dans une analyse complète.
+        lastErrorPosition = -1;
+        errorBase = savedErrors;
+        for (int i = 0; i < savedErrors; i++) {
+            if (isBefore(diagnostics.get(i), restart)) {
+                lastErrorPosition = diagnostics.get(i).tokenIndex;
+                errorBase--;
+            }
+        }
+        position = restart;
+        List<ASTNode> parsed = new ArrayList<>();
+        int resync = first;
+        boolean resynced = false;
+        while (!isAtEnd() && (program || currentType() != Token.TokenType.RBRACE)) {
+            if (position >= change.newEnd) {
+                while (resync < children.size() && containerStart + children.get(resync).tokenStart + delta < position) {
+                    resync++;
+                }
+                // Pas de reprise là où une ancienne erreur a masqué celle de l'instruction suivante
+                if (resync < children.size() && containerStart + children.get(resync).tokenStart + delta == position
+                        && (lastErrorPosition == position
+                            || !erredAt(savedErrors, restart, containerStart + children.get(resync).tokenStart))) {
+                    resynced = true;
+                    break;
+                }
+            }
             ASTNode statement = parseStatement();
             if (statement != null) {
-                root.addChild(statement);
+                parsed.add(statement);
+            }
+        }
+        // Arrêt (maxErrors, budget) : reparse refait une analyse complète
+        if (stopped) {
+            diagnostics.subList(savedErrors, diagnostics.size()).clear();
+            return false;
+        }
+        if (!resynced) {
+            // Fin de liste ailleurs, ou erreur du '}' final masquée par une ancienne erreur
+            // au même token : il faut remonter d'un niveau
+            if (position != bodyEnd + delta
+                    || !program && lastErrorPosition != position && erredAt(savedErrors, restart, bodyEnd)) {
+                diagnostics.subList(savedErrors, diagnostics.size()).clear();
+                return false;
             }
+            resync = children.size();
+        }
+        int oldStop = resync < children.size() ? containerStart + children.get(resync).tokenStart : bodyEnd;
+        replaceDiagnostics(savedErrors, restart, oldStop, delta, change.lineDelta);
+
+        // Remplacement des instructions réanalysées, décalage des suivantes
+        children.subList(first, resync).clear();
+        for (ASTNode statement : parsed) {
+            statement.tokenStart -= containerStart;
+            attachLine(statement, container);
         }
+        children.addAll(first, parsed);
+        for (int i = first + parsed.size(); i < children.size(); i++) {
+            children.get(i).tokenStart += delta;
+            children.get(i).shiftLine(change.lineDelta);
+        }
+        container.bodyEnd += delta;
+        container.tokenCount += delta;
+        return true;
+    }
+
+    // Les erreurs sont émises dans l'ordre des tokens, rattachées à l'instruction en cours.
+    // Pour une zone réanalysée [restart, oldStop[ d'une liste d'instructions (restart < oldStop) :
+    // une erreur vient après la zone si son instruction commence à oldStop ou plus loin, ou
+    // si elle englobe la zone et a été émise après ses sous-instructions (closing, donc au-delà
+    // de restart) ; avant la zone si son instruction commence avant restart ; sinon elle
+    // appartient à la zone.
+    private static boolean isAfter(Diagnostic diagnostic, int restart, int oldStop) {
+        return diagnostic.statementStart >= oldStop || isEnclosingClose(diagnostic, restart);
+    }
+
+    private static boolean isBefore(Diagnostic diagnostic, int restart) {
+        return diagnostic.statementStart < restart && !isEnclosingClose(diagnostic, restart);
+    }
+
+    private static boolean isEnclosingClose(Diagnostic diagnostic, int restart) {
+        return diagnostic.statementStart < restart && diagnostic.closing && diagnostic.tokenIndex > restart;
+    }
+
+    // Ancienne erreur (avant savedErrors) sur le token 'at', émise avant l'instruction qui y
+    // commence ; elle a pu masquer une erreur de cette instruction (une seule par token)
+    private boolean erredAt(int savedErrors, int restart, int at) {
+        for (int i = 0; i < savedErrors; i++) {
+            Diagnostic diagnostic = diagnostics.get(i);
+            if (diagnostic.tokenIndex == at && !isAfter(diagnostic, restart, at)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Les erreurs de la zone [restart, oldStop[ sont remplacées par celles de la réanalyse
+    // (au-delà de savedErrors) ; les suivantes sont décalées comme leurs tokens
+    private void replaceDiagnostics(int savedErrors, int restart, int oldStop, int delta, int lineDelta) {
+        List<Diagnostic> merged = new ArrayList<>(diagnostics.size());
+        List<Diagnostic> after = new ArrayList<>();
+        for (int i = 0; i < savedErrors; i++) {
+            Diagnostic diagnostic = diagnostics.get(i);
+            if (isBefore(diagnostic, restart)) {
+                merged.add(diagnostic);
+            } else if (isAfter(diagnostic, restart, oldStop)
+                       && !(diagnostic.tokenIndex == oldStop && lastErrorPosition == oldStop + delta)) {
+                // Sauf si la réanalyse a déjà une erreur sur ce token
+                after.add(diagnostic.shifted(oldStop, delta, lineDelta));
+            }
+        }
+        merged.addAll(diagnostics.subList(savedErrors, diagnostics.size()));
+        merged.addAll(after);
+        diagnostics.clear();
+        diagnostics.addAll(merged);
+    }
+
+    // Répercute le changement de taille de 'inner' sur son ancêtre 'node'
+    private void grow(ASTNode node, ASTNode inner, int delta, int lineDelta) {
+        if (delta != 0 || lineDelta != 0) {
+            shiftAfter(node, inner.tokenStart, delta, lineDelta);
+        }
+        node.tokenCount += delta;
+        if (node.kind.isContainer()) {
+            node.bodyEnd += delta;
+        }
+    }
+
+    private void shiftAfter(ASTNode node, int after, int delta, int lineDelta) {
+        for (ASTNode child : node.children) {
+            if (child.tokenStart < 0) {
+                if (isStatementHolder(child)) {
+                    shiftAfter(child, after, delta, lineDelta);
+                }
+            } else if (child.tokenStart > after) {
+                child.tokenStart += delta;
+                child.shiftLine(lineDelta);
+            }
+        }
+    }
+
+    private ASTNode parseProgram() {
+        ASTNode root = new ASTNode(NodeKind.PROGRAM);
+        parseStatements(root, Token.TokenType.EOF);
+        root.tokenStart = 0;
+        root.tokenCount = position;
         return root;
     }
 
+    // Liste d'instructions d'un conteneur, jusqu'à 'end' (exclu) ou la fin du flux
+    private void parseStatements(ASTNode container, Token.TokenType end) {
+        container.bodyStart = position;
+        while (!isAtEnd() && currentType() != end) {
+            ASTNode statement = parseStatement();
+            if (statement != null) {
+                container.addChild(statement);
+            }
+        }
+        container.bodyEnd = position;
+    }
+
+    // Instruction composée (classe, méthode, bloc, while, if) dont les sous-instructions
+    // sont en cours de lecture
+    private static final class Frame {
+        final ASTNode node;
+        final int start;
+        final String closeMessage;  // conteneurs : message si le '}' final manque
+        int step = 0;               // if : 0 avant THEN, 1 après THEN, 2 après ELSE
+
+        Frame(ASTNode node, int start, String closeMessage) {
+            this.node = node;
+            this.start = start;
+            this.closeMessage = closeMessage;
+        }
+    }
+
+    // Les instructions imbriquées sont gardées sur une pile explicite plutôt que sur la
+    // pile d'appels Java : aucune limite de profondeur hormis la mémoire
     private ASTNode parseStatement() {
+        Deque<Frame> stack = new ArrayDeque<>();
+        ASTNode result = openStatement(stack);
+        while (!stack.isEmpty()) {
+            result = resume(stack.peek(), result, stack);
+        }
+        return result;
+    }
+
+    // Corps d'un while ou d'un if : un '}' n'est pas consommé, il ferme le conteneur englobant
+    private ASTNode openBody(Deque<Frame> stack) {
+        Token.TokenType type = currentType();
+        if (type == Token.TokenType.RBRACE || type == Token.TokenType.EOF) {
+            error(Diagnostic.Code.UNKNOWN_STATEMENT, tokens.line(position), tokens.value(position));
+            return null;
+        }
+        return openStatement(stack);
+    }
+
+    // Lit une instruction simple, ou l'en-tête d'une instruction composée (qui est empilée)
+    private ASTNode openStatement(Deque<Frame> stack) {
+        int start = position;
+        statementStart = start;
+        closing = false;
+        tick();
+        ASTNode statement = parseStatementBody(stack, start);
+        if (statement != null && statement != PENDING) {
+            statement.tokenStart = start;
+            statement.tokenCount = position - start;
+        }
+        return statement;
+    }
+
+    private ASTNode open(Deque<Frame> stack, ASTNode node, int start, String closeMessage) {
+        stack.push(new Frame(node, start, closeMessage));
+        return PENDING;
+    }
+
+    // Reprend l'instruction composée au sommet de la pile avec la sous-instruction qui
+    // vient d'être lue (PENDING si elle vient d'être ouverte). Retourne la sous-instruction
+    // suivante, ou l'instruction elle-même une fois terminée et dépilée.
+    // Les plages sont rendues relatives dès qu'une instruction est rattachée à son parent :
+    // seule l'instruction retournée par parseStatement garde un début absolu.
+    private ASTNode resume(Frame frame, ASTNode child, Deque<Frame> stack) {
+        ASTNode node = frame.node;
+        // Après une sous-instruction, les erreurs de l'instruction composée viennent après elle
+        statementStart = frame.start;
+        closing = child != PENDING;
+        if (child != null && child != PENDING) {
+            child.tokenStart -= frame.start;
+            attachLine(child, node);
+        }
+        switch (node.kind) {
+            case WHILE:
+                if (child == PENDING) {
+                    return openBody(stack);
+                }
+                if (child != null) {
+                    node.addChild(new ASTNode(NodeKind.BODY).addChild(child));
+                }
+                break;
+            case IF:
+                if (child == PENDING) {
+                    return openBody(stack);
+                }
+                if (frame.step == 0) {
+                    if (child != null) {
+                        node.addChild(new ASTNode(NodeKind.THEN).addChild(child));
+                    }
+                    if (currentType() == Token.TokenType.ELSE) {
+                        advance();
+                        frame.step = 1;
+                        return openBody(stack);
+                    }
+                } else if (child != null) {
+                    node.addChild(new ASTNode(NodeKind.ELSE).addChild(child));
+                }
+                break;
+            default:
+                // Conteneur : liste d'instructions jusqu'au '}'
+                if (child != null && child != PENDING) {
+                    node.addChild(child);
+                }
+                if (!isAtEnd() && currentType() != Token.TokenType.RBRACE) {
+                    return openStatement(stack);
+                }
+                node.bodyEnd = position;
+                closing = true;
+                expect(Token.TokenType.RBRACE, frame.closeMessage);
+                break;
+        }
+        stack.pop();
+        node.tokenStart = frame.start;
+        node.tokenCount = position - frame.start;
+        if (node.kind.isContainer()) {
+            node.bodyStart -= frame.start;
+            node.bodyEnd -= frame.start;
+        }
+        return node;
+    }
+
+    private ASTNode parseStatementBody(Deque<Frame> stack, int start) {
         // 1. Consommer tous les modificateurs disponibles
         List<Token> modifiers = new ArrayList<>();
-        while (isModifier(current().type)) {
+        while (isModifier(currentType())) {
             modifiers.add(current());
             advance();
         }
 
-        Token token = current();
+        Token.TokenType type = currentType();
 
         // 2. Reconnaître la déclaration de classe
-        if (token.type == Token.TokenType.CLASS) {
-            return parseClass(modifiers);
+        if (type == Token.TokenType.CLASS) {
+            return open(stack, parseClass(modifiers), start, "Expected '}' to close class body");
         }
 
         // 3. Reconnaître la déclaration de méthode
-        if (isReturnType(token.type)) {
-            if (isLikelyMethod(modifiers, token)) {
-                return parseMethod(modifiers);
+        if (isReturnType(type)) {
+            if (isLikelyMethod(modifiers, type)) {
+                return open(stack, parseMethod(modifiers), start, "Expected '}' to close method body");
             } else {
                 return parseDeclaration();
             }
         }
 
         // 4. Instructions usuelles
-        switch (token.type) {
-            case WHILE: return parseWhile();
-            case IF: return parseIf();
+        switch (type) {
+            case WHILE: return open(stack, parseWhile(), start, null);
+            case IF: return open(stack, parseIf(), start, null);
             case STRING:  
             case CHAR:
             case INT:  
@@ -74,54 +524,45 @@ public class Parser {
             case JUGURTA:
             case TOUATI:
            
-                if (!modifiers.isEmpty() || token.type == Token.TokenType.VOID) {
-                    return parseMethod(modifiers);
+                if (!modifiers.isEmpty() || type == Token.TokenType.VOID) {
+                    return open(stack, parseMethod(modifiers), start, "Expected '}' to close method body");
                 } else {
                     return parseDeclaration();
                 }
             case IDENTIFIER: 
                 // Vérifier si c'est un appel de méthode ou une assignation
-                if (peek().type == Token.TokenType.LPAREN) {
+                if (peekType() == Token.TokenType.LPAREN) {
                     return parseMethodCall();
                 } else {
                     return parseAssignment();
                 }
-            case LBRACE: return parseBlock();
+            case SYSTEM:
+                // System.out.println(...) : 'System', 'out' et 'println' sont des mots-clés du lexer
+                return parseMethodCall();
+            case LBRACE: return open(stack, parseBlock(), start, "Expected '}'");
             default:
-                errors.add("Instruction non reconnue: " + token.value + " à la ligne " + token.line);
+                error(Diagnostic.Code.UNKNOWN_STATEMENT, tokens.line(position), tokens.value(position));
                 advance();
                 return null;
         }
     }
 
     // Nouvelle méthode pour détecter si c'est une méthode
-    private boolean isLikelyMethod(List<Token> modifiers, Token typeToken) {
+    private boolean isLikelyMethod(List<Token> modifiers, Token.TokenType type) {
         // Si on a des modificateurs, c'est une méthode
         if (!modifiers.isEmpty()) {
             return true;
         }
         
         // Si c'est 'void', c'est une méthode
-        if (typeToken.type == Token.TokenType.VOID) {
+        if (type == Token.TokenType.VOID) {
             return true;
         }
         
-        // Regarder les tokens suivants pour détecter une signature de méthode
-        int savedPosition = position;
-        try {
-            advance(); // passer le type
-            
-            // Si le prochain token est un identifiant suivi de '(', c'est une méthode
-            if (current().type == Token.TokenType.IDENTIFIER) {
-                advance();
-                if (current().type == Token.TokenType.LPAREN) {
-                    return true;
-                }
-            }
-            return false;
-        } finally {
-            position = savedPosition;
-        }
+        // Regarder les tokens suivants pour détecter une signature de méthode :
+        // type suivi d'un identifiant puis de '(' (lookahead, sans retour arrière)
+        return peekType() == Token.TokenType.IDENTIFIER &&
+               peekNextType() == Token.TokenType.LPAREN;
     }
 
     private boolean isModifier(Token.TokenType type) {
@@ -143,77 +584,82 @@ public class Parser {
                type == Token.TokenType.TOUATI;
     }
 
-    private Token peek() {
-        if (position + 1 < tokens.size()) {
-            return tokens.get(position + 1);
-        }
-        return tokens.get(tokens.size() - 1);
+    private Token.TokenType peekType() {
+        return tokens.type(position + 1);
     }
 
-    private Token peekNext() {
-        if (position + 2 < tokens.size()) {
-            return tokens.get(position + 2);
-        }
-        return tokens.get(tokens.size() - 1);
+    private Token.TokenType peekNextType() {
+        return tokens.type(position + 2);
     }
 
+    // En-têtes des instructions composées : le corps est lu ensuite par resume()
     private ASTNode parseClass(List<Token> modifiers) {
-        consume(Token.TokenType.CLASS, "Expected 'class' keyword");
+        expect(Token.TokenType.CLASS, "Expected 'class' keyword");
         Token nameToken = consume(Token.TokenType.IDENTIFIER, "Expected class name");
-        ASTNode classNode = new ASTNode("CLASS");
-        classNode.value = nameToken.value;
-        classNode.line = nameToken.line;
+        ASTNode classNode = statement(NodeKind.CLASS);
+        classNode.value = nameToken.value();
+        classNode.setLine(nameToken.line);
         for (Token mod : modifiers) {
-            classNode.addChild(new ASTNode("MODIFIER", mod.value, mod.line));
+            classNode.addChild(new StatementNode(NodeKind.MODIFIER, mod.value(), mod.line, lineVersion));
         }
+        attachHeaderLines(classNode);
         
-        consume(Token.TokenType.LBRACE, "Expected '{' to start class body");
-        while (!isAtEnd() && current().type != Token.TokenType.RBRACE) {
-            ASTNode statement = parseStatement();
-            if (statement != null) {
-                classNode.addChild(statement);
-            }
-        }
-        consume(Token.TokenType.RBRACE, "Expected '}' to close class body");
+        expect(Token.TokenType.LBRACE, "Expected '{' to start class body");
+        classNode.bodyStart = position;
         return classNode;
     }
 
+    // Modificateurs et type de retour suivent la ligne de leur déclaration lors d'une réanalyse
+    private void attachHeaderLines(ASTNode declaration) {
+        for (ASTNode child : declaration.children) {
+            attachLine(child, declaration);
+        }
+    }
+
+    // Instructions et en-têtes : lignes rattachables, versionnées par arbre (voir StatementNode)
+    private StatementNode statement(NodeKind kind) {
+        return new StatementNode(kind, lineVersion);
+    }
+
+    private static void attachLine(ASTNode node, ASTNode parent) {
+        if (node instanceof StatementNode) {
+            ((StatementNode) node).attachLine(parent);
+        }
+    }
+
     private ASTNode parseMethod(List<Token> modifiers) {
         Token returnType = current();
         advance(); // consomme le type
-        Token nameToken = consume(Token.TokenType.IDENTIFIER, "Expected method name");
-        ASTNode methodNode = new ASTNode("METHOD");
-        methodNode.value = nameToken.value;
-        methodNode.line = nameToken.line;
-        methodNode.addChild(new ASTNode("RETURN_TYPE", returnType.value, returnType.line));
+        // 'main' est un mot-clé du lexer, mais un nom de méthode valide
+        Token.TokenType nameType = currentType() == Token.TokenType.MAIN ? Token.TokenType.MAIN : Token.TokenType.IDENTIFIER;
+        Token nameToken = consume(nameType, "Expected method name");
+        ASTNode methodNode = statement(NodeKind.METHOD);
+        methodNode.value = nameToken.value();
+        methodNode.setLine(nameToken.line);
+        methodNode.addChild(new StatementNode(NodeKind.RETURN_TYPE, returnType.value(), returnType.line, lineVersion));
         for (Token mod : modifiers) {
-            methodNode.addChild(new ASTNode("MODIFIER", mod.value, mod.line));
-        }
-        consume(Token.TokenType.LPAREN, "Expected '(' for method parameters");
-        // ignore les paramètres
-        while (!isAtEnd() && current().type != Token.TokenType.RPAREN) advance();
-        consume(Token.TokenType.RPAREN, "Expected ')' after method parameters");
-        consume(Token.TokenType.LBRACE, "Expected '{' to start method body");
-        while (!isAtEnd() && current().type != Token.TokenType.RBRACE) {
-            ASTNode statement = parseStatement();
-            if (statement != null) {
-                methodNode.addChild(statement);
-            }
+            methodNode.addChild(new StatementNode(NodeKind.MODIFIER, mod.value(), mod.line, lineVersion));
         }
-        consume(Token.TokenType.RBRACE, "Expected '}' to close method body");
+        attachHeaderLines(methodNode);
+        expect(Token.TokenType.LPAREN, "Expected '(' for method parameters");
+        // ignore les paramètres, sans dépasser la fin de l'en-tête
+        while (!isAtEnd() && currentType() != Token.TokenType.RPAREN && !isStatementBoundary(currentType())) advance();
+        expect(Token.TokenType.RPAREN, "Expected ')' after method parameters");
+        expect(Token.TokenType.LBRACE, "Expected '{' to start method body");
+        methodNode.bodyStart = position;
         return methodNode;
     }
 
     // Nouvelle méthode pour parser les appels de méthode
     private ASTNode parseMethodCall() {
-        Token firstToken = current();
+        int firstLine = tokens.line(position);
         StringBuilder methodName = new StringBuilder();
         
         // Construire le nom complet de la méthode (peut être System.out.println)
-        while (current().type == Token.TokenType.IDENTIFIER) {
-            methodName.append(current().value);
+        while (isNamePart(currentType())) {
+            methodName.append(tokens.value(position));
             advance();
-            if (current().type == Token.TokenType.DOT) {
+            if (currentType() == Token.TokenType.DOT) {
                 methodName.append(".");
                 advance();
             } else {
@@ -221,146 +667,199 @@ public class Parser {
             }
         }
         
-        ASTNode methodCall = new ASTNode("METHOD_CALL");
+        ASTNode methodCall = statement(NodeKind.METHOD_CALL);
         methodCall.value = methodName.toString();
-        methodCall.line = firstToken.line;
+        methodCall.setLine(firstLine);
         
-        consume(Token.TokenType.LPAREN, "Expected '(' after method name");
+        expect(Token.TokenType.LPAREN, "Expected '(' after method name");
         
-        // Parser les arguments (simplifié)
-        while (!isAtEnd() && current().type != Token.TokenType.RPAREN) {
+        // Parser les arguments (simplifié) ; un ';' ou une accolade termine l'appel
+        while (!isAtEnd() && currentType() != Token.TokenType.RPAREN && !isStatementBoundary(currentType())) {
             ASTNode arg = parseExpression();
             if (arg != null) {
-                methodCall.addChild(new ASTNode("ARGUMENT").addChild(arg));
+                methodCall.addChild(new ASTNode(NodeKind.ARGUMENT).addChild(arg));
             }
-            if (current().type == Token.TokenType.COMMA) {
+            if (currentType() == Token.TokenType.COMMA) {
                 advance();
             }
         }
         
-        consume(Token.TokenType.RPAREN, "Expected ')' after method arguments");
+        expect(Token.TokenType.RPAREN, "Expected ')' after method arguments");
         
         // Consommer le point-virgule s'il est présent
-        if (current().type == Token.TokenType.SEMICOLON) {
+        if (currentType() == Token.TokenType.SEMICOLON) {
             advance();
         } else {
-            errors.add("Expected ';' after method call at line " + firstToken.line);
+            error(Diagnostic.Code.MISSING_SEMICOLON_CALL, firstLine);
         }
         
         return methodCall;
     }
 
+    private boolean isNamePart(Token.TokenType type) {
+        return type == Token.TokenType.IDENTIFIER ||
+               type == Token.TokenType.SYSTEM ||
+               type == Token.TokenType.OUT ||
+               type == Token.TokenType.PRINT ||
+               type == Token.TokenType.PRINTLN;
+    }
+
     private ASTNode parseWhile() {
-        Token whileToken = consume(Token.TokenType.WHILE, "Expected 'while'");
-        ASTNode whileNode = new ASTNode("WHILE");
-        whileNode.line = whileToken.line;
+        int whileLine = tokens.line(position);
+        expect(Token.TokenType.WHILE, "Expected 'while'");
+        ASTNode whileNode = statement(NodeKind.WHILE);
+        whileNode.setLine(whileLine);
 
-        consume(Token.TokenType.LPAREN, "Expected '(' après 'while'");
+        expect(Token.TokenType.LPAREN, "Expected '(' après 'while'");
         
         ASTNode condition = parseCondition();
-        whileNode.addChild(new ASTNode("CONDITION").addChild(condition));
-
-        consume(Token.TokenType.RPAREN, "Expected ')' pour fermer la condition");
-
-        ASTNode body = parseStatement();
-        if (body != null) {
-            whileNode.addChild(new ASTNode("BODY").addChild(body));
-        }
+        whileNode.addChild(new ASTNode(NodeKind.CONDITION).addChild(condition));
 
+        expect(Token.TokenType.RPAREN, "Expected ')' pour fermer la condition");
         return whileNode;
     }
 
     private ASTNode parseCondition() {
-        ASTNode left = parseExpression();
-        
-        if (isComparisonOperator()) {
-            Token op = current();
-            advance();
-            ASTNode right = parseExpression();
-            
-            ASTNode comparison = new ASTNode("COMPARISON");
-            comparison.value = op.value;
-            comparison.addChild(left);
-            comparison.addChild(right);
-            return comparison;
-        }
-        
-        return left;
+        return parseExpression(true);
     }
 
-    private boolean isComparisonOperator() {
-        Token token = current();
-        return token.type == Token.TokenType.EQUAL_EQUAL ||
-               token.type == Token.TokenType.NOT_EQUAL ||
-               token.type == Token.TokenType.LESS ||
-               token.type == Token.TokenType.GREATER ||
-               token.type == Token.TokenType.LESS_EQUAL ||
-               token.type == Token.TokenType.GREATER_EQUAL;
+    private ASTNode parseExpression() {
+        return parseExpression(false);
     }
 
-    private ASTNode parseExpression() {
-        ASTNode left = parseTerm();
+    // Analyse par priorités, pilotée par la table PRECEDENCE, avec deux piles (opérandes,
+    // opérateurs) : un seul appel par expression, sans récursion, quelle que soit la
+    // profondeur des parenthèses.
+    //   condition  := expression (('&&' | '||' | comparaison) expression)*
+    //   expression := opérande (('+' | '-' | '*' | '/' | '%') opérande)*
+    //   opérande   := '-'* (facteur | '(' condition ')')
+    // '||' < '&&' < comparaison < '+' '-' < '*' '/' '%' < '-' unaire ; une comparaison
+    // n'est pas associative. Hors parenthèses, seule une condition (if, while) accepte
+    // '&&', '||' et les comparaisons.
+    private ASTNode parseExpression(boolean condition) {
+        operandCount = 0;
+        operatorCount = 0;
+        int depth = 0;
+        groups[0] = 0;
+        groupStates[0] = condition ? COMPARISON_FREE : NO_CONDITION;
 
-        while (current().type == Token.TokenType.PLUS || current().type == Token.TokenType.MINUS) {
-            Token op = current();
-            advance();
-            ASTNode right = parseTerm();
-            
-            ASTNode binary = new ASTNode("BINARY_OP");
-            binary.value = op.value;
-            binary.addChild(left);
-            binary.addChild(right);
-            left = binary;
+        while (true) {
+            // Opérande, précédé de '(' et de '-' unaires
+            while (true) {
+                Token.TokenType type = currentType();
+                if (type == Token.TokenType.LPAREN) {
+                    advance();
+                    if (++depth == groups.length) {
+                        groups = Arrays.copyOf(groups, depth * 2);
+                        groupStates = Arrays.copyOf(groupStates, depth * 2);
+                    }
+                    groups[depth] = operatorCount;
+                    groupStates[depth] = COMPARISON_FREE;
+                } else if (type == Token.TokenType.MINUS) {
+                    pushOperator(new ASTNode(NodeKind.UNARY_OP, "-", 0), UNARY);
+                    advance();
+                } else {
+                    break;
+                }
+            }
+            pushOperand(parseFactor());
+
+            // Opérateur binaire, ou fin d'un ou plusieurs groupes
+            while (true) {
+                int precedence = PRECEDENCE[currentType().ordinal()];
+                if (precedence != 0 && precedence <= COMPARISON) {
+                    int state = groupStates[depth];
+                    if (state == NO_CONDITION || (precedence == COMPARISON && state == COMPARISON_USED)) {
+                        precedence = 0;
+                    } else {
+                        groupStates[depth] = precedence == COMPARISON ? COMPARISON_USED : COMPARISON_FREE;
+                    }
+                }
+                if (precedence != 0) {
+                    reduce(groups[depth], precedence);
+                    NodeKind kind = precedence == COMPARISON ? NodeKind.COMPARISON : NodeKind.BINARY_OP;
+                    pushOperator(new ASTNode(kind, tokens.value(position), 0), precedence);
+                    advance();
+                    break;
+                }
+                reduce(groups[depth], OR);
+                if (depth == 0) {
+                    return popOperand();
+                }
+                depth--;
+                expect(Token.TokenType.RPAREN, "Expected ')'");
+            }
         }
+    }
 
-        return left;
+    // Applique les opérateurs du groupe (au-dessus de 'base') de priorité >= minimum
+    private void reduce(int base, int minimum) {
+        while (operatorCount > base && precedences[operatorCount - 1] >= minimum) {
+            ASTNode operator = operators[--operatorCount];
+            operators[operatorCount] = null;
+            if (operator.kind == NodeKind.UNARY_OP) {
+                operator.addChild(popOperand());
+            } else {
+                ASTNode right = popOperand();
+                operator.addChild(popOperand());
+                operator.addChild(right);
+            }
+            pushOperand(operator);
+        }
     }
 
-    private ASTNode parseTerm() {
-        ASTNode left = parseFactor();
+    private void pushOperator(ASTNode operator, int precedence) {
+        if (operatorCount == operators.length) {
+            operators = Arrays.copyOf(operators, operatorCount * 2);
+            precedences = Arrays.copyOf(precedences, operatorCount * 2);
+        }
+        operators[operatorCount] = operator;
+        precedences[operatorCount++] = precedence;
+    }
 
-        while (current().type == Token.TokenType.MULTIPLY || 
-               current().type == Token.TokenType.DIVIDE || 
-               current().type == Token.TokenType.MODULO) {
-            Token op = current();
-            advance();
-            ASTNode right = parseFactor();
-            
-            ASTNode binary = new ASTNode("BINARY_OP");
-            binary.value = op.value;
-            binary.addChild(left);
-            binary.addChild(right);
-            left = binary;
+    private void pushOperand(ASTNode operand) {
+        if (operandCount == operands.length) {
+            operands = Arrays.copyOf(operands, operandCount * 2);
         }
+        operands[operandCount++] = operand;
+    }
 
-        return left;
+    private ASTNode popOperand() {
+        ASTNode operand = operands[--operandCount];
+        operands[operandCount] = null;
+        return operand;
     }
 
+    // Les parenthèses sont traitées par parseExpression
     private ASTNode parseFactor() {
-        Token token = current();
+        Token.TokenType type = currentType();
 
-        if (token.type == Token.TokenType.NUMBER) {
+        if (type == Token.TokenType.NUMBER) {
+            String value = tokens.value(position);
             advance();
-            ASTNode numberNode = new ASTNode("NUMBER");
-            numberNode.value = token.value;
+            ASTNode numberNode = new ASTNode(NodeKind.NUMBER);
+            numberNode.value = value;
             return numberNode;
         }
 
-        if (token.type == Token.TokenType.IDENTIFIER) {
+        if (type == Token.TokenType.IDENTIFIER) {
+            String value = tokens.value(position);
+            int symbol = tokens.symbol(position);
             advance();
-            ASTNode idNode = new ASTNode("IDENTIFIER");
-            idNode.value = token.value;
+            ASTNode idNode = new ASTNode(NodeKind.IDENTIFIER);
+            idNode.value = value;
+            idNode.symbol = symbol;
             
             // Vérifier ++, --
-            if (current().type == Token.TokenType.PLUS_PLUS) {
+            if (currentType() == Token.TokenType.PLUS_PLUS) {
                 advance();
-                ASTNode postInc = new ASTNode("POST_INCREMENT");
+                ASTNode postInc = new ASTNode(NodeKind.POST_INCREMENT);
                 postInc.addChild(idNode);
                 return postInc;
             }
-            if (current().type == Token.TokenType.MINUS_MINUS) {
+            if (currentType() == Token.TokenType.MINUS_MINUS) {
                 advance();
-                ASTNode postDec = new ASTNode("POST_DECREMENT");
+                ASTNode postDec = new ASTNode(NodeKind.POST_DECREMENT);
                 postDec.addChild(idNode);
                 return postDec;
             }
@@ -368,71 +867,56 @@ public class Parser {
             return idNode;
         }
 
-        if (token.type == Token.TokenType.LPAREN) {
+        if (type == Token.TokenType.STRING_LITERAL) {
+            String value = tokens.value(position);
             advance();
-            ASTNode expr = parseCondition();
-            consume(Token.TokenType.RPAREN, "Expected ')'");
-            return expr;
+            ASTNode stringNode = new ASTNode(NodeKind.STRING_LITERAL);
+            stringNode.value = value;
+            return stringNode;
         }
 
-        if (token.type == Token.TokenType.STRING_LITERAL) {
+        error(Diagnostic.Code.INVALID_EXPRESSION, tokens.line(position), tokens.value(position));
+        // Un séparateur est laissé à l'instruction ou à l'appel qui l'attend
+        if (!isStatementBoundary(type) && type != Token.TokenType.RPAREN && type != Token.TokenType.COMMA) {
             advance();
-            ASTNode stringNode = new ASTNode("STRING_LITERAL");
-            stringNode.value = token.value;
-            return stringNode;
         }
-
-        errors.add("Expression invalide: " + token.value + " à la ligne " + token.line);
-        advance();
-        return new ASTNode("ERROR");
+        return new ASTNode(NodeKind.ERROR);
     }
 
     private ASTNode parseIf() {
-        Token ifToken = consume(Token.TokenType.IF, "Expected 'if'");
-        ASTNode ifNode = new ASTNode("IF");
-        ifNode.line = ifToken.line;
+        int ifLine = tokens.line(position);
+        expect(Token.TokenType.IF, "Expected 'if'");
+        ASTNode ifNode = statement(NodeKind.IF);
+        ifNode.setLine(ifLine);
 
-        consume(Token.TokenType.LPAREN, "Expected '(' après 'if'");
+        expect(Token.TokenType.LPAREN, "Expected '(' après 'if'");
         ASTNode condition = parseCondition();
-        ifNode.addChild(new ASTNode("CONDITION").addChild(condition));
-        consume(Token.TokenType.RPAREN, "Expected ')'");
-
-        ASTNode thenBody = parseStatement();
-        if (thenBody != null) {
-            ifNode.addChild(new ASTNode("THEN").addChild(thenBody));
-        }
-
-        if (current().type == Token.TokenType.ELSE) {
-            advance();
-            ASTNode elseBody = parseStatement();
-            if (elseBody != null) {
-                ifNode.addChild(new ASTNode("ELSE").addChild(elseBody));
-            }
-        }
-
+        ifNode.addChild(new ASTNode(NodeKind.CONDITION).addChild(condition));
+        expect(Token.TokenType.RPAREN, "Expected ')'");
         return ifNode;
     }
 
     private ASTNode parseDeclaration() {
-        //System.out.println("DEBUG: parseDeclaration() started with token: " + current().value);
+        //System.out.println("DEBUG: parseDeclaration() started with token: " + current().value());
         Token typeToken = current();
         advance();
 
         // Vérifier qu'on a bien un identifiant
-        if (current().type != Token.TokenType.IDENTIFIER) {
-            errors.add("Expected identifier but found '" + current().value + "' at line " + current().line);
+        if (currentType() != Token.TokenType.IDENTIFIER) {
+            error(Diagnostic.Code.EXPECTED_IDENTIFIER, tokens.line(position), tokens.value(position));
             return null;
         }
         
         Token idToken = current();
         advance();
         
-        ASTNode declaration = new ASTNode("DECLARATION");
-        declaration.line = typeToken.line;
-        declaration.value = typeToken.value + " " + idToken.value;
+        ASTNode declaration = statement(NodeKind.DECLARATION);
+        declaration.setLine(typeToken.line);
+        declaration.value = typeToken.value() + " " + idToken.value();
+        declaration.symbol = idToken.symbol();
 
         // Gestion de l'initialisation optionnelle
-        if (current().type == Token.TokenType.EQUAL) {
+        if (currentType() == Token.TokenType.EQUAL) {
             advance();
             ASTNode init = parseExpression();
             if (init != null) {
@@ -441,50 +925,44 @@ public class Parser {
         }
 
         // Gestion du point-virgule final - AMÉLIORATION
-        if (current().type == Token.TokenType.SEMICOLON) {
+        if (currentType() == Token.TokenType.SEMICOLON) {
             advance();
         } else {
             // Message d'erreur plus précis avec la bonne ligne
             int errorLine = Math.max(typeToken.line, idToken.line);
-            errors.add("Expected ';' after declaration at line " + errorLine + " but found '" + current().value + "'");
+            error(Diagnostic.Code.MISSING_SEMICOLON_DECLARATION, errorLine, tokens.value(position));
             synchronizeToNextStatement();
         }
         
-        //System.out.println("DEBUG: parseDeclaration() ending, next token: " + current().value);
+        //System.out.println("DEBUG: parseDeclaration() ending, next token: " + current().value());
         return declaration;
     }
 
-    // Nouvelle méthode de resynchronisation améliorée
+    // Mode panique : saute jusqu'au début probable de l'instruction suivante (chaque
+    // token n'est sauté qu'une fois : coût linéaire, même sans limite de distance)
     private void synchronizeToNextStatement() {
-        int startPosition = position;
-        
         while (!isAtEnd()) {
-            Token token = current();
+            Token.TokenType type = currentType();
             
             // Tokens qui marquent le début d'une nouvelle instruction
-            if (token.type == Token.TokenType.SEMICOLON ||
-                token.type == Token.TokenType.INT || 
-                token.type == Token.TokenType.DOUBLE ||
-                token.type == Token.TokenType.STRING ||
-                token.type == Token.TokenType.WHILE ||
-                token.type == Token.TokenType.IF ||
-                token.type == Token.TokenType.IDENTIFIER ||
-                token.type == Token.TokenType.RBRACE ||
-                token.type == Token.TokenType.PUBLIC ||
-                token.type == Token.TokenType.PRIVATE) {
+            if (type == Token.TokenType.SEMICOLON ||
+                type == Token.TokenType.INT || 
+                type == Token.TokenType.DOUBLE ||
+                type == Token.TokenType.STRING ||
+                type == Token.TokenType.WHILE ||
+                type == Token.TokenType.IF ||
+                type == Token.TokenType.IDENTIFIER ||
+                type == Token.TokenType.RBRACE ||
+                type == Token.TokenType.PUBLIC ||
+                type == Token.TokenType.PRIVATE) {
                 
                 // Si on trouve un point-virgule, on le consomme
-                if (token.type == Token.TokenType.SEMICOLON) {
+                if (type == Token.TokenType.SEMICOLON) {
                     advance();
                 }
                 return;
             }
             
-            // Limiter la recherche pour éviter de sauter trop loin
-            if (position > startPosition + 10) {
-                return;
-            }
-            
             advance();
         }
     }
@@ -497,106 +975,193 @@ public class Parser {
     private ASTNode parseAssignment() {
         Token idToken = consume(Token.TokenType.IDENTIFIER, "Expected identifier");
         
-        if (current().type == Token.TokenType.EQUAL) {
+        if (currentType() == Token.TokenType.EQUAL) {
             advance();
             ASTNode value = parseExpression();
             
-            ASTNode assignment = new ASTNode("ASSIGNMENT");
-            assignment.line = idToken.line;
-            assignment.value = idToken.value;
+            ASTNode assignment = statement(NodeKind.ASSIGNMENT);
+            assignment.setLine(idToken.line);
+            assignment.value = idToken.value();
+            assignment.symbol = idToken.symbol();
             assignment.addChild(value);
             
-            if (current().type == Token.TokenType.SEMICOLON) {
+            if (currentType() == Token.TokenType.SEMICOLON) {
                 advance();
             } else {
-                errors.add("Expected ';' after assignment at line " + idToken.line);
+                error(Diagnostic.Code.MISSING_SEMICOLON_ASSIGNMENT, idToken.line);
             }
             return assignment;
         }
 
-        if (current().type == Token.TokenType.PLUS_PLUS) {
+        if (currentType() == Token.TokenType.PLUS_PLUS) {
             advance();
-            ASTNode increment = new ASTNode("INCREMENT");
-            increment.value = idToken.value;
-            if (current().type == Token.TokenType.SEMICOLON) {
+            ASTNode increment = statement(NodeKind.INCREMENT);
+            increment.setLine(idToken.line);
+            increment.value = idToken.value();
+            increment.symbol = idToken.symbol();
+            if (currentType() == Token.TokenType.SEMICOLON) {
                 advance();
             } else {
-                errors.add("Expected ';' after increment at line " + idToken.line);
+                error(Diagnostic.Code.MISSING_SEMICOLON_INCREMENT, idToken.line);
             }
             return increment;
         }
 
-        if (current().type == Token.TokenType.MINUS_MINUS) {
+        if (currentType() == Token.TokenType.MINUS_MINUS) {
             advance();
-            ASTNode decrement = new ASTNode("DECREMENT");
-            decrement.value = idToken.value;
-            if (current().type == Token.TokenType.SEMICOLON) {
+            ASTNode decrement = statement(NodeKind.DECREMENT);
+            decrement.setLine(idToken.line);
+            decrement.value = idToken.value();
+            decrement.symbol = idToken.symbol();
+            if (currentType() == Token.TokenType.SEMICOLON) {
                 advance();
             } else {
-                errors.add("Expected ';' after decrement at line " + idToken.line);
+                error(Diagnostic.Code.MISSING_SEMICOLON_DECREMENT, idToken.line);
             }
             return decrement;
         }
 
-        errors.add("Assignement invalide: " + idToken.value + " at line " + idToken.line);
+        error(Diagnostic.Code.INVALID_ASSIGNMENT, idToken.line, idToken.value());
         return null;
     }
 
     private ASTNode parseBlock() {
-        Token lbrace = consume(Token.TokenType.LBRACE, "Expected '{'");
-        ASTNode block = new ASTNode("BLOCK");
-        block.line = lbrace.line;
-
-        while (!isAtEnd() && current().type != Token.TokenType.RBRACE) {
-            ASTNode statement = parseStatement();
-            if (statement != null) {
-                block.addChild(statement);
-            }
-        }
-
-        consume(Token.TokenType.RBRACE, "Expected '}'");
+        int blockLine = tokens.line(position);
+        expect(Token.TokenType.LBRACE, "Expected '{'");
+        ASTNode block = statement(NodeKind.BLOCK);
+        block.setLine(blockLine);
+        block.bodyStart = position;
         return block;
     }
 
     private Token consume(Token.TokenType type, String errorMsg) {
-        if (current().type == type) {
-            Token token = current();
-            advance();
-            return token;
-        }
+        Token token = current();
+        expect(type, errorMsg);
+        return token;
+    }
 
-        Token currentToken = current();
-        errors.add(errorMsg + " mais trouvé '" + currentToken.value + "' à la ligne " + currentToken.line);
+    // Comme consume(), pour les tokens dont seule la présence compte. Un token manquant
+    // est supposé inséré : le token courant n'est pas consommé et reste à la suite
+    private void expect(Token.TokenType type, String errorMsg) {
+        tick();
+        if (currentType() != type) {
+            error(Diagnostic.Code.UNEXPECTED_TOKEN, tokens.line(position), errorMsg, tokens.value(position));
+            return;
+        }
         advance();
-        return currentToken;
+    }
+
+    // Tokens qui terminent une instruction ou en ouvrent/ferment le corps
+    private boolean isStatementBoundary(Token.TokenType type) {
+        return type == Token.TokenType.SEMICOLON || type == Token.TokenType.LBRACE || type == Token.TokenType.RBRACE;
     }
 
     private Token current() {
-        if (position < tokens.size()) {
-            return tokens.get(position);
-        }
-        return tokens.get(tokens.size() - 1);
+        return tokens.get(position);
+    }
+
+    private Token.TokenType currentType() {
+        return stopped ? Token.TokenType.EOF : tokens.type(position);
     }
 
     private void advance() {
+        tick();
         if (!isAtEnd()) {
             position++;
+            // Aucun retour arrière : les tokens déjà consommés peuvent être libérés
+            tokens.release(position);
         }
     }
 
     private boolean isAtEnd() {
-        return position >= tokens.size() || current().type == Token.TokenType.EOF;
+        return currentType() == Token.TokenType.EOF;
+    }
+
+    private void start() {
+        errorBase = diagnostics.size();
+        stopped = false;
+        steps = 0;
+        lastErrorPosition = -1;
+    }
+
+    private void tick() {
+        if (++steps > fuel && !stopped) {
+            int line = tokens.line(position);
+            diagnostics.add(new Diagnostic(Diagnostic.Code.FUEL_EXHAUSTED, position, statementStart, closing, line, fuel));
+            stopped = true;
+        }
+    }
+
+    // Enregistre une erreur sans formater son message ; la dernière permise arrête l'analyse
+    private void error(Diagnostic.Code code, int line, Object... args) {
+        tick();
+        if (stopped || position == lastErrorPosition) {
+            return;
+        }
+        lastErrorPosition = position;
+        diagnostics.add(new Diagnostic(code, position, statementStart, closing, line, args));
+        if (diagnostics.size() - errorBase >= maxErrors) {
+            diagnostics.add(new Diagnostic(Diagnostic.Code.TOO_MANY_ERRORS, position, statementStart, closing, line, maxErrors));
+            stopped = true;
+        }
+    }
+
+    private void fatal(Exception e) {
+        diagnostics.add(new Diagnostic(Diagnostic.Code.FATAL, position, statementStart, closing, 0, e.getMessage()));
+    }
+
+    // Désactive l'affichage des erreurs sur la console (elles restent dans getErrors())
+    public void setEchoErrors(boolean echoErrors) {
+        this.sink = echoErrors ? DiagnosticSink.print(System.out) : null;
+    }
+
+    // Destination des erreurs en fin d'analyse ; null : aucune
+    public void setDiagnosticSink(DiagnosticSink sink) {
+        this.sink = sink;
+    }
+
+    // Nombre maximal d'erreurs par analyse avant arrêt (au moins 1)
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = Math.max(1, maxErrors);
+    }
+
+    // Budget de pas par analyse (parse ou reparse) ; par défaut illimité
+    public void setFuel(long fuel) {
+        this.fuel = Math.max(0, fuel);
+    }
+
+    // Budget proportionnel à la taille de l'entrée, jamais atteint par une analyse normale
+    public void setFuelForTokens(int tokenCount) {
+        setFuel((long) MAX_STEPS_PER_TOKEN * (tokenCount + 1));
+    }
+
+    // Pas effectués par la dernière analyse
+    public long getSteps() {
+        return steps;
     }
 
     private void printErrors() {
-        System.out.println("\n=== ERREURS DÉTECTÉES ===");
-        for (String error : errors) {
-            System.out.println("❌ " + error);
+        if (sink != null) {
+            sink.report(Collections.unmodifiableList(diagnostics));
         }
-        System.out.println("========================\n");
     }
 
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    // Messages formatés à la demande, dans l'ordre des diagnostics
     public List<String> getErrors() {
-        return errors;
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return diagnostics.get(index).message();
+            }
+
+            @Override
+            public int size() {
+                return diagnostics.size();
+            }
+        };
     }
 }
\ No newline at end of file